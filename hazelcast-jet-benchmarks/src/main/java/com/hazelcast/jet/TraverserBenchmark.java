@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.Traversers.traverseArray;
+
+/**
+ * Measures the per-item overhead of {@link Traverser} chains built from
+ * the default {@code map}, {@code filter} and {@code flatMap}
+ * transformations, as used by the processors in the core library.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TraverserBenchmark {
+
+    private static final int ITEM_COUNT = 1024;
+    private static final long SEED = 42;
+
+    private final Integer[] items = new Integer[ITEM_COUNT];
+    private final String[] words = {"a", "b", "c"};
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items[i] = random.nextInt();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void map(Blackhole bh) {
+        drain(traverseArray(items).map(i -> i + 1), bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void mapFilter(Blackhole bh) {
+        drain(traverseArray(items).map(i -> i + 1).filter(i -> (i & 1) == 0), bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void mapFilterFlatMap(Blackhole bh) {
+        drain(traverseArray(items)
+                .map(i -> i + 1)
+                .filter(i -> (i & 1) == 0)
+                .flatMap(i -> traverseArray(words)), bh);
+    }
+
+    private static void drain(Traverser<?> traverser, Blackhole bh) {
+        for (Object item; (item = traverser.next()) != null; ) {
+            bh.consume(item);
+        }
+    }
+}
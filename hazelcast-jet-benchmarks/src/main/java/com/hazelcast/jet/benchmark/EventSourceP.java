@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.benchmark;
+
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.nio.Address;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static java.lang.Math.floorMod;
+
+/**
+ * An infinite source of {@code Map.Entry<Long, Long>} events, each holding
+ * a key and, as the event timestamp, the wall-clock time at which it was
+ * scheduled to be created. Events are emitted at a fixed rate which is
+ * spread evenly over all the processors of the vertex. When the processor
+ * falls behind the schedule, it catches up without moving the timestamps,
+ * so the time the events spent waiting to be emitted shows up in the
+ * event-time lag instead of being hidden (coordinated omission). The key of an event is a hash of the
+ * processor's index and the event's sequence number, so every run sees
+ * the same keys in the same order.
+ * <p>
+ * The processor saves its sequence number to the snapshot and, when
+ * restored, continues where the snapshot left off.
+ */
+public final class EventSourceP extends AbstractProcessor {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int INDEX_SHIFT = 40;
+
+    private final double eventsPerNano;
+    private final int keyCount;
+
+    private int globalIndex;
+    private long startNanos;
+    private long startMillis;
+    private long sequence;
+    private Entry<Long, Long> pendingEvent;
+
+    EventSourceP(double eventsPerSecond, int keyCount) {
+        this.eventsPerNano = eventsPerSecond / NANOS_PER_SECOND;
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * Returns a meta-supplier of processors which together emit the given
+     * number of events per second, with keys in the range {@code [0,
+     * keyCount)}.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier eventSource(long eventsPerSecond, int keyCount) {
+        return new MetaSupplier(eventsPerSecond, keyCount);
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        globalIndex = context.globalProcessorIndex();
+        startNanos = System.nanoTime();
+        startMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean complete() {
+        long dueSequence = (long) ((System.nanoTime() - startNanos) * eventsPerNano);
+        while (sequence < dueSequence) {
+            if (pendingEvent == null) {
+                pendingEvent = entry(key(globalIndex, sequence, keyCount), scheduledTimeMillis(sequence));
+            }
+            if (!tryEmit(pendingEvent)) {
+                return false;
+            }
+            pendingEvent = null;
+            sequence++;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        return tryEmitToSnapshot(broadcastKey(globalIndex), sequence);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+        if (((BroadcastKey<Integer>) key).key() != globalIndex) {
+            return;
+        }
+        sequence = (Long) value;
+        // continue at the configured rate from the restored position
+        long elapsedNanos = (long) (sequence / eventsPerNano);
+        startNanos = System.nanoTime() - elapsedNanos;
+        startMillis = System.currentTimeMillis() - elapsedNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the wall-clock time at which the event with the given sequence
+     * number is due according to the configured rate.
+     */
+    private long scheduledTimeMillis(long sequence) {
+        return startMillis + (long) (sequence / eventsPerNano) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Derives the key of an event using the finalizer of the SplitMix64
+     * generator.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    static long key(int globalIndex, long sequence, int keyCount) {
+        long z = ((long) globalIndex << INDEX_SHIFT) + sequence;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return floorMod(z, keyCount);
+    }
+
+    private static final class MetaSupplier implements ProcessorMetaSupplier {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long eventsPerSecond;
+        private final int keyCount;
+        private double eventsPerSecondPerProcessor;
+
+        MetaSupplier(long eventsPerSecond, int keyCount) {
+            this.eventsPerSecond = eventsPerSecond;
+            this.keyCount = keyCount;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            eventsPerSecondPerProcessor = (double) eventsPerSecond / context.totalParallelism();
+        }
+
+        @Nonnull @Override
+        public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            double rate = eventsPerSecondPerProcessor;
+            int keys = keyCount;
+            return address -> ProcessorSupplier.of(() -> new EventSourceP(rate, keys));
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.benchmark;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.jet.Jet;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.core.JobMetrics;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.benchmark.Workload.SINK_NAME;
+import static com.hazelcast.jet.benchmark.Workload.SOURCE_NAME;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Starts a local cluster of Jet members in this JVM, runs the streaming
+ * {@link Workload workloads} on it one after another and reports, for each
+ * of them, the throughput, the end-to-end latency percentiles, the time
+ * spent in garbage collection and the duration of the snapshots.
+ * <p>
+ * The benchmark is configured with these system properties:
+ * <ul>
+ *     <li>{@code benchmark.members}: the number of members, 2 by default
+ *     <li>{@code benchmark.workloads}: comma-separated workload ids, all
+ *         workloads by default
+ *     <li>{@code benchmark.warmup.seconds}: the time a job runs before the
+ *         measurement starts, 10 by default
+ *     <li>{@code benchmark.duration.seconds}: the duration of the
+ *         measurement, 30 by default
+ *     <li>{@code benchmark.events.per.second}: the rate of generated events
+ *         over the whole cluster, 1,000,000 by default
+ *     <li>{@code benchmark.keys}: the number of distinct keys, 10,000 by
+ *         default
+ *     <li>{@code benchmark.snapshot.interval.millis}: the snapshot interval
+ *         of the exactly-once workload, 1000 by default
+ *     <li>{@code benchmark.output}: if set, the results are also appended
+ *         to the file with this name
+ * </ul>
+ * Each result is printed as a JSON object on a single line. The throughput
+ * is the number of events the source emitted during the measurement. The
+ * latency is measured with the latency markers received by the sink and
+ * read from the job metrics. The latency count covers the measurement, but
+ * the percentiles and the maximum cover the whole run of the job including
+ * the warmup, and each is the highest value of any member. The event
+ * timestamps are the times at which the events were scheduled, so the
+ * largest watermark lag seen by the sink includes the time the events
+ * waited to be emitted. The snapshot
+ * durations are sampled by polling the job metrics, so a snapshot followed
+ * by another one before the next poll is not included in the maximum and
+ * average. A metric the job didn't report is {@code null}.
+ */
+public final class MacroBenchmark {
+
+    private static final int MEMBER_COUNT = Integer.getInteger("benchmark.members", 2);
+    private static final String WORKLOADS = System.getProperty("benchmark.workloads");
+    private static final long WARMUP_SECONDS = Long.getLong("benchmark.warmup.seconds", 10);
+    private static final long DURATION_SECONDS = Long.getLong("benchmark.duration.seconds", 30);
+    private static final long EVENTS_PER_SECOND = Long.getLong("benchmark.events.per.second", 1_000_000);
+    private static final int KEY_COUNT = Integer.getInteger("benchmark.keys", 10_000);
+    private static final long SNAPSHOT_INTERVAL_MILLIS = Long.getLong("benchmark.snapshot.interval.millis", 1000);
+    private static final String OUTPUT = System.getProperty("benchmark.output");
+
+    private static final String GROUP_NAME = "jet-benchmark";
+    private static final String LOCALHOST = "127.0.0.1";
+    private static final long POLL_INTERVAL_MILLIS = Math.max(1, SNAPSHOT_INTERVAL_MILLIS / 4);
+    private static final String COMPLETED_SNAPSHOTS = "snapshot.completedSnapshots";
+    private static final String LAST_SNAPSHOT_DURATION = "snapshot.lastSnapshotDurationMillis";
+    private static final String WATERMARK_LAG = SINK_NAME + ".inbound0.watermarkLagMillis";
+    private static final String LATENCY_COUNT = SINK_NAME + ".latencyCount";
+
+    private MacroBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark as configured by the system properties.
+     */
+    public static void main(String[] args) throws Exception {
+        List<Workload> workloads = new ArrayList<>();
+        if (WORKLOADS == null) {
+            workloads.addAll(asList(Workload.values()));
+        } else {
+            for (String id : WORKLOADS.split(",")) {
+                workloads.add(Workload.byId(id.trim()));
+            }
+        }
+        try {
+            List<JetInstance> members = new ArrayList<>();
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                members.add(Jet.newJetInstance(memberConfig()));
+            }
+            for (Workload workload : workloads) {
+                report(run(members, workload));
+            }
+        } finally {
+            Jet.shutdownAll();
+        }
+    }
+
+    private static Map<String, Object> run(List<JetInstance> members, Workload workload)
+            throws InterruptedException {
+        JetInstance jet = members.get(0);
+        workload.prepare(jet, KEY_COUNT);
+        Job job = jet.newJob(workload.pipeline(EVENTS_PER_SECOND, KEY_COUNT),
+                workload.jobConfig(SNAPSHOT_INTERVAL_MILLIS));
+        try {
+            TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+            JobMetrics metricsBefore = job.getMetrics();
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTimeMillis();
+            long start = System.nanoTime();
+
+            MetricsTracker tracker = new MetricsTracker(metricsBefore);
+            long end = start + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            for (long now; (now = System.nanoTime()) < end; ) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(end - now, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS)));
+                tracker.update(job.getMetrics());
+            }
+            JobMetrics metrics = tracker.lastMetrics;
+            long elapsedNanos = System.nanoTime() - start;
+            long emitted = valueOf(metrics, SOURCE_NAME + ".tasklet.itemsOut")
+                    - valueOf(metricsBefore, SOURCE_NAME + ".tasklet.itemsOut");
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("workload", workload.id());
+            result.put("members", MEMBER_COUNT);
+            result.put("targetEventsPerSecond", EVENTS_PER_SECOND);
+            result.put("keys", KEY_COUNT);
+            result.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            result.put("eventsPerSecond", emitted * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+            result.put("latencyCount", valueOf(metrics, LATENCY_COUNT) - valueOf(metricsBefore, LATENCY_COUNT));
+            result.put("latencyP50Micros", metrics.get(SINK_NAME + ".latencyP50Micros"));
+            result.put("latencyP99Micros", metrics.get(SINK_NAME + ".latencyP99Micros"));
+            result.put("latencyP999Micros", metrics.get(SINK_NAME + ".latencyP999Micros"));
+            result.put("latencyMaxMicros", metrics.get(SINK_NAME + ".latencyMaxMicros"));
+            result.put("maxWatermarkLagMillis", tracker.maxWatermarkLagMillis);
+            result.put("gcCount", gcCount() - gcCountBefore);
+            result.put("gcTimeMillis", gcTimeMillis() - gcTimeBefore);
+            result.put("completedSnapshots", valueOf(metrics, COMPLETED_SNAPSHOTS)
+                    - valueOf(metricsBefore, COMPLETED_SNAPSHOTS));
+            result.put("maxSnapshotDurationMillis", tracker.maxSnapshotMillis);
+            result.put("avgSnapshotDurationMillis", tracker.sampledSnapshots > 0
+                    ? tracker.totalSnapshotMillis / tracker.sampledSnapshots : null);
+            result.put("lastSnapshotBytes", metrics.get("snapshot.lastSnapshotBytes"));
+            return result;
+        } finally {
+            job.cancel();
+            try {
+                job.join();
+            } catch (CancellationException ignored) {
+            }
+        }
+    }
+
+    private static JetConfig memberConfig() {
+        JetConfig config = new JetConfig();
+        Config hzConfig = config.getHazelcastConfig();
+        hzConfig.getGroupConfig().setName(GROUP_NAME);
+        JoinConfig joinConfig = hzConfig.getNetworkConfig().getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getTcpIpConfig().setEnabled(true).addMember(LOCALHOST);
+        return config;
+    }
+
+    private static long valueOf(JobMetrics metrics, String name) {
+        Long value = metrics.get(name);
+        return value != null ? value : 0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static void report(Map<String, Object> result) throws IOException {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, Object> e : result.entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append('"').append(e.getKey()).append("\":");
+            Object value = e.getValue();
+            if (value instanceof String) {
+                sb.append('"').append(value).append('"');
+            } else {
+                sb.append(value);
+            }
+        }
+        String line = sb.append('}').toString();
+        System.out.println(line);
+        if (OUTPUT != null) {
+            Files.write(Paths.get(OUTPUT), singletonList(line), UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Samples the metrics that only hold their current value while the job
+     * is measured: the duration of the last snapshot and the watermark lag.
+     */
+    private static final class MetricsTracker {
+        JobMetrics lastMetrics;
+        long lastCompletedSnapshots;
+        int sampledSnapshots;
+        long totalSnapshotMillis;
+        Long maxSnapshotMillis;
+        Long maxWatermarkLagMillis;
+
+        MetricsTracker(JobMetrics initial) {
+            lastMetrics = initial;
+            lastCompletedSnapshots = valueOf(initial, COMPLETED_SNAPSHOTS);
+        }
+
+        void update(JobMetrics metrics) {
+            lastMetrics = metrics;
+            long completedSnapshots = valueOf(metrics, COMPLETED_SNAPSHOTS);
+            if (completedSnapshots > lastCompletedSnapshots) {
+                long duration = valueOf(metrics, LAST_SNAPSHOT_DURATION);
+                lastCompletedSnapshots = completedSnapshots;
+                sampledSnapshots++;
+                totalSnapshotMillis += duration;
+                maxSnapshotMillis = maxSnapshotMillis == null ? duration : Math.max(maxSnapshotMillis, duration);
+            }
+            Long watermarkLag = metrics.get(WATERMARK_LAG);
+            if (watermarkLag != null && watermarkLag >= 0) {
+                maxWatermarkLagMillis = maxWatermarkLagMillis == null
+                        ? watermarkLag : Math.max(maxWatermarkLagMillis, watermarkLag);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.benchmark;
+
+import com.hazelcast.jet.ComputeStage;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.JoinClause;
+import com.hazelcast.jet.Pipeline;
+import com.hazelcast.jet.Sink;
+import com.hazelcast.jet.Sinks;
+import com.hazelcast.jet.Source;
+import com.hazelcast.jet.Sources;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.WindowDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Traversers.traverseArray;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.benchmark.EventSourceP.eventSource;
+import static com.hazelcast.jet.core.WatermarkEmissionPolicy.emitByFrame;
+import static com.hazelcast.jet.core.WatermarkPolicies.withFixedLag;
+import static com.hazelcast.jet.core.WindowDefinition.slidingWindowDef;
+import static com.hazelcast.jet.core.WindowDefinition.tumblingWindowDef;
+import static com.hazelcast.jet.core.processor.Processors.noopP;
+
+/**
+ * The streaming workloads run by {@link MacroBenchmark}. Each of them reads
+ * the events generated by {@link EventSourceP} from the {@value
+ * #SOURCE_NAME} vertex and drains its results to the {@value #SINK_NAME}
+ * vertex, which discards them.
+ */
+enum Workload {
+
+    /**
+     * Maps each event to a line of text, splits it into words and counts
+     * the words in one-second tumbling windows.
+     */
+    WORD_COUNT("wordCount") {
+        @Override
+        Pipeline pipeline(long eventsPerSecond, int keyCount) {
+            WindowDefinition windowDef = tumblingWindowDef(WORD_COUNT_WINDOW_MILLIS);
+            Pipeline p = Pipeline.create();
+            events(p, eventsPerSecond, keyCount, windowDef)
+                    .map(e -> entry(line(e.getKey()), e.getValue()))
+                    .flatMap(e -> traverseArray(e.getKey().split(" ")).map(word -> entry(word, e.getValue())))
+                    .window(windowDef, Entry::getKey, Entry::getValue, counting())
+                    .drainTo(discardingSink());
+            return p;
+        }
+    },
+
+    /**
+     * Counts the events per key in a sliding window.
+     */
+    WINDOWED_AGGREGATION("windowedAggregation") {
+        @Override
+        Pipeline pipeline(long eventsPerSecond, int keyCount) {
+            return windowedCount(eventsPerSecond, keyCount, slidingWindowDef(WINDOW_LENGTH_MILLIS, SLIDE_BY_MILLIS));
+        }
+    },
+
+    /**
+     * Enriches each event with the value stored under its key in an {@code
+     * IMap}.
+     */
+    HASH_JOIN("hashJoin") {
+        @Override
+        void prepare(JetInstance jet, int keyCount) {
+            Map<Long, String> batch = new HashMap<>();
+            for (long key = 0; key < keyCount; key++) {
+                batch.put(key, "value-" + key);
+                if (batch.size() == ENRICHMENT_BATCH_SIZE) {
+                    jet.getMap(ENRICHMENT_MAP_NAME).putAll(batch);
+                    batch.clear();
+                }
+            }
+            jet.getMap(ENRICHMENT_MAP_NAME).putAll(batch);
+        }
+
+        @Override
+        Pipeline pipeline(long eventsPerSecond, int keyCount) {
+            Pipeline p = Pipeline.create();
+            ComputeStage<Entry<Long, String>> enrichment = p.drawFrom(Sources.readMap(ENRICHMENT_MAP_NAME));
+            JoinClause<Long, Entry<Long, Long>, Entry<Long, String>, String> joinClause =
+                    JoinClause.joinMapEntries(Entry::getKey);
+            events(p, eventsPerSecond, keyCount, null)
+                    .hashJoin(enrichment, joinClause)
+                    .drainTo(discardingSink());
+            return p;
+        }
+    },
+
+    /**
+     * Counts the events per key in a sliding window with a short slide, so
+     * that the processors hold a large state, and saves it to exactly-once
+     * snapshots.
+     */
+    EXACTLY_ONCE_SNAPSHOT("exactlyOnceSnapshot") {
+        @Override
+        Pipeline pipeline(long eventsPerSecond, int keyCount) {
+            return windowedCount(eventsPerSecond, keyCount,
+                    slidingWindowDef(WINDOW_LENGTH_MILLIS, SNAPSHOT_SLIDE_BY_MILLIS));
+        }
+
+        @Override
+        JobConfig jobConfig(long snapshotIntervalMillis) {
+            return super.jobConfig(snapshotIntervalMillis)
+                        .setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE)
+                        .setSnapshotIntervalMillis(snapshotIntervalMillis);
+        }
+    };
+
+    static final String SOURCE_NAME = "events";
+    static final String SINK_NAME = "sink";
+
+    private static final long LATENCY_TRACKING_INTERVAL_MILLIS = 10;
+    private static final long WATERMARK_LAG_MILLIS = 100;
+    private static final long WORD_COUNT_WINDOW_MILLIS = 1000;
+    private static final long WINDOW_LENGTH_MILLIS = 10_000;
+    private static final long SLIDE_BY_MILLIS = 1000;
+    private static final long SNAPSHOT_SLIDE_BY_MILLIS = 100;
+    private static final String ENRICHMENT_MAP_NAME = "enrichment";
+    private static final int ENRICHMENT_BATCH_SIZE = 10_000;
+    private static final int VOCABULARY_SIZE = 1000;
+    private static final int WORDS_PER_LINE = 8;
+    private static final int WORD_STRIDE = 7919;
+
+    private final String id;
+
+    Workload(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the name of the workload used in the configuration and in the
+     * reported results.
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * Returns the workload with the given {@link #id() id}.
+     */
+    static Workload byId(String id) {
+        for (Workload workload : values()) {
+            if (workload.id.equals(id)) {
+                return workload;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload: " + id);
+    }
+
+    /**
+     * Creates the data the workload needs before the job is submitted.
+     */
+    void prepare(JetInstance jet, int keyCount) {
+    }
+
+    abstract Pipeline pipeline(long eventsPerSecond, int keyCount);
+
+    JobConfig jobConfig(long snapshotIntervalMillis) {
+        return new JobConfig().setLatencyTrackingIntervalMillis(LATENCY_TRACKING_INTERVAL_MILLIS);
+    }
+
+    private static Pipeline windowedCount(long eventsPerSecond, int keyCount, WindowDefinition windowDef) {
+        Pipeline p = Pipeline.create();
+        events(p, eventsPerSecond, keyCount, windowDef)
+                .window(windowDef, Entry::getKey, Entry::getValue, counting())
+                .drainTo(discardingSink());
+        return p;
+    }
+
+    /**
+     * Draws the generated events into the pipeline. If a window definition
+     * is given, watermarks are added to the stream for it.
+     */
+    private static ComputeStage<Entry<Long, Long>> events(
+            Pipeline p, long eventsPerSecond, int keyCount, WindowDefinition windowDef
+    ) {
+        Source<Entry<Long, Long>> source = Sources.fromProcessor(SOURCE_NAME, eventSource(eventsPerSecond, keyCount));
+        ComputeStage<Entry<Long, Long>> events = p.drawFrom(source);
+        return windowDef == null
+                ? events
+                : events.addTimestamps(Entry::getValue, withFixedLag(WATERMARK_LAG_MILLIS), emitByFrame(windowDef));
+    }
+
+    private static <T> Sink<T> discardingSink() {
+        return Sinks.fromProcessor(SINK_NAME, ProcessorMetaSupplier.of(noopP()));
+    }
+
+    private static String line(long key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < WORDS_PER_LINE; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append('w').append((key + (long) i * WORD_STRIDE) % VOCABULARY_SIZE);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+
+/**
+ * Measures {@link ConcurrentInboundEdgeStream#drainTo} per item for a
+ * stream with several upstream queues, each of which ends its batch with a
+ * watermark so that the watermark coalescing is exercised as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InboundEdgeStreamBenchmark {
+
+    private static final int ITEM_COUNT = 1024;
+    private static final long SEED = 42;
+    private static final int QUEUE_CAPACITY = 1024;
+
+    @Param({"1", "4", "16"})
+    public int queueCount;
+
+    private Object[] items;
+    private OneToOneBatchingQueue<Object>[] queues;
+    private ConcurrentInboundEdgeStream stream;
+    private long wmTime;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(SEED);
+        items = new Object[ITEM_COUNT / queueCount];
+        Arrays.setAll(items, i -> random.nextInt());
+        queues = new OneToOneBatchingQueue[queueCount];
+        Arrays.setAll(queues, i -> new OneToOneBatchingQueue<>(QUEUE_CAPACITY));
+        ConcurrentConveyor<Object> conveyor = ConcurrentConveyor.concurrentConveyor(DONE_ITEM, queues);
+        stream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, -1, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void drainTo(Blackhole bh) {
+        Watermark wm = new Watermark(++wmTime);
+        for (OneToOneBatchingQueue<Object> queue : queues) {
+            queue.offerAll(items, items.length);
+            queue.offer(wm);
+        }
+        while (!allEmpty()) {
+            stream.drainTo(bh::consume);
+        }
+    }
+
+    private boolean allEmpty() {
+        for (OneToOneBatchingQueue<Object> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueue;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.jet.impl.util.ProgressTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+
+/**
+ * Measures the cost of {@link OutboxImpl#offer(Object)} per item, both with
+ * collectors which accept everything and with the {@link ConveyorCollector}
+ * staging the items into real queues.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutboxBenchmark {
+
+    static final int ITEM_COUNT = 1024;
+    private static final long SEED = 42;
+    private static final int QUEUE_CAPACITY = 1024;
+
+    @Param({"1", "4"})
+    public int edgeCount;
+
+    @Param({"64", "1024"})
+    public int batchSize;
+
+    private Object[] items;
+    private OutboxImpl acceptingOutbox;
+    private OutboxImpl conveyorOutbox;
+    private OneToOneBatchingQueue<Object>[] queues;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(SEED);
+        items = new Object[ITEM_COUNT];
+        Arrays.setAll(items, i -> random.nextInt());
+
+        OutboundCollector[] accepting = new OutboundCollector[edgeCount];
+        Arrays.fill(accepting, (OutboundCollector) item -> ProgressState.DONE);
+        acceptingOutbox = new OutboxImpl(accepting, false, new ProgressTracker(), null, batchSize);
+
+        queues = new OneToOneBatchingQueue[edgeCount];
+        OutboundCollector[] conveyorCollectors = new OutboundCollector[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            queues[i] = new OneToOneBatchingQueue<>(QUEUE_CAPACITY);
+            ConcurrentConveyor<Object> conveyor = ConcurrentConveyor.concurrentConveyor(DONE_ITEM, queues[i]);
+            conveyorCollectors[i] = new ConveyorCollector(conveyor, 0, new int[0]);
+        }
+        conveyorOutbox = new OutboxImpl(conveyorCollectors, false, new ProgressTracker(), null, batchSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void offerToAcceptingCollectors(Blackhole bh) {
+        offerAll(acceptingOutbox, bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void offerToConveyors(Blackhole bh) {
+        offerAll(conveyorOutbox, bh);
+        while (!conveyorOutbox.flush()) {
+            drainQueues(bh);
+        }
+        drainQueues(bh);
+    }
+
+    private void offerAll(OutboxImpl outbox, Blackhole bh) {
+        outbox.resetBatch();
+        for (Object item : items) {
+            while (!outbox.offer(item)) {
+                if (outbox.isBatchExhausted()) {
+                    outbox.resetBatch();
+                } else {
+                    drainQueues(bh);
+                }
+            }
+        }
+    }
+
+    private void drainQueues(Blackhole bh) {
+        for (OneToOneBatchingQueue<Object> queue : queues) {
+            queue.drain(item -> {
+                bh.consume(item);
+                return true;
+            });
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.core.Partitioner;
+import com.hazelcast.jet.impl.util.ProgressState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the routing of items by {@link OutboundCollector.Partitioned}
+ * to the collector owning the item's partition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PartitionedCollectorBenchmark {
+
+    private static final int ITEM_COUNT = 1024;
+    private static final int PARTITION_COUNT = 271;
+    private static final long SEED = 42;
+    private static final int KEY_LENGTH = 8;
+
+    @Param({"2", "8"})
+    public int collectorCount;
+
+    @Param({"integer", "string"})
+    public String keyType;
+
+    private Object[] items;
+    private OutboundCollector collector;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        items = new Object[ITEM_COUNT];
+        Arrays.setAll(items, i -> "string".equals(keyType) ? randomString(random) : random.nextInt());
+
+        OutboundCollector[] collectors = new OutboundCollector[collectorCount];
+        Arrays.setAll(collectors, i -> new BlackholeCollector(IntStream.range(0, PARTITION_COUNT)
+                                                                       .filter(p -> p % collectorCount == i)
+                                                                       .toArray()));
+        collector = new OutboundCollector.Partitioned(collectors, Partitioner.HASH_CODE, PARTITION_COUNT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void offer(Blackhole bh) {
+        blackhole = bh;
+        for (Object item : items) {
+            collector.offer(item);
+        }
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[KEY_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt('z' - 'a'));
+        }
+        return new String(chars);
+    }
+
+    private final class BlackholeCollector implements OutboundCollector {
+        private final int[] partitions;
+
+        BlackholeCollector(int[] partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        public ProgressState offer(Object item) {
+            blackhole.consume(item);
+            return ProgressState.DONE;
+        }
+
+        @Override
+        public int[] getPartitions() {
+            return partitions;
+        }
+    }
+}
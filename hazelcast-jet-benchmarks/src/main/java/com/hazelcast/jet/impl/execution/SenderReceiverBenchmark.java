@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization of a packet of items by {@link SenderTasklet}
+ * and its deserialization and dispatch by {@link ReceiverTasklet}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SenderReceiverBenchmark {
+
+    private static final int ITEM_COUNT = 256;
+    private static final int PARTITION_COUNT = 271;
+    private static final long SEED = 42;
+    private static final int STRING_LENGTH = 32;
+    private static final int RWIN_MULTIPLIER = 3;
+    private static final int FLOW_CONTROL_PERIOD_MS = 100;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    @Param({"integer", "string"})
+    public String itemType;
+
+    private InternalSerializationService serializationService;
+    private BufferObjectDataOutput output;
+    private ObjectWithPartitionId[] items;
+    private final ArrayDeque<Object> queue = new ArrayDeque<>(ITEM_COUNT);
+    private byte[] packet;
+    private ReceiverTasklet receiver;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup() throws IOException {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        output = serializationService.createObjectDataOutput(BUFFER_SIZE);
+        Random random = new Random(SEED);
+        items = new ObjectWithPartitionId[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Object item = "string".equals(itemType) ? randomString(random) : random.nextInt();
+            items[i] = new ObjectWithPartitionId(item, random.nextInt(PARTITION_COUNT));
+        }
+        packet = writePacket();
+        // the receiver is reused, it holds no state between packets besides the flow-control sequence
+        receiver = new ReceiverTasklet(this::consume, RWIN_MULTIPLIER, FLOW_CONTROL_PERIOD_MS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public byte[] serialize() throws IOException {
+        return writePacket();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public ProgressState deserialize(Blackhole bh) {
+        blackhole = bh;
+        receiver.receiveStreamPacket(serializationService.createObjectDataInput(packet));
+        return receiver.call();
+    }
+
+    private ProgressState consume(Object item) {
+        blackhole.consume(item);
+        return ProgressState.DONE;
+    }
+
+    // the packet without the header, which SenderTasklet writes once
+    private byte[] writePacket() throws IOException {
+        Collections.addAll(queue, items);
+        SenderTasklet.writeItems(output, 0, queue, NO_LIMIT, 0, NO_LIMIT);
+        return output.toByteArray();
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[STRING_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt('z' - 'a'));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.TimestampKind.EVENT;
+import static com.hazelcast.jet.core.WindowDefinition.slidingWindowDef;
+import static com.hazelcast.jet.core.processor.Processors.aggregateToSessionWindowP;
+import static com.hazelcast.jet.core.processor.Processors.aggregateToSlidingWindowP;
+
+/**
+ * Measures the accumulation of events into {@link SlidingWindowP} and
+ * {@link SessionWindowP}. Each invocation feeds a batch of events with
+ * increasing timestamps, followed by a watermark which emits the closed
+ * windows and evicts their state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WindowBenchmark {
+
+    private static final int ITEM_COUNT = 1024;
+    private static final long SEED = 42;
+    private static final long WINDOW_SIZE = 1000;
+    private static final long SLIDE_BY = 100;
+    private static final long SESSION_TIMEOUT = 50;
+    private static final int OUTBOX_CAPACITY = 1024;
+
+    @Param({"sliding", "session"})
+    public String windowType;
+
+    @Param({"16", "4096"})
+    public int keyCount;
+
+    private final TestInbox inbox = new TestInbox();
+    private final TestOutbox outbox = new TestOutbox(OUTBOX_CAPACITY);
+    private Processor processor;
+    private Random random;
+    private long timestamp;
+
+    @Setup
+    public void setup() {
+        random = new Random(SEED);
+        processor = "sliding".equals(windowType)
+                ? aggregateToSlidingWindowP(Entry<Integer, Long>::getKey, Entry<Integer, Long>::getValue, EVENT,
+                        slidingWindowDef(WINDOW_SIZE, SLIDE_BY), counting()).get()
+                : aggregateToSessionWindowP(SESSION_TIMEOUT, Entry<Integer, Long>::getValue,
+                        Entry<Integer, Long>::getKey, counting()).get();
+        processor.init(outbox, new TestProcessorContext());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void accumulate(Blackhole bh) {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            inbox.add(entry(random.nextInt(keyCount), timestamp++));
+        }
+        inbox.add(new Watermark(timestamp - SLIDE_BY));
+        Queue<Object> output = outbox.queueWithOrdinal(0);
+        while (!inbox.isEmpty()) {
+            processor.process(0, inbox);
+            for (Object item; (item = output.poll()) != null; ) {
+                bh.consume(item);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.jet.Jet;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.spi.NodeEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Measures the throughput of {@link AsyncMapWriter}, which backs the
+ * {@code IMap} sinks, against a single local member. Each invocation
+ * buffers a batch of entries and flushes it with one {@code putAll}
+ * operation per partition owner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncMapWriterBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final long SEED = 42;
+    private static final String MAP_NAME = "benchmark";
+    private static final String GROUP_NAME = "async-map-writer-benchmark";
+
+    @Param({"16", "65536"})
+    public int keyCount;
+
+    private JetInstance jet;
+    private AsyncMapWriter writer;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        // an isolated member, so that it doesn't join other members on the network
+        JetConfig config = new JetConfig();
+        Config hzConfig = config.getHazelcastConfig();
+        hzConfig.getGroupConfig().setName(GROUP_NAME);
+        hzConfig.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        jet = Jet.newJetInstance(config);
+        NodeEngine nodeEngine = ((HazelcastInstanceImpl) jet.getHazelcastInstance()).node.nodeEngine;
+        writer = new AsyncMapWriter(nodeEngine);
+        writer.setMapName(MAP_NAME);
+        random = new Random(SEED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jet.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void putAndFlush() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            writer.put(random.nextInt(keyCount), i);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        while (!writer.tryFlushAsync(future)) {
+            parkNanos(1);
+        }
+        future.join();
+    }
+}
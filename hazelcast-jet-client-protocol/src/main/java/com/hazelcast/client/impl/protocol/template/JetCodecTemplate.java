@@ -38,4 +38,7 @@ public interface JetCodecTemplate {
 
     @Request(id = 5, retryable = false, response = ResponseMessageConst.DATA)
     void joinSubmittedJob(long jobId);
+
+    @Request(id = 6, retryable = false, response = ResponseMessageConst.DATA)
+    Object getJobMetrics(long jobId);
 }
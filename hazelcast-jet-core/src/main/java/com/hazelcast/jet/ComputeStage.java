@@ -20,9 +20,15 @@ import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.aggregate.AggregateOperation2;
 import com.hazelcast.jet.aggregate.AggregateOperation3;
+import com.hazelcast.jet.core.Session;
+import com.hazelcast.jet.core.TimestampedEntry;
+import com.hazelcast.jet.core.WatermarkEmissionPolicy;
+import com.hazelcast.jet.core.WatermarkPolicy;
+import com.hazelcast.jet.core.WindowDefinition;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.function.DistributedToLongFunction;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 
@@ -37,6 +43,9 @@ import java.util.Map.Entry;
  */
 public interface ComputeStage<E> extends Stage {
 
+    @Override
+    ComputeStage<E> setLocalParallelism(int localParallelism);
+
     /**
      * Attaches to this stage a mapping stage, one which applies the supplied
      * function to each input item independently and emits the function's
@@ -84,6 +93,75 @@ public interface ComputeStage<E> extends Stage {
             DistributedFunction<? super E, ? extends K> keyFn, AggregateOperation1<? super E, A, R> aggrOp
     );
 
+    /**
+     * Attaches to this stage a stage that inserts {@link
+     * com.hazelcast.jet.core.Watermark watermarks} into the stream, passing
+     * the items through unchanged. The watermark value is determined by the
+     * supplied watermark policy, which observes the timestamps extracted by
+     * the given function. An event-time {@link #window window} stage needs
+     * such a stage upstream of it.
+     *
+     * @param timestampFn the function that extracts the event timestamp from an item
+     * @param wmPolicyFn supplier of the watermark policy, called once per processor
+     * @param wmEmitPolicy the policy that decides which watermarks to emit
+     */
+    ComputeStage<E> addTimestamps(
+            DistributedToLongFunction<? super E> timestampFn,
+            DistributedSupplier<WatermarkPolicy> wmPolicyFn,
+            WatermarkEmissionPolicy wmEmitPolicy
+    );
+
+    /**
+     * Attaches to this stage a sliding window aggregation stage, one which
+     * groups the items by the grouping key and by the positions of the
+     * sliding window their event timestamps fall into. It applies the
+     * provided aggregate operation to each group and emits the result,
+     * labeled with the window's end timestamp, once the watermark passes
+     * the end of the window. A tumbling window is a special case of the
+     * sliding window.
+     * <p>
+     * The stage is executed in two steps: the items are first accumulated
+     * by key and frame locally on each member and only the partial results
+     * of frames are sent over the network to be combined into windows.
+     *
+     * @param windowDef the definition of the sliding window
+     * @param keyFn the function that extracts the grouping key from an item
+     * @param timestampFn the function that extracts the event timestamp from an item
+     * @param aggrOp the aggregate operation to perform
+     * @param <K> the type of key
+     * @param <A> the type of the accumulator
+     * @param <R> the type of the aggregation result
+     */
+    <K, A, R> ComputeStage<TimestampedEntry<K, R>> window(
+            WindowDefinition windowDef,
+            DistributedFunction<? super E, K> keyFn,
+            DistributedToLongFunction<? super E> timestampFn,
+            AggregateOperation1<? super E, A, R> aggrOp
+    );
+
+    /**
+     * Attaches to this stage a session window aggregation stage, one which
+     * groups the items by the grouping key into session windows: a window
+     * is closed once no item under its key arrives for {@code
+     * sessionTimeout} in terms of event time. It applies the provided
+     * aggregate operation to the items in each session and emits the result
+     * once the watermark passes the end of the session.
+     *
+     * @param sessionTimeout the maximum gap between two items in the same session
+     * @param keyFn the function that extracts the grouping key from an item
+     * @param timestampFn the function that extracts the event timestamp from an item
+     * @param aggrOp the aggregate operation to perform
+     * @param <K> the type of key
+     * @param <A> the type of the accumulator
+     * @param <R> the type of the aggregation result
+     */
+    <K, A, R> ComputeStage<Session<K, R>> sessionWindow(
+            long sessionTimeout,
+            DistributedFunction<? super E, K> keyFn,
+            DistributedToLongFunction<? super E> timestampFn,
+            AggregateOperation1<? super E, A, R> aggrOp
+    );
+
     /**
      * Attaches to both this and the supplied stage a hash-joining stage and
      * returns it. This stage plays the role of the <em>primary stage</em> in
@@ -17,6 +17,7 @@
 package com.hazelcast.jet;
 
 import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.impl.util.Util;
 
@@ -51,6 +52,14 @@ public interface Job {
     @Nonnull
     JobStatus getJobStatus();
 
+    /**
+     * Returns the current runtime metrics of this job, aggregated by the job
+     * coordinator over all members. The result is empty if the job is not
+     * running.
+     */
+    @Nonnull
+    JobMetrics getMetrics();
+
     /**
      * Attempts to cancel execution of this job.
      *
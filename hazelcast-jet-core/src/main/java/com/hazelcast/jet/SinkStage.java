@@ -21,4 +21,7 @@ package com.hazelcast.jet;
  * to it. Corresponds to a data sink.
  */
 public interface SinkStage extends Stage {
+
+    @Override
+    SinkStage setLocalParallelism(int localParallelism);
 }
@@ -152,6 +152,10 @@ public final class Sinks {
      * function and encodes the string using the supplied {@code Charset}. It
      * follows each item with a newline character.
      * <p>
+     * The processors are cooperative: they write to the socket in
+     * non-blocking mode and stop accepting items while the socket can't
+     * take more data.
+     * <p>
      * No state is saved to snapshot for this sink. After the job is restarted,
      * the items will likely be duplicated, providing an <i>at least once</i>
      * guarantee.
@@ -223,6 +227,59 @@ public final class Sinks {
                 SinkProcessors.writeFileP(directoryName, toStringFn, charset, append));
     }
 
+    /**
+     * Returns a sink that writes the items it receives to a sequence of
+     * part files in a directory. The files written by a processor are named
+     * {@code <globalIndex>-<partNumber>}; a new part is started when the
+     * current one reaches {@code maxFileSize} bytes (before compression) or
+     * becomes older than {@code rollIntervalMillis}. The items are converted
+     * to strings using {@code toStringFn}, encoded using {@code charset} into
+     * a large buffer and followed by a platform-specific line separator. The
+     * buffer is written to the file only when it is full, when the part is
+     * closed or when a snapshot is taken. If {@code compress} is {@code
+     * true}, the parts are compressed with GZIP and have the {@code .gz}
+     * extension.
+     * <p>
+     * A part is written to a hidden file with the {@code .inprogress} suffix
+     * and renamed to its final name when committed. Without snapshotting, a
+     * part is committed as soon as it's closed. If snapshotting is enabled,
+     * the parts closed before a snapshot are committed after the snapshot
+     * completes, which the processor learns when the next snapshot starts,
+     * when the job completes or when the job is restarted from the snapshot.
+     * The part being written is not closed by a snapshot: its data is forced
+     * to the disk and after a restart the part is truncated to the length it
+     * had at the snapshot and written on. A compressed part then continues
+     * with a new GZIP member; concatenated members form a valid GZIP file.
+     * Other uncommitted parts are deleted after a restart. If a snapshot
+     * fails and the job later restarts from an older one, the parts
+     * committed in between can be written again.
+     *
+     * @param directoryName directory to create the files in. Will be created
+     *                      if it doesn't exist. Must be the same on all members.
+     * @param toStringFn a function to convert items to String (a formatter)
+     * @param charset charset used to encode the file output
+     * @param maxFileSize the size of a part file in bytes after which a new
+     *                    part is started. Use {@code Long.MAX_VALUE} to
+     *                    disable size-based rolling.
+     * @param rollIntervalMillis the age of a part file after which a new part
+     *                           is started. Use {@code Long.MAX_VALUE} to
+     *                           disable time-based rolling.
+     * @param compress whether to compress the parts with GZIP
+     */
+    @Nonnull
+    public static <E> Sink<E> writeRollingFile(
+            @Nonnull String directoryName,
+            @Nonnull DistributedFunction<E, String> toStringFn,
+            @Nonnull Charset charset,
+            long maxFileSize,
+            long rollIntervalMillis,
+            boolean compress
+    ) {
+        return new SinkImpl<>("writeRollingFile(" + directoryName + ')',
+                SinkProcessors.writeRollingFileP(directoryName, toStringFn, charset, maxFileSize,
+                        rollIntervalMillis, compress));
+    }
+
     /**
      * Convenience for {@link #writeFile(String, DistributedFunction, Charset,
      * boolean)} with the UTF-8 charset and with overwriting of existing files.
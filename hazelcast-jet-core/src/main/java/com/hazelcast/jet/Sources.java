@@ -25,6 +25,7 @@ import com.hazelcast.jet.core.processor.SourceProcessors;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.impl.MapSourceImpl;
 import com.hazelcast.jet.impl.SourceImpl;
 import com.hazelcast.jet.impl.connector.ReadFilesP;
 import com.hazelcast.jet.impl.connector.ReadIListP;
@@ -37,7 +38,9 @@ import com.hazelcast.query.Predicate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -105,9 +108,16 @@ public final class Sources {
      * If the {@code IMap} is modified while being read, or if there is a
      * cluster topology change (triggering data migration), the source may
      * miss and/or duplicate some entries.
+     * <p>
+     * When used in a {@code Pipeline}, the {@code filter} stages directly
+     * following this source are applied by the source itself, as if passed
+     * as the predicate to {@link #readMap(String, Predicate, Projection)}.
+     * This requires that the source and each of the fused stages, except
+     * the last one, have a single downstream stage. Other stages, including
+     * {@code map}, are not fused into the source.
      */
     public static <K, V> Source<Map.Entry<K, V>> readMap(@Nonnull String mapName) {
-        return fromProcessor("readMap(" + mapName + ')', SourceProcessors.readMapP(mapName));
+        return new MapSourceImpl<>("readMap(" + mapName + ')', mapName);
     }
 
     /**
@@ -520,12 +530,13 @@ public final class Sources {
      * The source completes when the server closes the socket. It never attempts
      * to reconnect. Any {@code IOException} will cause the job to fail.
      * <p>
+     * The processors are cooperative: they read from the socket in
+     * non-blocking mode and stop reading while the downstream can't accept
+     * more lines. The charset must encode the line feed character as a single
+     * byte, which is true for UTF-8 and all ASCII-based charsets.
+     * <p>
      * This source does not save any state to snapshot. On job restart, it will
-     * emit whichever items the server sends. Current implementation also uses
-     * blocking socket API which blocks until there are some data on the socket.
-     * Source processors are required to return control to be able to do the
-     * snapshot. So if there are no data on socket, the snapshot will be
-     * delayed and block the job.
+     * emit whichever items the server sends.
      */
     @Nonnull
     public static Source<String> streamSocket(
@@ -535,6 +546,26 @@ public final class Sources {
                 StreamSocketP.supplier(host, port, charset.name()));
     }
 
+    /**
+     * Returns a source which connects to the given sockets and emits lines of
+     * text received from them. Unlike {@link #streamSocket(String, int,
+     * Charset)}, each connection is opened by only one processor in the
+     * cluster: the {@code i}-th address is handled by the processor with
+     * global index {@code i % totalParallelism}. A processor can serve any
+     * number of connections using a single selector.
+     * <p>
+     * The addresses are given in the {@code host:port} format. The source
+     * completes when the servers close all the sockets. See {@link
+     * #streamSocket(String, int, Charset)} for other details.
+     */
+    @Nonnull
+    public static Source<String> streamSockets(
+            @Nonnull List<String> hostsAndPorts, @Nonnull Charset charset
+    ) {
+        return fromProcessor("streamSockets(" + hostsAndPorts + ')',
+                StreamSocketP.metaSupplier(hostsAndPorts, charset.name()));
+    }
+
     /**
      * A source that emits lines from files in a directory (but not its
      * subdirectories. The files must not change while being read; if they do,
@@ -564,6 +595,72 @@ public final class Sources {
         );
     }
 
+    /**
+     * A source that emits lines from files in a directory (but not its
+     * subdirectories), optionally on a filesystem shared by all members.
+     * <p>
+     * The files are split into byte ranges aligned to line boundaries and
+     * the ranges are distributed across all processors, so even a single
+     * large file is read in parallel. If {@code sharedFileSystem} is {@code
+     * true}, the directory must resolve to the same files on all members
+     * and the ranges are distributed across the processors of the whole
+     * cluster; otherwise each member reads its local directory like {@link
+     * #readFiles(String, Charset, String)}. Files can only be split if the
+     * charset encodes {@code '\n'} as a single byte (such as UTF-8),
+     * otherwise each file is read by a single processor.
+     * <p>
+     * Both {@code "\n"} and {@code "\r\n"} are recognized as line
+     * separators. The files must not change while being read.
+     * <p>
+     * This source does not save any state to snapshot. If the job is restarted,
+     * it will re-emit all entries.
+     * <p>
+     * Any {@code IOException} will cause the job to fail.
+     *
+     * @param directory parent directory of the files
+     * @param charset charset to use to decode the files
+     * @param glob the globbing mask, see {@link
+     *             java.nio.file.FileSystem#getPathMatcher(String) getPathMatcher()}.
+     *             Use {@code "*"} for all files.
+     * @param sharedFileSystem whether the directory is shared by all members
+     */
+    @Nonnull
+    public static Source<String> readFiles(
+            @Nonnull String directory, @Nonnull Charset charset, @Nonnull String glob, boolean sharedFileSystem
+    ) {
+        return fromProcessor("readFiles(" + directory + '/' + glob + ')',
+                ReadFilesP.metaSupplier(directory, charset.name(), glob, false, sharedFileSystem)
+        );
+    }
+
+    /**
+     * A source that emits the lines from files in a directory as raw bytes,
+     * without decoding them into {@code String}s. Each line is a read-only
+     * {@code ByteBuffer}, usually a slice of a memory-mapped region of the
+     * file, without the line separator. Otherwise it behaves like {@link
+     * #readFiles(String, Charset, String, boolean)} with UTF-8 charset.
+     * <p>
+     * A {@code ByteBuffer} can't be serialized, so the lines must not be sent
+     * to another member. Convert them, for example to {@code byte[]} or
+     * {@code String}, in a {@code map} or {@code flatMap} stage before passing
+     * them to a stage that receives its input from all members, such as the
+     * joined side of a hash-join or a session window.
+     *
+     * @param directory parent directory of the files
+     * @param glob the globbing mask, see {@link
+     *             java.nio.file.FileSystem#getPathMatcher(String) getPathMatcher()}.
+     *             Use {@code "*"} for all files.
+     * @param sharedFileSystem whether the directory is shared by all members
+     */
+    @Nonnull
+    public static Source<ByteBuffer> readFileBuffers(
+            @Nonnull String directory, @Nonnull String glob, boolean sharedFileSystem
+    ) {
+        return fromProcessor("readFileBuffers(" + directory + '/' + glob + ')',
+                ReadFilesP.metaSupplier(directory, UTF_8.name(), glob, true, sharedFileSystem)
+        );
+    }
+
     /**
      * Convenience for {@link #readFiles(String, Charset, String) readFiles(directory, UTF_8, "*")}.
      */
@@ -592,9 +689,12 @@ public final class Sources {
      * <p>
      * Any {@code IOException} will cause the job to fail.
      * <p>
-     * This source does not save any state to snapshot. If the job is restarted,
-     * lines added after the restart will be emitted, which gives at-most-once
-     * behavior.
+     * The source saves the byte offset after the last emitted line of each
+     * file to the snapshot. If the job is restarted, reading continues from
+     * these offsets and lines appended while the job was down are emitted,
+     * which gives exactly-once behavior. Files created after the snapshot
+     * are read from the beginning. The charset must encode {@code '\r'} and
+     * {@code '\n'} as single bytes, such as UTF-8 or ISO-8859-1.
      *
      * <h3>Limitation on Windows</h3>
      * On Windows the {@code WatchService} is not notified of appended lines
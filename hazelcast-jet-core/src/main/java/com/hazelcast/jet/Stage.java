@@ -28,4 +28,22 @@ public interface Stage {
      * Returns the {@link Pipeline} this stage belongs to.
      */
     Pipeline getPipeline();
+
+    /**
+     * Sets the preferred number of processors per member for the vertex
+     * implementing this stage. If the stage is fused with its neighbours into
+     * a single vertex, the highest preference among them is used.
+     * <p>
+     * The default value of -1 lets Jet decide. It uses the default
+     * parallelism from the configuration for the computation stages and 1 for
+     * the sources and sinks. For computation stages of a restarted job, it
+     * scales the parallelism according to the time the processors spent
+     * working in the previous execution.
+     */
+    Stage setLocalParallelism(int localParallelism);
+
+    /**
+     * Returns the value set by {@link #setLocalParallelism(int)}.
+     */
+    int getLocalParallelism();
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.jet;
 
 import com.hazelcast.jet.impl.util.FlatMappingTraverser;
+import com.hazelcast.jet.impl.util.MapFilterTraverser;
 
 import javax.annotation.Nonnull;
 import java.util.function.Consumer;
@@ -46,30 +47,23 @@ public interface Traverser<T> {
     /**
      * Adds a mapping layer to this traverser. The returned traverser will emit
      * the results of applying the mapper function to this traverser's items.
+     * Consecutive {@code map} and {@link #filter filter} layers are fused
+     * into one.
      */
     @Nonnull
     default <R> Traverser<R> map(@Nonnull Function<? super T, ? extends R> mapper) {
-        return () -> {
-            final T t = next();
-            return t != null ? mapper.apply(t) : null;
-        };
+        return MapFilterTraverser.mapping(this, mapper);
     }
 
     /**
      * Adds a filtering layer to this traverser. The returned traverser will
      * emit the same items as this traverser, but only those that pass the
-     * given predicate.
+     * given predicate. Consecutive {@link #map map} and {@code filter}
+     * layers are fused into one.
      */
     @Nonnull
     default Traverser<T> filter(@Nonnull Predicate<? super T> pred) {
-        return () -> {
-            for (T t; (t = next()) != null;) {
-                if (pred.test(t)) {
-                    return t;
-                }
-            }
-            return null;
-        };
+        return MapFilterTraverser.filtering(this, pred);
     }
 
     /**
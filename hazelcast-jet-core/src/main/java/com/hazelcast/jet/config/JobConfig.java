@@ -33,6 +33,8 @@ public class JobConfig implements Serializable {
 
     private ProcessingGuarantee processingGuarantee = ProcessingGuarantee.EXACTLY_ONCE;
     private long snapshotIntervalMillis = -1;
+    private long queueMemoryBudget = -1;
+    private long latencyTrackingIntervalMillis = -1;
 
     private boolean splitBrainProtectionEnabled;
     private final List<ResourceConfig> resourceConfigs = new ArrayList<>();
@@ -139,6 +141,56 @@ public class JobConfig implements Serializable {
         return this;
     }
 
+    /**
+     * Returns the {@link #setQueueMemoryBudget(long) queue memory budget}.
+     */
+    public long getQueueMemoryBudget() {
+        return queueMemoryBudget;
+    }
+
+    /**
+     * Sets the approximate number of bytes the items in the local queues of
+     * the job may take on each member. When the job is restarted, the
+     * queues of the edges which use the default {@link EdgeConfig} are sized
+     * to fit this budget according to the size of the items observed in the
+     * previous execution: edges carrying small items get deeper queues and
+     * edges carrying large items shallower ones. Item sizes are estimated by
+     * occasionally serializing an emitted item.
+     * <p>
+     * Negative value or zero means the queue size from the edge config is
+     * always used. This is the default.
+     */
+    public JobConfig setQueueMemoryBudget(long queueMemoryBudget) {
+        this.queueMemoryBudget = queueMemoryBudget;
+        return this;
+    }
+
+    /**
+     * Returns the {@link #setLatencyTrackingIntervalMillis(long) latency
+     * tracking interval}.
+     */
+    public long getLatencyTrackingIntervalMillis() {
+        return latencyTrackingIntervalMillis;
+    }
+
+    /**
+     * Sets the interval in milliseconds at which each source processor
+     * emits a latency marker. The markers flow through the DAG along with
+     * the other items and each vertex records the time they took to reach
+     * it from the source in a histogram, exposed as the {@code latency*}
+     * metrics of the vertex. Comparing the histograms of adjacent vertices
+     * shows which vertex or distributed edge adds the most latency. For
+     * distributed edges the measurement depends on the synchronization of
+     * the members' clocks.
+     * <p>
+     * Negative value or zero means latency tracking is disabled. This is the
+     * default.
+     */
+    public JobConfig setLatencyTrackingIntervalMillis(long latencyTrackingIntervalMillis) {
+        this.latencyTrackingIntervalMillis = latencyTrackingIntervalMillis;
+        return this;
+    }
+
     /**
      * Adds the supplied classes to the list of resources that will be
      * available on the job's classpath while it's executing in the Jet
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+
+/**
+ * A traverser over the items appended to it. It can be reused: once it
+ * has returned {@code null}, more items can be appended and traversed. A
+ * processor can therefore keep one instance and use it to emit a variable
+ * number of items for each received item without allocating a new
+ * traverser.
+ *
+ * @param <T> item type
+ */
+public class AppendableTraverser<T> implements Traverser<T> {
+    private final ArrayDeque<T> queue;
+
+    /**
+     * Creates an appendable traverser.
+     *
+     * @param initialCapacity the initial capacity of the internal queue
+     */
+    public AppendableTraverser(int initialCapacity) {
+        queue = new ArrayDeque<>(initialCapacity);
+    }
+
+    /**
+     * Appends the item to this traverser and returns this traverser. Unlike
+     * the default implementation, it doesn't create a new traverser.
+     */
+    @Nonnull @Override
+    public AppendableTraverser<T> append(@Nonnull T item) {
+        queue.add(item);
+        return this;
+    }
+
+    @Override
+    public T next() {
+        return queue.poll();
+    }
+
+    /**
+     * Returns {@code true}, if there are no more items to traverse.
+     */
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+}
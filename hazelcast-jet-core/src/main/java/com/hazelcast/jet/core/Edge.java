@@ -273,6 +273,19 @@ public class Edge implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Activates the {@link RoutingPolicy#REBALANCE REBALANCE} routing
+     * policy, which sends each batch of items to the candidate processor
+     * whose input queue currently has the most free space. Use it in front
+     * of a vertex whose processing time per item varies a lot, so that a
+     * slow processor doesn't hold back the others.
+     */
+    @Nonnull
+    public Edge rebalance() {
+        routingPolicy = RoutingPolicy.REBALANCE;
+        return this;
+    }
+
     /**
      * Activates the {@link RoutingPolicy#ISOLATED ISOLATED} routing policy
      * which establishes isolated paths from upstream to downstream processors.
@@ -372,6 +385,9 @@ public class Edge implements IdentifiedDataSerializable {
             case ISOLATED:
                 b.append(".isolated()");
                 break;
+            case REBALANCE:
+                b.append(".rebalance()");
+                break;
             case PARTITIONED:
                 b.append(getPartitioner() instanceof Single ? ".allToOne()" : ".partitioned(?)");
                 break;
@@ -483,7 +499,14 @@ public class Edge implements IdentifiedDataSerializable {
         /**
          * Each item is sent to all candidate processors.
          */
-        BROADCAST
+        BROADCAST,
+        /**
+         * Like {@link #UNICAST}, but the items are sent in batches to the
+         * candidate processor with the most free space in its input queue,
+         * including the queues towards the remote members on a distributed
+         * edge. A slow processor therefore receives fewer items.
+         */
+        REBALANCE
     }
 
     private static class Single implements Partitioner<Object> {
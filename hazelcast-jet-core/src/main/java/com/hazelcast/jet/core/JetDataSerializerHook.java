@@ -23,6 +23,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import static com.hazelcast.jet.impl.SerializationConstants.DAG;
 import static com.hazelcast.jet.impl.SerializationConstants.EDGE;
+import static com.hazelcast.jet.impl.SerializationConstants.JOB_METRICS;
 import static com.hazelcast.jet.impl.SerializationConstants.VERTEX;
 
 /**
@@ -51,6 +52,8 @@ public final class JetDataSerializerHook implements DataSerializerHook {
                     return new Edge();
                 case VERTEX:
                     return new Vertex();
+                case JOB_METRICS:
+                    return new JobMetrics();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
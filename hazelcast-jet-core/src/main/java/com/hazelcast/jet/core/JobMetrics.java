@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.impl.SerializationConstants;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * A point-in-time view of the runtime metrics of a {@link
+ * com.hazelcast.jet.Job Job}, aggregated over all processors of each
+ * vertex on all members.
+ * <p>
+ * Metric names are relative to the job. Per-vertex metrics are prefixed
+ * with the vertex name, for example {@code "map.tasklet.itemsIn"}, {@code
+ * "map.inbound0.queueDepth"} or {@code "map.latencyP99Micros"}; snapshot
+ * metrics are prefixed with {@code "snapshot."}. Counters are summed,
+ * latencies, lags and durations hold the highest value observed on any
+ * processor and {@code lastWatermark} holds the lowest one.
+ * <p>
+ * If the tasklet profiler is enabled by setting the {@code
+ * jet.tasklet.profiler.sampling.period} property to a positive number of
+ * milliseconds, the metrics also contain its samples: {@code
+ * "profile.<stack>"} is the number of samples in which a cooperative
+ * worker thread was running the stack {@code <vertex>;<processor
+ * class>;<processor state>}, and {@code "profile.idle"} the number of
+ * samples in which a worker running the job's tasklets was backing off.
+ * {@link #profile()} returns them in the format of flame graph tools.
+ */
+public final class JobMetrics implements IdentifiedDataSerializable {
+
+    /**
+     * The prefix of the names of the tasklet profiler samples.
+     */
+    public static final String PROFILE_PREFIX = "profile.";
+
+    private static final JobMetrics EMPTY = new JobMetrics(Collections.emptyMap());
+
+    private Map<String, Long> metrics;
+
+    JobMetrics() {
+    }
+
+    private JobMetrics(Map<String, Long> metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns an instance which contains no metrics. This is what a job
+     * which is not currently running reports.
+     */
+    @Nonnull
+    public static JobMetrics empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates an instance with a copy of the given metric values.
+     */
+    @Nonnull
+    public static JobMetrics of(@Nonnull Map<String, Long> metrics) {
+        return metrics.isEmpty() ? EMPTY : new JobMetrics(Collections.unmodifiableMap(new TreeMap<>(metrics)));
+    }
+
+    /**
+     * Returns the value of the given metric or {@code null}, if the job
+     * doesn't report it.
+     */
+    @Nullable
+    public Long get(@Nonnull String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * Returns an unmodifiable map of all metrics, sorted by name.
+     */
+    @Nonnull
+    public Map<String, Long> toMap() {
+        return metrics;
+    }
+
+    /**
+     * Returns the tasklet profiler samples in the collapsed-stack format read
+     * by flame graph tools: one line per stack with the frames separated by
+     * {@code ;}, followed by a space and the number of samples. Empty if
+     * the profiler is disabled.
+     */
+    @Nonnull
+    public String profile() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<String, Long> e : metrics.entrySet()) {
+            if (e.getKey().startsWith(PROFILE_PREFIX)) {
+                sb.append(e.getKey(), PROFILE_PREFIX.length(), e.getKey().length())
+                  .append(' ').append(e.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SerializationConstants.FACTORY_ID;
+    }
+
+    @Override
+    public int getId() {
+        return SerializationConstants.JOB_METRICS;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        // names are sorted and share long prefixes (job-relative vertex and
+        // probe names), so each name is written as the length of the prefix it
+        // shares with the previous one followed by the differing suffix
+        out.writeInt(metrics.size());
+        String previous = "";
+        for (Entry<String, Long> e : metrics.entrySet()) {
+            String name = e.getKey();
+            int shared = sharedPrefixLength(previous, name);
+            out.writeShort(shared);
+            out.writeUTF(name.substring(shared));
+            out.writeLong(e.getValue());
+            previous = name;
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, Long> map = new TreeMap<>();
+        String previous = "";
+        for (int i = 0; i < size; i++) {
+            String name = previous.substring(0, in.readShort()) + in.readUTF();
+            map.put(name, in.readLong());
+            previous = name;
+        }
+        metrics = Collections.unmodifiableMap(map);
+    }
+
+    private static int sharedPrefixLength(String a, String b) {
+        int max = Math.min(Math.min(a.length(), b.length()), Short.MAX_VALUE);
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof JobMetrics && metrics.equals(((JobMetrics) o).metrics);
+    }
+
+    @Override
+    public int hashCode() {
+        return metrics.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "JobMetrics" + metrics;
+    }
+}
@@ -16,8 +16,14 @@
 
 package com.hazelcast.jet.core;
 
+import com.hazelcast.jet.impl.util.FastPartitioning;
+
 import javax.annotation.Nonnull;
 import java.io.Serializable;
+import java.util.stream.Stream;
+
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+import static com.hazelcast.jet.datamodel.Tuple3.tuple3;
 
 /**
  * Encapsulates the logic associated with a {@link DAG} edge that decides
@@ -93,6 +99,10 @@ public interface Partitioner<T> extends Serializable {
      * Hazelcast's {@code MurmurHash}-based algorithm to retrieve the partition
      * ID. This is quite a bit of work, but has stable results across all JVM
      * processes, making it a safe default.
+     * <p>
+     * For items of type {@code String}, boxed primitives, {@code byte[]},
+     * {@code Tuple2} and {@code Tuple3} the partitioner computes the same
+     * partition ID without actually serializing the item.
      */
     static Partitioner<Object> defaultPartitioner() {
         return new Default();
@@ -105,8 +115,21 @@ public interface Partitioner<T> extends Serializable {
     final class Default implements Partitioner<Object> {
         private static final long serialVersionUID = 1L;
 
+        // keys of all the types FastPartitioning supports. The strings with '@'
+        // detect a strategy partitioning by the part after it, such as the
+        // StringPartitioningStrategy; there are several because one of them
+        // could land in the same partition by chance.
+        private static final Object[] PROBE_KEYS = {
+                "", "probe", "\u00e9\u20ac", "key@base", "probe@partition", "a@b", 42, -42L,
+                new byte[] {1, 2, 3}, (short) 5, (byte) 6, 'c', true,
+                1.5d, 2.5f, tuple2("a", null), tuple3(1, 2L, "b")
+        };
+
         transient DefaultPartitionStrategy defaultPartitioning;
 
+        // null until compared with the default partitioning
+        private transient volatile Boolean isFastPartitioningExact;
+
         Default() {
         }
 
@@ -117,7 +140,27 @@ public interface Partitioner<T> extends Serializable {
 
         @Override
         public int getPartition(@Nonnull Object item, int partitionCount) {
+            if (isFastPartitioningExact(partitionCount)) {
+                int partitionId = FastPartitioning.getPartition(item, partitionCount);
+                if (partitionId != FastPartitioning.UNSUPPORTED) {
+                    return partitionId;
+                }
+            }
             return defaultPartitioning.getPartition(item);
         }
+
+        /**
+         * Checks once that the fast partitioning gives the same results as
+         * the configured serialization and partitioning strategy.
+         */
+        private boolean isFastPartitioningExact(int partitionCount) {
+            Boolean isExact = isFastPartitioningExact;
+            if (isExact == null) {
+                isExact = Stream.of(PROBE_KEYS).allMatch(key ->
+                        FastPartitioning.getPartition(key, partitionCount) == defaultPartitioning.getPartition(key));
+                isFastPartitioningExact = isExact;
+            }
+            return isExact;
+        }
     }
 }
@@ -198,6 +198,26 @@ public interface Processor {
         return true;
     }
 
+    /**
+     * Called when a snapshot to which this processor saved its state has
+     * completed on all the members. {@code success} is {@code false} if the
+     * snapshot failed: the job keeps running, but a restart will restore
+     * the state from an earlier snapshot. A processor can use this method
+     * to commit the side effects it prepared in {@link #saveToSnapshot()}.
+     * <p>
+     * The method is called before {@code saveToSnapshot()} is called for the
+     * next snapshot, and only while the processor isn't done. The call isn't
+     * guaranteed: if the job restarts before it happens, the processor in
+     * the new execution is restored from the latest successful snapshot
+     * instead. If it returns {@code false}, it will be called again before
+     * proceeding to call any other method.
+     * <p>
+     * The default implementation takes no action and returns {@code true}.
+     */
+    default boolean onSnapshotCompleted(boolean success) {
+        return true;
+    }
+
     /**
      * Context passed to the processor in the
      * {@link #init(Outbox, Context) init()} call.
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Traverses over the items of an array which can be set from the outside,
+ * by calling {@link #reset}. Another array can be set at any time and the
+ * subsequent {@code next()} call will return its first item. A processor
+ * can therefore keep one instance and use it to emit several items for
+ * each received item without allocating a new traverser.
+ * <p>
+ * The array must not contain {@code null} elements and must not be
+ * modified while it is being traversed.
+ *
+ * @param <T> item type
+ */
+public class ResettableArrayTraverser<T> implements Traverser<T> {
+    private T[] array;
+    private int index;
+
+    @Override
+    public T next() {
+        if (array == null) {
+            return null;
+        }
+        if (index < array.length) {
+            return array[index++];
+        }
+        array = null;
+        return null;
+    }
+
+    /**
+     * Resets this traverser so that the following {@code next()} calls
+     * will return the items of the given array and then {@code null}.
+     *
+     * @param array the array to traverse
+     * @return this traverser
+     */
+    @Nonnull
+    public ResettableArrayTraverser<T> reset(@Nonnull T[] array) {
+        this.array = array;
+        this.index = 0;
+        return this;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.function.DistributedToLongFunction;
+
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+
+/**
+ * Contains parameters that define how a source processor generates
+ * watermarks on its own. Such a source tracks a separate watermark for
+ * each of its source partitions (Kafka partitions, event journal
+ * partitions...) and emits the minimum over them. This way a partition
+ * that lags behind doesn't cause the events from other partitions to be
+ * dropped as late, which would happen with a separate {@link
+ * com.hazelcast.jet.core.processor.Processors#insertWatermarksP
+ * insertWatermarks} vertex that observes an arbitrary mix of partitions.
+ * <p>
+ * A partition that doesn't receive any event for {@code idleTimeoutMillis}
+ * is considered idle and excluded from the minimum until it receives an
+ * event again. Events from a formerly idle partition that are behind the
+ * already emitted watermark are dropped as late.
+ *
+ * @param <T> type of the stream item
+ */
+public final class WatermarkGenerationParams<T> implements Serializable {
+
+    /**
+     * Value of {@code idleTimeoutMillis} which disables the idle partition
+     * detection: the watermark won't advance past a partition that has no
+     * events.
+     */
+    public static final long NO_IDLE_TIMEOUT = -1;
+
+    private static final long serialVersionUID = 1L;
+
+    private final DistributedToLongFunction<T> getTimestampF;
+    private final DistributedSupplier<WatermarkPolicy> newWmPolicyF;
+    private final WatermarkEmissionPolicy wmEmitPolicy;
+    private final long idleTimeoutMillis;
+
+    private WatermarkGenerationParams(
+            @Nonnull DistributedToLongFunction<T> getTimestampF,
+            @Nonnull DistributedSupplier<WatermarkPolicy> newWmPolicyF,
+            @Nonnull WatermarkEmissionPolicy wmEmitPolicy,
+            long idleTimeoutMillis
+    ) {
+        this.getTimestampF = getTimestampF;
+        this.newWmPolicyF = newWmPolicyF;
+        this.wmEmitPolicy = wmEmitPolicy;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Creates new watermark generation parameters.
+     *
+     * @param getTimestampF function that extracts the timestamp from the item
+     * @param newWmPolicyF supplier of the watermark policy, it will be called
+     *                     once for each source partition
+     * @param wmEmitPolicy watermark emission policy applied to the combined
+     *                     watermark
+     * @param idleTimeoutMillis time after which a partition without events is
+     *                          marked idle, or {@link #NO_IDLE_TIMEOUT}
+     */
+    @Nonnull
+    public static <T> WatermarkGenerationParams<T> wmGenParams(
+            @Nonnull DistributedToLongFunction<T> getTimestampF,
+            @Nonnull DistributedSupplier<WatermarkPolicy> newWmPolicyF,
+            @Nonnull WatermarkEmissionPolicy wmEmitPolicy,
+            long idleTimeoutMillis
+    ) {
+        return new WatermarkGenerationParams<>(getTimestampF, newWmPolicyF, wmEmitPolicy, idleTimeoutMillis);
+    }
+
+    /**
+     * Returns the function that extracts the timestamp from the item.
+     */
+    @Nonnull
+    public DistributedToLongFunction<T> getTimestampF() {
+        return getTimestampF;
+    }
+
+    /**
+     * Returns the supplier of per-partition watermark policies.
+     */
+    @Nonnull
+    public DistributedSupplier<WatermarkPolicy> newWmPolicyF() {
+        return newWmPolicyF;
+    }
+
+    /**
+     * Returns the watermark emission policy.
+     */
+    @Nonnull
+    public WatermarkEmissionPolicy wmEmitPolicy() {
+        return wmEmitPolicy;
+    }
+
+    /**
+     * Returns the idle timeout in milliseconds, or {@link #NO_IDLE_TIMEOUT}.
+     */
+    public long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+}
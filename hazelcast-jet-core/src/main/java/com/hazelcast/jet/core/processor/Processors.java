@@ -638,6 +638,29 @@ public final class Processors {
         return () -> new TransformP<T, R>(mapper);
     }
 
+    /**
+     * Returns a supplier of processors for a vertex that applies an
+     * item-to-traverser mapping function to each received item and emits all
+     * the items from the resulting traverser. Each processor gets its own
+     * mapping function from the given supplier, so the function may keep
+     * state, for example reuse a {@link
+     * com.hazelcast.jet.core.ResettableArrayTraverser} instead of creating a
+     * traverser for each item. The traverser it returns is fully consumed
+     * before the function is called again.
+     *
+     * @param mapperSupplier supplier of the function that maps the received
+     *                       item to a traverser over output items
+     * @param <T> received item type
+     * @param <R> emitted item type
+     */
+    @Nonnull
+    public static <T, R> DistributedSupplier<Processor> flatMapP(
+            @Nonnull DistributedSupplier<? extends DistributedFunction<T, ? extends Traverser<? extends R>>>
+                    mapperSupplier
+    ) {
+        return () -> new TransformP<T, R>(mapperSupplier.get());
+    }
+
     /**
      * Returns a supplier of processor that consumes all its input (if any) and
      * does nothing with it.
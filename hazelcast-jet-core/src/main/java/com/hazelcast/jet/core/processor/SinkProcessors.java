@@ -25,18 +25,14 @@ import com.hazelcast.jet.function.DistributedIntFunction;
 import com.hazelcast.jet.impl.connector.HazelcastWriters;
 import com.hazelcast.jet.impl.connector.WriteBufferedP;
 import com.hazelcast.jet.impl.connector.WriteFileP;
+import com.hazelcast.jet.impl.connector.WriteRollingFileP;
+import com.hazelcast.jet.impl.connector.WriteSocketP;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.net.Socket;
 import java.nio.charset.Charset;
 
 import static com.hazelcast.jet.function.DistributedFunctions.noopConsumer;
-import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
-import static com.hazelcast.jet.impl.util.Util.uncheckCall;
-import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.util.Preconditions.checkPositive;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -161,22 +157,26 @@ public final class SinkProcessors {
             @Nonnull DistributedFunction<T, String> toStringFn,
             @Nonnull Charset charset
     ) {
-        String charsetName = charset.name();
-        return writeBufferedP(
-                index -> uncheckCall(
-                        () -> new BufferedWriter(new OutputStreamWriter(
-                                new Socket(host, port).getOutputStream(), charsetName))),
-                (bufferedWriter, item) -> {
-                    try {
-                        bufferedWriter.write(toStringFn.apply((T) item));
-                        bufferedWriter.write('\n');
-                    } catch (IOException e) {
-                        throw sneakyThrow(e);
-                    }
-                },
-                bufferedWriter -> uncheckRun(bufferedWriter::flush),
-                bufferedWriter -> uncheckRun(bufferedWriter::close)
-        );
+        return WriteSocketP.supplier(host, port, toStringFn, charset.name());
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sinks#writeRollingFile(String, DistributedFunction, Charset, long, long, boolean)}.
+     */
+    @Nonnull
+    public static <T> ProcessorSupplier writeRollingFileP(
+            @Nonnull String directoryName,
+            @Nonnull DistributedFunction<T, String> toStringFn,
+            @Nonnull Charset charset,
+            long maxFileSize,
+            long rollIntervalMillis,
+            boolean compress
+    ) {
+        checkPositive(maxFileSize, "maxFileSize must be positive");
+        checkPositive(rollIntervalMillis, "rollIntervalMillis must be positive");
+        return WriteRollingFileP.supplier(directoryName, toStringFn, charset.name(), maxFileSize,
+                rollIntervalMillis, compress);
     }
 
     /**
@@ -20,10 +20,12 @@ import com.hazelcast.cache.journal.EventJournalCacheEvent;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.WatermarkGenerationParams;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.impl.connector.ReadFilesP;
 import com.hazelcast.jet.impl.connector.ReadIListP;
+import com.hazelcast.jet.impl.connector.ReadMapOrCacheP;
 import com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP;
 import com.hazelcast.jet.impl.connector.StreamEventJournalP;
 import com.hazelcast.jet.impl.connector.StreamFilesP;
@@ -35,8 +37,14 @@ import com.hazelcast.query.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map.Entry;
 
+import static com.hazelcast.jet.impl.connector.ReadMapOrCacheP.DEFAULT_FETCH_SIZE;
+import static com.hazelcast.jet.impl.connector.ReadMapOrCacheP.DEFAULT_MAX_PARALLEL_READ;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
 /**
  * Static utility class with factories of source processors (the DAG
  * entry points). For other kinds for a vertices refer to the {@link
@@ -53,7 +61,20 @@ public final class SourceProcessors {
      */
     @Nonnull
     public static ProcessorMetaSupplier readMapP(@Nonnull String mapName) {
-        return ReadWithPartitionIteratorP.readMap(mapName);
+        return readMapP(mapName, DEFAULT_FETCH_SIZE, DEFAULT_MAX_PARALLEL_READ);
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sources#readMap(String)} which fetch up to
+     * {@code fetchSize} entries at a time and keep up to {@code
+     * maxParallelRead} fetches for different partitions in flight.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier readMapP(@Nonnull String mapName, int fetchSize, int maxParallelRead) {
+        checkPositive(fetchSize, "fetchSize must be positive");
+        checkPositive(maxParallelRead, "maxParallelRead must be positive");
+        return ReadMapOrCacheP.readMap(mapName, fetchSize, maxParallelRead);
     }
 
     /**
@@ -66,7 +87,7 @@ public final class SourceProcessors {
             @Nonnull Predicate<K, V> predicate,
             @Nonnull Projection<Entry<K, V>, T> projectionFn
     ) {
-        return ReadWithPartitionIteratorP.readMap(mapName, predicate, projectionFn);
+        return ReadMapOrCacheP.readMap(mapName, predicate, projectionFn, DEFAULT_FETCH_SIZE, DEFAULT_MAX_PARALLEL_READ);
     }
 
     /**
@@ -79,7 +100,8 @@ public final class SourceProcessors {
             @Nonnull Predicate<K, V> predicate,
             @Nonnull DistributedFunction<Entry<K, V>, T> projectionFn
     ) {
-        return ReadWithPartitionIteratorP.readMap(mapName, predicate, toProjection(projectionFn));
+        return ReadMapOrCacheP.readMap(mapName, predicate, toProjection(projectionFn),
+                DEFAULT_FETCH_SIZE, DEFAULT_MAX_PARALLEL_READ);
     }
 
 
@@ -89,7 +111,7 @@ public final class SourceProcessors {
      */
     @Nonnull
     public static ProcessorMetaSupplier streamMapP(@Nonnull String mapName, boolean startFromLatestSequence) {
-        return StreamEventJournalP.streamMap(mapName, null, null, startFromLatestSequence);
+        return StreamEventJournalP.streamMap(mapName, null, null, startFromLatestSequence, null);
     }
 
     /**
@@ -103,7 +125,25 @@ public final class SourceProcessors {
             @Nullable DistributedFunction<EventJournalMapEvent<K, V>, T> projection,
             boolean startFromLatestSequence
     ) {
-        return StreamEventJournalP.streamMap(mapName, predicate, projection, startFromLatestSequence);
+        return StreamEventJournalP.streamMap(mapName, predicate, projection, startFromLatestSequence, null);
+    }
+
+    /**
+     * Returns a supplier of processors for a source that streams the event
+     * journal of a Hazelcast {@code IMap} like {@link #streamMapP(String,
+     * DistributedPredicate, DistributedFunction, boolean) streamMapP()} and
+     * additionally emits watermarks. The watermark is tracked separately for
+     * each journal partition, see {@link WatermarkGenerationParams}.
+     */
+    @Nonnull
+    public static <K, V, T> ProcessorMetaSupplier streamMapP(
+            @Nonnull String mapName,
+            @Nullable DistributedPredicate<EventJournalMapEvent<K, V>> predicate,
+            @Nullable DistributedFunction<EventJournalMapEvent<K, V>, T> projection,
+            boolean startFromLatestSequence,
+            @Nonnull WatermarkGenerationParams<T> wmGenParams
+    ) {
+        return StreamEventJournalP.streamMap(mapName, predicate, projection, startFromLatestSequence, wmGenParams);
     }
 
     /**
@@ -153,7 +193,7 @@ public final class SourceProcessors {
     @Nonnull
     public static ProcessorMetaSupplier streamRemoteMapP(
             @Nonnull String mapName, @Nonnull ClientConfig clientConfig, boolean startFromLatestSequence) {
-        return StreamEventJournalP.streamMap(mapName, clientConfig, null, null, startFromLatestSequence);
+        return StreamEventJournalP.streamMap(mapName, clientConfig, null, null, startFromLatestSequence, null);
     }
 
     /**
@@ -169,7 +209,7 @@ public final class SourceProcessors {
             @Nullable DistributedPredicate<EventJournalMapEvent<K, V>> predicate,
             @Nullable DistributedFunction<EventJournalMapEvent<K, V>, T> projection,
             boolean startFromLatestSequence) {
-        return StreamEventJournalP.streamMap(mapName, clientConfig, predicate, projection, startFromLatestSequence);
+        return StreamEventJournalP.streamMap(mapName, clientConfig, predicate, projection, startFromLatestSequence, null);
     }
 
     /**
@@ -178,7 +218,20 @@ public final class SourceProcessors {
      */
     @Nonnull
     public static ProcessorMetaSupplier readCacheP(@Nonnull String cacheName) {
-        return ReadWithPartitionIteratorP.readCache(cacheName);
+        return readCacheP(cacheName, DEFAULT_FETCH_SIZE, DEFAULT_MAX_PARALLEL_READ);
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sources#readCache(String)} which fetch up to
+     * {@code fetchSize} entries at a time and keep up to {@code
+     * maxParallelRead} fetches for different partitions in flight.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier readCacheP(@Nonnull String cacheName, int fetchSize, int maxParallelRead) {
+        checkPositive(fetchSize, "fetchSize must be positive");
+        checkPositive(maxParallelRead, "maxParallelRead must be positive");
+        return ReadMapOrCacheP.readCache(cacheName, fetchSize, maxParallelRead);
     }
 
     /**
@@ -187,7 +240,7 @@ public final class SourceProcessors {
      */
     @Nonnull
     public static ProcessorMetaSupplier streamCacheP(@Nonnull String cacheName, boolean startFromLatestSequence) {
-        return StreamEventJournalP.streamCache(cacheName, null, null, startFromLatestSequence);
+        return StreamEventJournalP.streamCache(cacheName, null, null, startFromLatestSequence, null);
     }
 
     /**
@@ -201,7 +254,25 @@ public final class SourceProcessors {
             @Nullable DistributedFunction<EventJournalCacheEvent<K, V>, T> projection,
             boolean startFromLatestSequence
     ) {
-        return StreamEventJournalP.streamCache(cacheName, predicate, projection, startFromLatestSequence);
+        return StreamEventJournalP.streamCache(cacheName, predicate, projection, startFromLatestSequence, null);
+    }
+
+    /**
+     * Returns a supplier of processors for a source that streams the event
+     * journal of a Hazelcast {@code ICache} like {@link #streamCacheP(String,
+     * DistributedPredicate, DistributedFunction, boolean) streamCacheP()} and
+     * additionally emits watermarks. The watermark is tracked separately for
+     * each journal partition, see {@link WatermarkGenerationParams}.
+     */
+    @Nonnull
+    public static <K, V, T> ProcessorMetaSupplier streamCacheP(
+            @Nonnull String cacheName,
+            @Nullable DistributedPredicate<EventJournalCacheEvent<K, V>> predicate,
+            @Nullable DistributedFunction<EventJournalCacheEvent<K, V>, T> projection,
+            boolean startFromLatestSequence,
+            @Nonnull WatermarkGenerationParams<T> wmGenParams
+    ) {
+        return StreamEventJournalP.streamCache(cacheName, predicate, projection, startFromLatestSequence, wmGenParams);
     }
 
     /**
@@ -221,7 +292,7 @@ public final class SourceProcessors {
     public static ProcessorMetaSupplier streamRemoteCacheP(
             @Nonnull String cacheName, @Nonnull ClientConfig clientConfig, boolean startFromLatestSequence
     ) {
-        return StreamEventJournalP.streamCache(cacheName, clientConfig, null, null, startFromLatestSequence);
+        return StreamEventJournalP.streamCache(cacheName, clientConfig, null, null, startFromLatestSequence, null);
     }
 
     /**
@@ -238,7 +309,8 @@ public final class SourceProcessors {
             @Nullable DistributedFunction<EventJournalCacheEvent<K, V>, T> projection,
             boolean startFromLatestSequence
     ) {
-        return StreamEventJournalP.streamCache(cacheName, clientConfig, predicate, projection, startFromLatestSequence);
+        return StreamEventJournalP.streamCache(
+                cacheName, clientConfig, predicate, projection, startFromLatestSequence, null);
     }
 
     /**
@@ -270,6 +342,17 @@ public final class SourceProcessors {
         return StreamSocketP.supplier(host, port, charset.name());
     }
 
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sources#streamSockets(List, Charset)}.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier streamSocketsP(
+            @Nonnull List<String> hostsAndPorts, @Nonnull Charset charset
+    ) {
+        return StreamSocketP.metaSupplier(hostsAndPorts, charset.name());
+    }
+
     /**
      * Returns a supplier of processors for
      * {@link com.hazelcast.jet.Sources#readFiles(String, Charset, String)}.
@@ -281,6 +364,30 @@ public final class SourceProcessors {
         return ReadFilesP.supplier(directory, charset.name(), glob);
     }
 
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sources#readFiles(String, Charset, String, boolean)}.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier readFilesP(
+            @Nonnull String directory, @Nonnull Charset charset, @Nonnull String glob, boolean sharedFileSystem
+    ) {
+        return ReadFilesP.metaSupplier(directory, charset.name(), glob, false, sharedFileSystem);
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.Sources#readFileBuffers(String, String, boolean)}.
+     * The emitted {@code ByteBuffer}s can't be serialized, so the vertex's
+     * outbound edges must be local.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier readFileBuffersP(
+            @Nonnull String directory, @Nonnull String glob, boolean sharedFileSystem
+    ) {
+        return ReadFilesP.metaSupplier(directory, StandardCharsets.UTF_8.name(), glob, true, sharedFileSystem);
+    }
+
     /**
      * Returns a supplier of processors for
      * {@link com.hazelcast.jet.Sources#streamFiles(String, Charset, String)}.
@@ -21,6 +21,7 @@ import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.LocalMemberResetException;
 import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.jet.Job;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
@@ -56,6 +57,8 @@ public abstract class AbstractJobImpl implements Job {
 
     protected abstract JobStatus sendJobStatusRequest();
 
+    protected abstract JobMetrics sendJobMetricsRequest();
+
     /**
      * Sends a JoinOp to ensure that the job is started as soon as possible
      */
@@ -88,6 +91,14 @@ public abstract class AbstractJobImpl implements Job {
         return sendJobStatusRequest();
     }
 
+    @Nonnull @Override
+    public final JobMetrics getMetrics() {
+        if (future.isDone()) {
+            return JobMetrics.empty();
+        }
+        return sendJobMetricsRequest();
+    }
+
     private class JobCallback implements ExecutionCallback<Void> {
 
         private volatile ICompletableFuture<Void> invocationFuture;
@@ -28,6 +28,8 @@ public abstract class AbstractStage implements Stage {
     final List<Stage> upstream;
     final Transform transform;
 
+    private int localParallelism = -1;
+
     AbstractStage(List<Stage> upstream, List<Stage> downstream, Transform transform, PipelineImpl pipelineImpl) {
         this.upstream = upstream;
         this.transform = transform;
@@ -40,6 +42,20 @@ public abstract class AbstractStage implements Stage {
         return pipelineImpl;
     }
 
+    @Override
+    public Stage setLocalParallelism(int localParallelism) {
+        if (localParallelism < -1 || localParallelism == 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0 or -1");
+        }
+        this.localParallelism = localParallelism;
+        return this;
+    }
+
+    @Override
+    public int getLocalParallelism() {
+        return localParallelism;
+    }
+
     @Override
     public String toString() {
         return transform.toString();
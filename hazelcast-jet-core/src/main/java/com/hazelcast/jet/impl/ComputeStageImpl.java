@@ -21,9 +21,15 @@ import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.aggregate.AggregateOperation2;
 import com.hazelcast.jet.aggregate.AggregateOperation3;
+import com.hazelcast.jet.core.Session;
+import com.hazelcast.jet.core.TimestampedEntry;
+import com.hazelcast.jet.core.WatermarkEmissionPolicy;
+import com.hazelcast.jet.core.WatermarkPolicy;
+import com.hazelcast.jet.core.WindowDefinition;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.function.DistributedToLongFunction;
 import com.hazelcast.jet.ComputeStage;
 import com.hazelcast.jet.JoinClause;
 import com.hazelcast.jet.Sink;
@@ -41,7 +47,10 @@ import com.hazelcast.jet.impl.transform.HashJoinTransform;
 import com.hazelcast.jet.impl.transform.MapTransform;
 import com.hazelcast.jet.impl.transform.MultiTransform;
 import com.hazelcast.jet.impl.transform.ProcessorTransform;
+import com.hazelcast.jet.impl.transform.SessionWindowTransform;
+import com.hazelcast.jet.impl.transform.TimestampTransform;
 import com.hazelcast.jet.impl.transform.UnaryTransform;
+import com.hazelcast.jet.impl.transform.WindowTransform;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,6 +77,12 @@ public class ComputeStageImpl<E> extends AbstractStage implements ComputeStage<E
         this(singletonList(upstream), transform, pipeline);
     }
 
+    @Override
+    public ComputeStage<E> setLocalParallelism(int localParallelism) {
+        super.setLocalParallelism(localParallelism);
+        return this;
+    }
+
     @Override
     public <R> ComputeStage<R> map(DistributedFunction<? super E, ? extends R> mapFn) {
         return attach(new MapTransform<>(mapFn));
@@ -90,6 +105,35 @@ public class ComputeStageImpl<E> extends AbstractStage implements ComputeStage<E
         return attach(new GroupByTransform<>(keyFn, aggrOp));
     }
 
+    @Override
+    public ComputeStage<E> addTimestamps(
+            DistributedToLongFunction<? super E> timestampFn,
+            DistributedSupplier<WatermarkPolicy> wmPolicyFn,
+            WatermarkEmissionPolicy wmEmitPolicy
+    ) {
+        return attach(new TimestampTransform<>(timestampFn, wmPolicyFn, wmEmitPolicy));
+    }
+
+    @Override
+    public <K, A, R> ComputeStage<TimestampedEntry<K, R>> window(
+            WindowDefinition windowDef,
+            DistributedFunction<? super E, K> keyFn,
+            DistributedToLongFunction<? super E> timestampFn,
+            AggregateOperation1<? super E, A, R> aggrOp
+    ) {
+        return attach(new WindowTransform<>(windowDef, keyFn, timestampFn, aggrOp));
+    }
+
+    @Override
+    public <K, A, R> ComputeStage<Session<K, R>> sessionWindow(
+            long sessionTimeout,
+            DistributedFunction<? super E, K> keyFn,
+            DistributedToLongFunction<? super E> timestampFn,
+            AggregateOperation1<? super E, A, R> aggrOp
+    ) {
+        return attach(new SessionWindowTransform<>(sessionTimeout, keyFn, timestampFn, aggrOp));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <K, E1_IN, E1> ComputeStage<Tuple2<E, E1>> hashJoin(
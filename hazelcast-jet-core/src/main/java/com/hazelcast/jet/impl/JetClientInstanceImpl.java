@@ -20,6 +20,7 @@ import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.JetCancelJobCodec;
 import com.hazelcast.client.impl.protocol.codec.JetGetJobIdsCodec;
+import com.hazelcast.client.impl.protocol.codec.JetGetJobMetricsCodec;
 import com.hazelcast.client.impl.protocol.codec.JetGetJobStatusCodec;
 import com.hazelcast.client.impl.protocol.codec.JetJoinSubmittedJobCodec;
 import com.hazelcast.client.impl.protocol.codec.JetSubmitJobCodec;
@@ -31,6 +32,7 @@ import com.hazelcast.core.Member;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.Job;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.JobConfig;
@@ -125,6 +127,18 @@ public class JetClientInstanceImpl extends AbstractJetInstance {
         }
     }
 
+    private JobMetrics sendJobMetricsRequest(long jobId) {
+        ClientMessage request = JetGetJobMetricsCodec.encodeRequest(jobId);
+        ClientInvocation invocation = new ClientInvocation(client, request, jobObjectName(jobId), masterAddress());
+        try {
+            ClientMessage clientMessage = invocation.invoke().get();
+            JetGetJobMetricsCodec.ResponseParameters response = JetGetJobMetricsCodec.decodeResponse(clientMessage);
+            return serializationService.toObject(response.response);
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
     private ILogger getLogger(Class type) {
         return client.getLoggingService().getLogger(type);
     }
@@ -161,6 +175,11 @@ public class JetClientInstanceImpl extends AbstractJetInstance {
             return JetClientInstanceImpl.this.sendJobStatusRequest(getJobId());
         }
 
+        @Override
+        protected JobMetrics sendJobMetricsRequest() {
+            return JetClientInstanceImpl.this.sendJobMetricsRequest(getJobId());
+        }
+
         private ClientMessage createJoinJobRequest() {
             Data serializedDag = serializationService.toData(dag);
             Data serializedConfig = serializationService.toData(config);
@@ -192,6 +211,11 @@ public class JetClientInstanceImpl extends AbstractJetInstance {
             return JetClientInstanceImpl.this.sendJobStatusRequest(getJobId());
         }
 
+        @Override
+        protected JobMetrics sendJobMetricsRequest() {
+            return JetClientInstanceImpl.this.sendJobMetricsRequest(getJobId());
+        }
+
     }
 
     private final class ExecutionFuture implements ICompletableFuture<Void> {
@@ -21,10 +21,12 @@ import com.hazelcast.instance.HazelcastInstanceImpl;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.Job;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.impl.operation.GetJobIdsOperation;
+import com.hazelcast.jet.impl.operation.GetJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.GetJobStatusOperation;
 import com.hazelcast.jet.impl.operation.JoinSubmittedJobOperation;
 import com.hazelcast.jet.impl.operation.SubmitJobOperation;
@@ -117,6 +119,19 @@ public class JetInstanceImpl extends AbstractJetInstance {
         }
     }
 
+    private JobMetrics sendJobMetricsRequest(long jobId) {
+        try {
+            Operation op = new GetJobMetricsOperation(jobId);
+            OperationService operationService = nodeEngine.getOperationService();
+            InternalCompletableFuture<JobMetrics> f = operationService
+                    .createInvocationBuilder(JetService.SERVICE_NAME, op, nodeEngine.getMasterAddress()).invoke();
+
+            return f.get();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
     private class SubmittedJobImpl extends AbstractSubmittedJobImpl {
 
         SubmittedJobImpl(JetInstance jetInstance, ILogger logger, DAG dag, JobConfig config) {
@@ -142,6 +157,11 @@ public class JetInstanceImpl extends AbstractJetInstance {
             return JetInstanceImpl.this.sendJobStatusRequest(getJobId());
         }
 
+        @Override
+        protected JobMetrics sendJobMetricsRequest() {
+            return JetInstanceImpl.this.sendJobMetricsRequest(getJobId());
+        }
+
     }
 
     private class TrackedJobImpl extends AbstractTrackedJobImpl {
@@ -168,6 +188,11 @@ public class JetInstanceImpl extends AbstractJetInstance {
             return JetInstanceImpl.this.sendJobStatusRequest(getJobId());
         }
 
+        @Override
+        protected JobMetrics sendJobMetricsRequest() {
+            return JetInstanceImpl.this.sendJobMetricsRequest(getJobId());
+        }
+
     }
 
 }
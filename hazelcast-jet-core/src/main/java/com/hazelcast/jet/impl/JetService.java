@@ -23,6 +23,7 @@ import com.hazelcast.instance.HazelcastInstanceImpl;
 import com.hazelcast.instance.JetBuildInfo;
 import com.hazelcast.internal.cluster.MemberInfo;
 import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.config.JetConfig;
@@ -30,6 +31,7 @@ import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.impl.execution.TaskletExecutionService;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
+import com.hazelcast.jet.impl.util.JetGroupProperty;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Packet;
@@ -47,6 +49,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PacketHandler;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -99,7 +102,8 @@ public class JetService
 
         jetInstance = new JetInstanceImpl((HazelcastInstanceImpl) engine.getHazelcastInstance(), config);
         taskletExecutionService = new TaskletExecutionService(nodeEngine.getHazelcastInstance(),
-                config.getInstanceConfig().getCooperativeThreadCount());
+                config.getInstanceConfig().getCooperativeThreadCount(),
+                nodeEngine.getProperties().getMillis(JetGroupProperty.TASKLET_PROFILER_SAMPLING_PERIOD));
 
         snapshotRepository = new SnapshotRepository(jetInstance);
         jobRepository = new JobRepository(jetInstance, snapshotRepository);
@@ -158,14 +162,18 @@ public class JetService
         return jobExecutionService.execute(coordinator, jobId, executionId, doneCallback);
     }
 
-    public void completeExecution(long executionId, Throwable error) {
-        jobExecutionService.completeExecution(executionId, error);
+    public Map<String, Long> completeExecution(long executionId, Throwable error) {
+        return jobExecutionService.completeExecution(executionId, error);
     }
 
     public JobStatus getJobStatus(long jobId) {
         return jobCoordinationService.getJobStatus(jobId);
     }
 
+    public CompletableFuture<JobMetrics> getJobMetrics(long jobId) {
+        return jobCoordinationService.getJobMetrics(jobId);
+    }
+
     public JetInstance getJetInstance() {
         return jetInstance;
     }
@@ -24,6 +24,7 @@ import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.impl.deployment.JetClassLoader;
 import com.hazelcast.jet.impl.execution.SnapshotRecord.SnapshotStatus;
@@ -38,6 +39,7 @@ import java.security.PrivilegedAction;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -54,6 +56,7 @@ import static com.hazelcast.jet.impl.util.JetGroupProperty.JOB_SCAN_PERIOD;
 import static com.hazelcast.jet.impl.util.Util.idToString;
 import static com.hazelcast.jet.impl.util.Util.jobAndExecutionId;
 import static com.hazelcast.util.executor.ExecutorType.CACHED;
+import static java.util.Collections.synchronizedMap;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -61,6 +64,7 @@ public class JobCoordinationService {
 
     private static final String COORDINATOR_EXECUTOR_NAME = "jet:coordinator";
     private static final long RETRY_DELAY_IN_MILLIS = SECONDS.toMillis(2);
+    private static final int MAX_RECORDED_DAGS = 1024;
 
     private final NodeEngineImpl nodeEngine;
     private final JetConfig config;
@@ -71,6 +75,16 @@ public class JobCoordinationService {
     private final ConcurrentMap<Long, MasterContext> masterContexts = new ConcurrentHashMap<>();
     private final IMap<Long, JobResult> jobResults;
 
+    // key: the sorted vertex names of a DAG, value: busy time per vertex summed over
+    // all members in the last completed execution of a job with that DAG
+    private final Map<String, Map<String, Long>> vertexBusyNanos = synchronizedMap(
+            new LinkedHashMap<String, Map<String, Long>>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, Long>> eldest) {
+                    return size() > MAX_RECORDED_DAGS;
+                }
+            });
+
     public JobCoordinationService(NodeEngineImpl nodeEngine, JetConfig config,
                                   JobRepository jobRepository, JobExecutionService jobExecutionService,
                                   SnapshotRepository snapshotRepository) {
@@ -312,6 +326,26 @@ public class JobCoordinationService {
         }
     }
 
+    /**
+     * Returns the metrics of the job, aggregated over all of its participants.
+     * The result is empty if the job is not running.
+     */
+    public CompletableFuture<JobMetrics> getJobMetrics(long jobId) {
+        if (!isMaster()) {
+            throw new JetException("Job metrics cannot be queried here. Master address: "
+                    + nodeEngine.getClusterService().getMasterAddress());
+        }
+
+        MasterContext currentMasterContext = masterContexts.get(jobId);
+        if (currentMasterContext != null) {
+            return currentMasterContext.collectMetrics();
+        }
+        if (jobRepository.getJob(jobId) == null && jobResults.get(jobId) == null) {
+            throw new IllegalArgumentException("Job " + idToString(jobId) + " not found");
+        }
+        return CompletableFuture.completedFuture(JobMetrics.empty());
+    }
+
     /**
      * Completes the job which is coordinated with the given master context object.
      */
@@ -350,6 +384,20 @@ public class JobCoordinationService {
     /**
      * Schedules a restart task that will be run in future for the given job
      */
+    /**
+     * Returns the busy time per vertex, summed over all members, in the last
+     * completed execution of a job with the given DAG key, or {@code null} if
+     * not known. The history is kept only on this member, so it's lost when
+     * the master changes.
+     */
+    Map<String, Long> getVertexBusyNanos(String dagKey) {
+        return vertexBusyNanos.get(dagKey);
+    }
+
+    void recordVertexBusyNanos(String dagKey, Map<String, Long> busyNanos) {
+        vertexBusyNanos.put(dagKey, busyNanos);
+    }
+
     void scheduleRestart(long jobId) {
         MasterContext masterContext = masterContexts.get(jobId);
         if (masterContext != null) {
@@ -418,7 +466,7 @@ public class JobCoordinationService {
             } catch (Exception e) {
                 logger.warning("Cannot delete old snapshots for " + jobAndExecutionId(jobId, executionId));
             }
-            scheduleSnapshot(jobId, executionId);
+            masterContext.notifySnapshotCompleted(executionId, snapshotId, isSuccess);
         } else {
             logger.warning("MasterContext not found to finalize snapshot of " + jobAndExecutionId(jobId, executionId)
                     + " with result: " + isSuccess);
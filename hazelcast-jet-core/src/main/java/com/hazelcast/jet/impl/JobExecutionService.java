@@ -28,6 +28,7 @@ import com.hazelcast.jet.impl.execution.SenderTasklet;
 import com.hazelcast.jet.impl.execution.TaskletExecutionService;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.operation.ExecuteOperation;
+import com.hazelcast.jet.impl.operation.SnapshotCompletedOperation;
 import com.hazelcast.jet.impl.operation.SnapshotOperation;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
@@ -37,6 +38,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
@@ -48,11 +50,15 @@ import java.util.function.Supplier;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.Util.idToString;
 import static com.hazelcast.jet.impl.util.Util.jobAndExecutionId;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedMap;
 import static java.util.stream.Collectors.toSet;
 
 public class JobExecutionService {
 
+    private static final int MAX_RECORDED_JOBS = 1024;
+
     private final NodeEngineImpl nodeEngine;
     private final ILogger logger;
     private final TaskletExecutionService taskletExecutionService;
@@ -68,6 +74,9 @@ public class JobExecutionService {
     // key: jobId
     private final ConcurrentHashMap<Long, JetClassLoader> classLoaders = new ConcurrentHashMap<>();
 
+    // key: jobId, value: average item size per vertex and outbound ordinal in the last completed execution
+    private final Map<Long, Map<String, long[]>> vertexItemSizes = recentJobsMap();
+
     JobExecutionService(NodeEngineImpl nodeEngine, TaskletExecutionService taskletExecutionService) {
         this.nodeEngine = nodeEngine;
         this.logger = nodeEngine.getLogger(getClass());
@@ -78,6 +87,15 @@ public class JobExecutionService {
         return classLoaders.computeIfAbsent(jobId, k -> AccessController.doPrivileged(action));
     }
 
+    /**
+     * Returns the average serialized size of the items emitted to each
+     * outbound ordinal of each vertex, measured on this member in the last
+     * completed execution of the job, or {@code null} if not known.
+     */
+    public Map<String, long[]> getVertexItemSizes(long jobId) {
+        return vertexItemSizes.get(jobId);
+    }
+
     public ExecutionContext getExecutionContext(long executionId) {
         return executionContexts.get(executionId);
     }
@@ -271,17 +289,24 @@ public class JobExecutionService {
     }
 
     /**
-     * Completes and cleans up execution of the given job
+     * Completes and cleans up execution of the given job. Returns the busy
+     * time per vertex measured on this member in the execution, empty if the
+     * execution isn't found.
      */
-    void completeExecution(long executionId, Throwable error) {
+    Map<String, Long> completeExecution(long executionId, Throwable error) {
         ExecutionContext executionContext = executionContexts.remove(executionId);
         if (executionContext != null) {
             executionContext.complete(error);
+            if (!executionContext.vertexItemSizes().isEmpty()) {
+                vertexItemSizes.put(executionContext.getJobId(), executionContext.vertexItemSizes());
+            }
             classLoaders.remove(executionContext.getJobId());
             executionContextJobIds.remove(executionContext.getJobId());
             logger.fine("Completed execution of " + jobAndExecutionId(executionContext.getJobId(), executionId));
+            return executionContext.vertexBusyNanos();
         } else {
             logger.fine("Execution " + idToString(executionId) + " not found for completion");
+            return emptyMap();
         }
     }
     public CompletionStage<Void> beginSnapshot(Address coordinator, long jobId, long executionId, long snapshotId) {
@@ -290,4 +315,21 @@ public class JobExecutionService {
 
         return executionContext.beginSnapshot(snapshotId);
     }
+
+    public void snapshotCompleted(Address coordinator, long jobId, long executionId, long snapshotId,
+                                  boolean success) {
+        ExecutionContext executionContext = verifyAndGetExecutionContext(coordinator, jobId, executionId,
+                SnapshotCompletedOperation.class.getSimpleName());
+
+        executionContext.snapshotCompleted(snapshotId, success);
+    }
+
+    private static <V> Map<Long, V> recentJobsMap() {
+        return synchronizedMap(new LinkedHashMap<Long, V>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > MAX_RECORDED_JOBS;
+            }
+        });
+    }
 }
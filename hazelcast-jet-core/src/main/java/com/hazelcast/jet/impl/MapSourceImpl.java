@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.processor.SourceProcessors;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+
+/**
+ * A source which reads all entries of a local {@code IMap}. The {@link
+ * Planner} can replace it with a source which applies the given predicate
+ * while reading, see {@link #metaSupplier(Predicate)}.
+ */
+public class MapSourceImpl<K, V> extends SourceImpl<Entry<K, V>> {
+
+    private final String mapName;
+
+    public MapSourceImpl(String name, String mapName) {
+        super(name, SourceProcessors.readMapP(mapName));
+        this.mapName = mapName;
+    }
+
+    /**
+     * Returns a meta-supplier of processors which emit the entries matching
+     * the {@code predicate}.
+     */
+    public ProcessorMetaSupplier metaSupplier(Predicate<K, V> predicate) {
+        return SourceProcessors.readMapP(mapName, predicate, copyEntry());
+    }
+
+    private static <K, V> Projection<Entry<K, V>, Entry<K, V>> copyEntry() {
+        return new Projection<Entry<K, V>, Entry<K, V>>() {
+            @Override
+            public Entry<K, V> transform(Entry<K, V> e) {
+                // the input is a lazy entry bound to the record store
+                return entry(e.getKey(), e.getValue());
+            }
+        };
+    }
+}
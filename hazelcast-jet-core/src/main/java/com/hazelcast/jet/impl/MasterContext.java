@@ -20,10 +20,12 @@ import com.hazelcast.core.ExecutionCallback;
 import com.hazelcast.internal.cluster.MemberInfo;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.cluster.impl.MembersView;
+import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Edge;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.core.Vertex;
@@ -33,9 +35,12 @@ import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlanBuilder;
 import com.hazelcast.jet.impl.operation.CompleteOperation;
 import com.hazelcast.jet.impl.operation.ExecuteOperation;
+import com.hazelcast.jet.impl.operation.GetLocalJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.InitOperation;
+import com.hazelcast.jet.impl.operation.SnapshotCompletedOperation;
 import com.hazelcast.jet.impl.operation.SnapshotOperation;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
+import com.hazelcast.jet.impl.util.JobMetricsUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.spi.InternalCompletableFuture;
@@ -50,6 +55,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -73,6 +79,7 @@ import static com.hazelcast.jet.impl.execution.init.CustomClassLoadedObject.dese
 import static com.hazelcast.jet.impl.util.ExceptionUtil.isTopologicalFailure;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
+import static com.hazelcast.jet.impl.util.Util.getJetInstance;
 import static com.hazelcast.jet.impl.util.Util.idToString;
 import static com.hazelcast.jet.impl.util.Util.jobAndExecutionId;
 import static com.hazelcast.query.TruePredicate.truePredicate;
@@ -154,6 +161,8 @@ public class MasterContext {
         // save a copy of the vertex list, because it is going to change
         vertexNames = new HashSet<>();
         dag.iterator().forEachRemaining(e1 -> vertexNames.add(e1.getName()));
+        adjustLocalParallelism(dag);
+        adjustQueueSizes(dag);
         executionId = executionIdSupplier.apply(jobId);
 
         // last started snapshot complete or not complete. The next started snapshot must be greater than this number
@@ -195,6 +204,46 @@ public class MasterContext {
         invoke(operationCtor, this::onInitStepCompleted, null);
     }
 
+    /**
+     * If a job with the same vertices ran before, scales the default local
+     * parallelism of the vertices by the time they spent working on all the
+     * members in its last execution. The DAG's vertex names are the key, so
+     * the history also applies to a resubmitted job. It's kept only on the
+     * master and is lost when the master changes.
+     */
+    private void adjustLocalParallelism(DAG dag) {
+        Map<String, Long> busyNanos = coordinationService.getVertexBusyNanos(dagKey());
+        if (busyNanos == null) {
+            return;
+        }
+        int defaultParallelism = getJetInstance(nodeEngine).getConfig().getInstanceConfig().getCooperativeThreadCount();
+        Map<String, Integer> adjusted = ExecutionPlanBuilder.adjustLocalParallelism(dag, busyNanos, defaultParallelism);
+        if (!adjusted.isEmpty()) {
+            logger.info("Local parallelism of " + jobAndExecutionId(jobId, executionId)
+                    + " adjusted based on the previous execution: " + adjusted);
+        }
+    }
+
+    /**
+     * If the job has a queue memory budget and ran before, sizes the queues
+     * of its edges by the size of the items they carried.
+     */
+    private void adjustQueueSizes(DAG dag) {
+        long memoryBudget = jobRecord.getConfig().getQueueMemoryBudget();
+        JetService jetService = nodeEngine.getService(JetService.SERVICE_NAME);
+        Map<String, long[]> itemSizes = jetService.getJobExecutionService().getVertexItemSizes(jobId);
+        if (memoryBudget <= 0 || itemSizes == null) {
+            return;
+        }
+        JetConfig config = getJetInstance(nodeEngine).getConfig();
+        Map<Edge, Integer> adjusted = ExecutionPlanBuilder.adjustQueueSizes(dag, itemSizes, memoryBudget,
+                config.getInstanceConfig().getCooperativeThreadCount(), config.getDefaultEdgeConfig());
+        if (!adjusted.isEmpty()) {
+            logger.info("Queue sizes of " + jobAndExecutionId(jobId, executionId)
+                    + " adjusted based on the previous execution: " + adjusted);
+        }
+    }
+
     private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId) {
         logger.info(jobAndExecutionId(jobId, executionId) + ": restoring state from snapshotId=" + snapshotId);
         for (Vertex vertex : dag) {
@@ -399,6 +448,44 @@ public class MasterContext {
         coordinationService.completeSnapshot(jobId, executionId, snapshotId, isSuccess);
     }
 
+    /**
+     * Notifies the participants that the snapshot completed with its status
+     * recorded and then schedules the next snapshot, so that the processors
+     * are notified before they save their state to the next one.
+     */
+    void notifySnapshotCompleted(long executionId, long snapshotId, boolean isSuccess) {
+        Function<ExecutionPlan, Operation> factory =
+                plan -> new SnapshotCompletedOperation(jobId, executionId, snapshotId, isSuccess);
+        invoke(factory, responses -> coordinationService.scheduleSnapshot(jobId, executionId), null);
+    }
+
+    /**
+     * Collects the metrics of the current execution from all participants.
+     * Members which fail to respond are left out of the result.
+     */
+    CompletableFuture<JobMetrics> collectMetrics() {
+        CompletableFuture<JobMetrics> future = new CompletableFuture<>();
+        if (jobStatus() != RUNNING) {
+            future.complete(JobMetrics.empty());
+            return future;
+        }
+
+        long executionId = this.executionId;
+        invoke(plan -> new GetLocalJobMetricsOperation(executionId), responses -> {
+            JobMetrics merged = JobMetrics.empty();
+            for (Entry<MemberInfo, Object> e : responses.entrySet()) {
+                if (e.getValue() instanceof JobMetrics) {
+                    merged = JobMetricsUtil.merge(merged, (JobMetrics) e.getValue());
+                } else {
+                    logger.fine("Metrics of " + jobAndExecutionId(jobId, executionId) + " not available from "
+                            + e.getKey().getAddress() + ": " + e.getValue());
+                }
+            }
+            future.complete(merged);
+        }, null);
+        return future;
+    }
+
     // Called as callback when all ExecuteOperation invocations are done
     private void onExecuteStepCompleted(Map<MemberInfo, Object> responses) {
         invokeComplete(getExecuteResult(responses));
@@ -458,7 +545,28 @@ public class MasterContext {
         }
 
         Function<ExecutionPlan, Operation> operationCtor = plan -> new CompleteOperation(executionId, finalError);
-        invoke(operationCtor, responses -> onCompleteStepCompleted(error), null);
+        invoke(operationCtor, responses -> {
+            recordVertexBusyNanos(responses);
+            onCompleteStepCompleted(error);
+        }, null);
+    }
+
+    // sums the busy time per vertex returned by the CompleteOperations of all members
+    @SuppressWarnings("unchecked")
+    private void recordVertexBusyNanos(Map<MemberInfo, Object> responses) {
+        Map<String, Long> busyNanos = new HashMap<>();
+        for (Object response : responses.values()) {
+            if (response instanceof Map) {
+                ((Map<String, Long>) response).forEach((vertex, nanos) -> busyNanos.merge(vertex, nanos, Long::sum));
+            }
+        }
+        if (!busyNanos.isEmpty()) {
+            coordinationService.recordVertexBusyNanos(dagKey(), busyNanos);
+        }
+    }
+
+    private String dagKey() {
+        return String.join(",", new TreeSet<>(vertexNames));
     }
 
     // Called as callback when all CompleteOperation invocations are done
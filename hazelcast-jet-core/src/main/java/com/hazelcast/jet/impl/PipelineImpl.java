@@ -28,13 +28,13 @@ import com.hazelcast.jet.impl.transform.UnaryTransform;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class PipelineImpl implements Pipeline {
 
-    private final Map<Stage, List<Stage>> adjacencyMap = new HashMap<>();
+    private final Map<Stage, List<Stage>> adjacencyMap = new LinkedHashMap<>();
 
     @Override
     public <E> ComputeStage<E> drawFrom(Source<E> source) {
@@ -67,7 +67,7 @@ public class PipelineImpl implements Pipeline {
     }
 
     Map<Stage, List<Stage>> adjacencyMap() {
-        Map<Stage, List<Stage>> safeCopy = new HashMap<>();
+        Map<Stage, List<Stage>> safeCopy = new LinkedHashMap<>();
         adjacencyMap.forEach((k, v) -> safeCopy.put(k, new ArrayList<>(v)));
         return safeCopy;
     }
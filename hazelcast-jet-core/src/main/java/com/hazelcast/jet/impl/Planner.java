@@ -20,14 +20,21 @@ import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Edge;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.TimestampKind;
 import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.function.DistributedToLongFunction;
 import com.hazelcast.jet.impl.processor.HashJoinCollectP;
 import com.hazelcast.jet.impl.processor.HashJoinP;
+import com.hazelcast.jet.impl.processor.MapAndCoGroupP;
+import com.hazelcast.jet.impl.util.FlatMapChainTraverser;
 import com.hazelcast.jet.ComputeStage;
 import com.hazelcast.jet.JoinClause;
 import com.hazelcast.jet.Stage;
+import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Transform;
 import com.hazelcast.jet.impl.transform.CoGroupTransform;
 import com.hazelcast.jet.impl.transform.FilterTransform;
@@ -36,12 +43,19 @@ import com.hazelcast.jet.impl.transform.GroupByTransform;
 import com.hazelcast.jet.impl.transform.HashJoinTransform;
 import com.hazelcast.jet.impl.transform.MapTransform;
 import com.hazelcast.jet.impl.transform.ProcessorTransform;
+import com.hazelcast.jet.impl.transform.SessionWindowTransform;
+import com.hazelcast.jet.impl.transform.TimestampTransform;
+import com.hazelcast.jet.impl.transform.WindowTransform;
 import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.query.Predicate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,44 +63,49 @@ import java.util.function.Function;
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.Partitioner.HASH_CODE;
+import static com.hazelcast.jet.function.DistributedFunction.identity;
 import static com.hazelcast.jet.function.DistributedFunctions.entryKey;
 import static com.hazelcast.jet.impl.TopologicalSorter.topologicalSort;
-import static com.hazelcast.util.UuidUtil.newUnsecureUUID;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 @SuppressWarnings("unchecked")
 class Planner {
 
-    private static final int RANDOM_SUFFIX_LENGTH = 8;
-
     private final PipelineImpl pipeline;
     private final DAG dag = new DAG();
     private final Map<Stage, PlannerVertex> stage2vertex = new HashMap<>();
-
+    private final Set<Stage> fusedStages = new HashSet<>();
+    private Map<Stage, List<Stage>> adjacencyMap;
 
     Planner(PipelineImpl pipeline) {
         this.pipeline = pipeline;
     }
 
     DAG createDag() {
-        Map<Stage, List<Stage>> adjacencyMap = pipeline.adjacencyMap();
+        adjacencyMap = pipeline.adjacencyMap();
         validateNoLeakage(adjacencyMap);
         Iterable<AbstractStage> sorted = (Iterable<AbstractStage>) (Iterable<? extends Stage>)
                 topologicalSort(adjacencyMap, Object::toString);
         for (AbstractStage stage : sorted) {
+            if (fusedStages.contains(stage)) {
+                continue;
+            }
             Transform transform = stage.transform;
             if (transform instanceof SourceImpl) {
                 handleSource(stage, (SourceImpl) transform);
             } else if (transform instanceof ProcessorTransform) {
                 handleProcessorStage(stage, (ProcessorTransform) transform);
-            } else if (transform instanceof FilterTransform) {
-                handleFilter(stage, (FilterTransform) transform);
-            } else if (transform instanceof MapTransform) {
-                handleMap(stage, (MapTransform) transform);
-            } else if (transform instanceof FlatMapTransform) {
-                handleFlatMap(stage, (FlatMapTransform) transform);
+            } else if (isStateless(transform)) {
+                handleStatelessChain(stage);
             } else if (transform instanceof GroupByTransform) {
                 handleGroupBy(stage, (GroupByTransform) transform);
+            } else if (transform instanceof TimestampTransform) {
+                handleAddTimestamps(stage, (TimestampTransform) transform);
+            } else if (transform instanceof WindowTransform) {
+                handleWindow(stage, (WindowTransform) transform);
+            } else if (transform instanceof SessionWindowTransform) {
+                handleSessionWindow(stage, (SessionWindowTransform) transform);
             } else if (transform instanceof CoGroupTransform) {
                 handleCoGroup(stage, (CoGroupTransform) transform);
             } else if (transform instanceof HashJoinTransform) {
@@ -114,46 +133,263 @@ class Planner {
     }
 
     private void handleSource(AbstractStage stage, SourceImpl source) {
+        if (source instanceof MapSourceImpl && tryFuseIntoMapSource(stage, (MapSourceImpl) source)) {
+            return;
+        }
         addVertex(stage, source.name(), source.metaSupplier(), false);
     }
 
+    /**
+     * Fuses the filter stages directly following a map source into the
+     * source's predicate. Every fused stage except the last one must have a
+     * single downstream stage. Map stages aren't fused: their results would
+     * have to be serializable and the user function would run on the
+     * partition threads.
+     *
+     * @return {@code false} if there was nothing to fuse
+     */
+    private boolean tryFuseIntoMapSource(AbstractStage stage, MapSourceImpl<Object, Object> source) {
+        List<DistributedPredicate<Object>> filterFns = new ArrayList<>();
+        List<Stage> fused = new ArrayList<>();
+        for (Stage current = stage; adjacencyMap.get(current).size() == 1; ) {
+            current = adjacencyMap.get(current).get(0);
+            Transform transform = ((AbstractStage) current).transform;
+            if (!(transform instanceof FilterTransform)) {
+                break;
+            }
+            filterFns.add((DistributedPredicate<Object>) ((FilterTransform) transform).filterFn);
+            fused.add(current);
+        }
+        if (fused.isEmpty()) {
+            return false;
+        }
+        PlannerVertex pv = addVertex(stage, source.name(), source.metaSupplier(allOf(filterFns)), false);
+        applyLocalParallelismHint(pv.v, fused);
+        for (Stage fusedStage : fused) {
+            stage2vertex.put(fusedStage, pv);
+            fusedStages.add(fusedStage);
+        }
+        return true;
+    }
+
+    private static Predicate<Object, Object> allOf(List<DistributedPredicate<Object>> filterFns) {
+        return entry -> {
+            for (DistributedPredicate<Object> filterFn : filterFns) {
+                if (!filterFn.test(entry)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     private void handleProcessorStage(AbstractStage stage, ProcessorTransform procTransform) {
         PlannerVertex pv = addVertex(stage,
-                procTransform.transformName + '.' + randomSuffix(), procTransform.procSupplier);
+                uniqueVertexName(procTransform.transformName, ""), procTransform.procSupplier);
         addEdges(stage, pv.v);
     }
 
-    private void handleMap(AbstractStage stage, MapTransform map) {
-        PlannerVertex pv = addVertex(stage, "map." + randomSuffix(), Processors.mapP(map.mapFn));
+    /**
+     * Fuses the given stateless stage and the stateless stages following it
+     * into a single vertex. A stage is added to the chain only if the
+     * previous one has no other downstream stage. If the chain has no
+     * flatMap stage and is followed only by a group-by, it's fused into the
+     * group-by's accumulating vertex instead.
+     */
+    private void handleStatelessChain(AbstractStage stage) {
+        List<AbstractStage> chain = new ArrayList<>();
+        chain.add(stage);
+        AbstractStage next;
+        for (AbstractStage last = stage; ; ) {
+            List<Stage> downstream = adjacencyMap.get(last);
+            next = downstream.size() == 1 ? (AbstractStage) downstream.get(0) : null;
+            if (next == null || !isStateless(next.transform)) {
+                break;
+            }
+            last = next;
+            chain.add(last);
+        }
+        List<Transform> transforms = chain.stream().map(s -> s.transform).collect(toList());
+        if (next != null && next.transform instanceof GroupByTransform
+                && transforms.stream().noneMatch(t -> t instanceof FlatMapTransform)) {
+            fuseIntoGroupBy(chain, next, (GroupByTransform<Object, Object, Object, Object>) next.transform);
+            return;
+        }
+        String name = transforms.stream().map(Planner::vertexNamePrefix).collect(joining("-"));
+        PlannerVertex pv = addVertex(chain.get(chain.size() - 1), uniqueVertexName(name, ""),
+                statelessProcessorSupplier(transforms));
+        applyLocalParallelismHint(pv.v, chain);
+        for (AbstractStage fused : chain) {
+            stage2vertex.put(fused, pv);
+            fusedStages.add(fused);
+        }
         addEdges(stage, pv.v);
     }
 
-    private void handleFilter(AbstractStage stage, FilterTransform filter) {
-        PlannerVertex pv = addVertex(stage, "filter." + randomSuffix(), Processors.filterP(filter.filterFn));
-        addEdges(stage, pv.v);
+    private static boolean isStateless(Transform transform) {
+        return transform instanceof MapTransform
+                || transform instanceof FilterTransform
+                || transform instanceof FlatMapTransform;
     }
 
-    private void handleFlatMap(AbstractStage stage, FlatMapTransform flatMap) {
-        PlannerVertex pv = addVertex(stage, "flatMap." + randomSuffix(),
-                Processors.flatMapP(flatMap.flatMapFn()));
-        addEdges(stage, pv.v);
+    private static String vertexNamePrefix(Transform transform) {
+        return transform instanceof MapTransform ? "map"
+                : transform instanceof FilterTransform ? "filter"
+                : "flatMap";
+    }
+
+    private static DistributedSupplier<Processor> statelessProcessorSupplier(List<Transform> transforms) {
+        if (transforms.size() == 1) {
+            Transform transform = transforms.get(0);
+            if (transform instanceof MapTransform) {
+                return Processors.mapP(((MapTransform) transform).mapFn);
+            }
+            if (transform instanceof FilterTransform) {
+                return Processors.filterP(((FilterTransform) transform).filterFn);
+            }
+            return Processors.flatMapP(((FlatMapTransform) transform).flatMapFn());
+        }
+        if (transforms.stream().noneMatch(t -> t instanceof FlatMapTransform)) {
+            DistributedFunction<Object, Object> mapFn = null;
+            for (Transform transform : transforms) {
+                mapFn = andThenNonNull(mapFn, toNullableMapFn(transform));
+            }
+            return Processors.mapP(mapFn);
+        }
+        // The map and filter functions before the first flatMap, between two
+        // flatMaps and after the last one are each composed into one function
+        // which returns null for the dropped items. mapFns has a null element
+        // where there are no such functions. Each processor reuses one chain
+        // traverser, resetting it for every received item.
+        List<DistributedFunction<Object, Object>> mapFns = new ArrayList<>();
+        List<DistributedFunction<Object, Traverser<Object>>> flatMapFns = new ArrayList<>();
+        DistributedFunction<Object, Object> mapFn = null;
+        for (Transform transform : transforms) {
+            if (!(transform instanceof FlatMapTransform)) {
+                mapFn = andThenNonNull(mapFn, toNullableMapFn(transform));
+                continue;
+            }
+            mapFns.add(mapFn);
+            flatMapFns.add((DistributedFunction<Object, Traverser<Object>>) (DistributedFunction)
+                    ((FlatMapTransform) transform).flatMapFn());
+            mapFn = null;
+        }
+        mapFns.add(mapFn);
+        return Processors.<Object, Object>flatMapP(() -> {
+            FlatMapChainTraverser traverser = new FlatMapChainTraverser(mapFns, flatMapFns);
+            return traverser::reset;
+        });
+    }
+
+    /**
+     * Returns the map or filter function as a function which returns {@code
+     * null} for the items that are to be dropped.
+     */
+    private static DistributedFunction<Object, Object> toNullableMapFn(Transform transform) {
+        if (transform instanceof MapTransform) {
+            return (DistributedFunction<Object, Object>) ((MapTransform) transform).mapFn;
+        }
+        DistributedPredicate<Object> filterFn = (DistributedPredicate<Object>) ((FilterTransform) transform).filterFn;
+        return item -> filterFn.test(item) ? item : null;
+    }
+
+    private static DistributedFunction<Object, Object> andThenNonNull(
+            DistributedFunction<Object, Object> first, DistributedFunction<Object, Object> second
+    ) {
+        if (first == null) {
+            return second;
+        }
+        return item -> {
+            Object mapped = first.apply(item);
+            return mapped != null ? second.apply(mapped) : null;
+        };
     }
 
     private void handleGroupBy(AbstractStage stage, GroupByTransform<Object, Object, Object, Object> groupBy) {
-        String name = "groupByKey." + randomSuffix() + ".stage";
-        Vertex v1 = dag.newVertex(name + '1',
+        Vertex v1 = addGroupByVertices(stage, groupBy,
                 Processors.accumulateByKeyP(groupBy.keyFn(), groupBy.aggregateOperation()));
+        addEdges(stage, v1, e -> e.partitioned(groupBy.keyFn(), HASH_CODE));
+    }
+
+    // The accumulating vertex applies the map and filter functions of the
+    // chain before accumulating an item. Its inbound edge carries the items
+    // before mapping, so it can't be partitioned by the grouping key: each
+    // processor may accumulate any key and the combining vertex receives more
+    // partial results.
+    private void fuseIntoGroupBy(
+            List<AbstractStage> chain, AbstractStage stage, GroupByTransform<Object, Object, Object, Object> groupBy
+    ) {
+        DistributedFunction<Object, Object> mapFn = null;
+        for (AbstractStage fused : chain) {
+            mapFn = andThenNonNull(mapFn, toNullableMapFn(fused.transform));
+        }
+        Vertex v1 = addGroupByVertices(stage, groupBy,
+                mapAndAccumulateByKeyP(mapFn, groupBy.keyFn(), groupBy.aggregateOperation()));
+        applyLocalParallelismHint(v1, chain);
+        fusedStages.addAll(chain);
+        fusedStages.add(stage);
+        addEdges(chain.get(0), v1);
+    }
+
+    private static <T, K, A> DistributedSupplier<Processor> mapAndAccumulateByKeyP(
+            DistributedFunction<Object, ? extends T> mapFn,
+            DistributedFunction<? super T, ? extends K> keyFn,
+            AggregateOperation1<? super T, A, ?> aggrOp
+    ) {
+        return () -> new MapAndCoGroupP<>(mapFn, keyFn, aggrOp.withFinishFn(identity()));
+    }
+
+    // Adds the vertices of a two-stage group-by and the edge between them.
+    // Returns the accumulating vertex.
+    private Vertex addGroupByVertices(
+            AbstractStage stage, GroupByTransform<Object, Object, Object, Object> groupBy,
+            DistributedSupplier<Processor> accumulateP
+    ) {
+        String name = uniqueVertexName("groupByKey", ".stage1") + ".stage";
+        Vertex v1 = dag.newVertex(name + '1', accumulateP);
+        v1.localParallelism(stage.getLocalParallelism());
         PlannerVertex pv2 = addVertex(stage, name + '2',
                 Processors.combineByKeyP(groupBy.aggregateOperation()));
-        addEdges(stage, v1, e -> e.partitioned(groupBy.keyFn(), HASH_CODE));
+        dag.edge(between(v1, pv2.v).distributed().partitioned(entryKey()));
+        return v1;
+    }
+
+    private void handleAddTimestamps(AbstractStage stage, TimestampTransform<Object> addTimestamps) {
+        PlannerVertex pv = addVertex(stage, uniqueVertexName("insertWatermarks", ""),
+                Processors.insertWatermarksP((DistributedToLongFunction<Object>) addTimestamps.timestampFn(),
+                        addTimestamps.wmPolicyFn(), addTimestamps.wmEmitPolicy()));
+        addEdges(stage, pv.v);
+    }
+
+    // The first stage accumulates the items by key and frame locally, the
+    // second one combines the frames from all members into sliding windows.
+    // Only the partially aggregated frames travel over the network.
+    private void handleWindow(AbstractStage stage, WindowTransform<Object, Object, Object, Object> window) {
+        String name = uniqueVertexName("slidingWindow", ".stage1") + ".stage";
+        Vertex v1 = dag.newVertex(name + '1', Processors.accumulateByFrameP(window.keyFn(), window.timestampFn(),
+                TimestampKind.EVENT, window.windowDefinition(), window.aggregateOperation()));
+        v1.localParallelism(stage.getLocalParallelism());
+        PlannerVertex pv2 = addVertex(stage, name + '2',
+                Processors.combineToSlidingWindowP(window.windowDefinition(), window.aggregateOperation()));
+        addEdges(stage, v1, e -> e.partitioned(window.keyFn(), HASH_CODE));
         dag.edge(between(v1, pv2.v).distributed().partitioned(entryKey()));
     }
 
+    private void handleSessionWindow(
+            AbstractStage stage, SessionWindowTransform<Object, Object, Object, Object> sessionWindow
+    ) {
+        PlannerVertex pv = addVertex(stage, uniqueVertexName("sessionWindow", ""),
+                Processors.aggregateToSessionWindowP(sessionWindow.sessionTimeout(), sessionWindow.timestampFn(),
+                        sessionWindow.keyFn(), sessionWindow.aggregateOperation()));
+        addEdges(stage, pv.v, e -> e.distributed().partitioned(sessionWindow.keyFn()));
+    }
+
     private void handleCoGroup(AbstractStage stage, CoGroupTransform<Object, Object, Object> coGroup) {
         List<DistributedFunction<?, ?>> groupKeyFs = coGroup.groupKeyFs();
-        String name = "coGroup." + randomSuffix() + ".stage";
+        String name = uniqueVertexName("coGroup", ".stage1") + ".stage";
         Vertex v1 = dag.newVertex(name + '1',
                 Processors.coAccumulateByKeyP(groupKeyFs, coGroup.aggregateOperation()));
+        v1.localParallelism(stage.getLocalParallelism());
         PlannerVertex pv2 = addVertex(stage, name + '2',
                 Processors.combineByKeyP(coGroup.aggregateOperation()));
         addEdges(stage, v1, (e, ord) -> e.partitioned(groupKeyFs.get(ord), HASH_CODE));
@@ -182,7 +418,7 @@ class Planner {
     //                             | joiner |
     //                              --------
     private void handleHashJoin(AbstractStage stage, HashJoinTransform<?> hashJoin) {
-        String hashJoinName = "hashJoin." + randomSuffix();
+        String hashJoinName = uniqueVertexName("hashJoin", ".joiner");
         PlannerVertex primary = stage2vertex.get(stage.upstream.get(0));
         List<Function<Object, Object>> keyFns = (List<Function<Object, Object>>) (List)
                 hashJoin.clauses().stream()
@@ -226,7 +462,8 @@ class Planner {
     private PlannerVertex addVertex(
             Stage stage, String name, ProcessorMetaSupplier metaSupplier, boolean parallelize
     ) {
-        Vertex v = dag.newVertex(name, metaSupplier).localParallelism(parallelize ? -1 : 1);
+        int hint = ((AbstractStage) stage).getLocalParallelism();
+        Vertex v = dag.newVertex(name, metaSupplier).localParallelism(hint != -1 ? hint : parallelize ? -1 : 1);
         PlannerVertex pv = new PlannerVertex(v);
         stage2vertex.put(stage, pv);
         return pv;
@@ -251,9 +488,33 @@ class Planner {
         addEdges(stage, toVertex, e -> { });
     }
 
-    private static String randomSuffix() {
-        String uuid = newUnsecureUUID().toString();
-        return uuid.substring(uuid.length() - RANDOM_SUFFIX_LENGTH, uuid.length());
+    /**
+     * Applies the highest local parallelism preferred by the given stages
+     * fused into the vertex, if any of them has a preference.
+     */
+    private static void applyLocalParallelismHint(Vertex v, List<? extends Stage> fusedStages) {
+        fusedStages.stream()
+                   .mapToInt(Stage::getLocalParallelism)
+                   .max()
+                   .ifPresent(hint -> {
+                       if (hint != -1) {
+                           v.localParallelism(Math.max(hint, v.getLocalParallelism()));
+                       }
+                   });
+    }
+
+    /**
+     * Returns the given name, followed by "-2", "-3"... if the DAG already has
+     * a vertex named {@code name + suffix}. Planning the same pipeline again
+     * gives the vertices the same names.
+     */
+    private String uniqueVertexName(String name, String suffix) {
+        for (int index = 1; ; index++) {
+            String candidate = index == 1 ? name : name + '-' + index;
+            if (dag.getVertex(candidate + suffix) == null) {
+                return candidate;
+            }
+        }
     }
 
     private static <E> List<E> tailList(List<E> list) {
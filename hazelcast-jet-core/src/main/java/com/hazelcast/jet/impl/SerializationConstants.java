@@ -37,6 +37,8 @@ public final class SerializationConstants {
     public static final int VERTEX = 1;
     /** Serialization ID of the {@link Edge} class. */
     public static final int EDGE = 2;
+    /** Serialization ID of the {@link com.hazelcast.jet.core.JobMetrics} class. */
+    public static final int JOB_METRICS = 3;
 
     private SerializationConstants() {
 
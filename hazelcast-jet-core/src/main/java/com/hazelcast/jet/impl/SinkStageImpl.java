@@ -28,4 +28,10 @@ class SinkStageImpl extends AbstractStage implements SinkStage {
     SinkStageImpl(Stage upstream, Sink transform, PipelineImpl pipeline) {
         super(singletonList(upstream), emptyList(), transform, pipeline);
     }
+
+    @Override
+    public SinkStage setLocalParallelism(int localParallelism) {
+        super.setLocalParallelism(localParallelism);
+        return this;
+    }
 }
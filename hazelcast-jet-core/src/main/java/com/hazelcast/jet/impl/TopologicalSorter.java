@@ -20,6 +20,7 @@ package com.hazelcast.jet.impl;
 import javax.annotation.Nonnull;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -69,17 +70,19 @@ public final class TopologicalSorter<V> {
             @Nonnull Map<V, List<V>> adjacencyMap, @Nonnull Function<V, String> vertexNameFn
     ) {
         // decorate all the vertices with Tarjan vertices, which hold the
-        // metadata needed by the algorithm
+        // metadata needed by the algorithm. Linked maps keep the order of the
+        // input, so the same graph is always sorted the same way.
         Map<V, TarjanVertex<V>> tarjanVertices =
                 adjacencyMap.keySet().stream()
                             .map(v -> entry(v, new TarjanVertex<>(v)))
-                            .collect(toMap(Entry::getKey, Entry::getValue));
+                            .collect(toMap(Entry::getKey, Entry::getValue, (x, y) -> x, LinkedHashMap::new));
         Map<TarjanVertex<V>, List<TarjanVertex<V>>> tarjanAdjacencyMap =
                 adjacencyMap.entrySet().stream()
                             .collect(toMap(e -> tarjanVertices.get(e.getKey()),
                                            e -> e.getValue().stream()
                                                  .map(tarjanVertices::get)
-                                                 .collect(toList())));
+                                                 .collect(toList()),
+                                           (x, y) -> x, LinkedHashMap::new));
         return new TopologicalSorter<>(tarjanAdjacencyMap, vertexNameFn).go();
     }
 
@@ -17,69 +17,112 @@
 package com.hazelcast.jet.impl.connector;
 
 import com.hazelcast.jet.Traverser;
-import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.CloseableProcessorSupplier;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.processor.SourceProcessors;
+import com.hazelcast.nio.Address;
 
 import javax.annotation.Nonnull;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
-import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.util.stream.Collectors.toList;
 
 /**
  * Private API, use {@link SourceProcessors#readFilesP(String, Charset, String)}.
  * <p>
+ * The files are split into byte ranges which are distributed across all
+ * processors, so a single large file is read by all of them. A range
+ * contains the lines that start in it; a processor reads past the end of
+ * its range to finish the last line and skips the partial line at the
+ * start. The ranges are read through memory-mapped regions of the file.
+ * <p>
  * Since the work of this vertex is file IO-intensive, its {@link
  * com.hazelcast.jet.core.Vertex#localParallelism(int) local parallelism}
  * should be set according to the performance characteristics of the
  * underlying storage system. Modern high-end devices peak with 4-8 reading
  * threads, so if running a single Jet job with a single file-reading
- * vertex, the optimal value would be in the range of 4-8. Note that any
- * one file is only read by one thread, so extra parallelism won't improve
- * performance if there aren't enough files to read.
+ * vertex, the optimal value would be in the range of 4-8.
  */
 public final class ReadFilesP extends AbstractProcessor implements Closeable {
 
-    private final Charset charset;
-    private final int parallelism;
-    private final int id;
+    /**
+     * Files are not split into ranges smaller than this.
+     */
+    static final long DEFAULT_MIN_RANGE_SIZE = 1L << 24;
+
+    /**
+     * The size of a memory-mapped region of the file.
+     */
+    static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
     private final Path directory;
     private final String glob;
-    private DirectoryStream<Path> directoryStream;
-    private Traverser<String> outputTraverser;
+    private final Charset charset;
+    private final boolean asBuffers;
+    private final int sharedParallelism;
+    private final int localParallelism;
+    private final int localIndex;
+    private final long minRangeSize;
+    private final int windowSize;
+
+    private Traverser<Object> outputTraverser;
+    private RangeReader currentReader;
     private Stream<String> currentFileLines;
 
-    private ReadFilesP(String directory, Charset charset, String glob, int parallelism, int id) {
+    /**
+     * @param sharedParallelism the total parallelism of the vertex if the
+     *                          directory is on a filesystem shared by all
+     *                          members, otherwise {@code -1}
+     */
+    ReadFilesP(String directory, Charset charset, String glob, boolean asBuffers,
+               int sharedParallelism, int localParallelism, int localIndex, long minRangeSize, int windowSize
+    ) {
         this.directory = Paths.get(directory);
         this.glob = glob;
         this.charset = charset;
-        this.parallelism = parallelism;
-        this.id = id;
+        this.asBuffers = asBuffers;
+        this.sharedParallelism = sharedParallelism;
+        this.localParallelism = localParallelism;
+        this.localIndex = localIndex;
+        this.minRangeSize = minRangeSize;
+        this.windowSize = windowSize;
     }
 
     @Override
     protected void init(@Nonnull Context context) throws Exception {
-        directoryStream = Files.newDirectoryStream(directory, glob);
-        outputTraverser = Traversers.iterate(directoryStream.iterator())
-                                    .filter(this::shouldProcessEvent)
-                                    .flatMap(this::processFile)
-                                    .onFirstNull(() -> {
-                                        uncheckRun(this::close);
-                                        directoryStream = null;
-                                    });
+        boolean shared = sharedParallelism > 0;
+        int parallelism = shared ? sharedParallelism : localParallelism;
+        int index = shared ? context.globalProcessorIndex() : localIndex;
+        List<FileRange> ranges = assignedRanges(listFiles(), parallelism, index);
+        if (getLogger().isFinestEnabled()) {
+            getLogger().finest("Assigned file ranges: " + ranges);
+        }
+        outputTraverser = traverseIterable(ranges).flatMap(this::processRange);
     }
 
     @Override
@@ -87,52 +130,88 @@ public final class ReadFilesP extends AbstractProcessor implements Closeable {
         return emitFromTraverser(outputTraverser);
     }
 
-    private boolean shouldProcessEvent(Path file) {
-        if (Files.isDirectory(file)) {
-            return false;
-        }
-        int hashCode = file.hashCode();
-        return ((hashCode & Integer.MAX_VALUE) % parallelism) == id;
+    @Override
+    public boolean isCooperative() {
+        return false;
     }
 
-    private Traverser<String> processFile(Path file) {
-        if (getLogger().isFinestEnabled()) {
-            getLogger().finest("Processing file " + file);
+    @Override
+    public void close() throws IOException {
+        if (currentFileLines != null) {
+            currentFileLines.close();
         }
-        try {
-            assert currentFileLines == null : "currentFileLines != null";
-            currentFileLines = Files.lines(file, charset);
-            return traverseStream(currentFileLines)
-                    .onFirstNull(() -> {
-                        currentFileLines.close();
-                        currentFileLines = null;
-                    });
-        } catch (IOException e) {
-            throw sneakyThrow(e);
+        if (currentReader != null) {
+            currentReader.close();
         }
     }
 
-    @Override
-    public void close() throws IOException {
-        IOException ex = null;
-        if (directoryStream != null) {
-            try {
-                directoryStream.close();
-            } catch (IOException e) {
-                ex = e;
+    private List<Path> listFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : directoryStream) {
+                if (!Files.isDirectory(file)) {
+                    files.add(file);
+                }
             }
         }
-        if (currentFileLines != null) {
-            currentFileLines.close();
+        // all processors must see the files in the same order
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Splits the files into ranges and returns those with index equal to
+     * {@code index} modulo {@code parallelism}.
+     */
+    private List<FileRange> assignedRanges(List<Path> files, int parallelism, int index) throws IOException {
+        long[] sizes = new long[files.size()];
+        long totalSize = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Files.size(files.get(i));
+            totalSize += sizes[i];
         }
-        if (ex != null) {
-            throw ex;
+        // files can only be split at line boundaries if the line separator is a single byte
+        boolean splittable = Arrays.equals(new byte[] {LF, CR}, "\n\r".getBytes(charset));
+        long rangeSize = Math.max(minRangeSize, (totalSize + parallelism - 1) / parallelism);
+        List<FileRange> ranges = new ArrayList<>();
+        int rangeIndex = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (!splittable) {
+                if (rangeIndex++ % parallelism == index) {
+                    ranges.add(new FileRange(files.get(i), 0, sizes[i], false));
+                }
+                continue;
+            }
+            for (long start = 0; start < sizes[i] || start == 0; start += rangeSize) {
+                if (rangeIndex++ % parallelism == index) {
+                    ranges.add(new FileRange(files.get(i), start, Math.min(sizes[i], start + rangeSize), true));
+                }
+            }
         }
+        return ranges;
     }
 
-    @Override
-    public boolean isCooperative() {
-        return false;
+    private Traverser<Object> processRange(FileRange range) {
+        if (getLogger().isFinestEnabled()) {
+            getLogger().finest("Processing " + range);
+        }
+        try {
+            if (!range.splittable) {
+                assert currentFileLines == null : "currentFileLines != null";
+                currentFileLines = Files.lines(range.file, charset);
+                return traverseStream(currentFileLines)
+                        .map(line -> (Object) (asBuffers ? ByteBuffer.wrap(line.getBytes(charset)) : line))
+                        .onFirstNull(() -> {
+                            currentFileLines.close();
+                            currentFileLines = null;
+                        });
+            }
+            assert currentReader == null : "currentReader != null";
+            currentReader = new RangeReader(range);
+            return currentReader;
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
     }
 
     /**
@@ -140,9 +219,209 @@ public final class ReadFilesP extends AbstractProcessor implements Closeable {
      * instead.
      */
     public static ProcessorSupplier supplier(@Nonnull String directory, @Nonnull String charset, @Nonnull String glob) {
+        return supplier(directory, charset, glob, false, -1, DEFAULT_MIN_RANGE_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Private API. Use {@link SourceProcessors#readFilesP(String, Charset, String, boolean)}
+     * or {@link SourceProcessors#readFileBuffersP(String, String, boolean)} instead.
+     */
+    public static ProcessorMetaSupplier metaSupplier(
+            @Nonnull String directory, @Nonnull String charset, @Nonnull String glob,
+            boolean asBuffers, boolean sharedFileSystem
+    ) {
+        return new MetaSupplier(directory, charset, glob, asBuffers, sharedFileSystem);
+    }
+
+    static ProcessorSupplier supplier(
+            @Nonnull String directory, @Nonnull String charset, @Nonnull String glob, boolean asBuffers,
+            int sharedParallelism, long minRangeSize, int windowSize
+    ) {
         return new CloseableProcessorSupplier<>(
                 count -> IntStream.range(0, count)
-                                  .mapToObj(i -> new ReadFilesP(directory, Charset.forName(charset), glob, count, i))
+                                  .mapToObj(i -> new ReadFilesP(directory, Charset.forName(charset), glob, asBuffers,
+                                          sharedParallelism, count, i, minRangeSize, windowSize))
                                   .collect(toList()));
     }
+
+    private static final class MetaSupplier implements ProcessorMetaSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final String directory;
+        private final String charset;
+        private final String glob;
+        private final boolean asBuffers;
+        private final boolean sharedFileSystem;
+
+        private transient int totalParallelism;
+
+        MetaSupplier(String directory, String charset, String glob, boolean asBuffers, boolean sharedFileSystem) {
+            this.directory = directory;
+            this.charset = charset;
+            this.glob = glob;
+            this.asBuffers = asBuffers;
+            this.sharedFileSystem = sharedFileSystem;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            totalParallelism = context.totalParallelism();
+        }
+
+        @Nonnull @Override
+        public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            int sharedParallelism = sharedFileSystem ? totalParallelism : -1;
+            return address -> supplier(directory, charset, glob, asBuffers, sharedParallelism,
+                    DEFAULT_MIN_RANGE_SIZE, DEFAULT_WINDOW_SIZE);
+        }
+    }
+
+    private static final class FileRange {
+        final Path file;
+        final long start;
+        final long end;
+        final boolean splittable;
+
+        FileRange(Path file, long start, long end, boolean splittable) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.splittable = splittable;
+        }
+
+        @Override
+        public String toString() {
+            return file + "[" + start + ".." + end + ')';
+        }
+    }
+
+    /**
+     * Reads the lines starting in a byte range of a file through
+     * memory-mapped windows of the file.
+     */
+    private final class RangeReader implements Traverser<Object>, Closeable {
+        private final FileRange range;
+        private final FileChannel channel;
+        private final long fileSize;
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long windowEnd;
+        private long pos;
+
+        // holds the bytes of a line which spans two windows
+        private byte[] carry = new byte[0];
+        private int carryLen;
+        // holds the bytes of a line copied out of the direct buffer for decoding
+        private byte[] decodeBuf = new byte[0];
+
+        RangeReader(FileRange range) throws IOException {
+            this.range = range;
+            this.channel = FileChannel.open(range.file, READ);
+            this.fileSize = channel.size();
+            this.pos = range.start;
+            if (pos > 0 && pos < fileSize) {
+                // if the previous range didn't end with a line separator, the
+                // line we start in belongs to it
+                mapWindow(pos - 1);
+                if (window.get(0) != LF) {
+                    readLine(false);
+                }
+            }
+        }
+
+        @Override
+        public Object next() {
+            try {
+                if (pos >= range.end || pos >= fileSize) {
+                    close();
+                    return null;
+                }
+                return readLine(true);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }
+
+        private Object readLine(boolean emit) throws IOException {
+            carryLen = 0;
+            while (true) {
+                if (window == null || pos < windowStart || pos >= windowEnd) {
+                    mapWindow(pos);
+                }
+                int from = (int) (pos - windowStart);
+                int limit = (int) (windowEnd - windowStart);
+                int i = from;
+                while (i < limit && window.get(i) != LF) {
+                    i++;
+                }
+                boolean found = i < limit;
+                if (found || windowEnd == fileSize) {
+                    pos = windowStart + i + (found ? 1 : 0);
+                    if (!emit) {
+                        return null;
+                    }
+                    if (carryLen == 0) {
+                        return toItem(window, from, i, false);
+                    }
+                    appendToCarry(from, i);
+                    return toItem(ByteBuffer.wrap(carry), 0, carryLen, true);
+                }
+                if (emit) {
+                    appendToCarry(from, limit);
+                }
+                pos = windowEnd;
+            }
+        }
+
+        private Object toItem(ByteBuffer buf, int from, int to, boolean copy) {
+            if (to > from && buf.get(to - 1) == CR) {
+                to--;
+            }
+            int len = to - from;
+            if (asBuffers) {
+                if (copy) {
+                    return ByteBuffer.wrap(Arrays.copyOfRange(buf.array(), from, to));
+                }
+                ByteBuffer slice = buf.duplicate();
+                slice.limit(to).position(from);
+                return slice.slice().asReadOnlyBuffer();
+            }
+            if (buf.hasArray()) {
+                return new String(buf.array(), from, len, charset);
+            }
+            if (decodeBuf.length < len) {
+                decodeBuf = new byte[Math.max(len, 2 * decodeBuf.length)];
+            }
+            ByteBuffer src = buf.duplicate();
+            src.limit(to).position(from);
+            src.get(decodeBuf, 0, len);
+            return new String(decodeBuf, 0, len, charset);
+        }
+
+        private void appendToCarry(int from, int to) {
+            int len = to - from;
+            if (carry.length < carryLen + len) {
+                carry = Arrays.copyOf(carry, Math.max(carryLen + len, 2 * carry.length));
+            }
+            ByteBuffer src = window.duplicate();
+            src.limit(to).position(from);
+            src.get(carry, carryLen, len);
+            carryLen += len;
+        }
+
+        private void mapWindow(long start) throws IOException {
+            windowStart = start;
+            windowEnd = Math.min(fileSize, start + windowSize);
+            window = channel.map(READ_ONLY, windowStart, windowEnd - windowStart);
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+            currentReader = null;
+        }
+    }
 }
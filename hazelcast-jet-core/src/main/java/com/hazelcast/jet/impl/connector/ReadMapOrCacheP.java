@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.cache.impl.CacheEntryIterationResult;
+import com.hazelcast.cache.impl.CacheProxy;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.operation.CacheEntryIteratorOperation;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Partition;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.IterationType;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+import static com.hazelcast.jet.impl.util.Util.processorToPartitions;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Private API, see methods in {@link com.hazelcast.jet.core.processor.SourceProcessors}.
+ * <p>
+ * A cooperative processor which reads the local partitions of an {@code
+ * IMap} or {@code ICache} by invoking the batch-fetching operations
+ * asynchronously. It keeps up to {@code maxParallelRead} fetches in
+ * flight, each for a different partition. When a batch arrives, the next
+ * fetch for the same partition is issued before the batch is emitted, so
+ * the next batch is being prepared while the current one is processed.
+ * <p>
+ * The partitions owned by this member are read locally, the operations
+ * don't leave the member. When reading a map with a predicate and
+ * projection, both are applied inside the fetch operation, so only the
+ * matching, projected values are transferred to the processor.
+ *
+ * @param <B> type of the fetched batch
+ * @param <R> type of the record in the batch
+ */
+public final class ReadMapOrCacheP<B, R> extends AbstractProcessor {
+
+    /**
+     * Default maximum number of entries fetched in one operation.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 16384;
+
+    /**
+     * Default maximum number of fetch operations in flight per processor.
+     */
+    public static final int DEFAULT_MAX_PARALLEL_READ = 4;
+
+    /**
+     * Table index to start reading a partition from, the partitions are
+     * read from the end of the table.
+     */
+    private static final int START_OFFSET = Integer.MAX_VALUE;
+    private static final int DONE = -1;
+
+    private final Reader<B, R> reader;
+    private final int[] partitionIds;
+    private final int[] readOffsets;
+    private final Future<B>[] readFutures;
+    private final int maxParallelRead;
+
+    private int numInFlight;
+    private int numCompletedPartitions;
+    private int nextPartitionToRead;
+    private int nextPartitionToPoll;
+    private Traverser<Object> outputTraverser;
+
+    @SuppressWarnings("unchecked")
+    ReadMapOrCacheP(@Nonnull Reader<B, R> reader, @Nonnull List<Integer> partitionIds, int maxParallelRead) {
+        this.reader = reader;
+        this.partitionIds = partitionIds.stream().mapToInt(Integer::intValue).toArray();
+        this.readOffsets = new int[this.partitionIds.length];
+        this.readFutures = new Future[this.partitionIds.length];
+        this.maxParallelRead = maxParallelRead;
+        Arrays.fill(readOffsets, START_OFFSET);
+    }
+
+    @Override
+    public boolean complete() {
+        if (outputTraverser != null && !emitFromTraverser(outputTraverser)) {
+            return false;
+        }
+        outputTraverser = null;
+        startReads();
+        for (int i = 0; i < partitionIds.length; i++) {
+            int idx = nextPartitionToPoll;
+            nextPartitionToPoll = (idx + 1) % partitionIds.length;
+            Future<B> future = readFutures[idx];
+            if (future == null || !future.isDone()) {
+                continue;
+            }
+            B batch = getDone(future);
+            readFutures[idx] = null;
+            numInFlight--;
+            int nextOffset = reader.toNextOffset(batch);
+            if (nextOffset < 0) {
+                readOffsets[idx] = DONE;
+                numCompletedPartitions++;
+            } else {
+                // request the next batch before emitting the current one
+                readOffsets[idx] = nextOffset;
+                readFutures[idx] = reader.readBatch(partitionIds[idx], nextOffset);
+                numInFlight++;
+            }
+            startReads();
+            outputTraverser = toObjects(reader.toRecords(batch));
+            if (!emitFromTraverser(outputTraverser)) {
+                return false;
+            }
+            outputTraverser = null;
+        }
+        return numCompletedPartitions == partitionIds.length;
+    }
+
+    /**
+     * Converts the records, skipping those the projection mapped to {@code
+     * null}. A plain {@code map()} traverser would end at the first such
+     * record.
+     */
+    private Traverser<Object> toObjects(List<R> records) {
+        Iterator<R> iterator = records.iterator();
+        return () -> {
+            while (iterator.hasNext()) {
+                Object object = reader.toObject(iterator.next());
+                if (object != null) {
+                    return object;
+                }
+            }
+            return null;
+        };
+    }
+
+    private void startReads() {
+        for (int i = 0; i < partitionIds.length && numInFlight < maxParallelRead; i++) {
+            int idx = nextPartitionToRead;
+            nextPartitionToRead = (idx + 1) % partitionIds.length;
+            if (readFutures[idx] == null && readOffsets[idx] != DONE) {
+                readFutures[idx] = reader.readBatch(partitionIds[idx], readOffsets[idx]);
+                numInFlight++;
+            }
+        }
+    }
+
+    private static <B> B getDone(Future<B> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rethrow(e);
+        }
+    }
+
+    public static ProcessorMetaSupplier readMap(@Nonnull String mapName, int fetchSize, int maxParallelRead) {
+        return new LocalClusterMetaSupplier<>(instance -> new LocalMapReader(instance, mapName, fetchSize),
+                maxParallelRead);
+    }
+
+    public static <K, V, T> ProcessorMetaSupplier readMap(
+            @Nonnull String mapName,
+            @Nonnull Predicate<K, V> predicate,
+            @Nonnull Projection<Entry<K, V>, T> projection,
+            int fetchSize,
+            int maxParallelRead
+    ) {
+        return new LocalClusterMetaSupplier<>(
+                instance -> new LocalMapQueryReader(instance, mapName, predicate, projection, fetchSize),
+                maxParallelRead);
+    }
+
+    public static ProcessorMetaSupplier readCache(@Nonnull String cacheName, int fetchSize, int maxParallelRead) {
+        return new LocalClusterMetaSupplier<>(instance -> new LocalCacheReader(instance, cacheName, fetchSize),
+                maxParallelRead);
+    }
+
+    /**
+     * Issues the fetch operations for a partition and converts the results.
+     *
+     * @param <B> type of the fetched batch
+     * @param <R> type of the record in the batch
+     */
+    abstract static class Reader<B, R> {
+
+        /**
+         * Starts fetching a batch from the given partition, beginning at the
+         * given offset.
+         */
+        abstract Future<B> readBatch(int partitionId, int offset);
+
+        /**
+         * Returns the offset to read the next batch from, or a negative number
+         * if the partition is exhausted.
+         */
+        abstract int toNextOffset(B batch);
+
+        abstract List<R> toRecords(B batch);
+
+        abstract Object toObject(R record);
+    }
+
+    private static final class LocalMapReader extends Reader<MapEntriesWithCursor, Entry<Data, Data>> {
+
+        private final String mapName;
+        private final int fetchSize;
+        private final MapOperationProvider operationProvider;
+        private final OperationService operationService;
+        private final SerializationService serializationService;
+
+        LocalMapReader(HazelcastInstance instance, String mapName, int fetchSize) {
+            MapProxyImpl mapProxy = (MapProxyImpl) instance.getMap(mapName);
+            MapService mapService = (MapService) mapProxy.getService();
+            this.mapName = mapName;
+            this.fetchSize = fetchSize;
+            this.operationProvider = mapService.getMapServiceContext().getMapOperationProvider(mapName);
+            this.operationService = mapProxy.getNodeEngine().getOperationService();
+            this.serializationService = mapProxy.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        Future<MapEntriesWithCursor> readBatch(int partitionId, int offset) {
+            MapOperation op = operationProvider.createFetchEntriesOperation(mapName, offset, fetchSize);
+            return operationService.invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
+        }
+
+        @Override
+        int toNextOffset(MapEntriesWithCursor batch) {
+            return batch.getNextTableIndexToReadFrom();
+        }
+
+        @Override
+        List<Entry<Data, Data>> toRecords(MapEntriesWithCursor batch) {
+            return batch.getBatch();
+        }
+
+        @Override
+        Object toObject(Entry<Data, Data> record) {
+            return entry(serializationService.toObject(record.getKey()),
+                    serializationService.toObject(record.getValue()));
+        }
+    }
+
+    private static final class LocalMapQueryReader extends Reader<ResultSegment, QueryResultRow> {
+
+        private final String mapName;
+        private final int fetchSize;
+        private final Query query;
+        private final MapOperationProvider operationProvider;
+        private final OperationService operationService;
+        private final SerializationService serializationService;
+
+        LocalMapQueryReader(HazelcastInstance instance, String mapName, Predicate predicate, Projection projection,
+                            int fetchSize) {
+            MapProxyImpl mapProxy = (MapProxyImpl) instance.getMap(mapName);
+            MapService mapService = (MapService) mapProxy.getService();
+            this.mapName = mapName;
+            this.fetchSize = fetchSize;
+            this.query = Query.of()
+                              .mapName(mapName)
+                              .iterationType(IterationType.VALUE)
+                              .predicate(predicate)
+                              .projection(projection)
+                              .build();
+            this.operationProvider = mapService.getMapServiceContext().getMapOperationProvider(mapName);
+            this.operationService = mapProxy.getNodeEngine().getOperationService();
+            this.serializationService = mapProxy.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        Future<ResultSegment> readBatch(int partitionId, int offset) {
+            MapOperation op = operationProvider.createFetchWithQueryOperation(mapName, offset, fetchSize, query);
+            return operationService.invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
+        }
+
+        @Override
+        int toNextOffset(ResultSegment batch) {
+            return batch.getNextTableIndexToReadFrom();
+        }
+
+        @Override
+        List<QueryResultRow> toRecords(ResultSegment batch) {
+            return ((QueryResult) batch.getResult()).getRows();
+        }
+
+        @Override
+        Object toObject(QueryResultRow record) {
+            return serializationService.toObject(record.getValue());
+        }
+    }
+
+    private static final class LocalCacheReader extends Reader<CacheEntryIterationResult, Entry<Data, Data>> {
+
+        private final String prefixedName;
+        private final int fetchSize;
+        private final OperationService operationService;
+        private final SerializationService serializationService;
+
+        LocalCacheReader(HazelcastInstance instance, String cacheName, int fetchSize) {
+            CacheProxy cacheProxy = (CacheProxy) instance.getCacheManager().getCache(cacheName);
+            this.prefixedName = cacheProxy.getPrefixedName();
+            this.fetchSize = fetchSize;
+            this.operationService = cacheProxy.getNodeEngine().getOperationService();
+            this.serializationService = cacheProxy.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        Future<CacheEntryIterationResult> readBatch(int partitionId, int offset) {
+            CacheEntryIteratorOperation op = new CacheEntryIteratorOperation(prefixedName, offset, fetchSize);
+            return operationService.invokeOnPartition(ICacheService.SERVICE_NAME, op, partitionId);
+        }
+
+        @Override
+        int toNextOffset(CacheEntryIterationResult batch) {
+            return batch.getTableIndex();
+        }
+
+        @Override
+        List<Entry<Data, Data>> toRecords(CacheEntryIterationResult batch) {
+            return batch.getEntries();
+        }
+
+        @Override
+        Object toObject(Entry<Data, Data> record) {
+            return entry(serializationService.toObject(record.getKey()),
+                    serializationService.toObject(record.getValue()));
+        }
+    }
+
+    private static class LocalClusterMetaSupplier<B, R> implements ProcessorMetaSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final DistributedFunction<HazelcastInstance, Reader<B, R>> readerSupplier;
+        private final int maxParallelRead;
+
+        private transient Map<Address, List<Integer>> addrToPartitions;
+
+        LocalClusterMetaSupplier(DistributedFunction<HazelcastInstance, Reader<B, R>> readerSupplier,
+                                 int maxParallelRead) {
+            this.readerSupplier = readerSupplier;
+            this.maxParallelRead = maxParallelRead;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            addrToPartitions = context.jetInstance().getHazelcastInstance().getPartitionService().getPartitions()
+                                      .stream()
+                                      .collect(groupingBy(p -> p.getOwner().getAddress(),
+                                              mapping(Partition::getPartitionId, toList())));
+        }
+
+        @Override @Nonnull
+        public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            return address -> new LocalClusterProcessorSupplier<>(addrToPartitions.get(address), readerSupplier,
+                    maxParallelRead);
+        }
+    }
+
+    private static class LocalClusterProcessorSupplier<B, R> implements ProcessorSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final List<Integer> ownedPartitions;
+        private final DistributedFunction<HazelcastInstance, Reader<B, R>> readerSupplier;
+        private final int maxParallelRead;
+
+        private transient HazelcastInstance instance;
+
+        LocalClusterProcessorSupplier(
+                List<Integer> ownedPartitions,
+                DistributedFunction<HazelcastInstance, Reader<B, R>> readerSupplier,
+                int maxParallelRead
+        ) {
+            this.ownedPartitions = ownedPartitions != null ? ownedPartitions : Collections.emptyList();
+            this.readerSupplier = readerSupplier;
+            this.maxParallelRead = maxParallelRead;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            instance = context.jetInstance().getHazelcastInstance();
+        }
+
+        @Override @Nonnull
+        public List<Processor> get(int count) {
+            return processorToPartitions(count, ownedPartitions)
+                    .values().stream()
+                    .map(partitions -> !partitions.isEmpty()
+                            ? new ReadMapOrCacheP<>(readerSupplier.apply(instance), partitions, maxParallelRead)
+                            : Processors.noopP().get()
+                    )
+                    .collect(toList());
+        }
+    }
+}
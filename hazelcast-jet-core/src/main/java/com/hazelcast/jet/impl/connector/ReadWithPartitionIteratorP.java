@@ -16,7 +16,6 @@
 
 package com.hazelcast.jet.impl.connector;
 
-import com.hazelcast.cache.impl.CacheProxy;
 import com.hazelcast.client.cache.impl.ClientCacheProxy;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.client.impl.HazelcastClientProxy;
@@ -31,7 +30,6 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.impl.util.CircularListCursor;
-import com.hazelcast.map.impl.proxy.MapProxyImpl;
 import com.hazelcast.nio.Address;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
@@ -53,6 +51,8 @@ import static java.util.stream.Collectors.toList;
 
 /**
  * Private API, see methods in {@link com.hazelcast.jet.core.processor.SourceProcessors}.
+ * Reads using the synchronous partition iterators, used for remote
+ * clusters. See {@link ReadMapOrCacheP} for the local map and cache.
  * <p>
  * The number of Hazelcast partitions should be configured to at least
  * {@code localParallelism * clusterSize}, otherwise some processors will
@@ -85,12 +85,6 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
         };
     }
 
-    public static <T> ProcessorMetaSupplier readMap(@Nonnull String mapName) {
-        return new LocalClusterMetaSupplier<T>(
-                instance -> partition -> ((MapProxyImpl) instance.getMap(mapName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
-    }
-
     public static <T> ProcessorMetaSupplier readRemoteMap(
             @Nonnull String mapName, @Nonnull ClientConfig clientConfig
     ) {
@@ -99,18 +93,6 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
                         .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
     }
 
-    public static <K, V, T> ProcessorMetaSupplier readMap(
-            @Nonnull String mapName,
-            @Nonnull Predicate<K, V> predicate,
-            @Nonnull Projection<Map.Entry<K, V>, T> projection
-    ) {
-        return new LocalClusterMetaSupplier<T>(
-                instance -> partition -> {
-                    MapProxyImpl map = (MapProxyImpl) instance.<K, V>getMap(mapName);
-                    return map.<T>iterator(FETCH_SIZE, partition, projection, predicate);
-                });
-    }
-
     public static <K, V, T> ProcessorMetaSupplier readRemoteMap(
             @Nonnull String mapName,
             @Nonnull ClientConfig clientConfig,
@@ -122,12 +104,6 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
                         .iterator(FETCH_SIZE, partition, projection, predicate));
     }
 
-    public static ProcessorMetaSupplier readCache(@Nonnull String cacheName) {
-        return new LocalClusterMetaSupplier<>(
-                instance -> partition -> ((CacheProxy) instance.getCacheManager().getCache(cacheName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
-    }
-
     public static ProcessorMetaSupplier readRemoteCache(@Nonnull String cacheName, @Nonnull ClientConfig clientConfig) {
         return new RemoteClusterMetaSupplier<>(clientConfig,
                 instance -> partition -> ((ClientCacheProxy) instance.getCacheManager().getCache(cacheName))
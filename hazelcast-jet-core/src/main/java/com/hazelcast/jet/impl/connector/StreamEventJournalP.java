@@ -28,10 +28,13 @@ import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.WatermarkGenerationParams;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.core.processor.SourceProcessors;
 import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.function.DistributedPredicate;
+import com.hazelcast.jet.impl.util.WatermarkSourceUtil;
 import com.hazelcast.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.journal.EventJournalReader;
 import com.hazelcast.map.journal.EventJournalMapEvent;
@@ -41,6 +44,7 @@ import com.hazelcast.ringbuffer.ReadResultSet;
 import com.hazelcast.ringbuffer.StaleSequenceException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -79,9 +83,12 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
 
     private final EventJournalReader<E> eventJournalReader;
     private final Set<Integer> assignedPartitions;
+    // key: partition id, value: index of the partition in WatermarkSourceUtil
+    private final Map<Integer, Integer> partitionIndexes = new HashMap<>();
     private final SerializablePredicate<E> predicate;
     private final Projection<E, T> projection;
     private final boolean startFromNewest;
+    private final WatermarkSourceUtil<T> wsu;
 
     // keep track of next offset to emit and read separately, as even when the
     // outbox is full we can still poll for new items.
@@ -90,27 +97,37 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
 
     private final Map<Integer, ICompletableFuture<ReadResultSet<T>>> readFutures = new HashMap<>();
 
-    private Traverser<T> eventTraverser;
-    private Traverser<Entry<BroadcastKey<Integer>, Long>> snapshotTraverser;
+    private Traverser<Object> eventTraverser;
+    private Traverser<Entry<BroadcastKey<Integer>, Object>> snapshotTraverser;
 
     // keep track of pendingItem's offset and partition
     private long pendingItemOffset;
     private int pendingItemPartition;
+    private int pendingItemPartitionIndex;
 
     // callback which will update the currently pending offset only after the item is emitted
-    private Consumer<T> updateOffsetFn = e -> emitOffsets.put(pendingItemPartition, pendingItemOffset + 1);
+    private Consumer<Object> updateOffsetFn = e -> {
+        if (!(e instanceof Watermark)) {
+            emitOffsets.put(pendingItemPartition, pendingItemOffset + 1);
+        }
+    };
     private Iterator<Entry<Integer, ICompletableFuture<ReadResultSet<T>>>> iterator;
 
     StreamEventJournalP(EventJournalReader<E> eventJournalReader,
                         List<Integer> assignedPartitions,
                         DistributedPredicate<E> predicateFn,
                         DistributedFunction<E, T> projectionFn,
-                        boolean startFromNewest) {
+                        boolean startFromNewest,
+                        @Nullable WatermarkGenerationParams<T> wmGenParams) {
         this.eventJournalReader = eventJournalReader;
         this.assignedPartitions = new HashSet<>(assignedPartitions);
         this.predicate = predicateFn == null ? null : predicateFn::test;
         this.projection = projectionFn == null ? null : toProjection(projectionFn);
         this.startFromNewest = startFromNewest;
+        this.wsu = wmGenParams == null ? null : new WatermarkSourceUtil<>(wmGenParams);
+        for (Integer partition : assignedPartitions) {
+            partitionIndexes.put(partition, partitionIndexes.size());
+        }
     }
 
     @Override
@@ -120,6 +137,9 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
             .collect(toMap(Entry::getKey, Entry::getValue));
         futures.forEach((partition, future) -> uncheckRun(() -> readOffsets.put(partition, getSequence(future.get()))));
         emitOffsets.putAll(readOffsets);
+        if (wsu != null) {
+            wsu.increasePartitionCount(System.nanoTime(), partitionIndexes.size());
+        }
     }
 
     @Override
@@ -128,7 +148,11 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
             initialRead();
         }
         if (eventTraverser == null) {
-            Traverser<T> t = nextTraverser();
+            Traverser<Object> t = nextTraverser();
+            if (t == null && wsu != null) {
+                // no events, but the watermark can still advance
+                t = wsu.handleNoEvent(System.nanoTime());
+            }
             if (t != null) {
                 eventTraverser = t.onFirstNull(() -> eventTraverser = null);
             }
@@ -144,7 +168,7 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
     public boolean saveToSnapshot() {
         if (snapshotTraverser == null) {
             snapshotTraverser = traverseIterable(emitOffsets.entrySet())
-                    .map(e -> entry(broadcastKey(e.getKey()), e.getValue()))
+                    .map(e -> entry(broadcastKey(e.getKey()), snapshotValue(e.getKey(), e.getValue())))
                     .onFirstNull(() -> snapshotTraverser = null);
         }
         boolean done = emitFromTraverserToSnapshot(snapshotTraverser);
@@ -157,11 +181,22 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
     @Override
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
         int partition = ((BroadcastKey<Integer>) key).key();
-        long offset = (Long) value;
-        if (assignedPartitions.contains(partition)) {
-            readOffsets.put(partition, offset);
-            emitOffsets.put(partition, offset);
+        if (!assignedPartitions.contains(partition)) {
+            return;
         }
+        long offset;
+        if (value instanceof long[]) {
+            // the snapshot was taken with watermarks enabled: value is {offset, watermark}
+            long[] offsetAndWm = (long[]) value;
+            offset = offsetAndWm[0];
+            if (wsu != null) {
+                wsu.restoreWatermark(partitionIndexes.get(partition), offsetAndWm[1]);
+            }
+        } else {
+            offset = (Long) value;
+        }
+        readOffsets.put(partition, offset);
+        emitOffsets.put(partition, offset);
     }
 
     @Override
@@ -185,15 +220,22 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         return startFromNewest ? state.getNewestSequence() + 1 : state.getOldestSequence();
     }
 
-    private Traverser<T> nextTraverser() {
+    private Traverser<Object> nextTraverser() {
         ReadResultSet<T> resultSet = nextResultSet();
         if (resultSet == null) {
             return null;
         }
-        Traverser<T> traverser = traverseIterable(resultSet);
-        return peekIndex(traverser, i -> {
+        Traverser<T> traverser = peekIndex(traverseIterable(resultSet), i -> {
             pendingItemOffset = resultSet.getSequence(i);
         });
+        if (wsu == null) {
+            return (Traverser<Object>) traverser;
+        }
+        return traverser.flatMap(event -> wsu.handleEvent(System.nanoTime(), event, pendingItemPartitionIndex));
+    }
+
+    private Object snapshotValue(int partition, long offset) {
+        return wsu == null ? (Object) offset : new long[] {offset, wsu.getWatermark(partitionIndexes.get(partition))};
     }
 
     private ReadResultSet<T> nextResultSet() {
@@ -210,6 +252,7 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
                 continue;
             }
             pendingItemPartition = partition;
+            pendingItemPartitionIndex = partitionIndexes.get(partition);
             long newOffset = readOffsets.merge(partition, (long) resultSet.readCount(), Long::sum);
             // make another read on the same partition
             entry.setValue(readFromJournal(partition, newOffset));
@@ -280,6 +323,7 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         private final DistributedPredicate<E> predicate;
         private final DistributedFunction<E, T> projection;
         private final boolean startFromNewest;
+        private final WatermarkGenerationParams<T> wmGenParams;
 
         private transient int remotePartitionCount;
         private transient Map<Address, List<Integer>> addrToPartitions;
@@ -289,12 +333,14 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
                 DistributedFunction<HazelcastInstance, EventJournalReader<E>> eventJournalReaderSupplier,
                 DistributedPredicate<E> predicate,
                 DistributedFunction<E, T> projection,
-                boolean startFromNewest) {
+                boolean startFromNewest,
+                WatermarkGenerationParams<T> wmGenParams) {
             this.serializableConfig = clientConfig == null ? null : new SerializableClientConfig(clientConfig);
             this.eventJournalReaderSupplier = eventJournalReaderSupplier;
             this.predicate = predicate;
             this.projection = projection;
             this.startFromNewest = startFromNewest;
+            this.wmGenParams = wmGenParams;
         }
 
         @Override
@@ -332,7 +378,8 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
             }
 
             return address -> new ClusterProcessorSupplier<>(addrToPartitions.get(address),
-                    serializableConfig, eventJournalReaderSupplier, predicate, projection, startFromNewest);
+                    serializableConfig, eventJournalReaderSupplier, predicate, projection, startFromNewest,
+                    wmGenParams);
         }
 
     }
@@ -347,6 +394,7 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         private final DistributedPredicate<E> predicate;
         private final DistributedFunction<E, T> projection;
         private final boolean startFromNewest;
+        private final WatermarkGenerationParams<T> wmGenParams;
 
         private transient HazelcastInstance client;
         private transient EventJournalReader<E> eventJournalReader;
@@ -357,13 +405,15 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
                 DistributedFunction<HazelcastInstance, EventJournalReader<E>> eventJournalReaderSupplier,
                 DistributedPredicate<E> predicate,
                 DistributedFunction<E, T> projection,
-                boolean startFromNewest) {
+                boolean startFromNewest,
+                WatermarkGenerationParams<T> wmGenParams) {
             this.ownedPartitions = ownedPartitions;
             this.serializableClientConfig = serializableClientConfig;
             this.eventJournalReaderSupplier = eventJournalReaderSupplier;
             this.predicate = predicate;
             this.projection = projection;
             this.startFromNewest = startFromNewest;
+            this.wmGenParams = wmGenParams;
         }
 
         @Override
@@ -394,46 +444,51 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         private Processor processorForPartitions(List<Integer> partitions) {
             return partitions.isEmpty()
                     ? Processors.noopP().get()
-                    : new StreamEventJournalP<>(eventJournalReader, partitions, predicate, projection, startFromNewest);
+                    : new StreamEventJournalP<>(eventJournalReader, partitions, predicate, projection, startFromNewest,
+                            wmGenParams);
         }
     }
 
     public static <K, V, T> ProcessorMetaSupplier streamMap(String mapName,
                                                       DistributedPredicate<EventJournalMapEvent<K, V>> predicate,
                                                       DistributedFunction<EventJournalMapEvent<K, V>, T> projection,
-                                                      boolean startFromNewest) {
+                                                      boolean startFromNewest,
+                                                      WatermarkGenerationParams<T> wmGenParams) {
         return new ClusterMetaSupplier<>(null,
                 instance -> (EventJournalReader<EventJournalMapEvent<K, V>>) instance.getMap(mapName),
-                predicate, projection, startFromNewest);
+                predicate, projection, startFromNewest, wmGenParams);
     }
 
     public static <K, V, T> ProcessorMetaSupplier streamMap(String mapName,
                                                       ClientConfig clientConfig,
                                                       DistributedPredicate<EventJournalMapEvent<K, V>> predicate,
                                                       DistributedFunction<EventJournalMapEvent<K, V>, T> projection,
-                                                      boolean startFromNewest) {
+                                                      boolean startFromNewest,
+                                                      WatermarkGenerationParams<T> wmGenParams) {
         return new ClusterMetaSupplier<>(clientConfig,
                 instance -> (EventJournalReader<EventJournalMapEvent<K, V>>) instance.getMap(mapName),
-                predicate, projection, startFromNewest);
+                predicate, projection, startFromNewest, wmGenParams);
     }
 
     public static <K, V, T> ProcessorMetaSupplier streamCache(String cacheName,
                                                         DistributedPredicate<EventJournalCacheEvent<K, V>> predicate,
                                                         DistributedFunction<EventJournalCacheEvent<K, V>, T> projection,
-                                                        boolean startFromNewest) {
+                                                        boolean startFromNewest,
+                                                        WatermarkGenerationParams<T> wmGenParams) {
         return new ClusterMetaSupplier<>(null,
                 inst -> (EventJournalReader<EventJournalCacheEvent<K, V>>) inst.getCacheManager().getCache(cacheName),
-                predicate, projection, startFromNewest);
+                predicate, projection, startFromNewest, wmGenParams);
     }
 
     public static <K, V, T> ProcessorMetaSupplier streamCache(String cacheName,
                                                         ClientConfig clientConfig,
                                                         DistributedPredicate<EventJournalCacheEvent<K, V>> predicate,
                                                         DistributedFunction<EventJournalCacheEvent<K, V>, T> projection,
-                                                        boolean startFromNewest) {
+                                                        boolean startFromNewest,
+                                                        WatermarkGenerationParams<T> wmGenParams) {
         return new ClusterMetaSupplier<>(clientConfig,
                 inst -> (EventJournalReader<EventJournalCacheEvent<K, V>>) inst.getCacheManager().getCache(cacheName),
-                predicate, projection, startFromNewest);
+                predicate, projection, startFromNewest, wmGenParams);
     }
 
     interface SerializablePredicate<E> extends com.hazelcast.util.function.Predicate<E>, Serializable {
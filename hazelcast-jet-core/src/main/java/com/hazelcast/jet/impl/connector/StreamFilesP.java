@@ -17,22 +17,22 @@
 package com.hazelcast.jet.impl.connector;
 
 import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.CloseableProcessorSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.logging.ILogger;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedReader;
 import java.io.Closeable;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
@@ -40,15 +40,22 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.stream.IntStream;
 
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.sun.nio.file.SensitivityWatchEventModifier.HIGH;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
@@ -60,6 +67,14 @@ import static java.util.stream.Collectors.toList;
  * Private API. Access via {@link
  * com.hazelcast.jet.core.processor.SourceProcessors#streamFilesP(String, Charset, String).
  * <p>
+ * The files are read through a {@code FileChannel} into a byte buffer and
+ * the line separators are found in the raw bytes, so the charset must
+ * encode {@code '\r'} and {@code '\n'} as single bytes (such as UTF-8
+ * or ISO-8859-1). This allows the processor to track the exact byte
+ * offset after the last emitted line in each file. The offsets are saved
+ * to the snapshot and after a restart the files are read from where the
+ * snapshot left off.
+ * <p>
  * Since the work of this vertex is file IO-intensive, its {@link
  * com.hazelcast.jet.core.Vertex#localParallelism(int) local parallelism}
  * should be set according to the performance characteristics of the
@@ -75,10 +90,11 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
      * The amount of data read from one file at once must be limited
      * in order to prevent a possible {@link java.nio.file.StandardWatchEventKinds#OVERFLOW
      * OVERFLOW} if too many Watcher events accumulate in the queue. This
-     * constant specifies the number of lines to read at once, before going
-     * back to polling the event queue.
+     * constant specifies the number of bytes to read at once, before going
+     * back to polling the event queue. The buffer grows if a single line
+     * is longer.
      */
-    private static final int LINES_IN_ONE_BATCH = 64;
+    static final int READ_BUFFER_SIZE = 1 << 18;
 
     // exposed for testing
     final Map<Path, Long> fileOffsets = new HashMap<>();
@@ -92,10 +108,17 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
     private final Queue<Path> eventQueue = new ArrayDeque<>();
 
     private WatchService watcher;
-    private StringBuilder lineBuilder = new StringBuilder();
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private boolean skipLeadingLF;
     private Path currentFile;
-    private FileInputStream currentInputStream;
-    private Reader currentReader;
+    private FileChannel currentChannel;
+    // the offset after the last line emitted from the current file
+    private long currentOffset;
+    // the offset of the buffer's position in the current file
+    private long readOffset;
+    private String pendingLine;
+    private Traverser<Entry<BroadcastKey<String>, Long>> snapshotTraverser;
+    private Map<Path, Long> restoredOffsets;
 
     StreamFilesP(@Nonnull String watchedDirectory, @Nonnull Charset charset, @Nonnull String glob,
                  int parallelism, int id
@@ -106,10 +129,14 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
         this.parallelism = parallelism;
         this.id = id;
         setCooperative(false);
+        buffer.flip();
     }
 
     @Override
     protected void init(@Nonnull Context context) throws Exception {
+        if (!Arrays.equals("\n\r".getBytes(charset), new byte[] {'\n', '\r'})) {
+            throw new JetException("Charset " + charset + " doesn't encode line separators as single bytes");
+        }
         for (Path file : Files.newDirectoryStream(watchedDirectory)) {
             if (Files.isRegularFile(file)) {
                 // Negative offset means "initial offset", needed to skip the first line
@@ -158,6 +185,53 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
         }
     }
 
+    @Override
+    public boolean saveToSnapshot() {
+        if (snapshotTraverser == null) {
+            if (currentChannel != null) {
+                fileOffsets.put(currentFile, currentOffset);
+            }
+            snapshotTraverser = traverseIterable(fileOffsets.entrySet())
+                    .filter(e -> belongsToThisProcessor(e.getKey().getFileName()))
+                    .map(e -> entry(broadcastKey(e.getKey().toString()), e.getValue()))
+                    .onFirstNull(() -> snapshotTraverser = null);
+        }
+        return emitFromTraverserToSnapshot(snapshotTraverser);
+    }
+
+    @Override
+    protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+        Path file = Paths.get((String) ((BroadcastKey) key).key());
+        if (!belongsToThisProcessor(file.getFileName())) {
+            return;
+        }
+        if (restoredOffsets == null) {
+            restoredOffsets = new HashMap<>();
+        }
+        restoredOffsets.put(file, (Long) value);
+    }
+
+    @Override
+    public boolean finishSnapshotRestore() {
+        Map<Path, Long> restored = restoredOffsets != null ? restoredOffsets : Collections.emptyMap();
+        for (Entry<Path, Long> e : fileOffsets.entrySet()) {
+            Path file = e.getKey();
+            if (!belongsToThisProcessor(file.getFileName()) || !glob.matches(file.getFileName())) {
+                continue;
+            }
+            // files not in the snapshot were created after it was taken, read them whole
+            long offset = restored.getOrDefault(file, 0L);
+            e.setValue(offset);
+            // there will be no event for lines appended while the job was down
+            if (Math.abs(offset) < file.toFile().length()) {
+                eventQueue.add(file);
+            }
+        }
+        logFine(getLogger(), "Restored offsets of %d files", restored.size());
+        restoredOffsets = null;
+        return true;
+    }
+
     private void drainWatcherEvents() throws InterruptedException {
         final ILogger logger = getLogger();
         // poll with blocking only when there is no other work to do
@@ -204,16 +278,32 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
             if (!ensureFileOpen()) {
                 return;
             }
-            for (int i = 0; i < LINES_IN_ONE_BATCH; i++) {
-                String line = readCompleteLine(currentReader);
-                if (line == null) {
-                    fileOffsets.put(currentFile, currentInputStream.getChannel().position());
-                    closeCurrentFile();
-                    break;
+            boolean readDone = false;
+            while (true) {
+                if (pendingLine == null) {
+                    int lineStart = buffer.position();
+                    pendingLine = readCompleteLine(buffer);
+                    readOffset += buffer.position() - lineStart;
+                    if (pendingLine == null) {
+                        currentOffset = readOffset;
+                        if (readDone) {
+                            // one read per call, go back to polling the watcher
+                            return;
+                        }
+                        if (!readMore()) {
+                            fileOffsets.put(currentFile, currentOffset);
+                            closeCurrentFile();
+                            return;
+                        }
+                        readDone = true;
+                        continue;
+                    }
                 }
-                if (!tryEmit(line)) {
-                    break;
+                if (!tryEmit(pendingLine)) {
+                    return;
                 }
+                pendingLine = null;
+                currentOffset = readOffset;
             }
         } catch (IOException e) {
             close();
@@ -221,100 +311,142 @@ public class StreamFilesP extends AbstractProcessor implements Closeable {
         }
     }
 
+    /**
+     * Reads more bytes from the current file after the unconsumed bytes in
+     * the buffer. Returns {@code false} on EOF.
+     */
+    private boolean readMore() throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            // the line is longer than the buffer
+            buffer.flip();
+            buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer);
+        }
+        int n = currentChannel.read(buffer);
+        buffer.flip();
+        return n > 0;
+    }
+
     private boolean ensureFileOpen() throws IOException {
-        if (currentReader != null) {
+        if (currentChannel != null) {
             return true;
         }
         long offset = fileOffsets.getOrDefault(currentFile, 0L);
         logFinest(getLogger(), "Processing file %s, previous offset: %,d", currentFile, offset);
         try {
-            FileInputStream fis = new FileInputStream(currentFile.toFile());
-            // Negative offset means we're reading the file for the first time.
-            // We recover the actual offset by negating, then we subtract one
-            // so as not to miss a preceding newline.
-            fis.getChannel().position(offset >= 0 ? offset : -offset - 1);
-            BufferedReader r = new BufferedReader(new InputStreamReader(fis, charset));
-            if (offset < 0 && !findNextLine(r, offset)) {
-                closeCurrentFile();
-                return false;
-            }
-            currentReader = r;
-            currentInputStream = fis;
-            return true;
-        } catch (FileNotFoundException ignored) {
+            currentChannel = FileChannel.open(currentFile, READ);
+        } catch (NoSuchFileException ignored) {
             // This could be caused by ENTRY_MODIFY emitted on file deletion
             // just before ENTRY_DELETE
             closeCurrentFile();
             return false;
         }
+        buffer.clear().flip();
+        // Negative offset means we're reading the file for the first time
+        // and have to skip the (possibly incomplete) line at the offset.
+        long position = offset >= 0 ? offset : -offset;
+        currentChannel.position(position);
+        readOffset = position;
+        skipLeadingLF = false;
+        if (position > 0) {
+            ByteBuffer prev = ByteBuffer.allocate(1);
+            currentChannel.read(prev, position - 1);
+            byte prevByte = prev.get(0);
+            if (isLineSeparator(prevByte)) {
+                // a CR can be followed by LF, which belongs to the same line separator
+                skipLeadingLF = prevByte == '\r';
+            } else if (offset < 0 && !findNextLine()) {
+                fileOffsets.put(currentFile, offset);
+                closeCurrentFile();
+                return false;
+            }
+        }
+        currentOffset = readOffset;
+        return true;
+    }
+
+    private static boolean isLineSeparator(byte b) {
+        return b == '\n' || b == '\r';
     }
 
-    private boolean findNextLine(Reader in, long offset) throws IOException {
+    /**
+     * Skips the bytes up to the end of the current line. Returns {@code
+     * false}, if EOF is reached before it.
+     */
+    private boolean findNextLine() throws IOException {
         while (true) {
-            int ch = in.read();
-            if (ch < 0) {
-                // we've hit EOF before finding the end of current line
-                fileOffsets.put(currentFile, offset);
-                return false;
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                readOffset++;
+                if (isLineSeparator(b)) {
+                    skipLeadingLF = b == '\r';
+                    return true;
+                }
             }
-            if (ch == '\n' || ch == '\r') {
-                maybeSkipLF(in, ch);
-                return true;
+            if (!readMore()) {
+                return false;
             }
         }
     }
 
     /**
-     * Reads a line from the input only if it is terminated by CR or LF or
-     * CRLF. If it detects EOF before the newline character, returns
-     * {@code null}.
+     * Reads a line from the buffer only if it is terminated by CR or LF or
+     * CRLF and advances the buffer's position past the line separator. If
+     * it reaches the buffer's limit before the line separator, returns
+     * {@code null} and doesn't change the position.
      *
-     * @return The line (possibly zero-length) or null on EOF.
+     * @return The line (possibly zero-length) or null if there's no complete line
      */
     // package-visible for testing
-    String readCompleteLine(Reader reader) throws IOException {
-        int ch;
-        while ((ch = reader.read()) >= 0) {
-            if (ch < 0) {
-                break;
+    String readCompleteLine(ByteBuffer buf) {
+        if (skipLeadingLF && buf.hasRemaining()) {
+            skipLeadingLF = false;
+            if (buf.get(buf.position()) == '\n') {
+                buf.position(buf.position() + 1);
             }
-            if (ch == '\r' || ch == '\n') {
-                maybeSkipLF(reader, ch);
-                try {
-                    return lineBuilder.toString();
-                } finally {
-                    lineBuilder.setLength(0);
+        }
+        int start = buf.position();
+        for (int i = start; i < buf.limit(); i++) {
+            byte b = buf.get(i);
+            if (b == '\r' || b == '\n') {
+                int next = i + 1;
+                if (b == '\r') {
+                    // look ahead for possible '\n' after '\r' (windows end-line style)
+                    if (next == buf.limit()) {
+                        skipLeadingLF = true;
+                    } else if (buf.get(next) == '\n') {
+                        next++;
+                    }
                 }
-            } else {
-                lineBuilder.append((char) ch);
+                buf.position(next);
+                return decode(buf, start, i);
             }
         }
-        // EOF
         return null;
     }
 
-    private static void maybeSkipLF(Reader reader, int ch) throws IOException {
-        // look ahead for possible '\n' after '\r' (windows end-line style)
-        if (ch == '\r') {
-            reader.mark(1);
-            int ch2 = reader.read();
-            if (ch2 != '\n') {
-                reader.reset();
-            }
+    private String decode(ByteBuffer buf, int start, int end) {
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + start, end - start, charset);
         }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer src = buf.duplicate();
+        src.limit(end).position(start);
+        src.get(bytes);
+        return new String(bytes, charset);
     }
 
     private void closeCurrentFile() {
-        if (currentReader != null) {
+        if (currentChannel != null) {
             try {
-                currentReader.close();
+                currentChannel.close();
             } catch (IOException e) {
                 throw sneakyThrow(e);
             }
         }
         currentFile = null;
-        currentReader = null;
-        currentInputStream = null;
+        currentChannel = null;
+        pendingLine = null;
     }
 
     private boolean isClosed() {
@@ -16,44 +16,92 @@
 
 package com.hazelcast.jet.impl.connector;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.CloseableProcessorSupplier;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.processor.SourceProcessors;
+import com.hazelcast.nio.Address;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
 
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
 
 /**
+ * A cooperative source which reads lines of text from one or more sockets
+ * using a {@link Selector} in non-blocking mode. The bytes are read into
+ * a direct buffer per connection and the lines are decoded directly from
+ * it, so the charset must encode {@code '\n'} as a single byte (such as
+ * UTF-8 or ISO-8859-1). No more data is read while there are lines that
+ * couldn't be emitted because the outbox is full. The processor completes
+ * when all its connections are closed by the server.
+ *
  * @see SourceProcessors#streamSocketP(String, int, Charset)
  */
 public final class StreamSocketP extends AbstractProcessor implements Closeable {
 
-    private final String host;
-    private final int port;
+    /**
+     * The initial size of the receive buffer of a connection. The buffer
+     * grows if a single line is longer.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final List<InetSocketAddress> addresses;
+    private final int totalParallelism;
     private final Charset charset;
-    private BufferedReader bufferedReader;
+    private final List<Connection> connections = new ArrayList<>();
+
+    private Selector selector;
+    private byte[] lineBytes = new byte[BUFFER_SIZE];
     private String pendingLine;
 
-    private StreamSocketP(String host, int port, Charset charset) {
-        this.host = host;
-        this.port = port;
+    /**
+     * @param totalParallelism if positive, the addresses are distributed
+     *                         among the processors of the vertex, otherwise
+     *                         the processor connects to all of them
+     */
+    private StreamSocketP(List<InetSocketAddress> addresses, int totalParallelism, Charset charset) {
+        this.addresses = addresses;
+        this.totalParallelism = totalParallelism;
         this.charset = charset;
     }
 
     @Override
     protected void init(@Nonnull Context context) throws Exception {
-        getLogger().info("Connecting to socket " + hostAndPort());
-        Socket socket = new Socket(host, port);
-        getLogger().info("Connected to socket " + hostAndPort());
-        bufferedReader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+        if (!Arrays.equals("\n".getBytes(charset), new byte[] {'\n'})) {
+            throw new JetException("Charset " + charset + " doesn't encode the line separator as a single byte");
+        }
+        selector = Selector.open();
+        for (int i = 0; i < addresses.size(); i++) {
+            if (totalParallelism > 0 && i % totalParallelism != context.globalProcessorIndex()) {
+                continue;
+            }
+            InetSocketAddress address = addresses.get(i);
+            getLogger().info("Connecting to socket " + address);
+            SocketChannel channel = SocketChannel.open(address);
+            getLogger().info("Connected to socket " + address);
+            channel.configureBlocking(false);
+            Connection conn = new Connection(channel, address);
+            channel.register(selector, SelectionKey.OP_READ, conn);
+            connections.add(conn);
+        }
     }
 
     @Override
@@ -62,40 +110,173 @@ public final class StreamSocketP extends AbstractProcessor implements Closeable
     }
 
     private boolean tryComplete() throws IOException {
-        if (pendingLine == null) {
-            pendingLine = bufferedReader.readLine();
-            if (pendingLine == null) {
-                return true;
+        if (pendingLine != null) {
+            if (!tryEmit(pendingLine)) {
+                return false;
             }
-        }
-        boolean success = tryEmit(pendingLine);
-        if (success) {
             pendingLine = null;
         }
+        // emit the lines already received before reading more
+        for (Iterator<Connection> it = connections.iterator(); it.hasNext(); ) {
+            Connection conn = it.next();
+            if (!emitLines(conn)) {
+                return false;
+            }
+            if (conn.eof) {
+                conn.close();
+                it.remove();
+            }
+        }
+        if (connections.isEmpty()) {
+            return true;
+        }
+        if (selector.selectNow() == 0) {
+            return false;
+        }
+        for (SelectionKey key : selector.selectedKeys()) {
+            Connection conn = (Connection) key.attachment();
+            conn.read();
+            if (!emitLines(conn)) {
+                break;
+            }
+        }
+        // the keys not handled now will be selected again
+        selector.selectedKeys().clear();
         return false;
     }
 
+    private boolean emitLines(Connection conn) {
+        for (String line; (line = conn.nextLine()) != null; ) {
+            if (!tryEmit(line)) {
+                pendingLine = line;
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void close() throws IOException {
-        if (bufferedReader != null) {
-            getLogger().info("Closing socket " + hostAndPort());
-            bufferedReader.close();
+        for (Connection conn : connections) {
+            conn.close();
+        }
+        connections.clear();
+        if (selector != null) {
+            selector.close();
         }
     }
 
-    @Override
-    public boolean isCooperative() {
-        return false;
+    private String decode(ByteBuffer buf, int start, int end) {
+        int len = end - start;
+        if (lineBytes.length < len) {
+            lineBytes = new byte[Math.max(len, 2 * lineBytes.length)];
+        }
+        ByteBuffer src = buf.duplicate();
+        src.limit(end).position(start);
+        src.get(lineBytes, 0, len);
+        return new String(lineBytes, 0, len, charset);
     }
 
-    private String hostAndPort() {
-        return host + ':' + port;
+    private final class Connection {
+        private final SocketChannel channel;
+        private final InetSocketAddress address;
+        // in read mode: the bytes between position and limit are unconsumed
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private boolean eof;
+
+        Connection(SocketChannel channel, InetSocketAddress address) {
+            this.channel = channel;
+            this.address = address;
+            buffer.flip();
+        }
+
+        void read() throws IOException {
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                buffer = ByteBuffer.allocateDirect(2 * buffer.capacity()).put(buffer);
+            }
+            eof = channel.read(buffer) < 0;
+            buffer.flip();
+        }
+
+        /**
+         * Returns the next complete line in the buffer, or the remaining
+         * bytes if the server closed the connection.
+         */
+        String nextLine() {
+            int start = buffer.position();
+            for (int i = start; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    buffer.position(i + 1);
+                    return decode(buffer, start, i > start && buffer.get(i - 1) == '\r' ? i - 1 : i);
+                }
+            }
+            if (eof && buffer.hasRemaining()) {
+                buffer.position(buffer.limit());
+                return decode(buffer, start, buffer.limit());
+            }
+            return null;
+        }
+
+        void close() throws IOException {
+            getLogger().info("Closing socket " + address);
+            channel.close();
+        }
     }
 
     /**
-     * Internal API, use {@link SourceProcessors#streamSocket(String, int, Charset)}.
+     * Internal API, use {@link SourceProcessors#streamSocketP(String, int, Charset)}.
      */
     public static ProcessorSupplier supplier(String host, int port, @Nonnull String charset) {
-        return new CloseableProcessorSupplier<>(() -> new StreamSocketP(host, port, Charset.forName(charset)));
+        return new CloseableProcessorSupplier<>(() -> new StreamSocketP(
+                singletonList(new InetSocketAddress(host, port)), -1, Charset.forName(charset)));
+    }
+
+    /**
+     * Internal API, use {@link SourceProcessors#streamSocketsP(List, Charset)}.
+     */
+    public static ProcessorMetaSupplier metaSupplier(@Nonnull List<String> hostsAndPorts, @Nonnull String charset) {
+        return new MetaSupplier(hostsAndPorts, charset);
+    }
+
+    private static final class MetaSupplier implements ProcessorMetaSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final List<String> hostsAndPorts;
+        private final String charset;
+
+        private transient int totalParallelism;
+
+        MetaSupplier(List<String> hostsAndPorts, String charset) {
+            this.hostsAndPorts = new ArrayList<>(hostsAndPorts);
+            this.charset = charset;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            totalParallelism = context.totalParallelism();
+        }
+
+        @Nonnull @Override
+        public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            List<String> hostsAndPorts = this.hostsAndPorts;
+            String charset = this.charset;
+            int totalParallelism = this.totalParallelism;
+            return address -> new CloseableProcessorSupplier<>(count -> range(0, count)
+                    .mapToObj(i -> new StreamSocketP(
+                            hostsAndPorts.stream().map(StreamSocketP::parseAddress).collect(toList()),
+                            totalParallelism, Charset.forName(charset)))
+                    .collect(toList()));
+        }
+    }
+
+    private static InetSocketAddress parseAddress(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected host:port, got " + hostAndPort);
+        }
+        return new InetSocketAddress(hostAndPort.substring(0, colon), Integer.parseInt(hostAndPort.substring(colon + 1)));
     }
 }
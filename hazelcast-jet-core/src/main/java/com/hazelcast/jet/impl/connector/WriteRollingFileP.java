@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.CloseableProcessorSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.function.DistributedFunction;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * See {@link SinkProcessors#writeRollingFileP(String, DistributedFunction,
+ * Charset, long, long, boolean)}.
+ * <p>
+ * Each processor writes to a sequence of part files named {@code
+ * <globalIndex>-<partNumber>} (with the {@code .gz} extension if
+ * compressed). A part is written to a hidden {@code .inprogress} file and
+ * renamed to its final name when it is committed. The current part is
+ * rolled over when it reaches the maximum size or age, which is checked
+ * when an item is written and when the inbox is empty, and when the
+ * processor completes.
+ * <p>
+ * Without snapshotting, a part is committed as soon as it rolls over.
+ * With snapshotting, the parts that rolled over before a snapshot are
+ * committed when the processor is notified that the snapshot completed
+ * successfully, when the processor completes, or when the job is restored
+ * from that snapshot. If the snapshot failed, they are saved again to the
+ * next one: a restart would restore an earlier snapshot, which expects
+ * them uncommitted. The current
+ * part isn't rolled over by a snapshot: it's flushed and forced to the
+ * disk, and its length is saved, so that after a restart the part is
+ * truncated to that length and written on. A compressed part is then
+ * continued with a new GZIP member. Other uncommitted parts are deleted
+ * after the restart.
+ */
+public final class WriteRollingFileP<T> extends AbstractProcessor implements Closeable {
+
+    /**
+     * The size of the buffer into which the items are encoded before they
+     * are written to the file.
+     */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private static final String IN_PROGRESS_SUFFIX = ".inprogress";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final DistributedFunction<T, String> toStringFn;
+    private final Charset charset;
+    private final long maxFileSize;
+    private final long rollIntervalMillis;
+    private final boolean compress;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer lineSeparator = CharBuffer.wrap(System.lineSeparator());
+    // parts rolled over since the last snapshot
+    private final List<Path> rolledParts = new ArrayList<>();
+    // parts rolled over before the last snapshots, committed when one of them succeeds
+    private final List<Path> snapshottedParts = new ArrayList<>();
+    private CharsetEncoder encoder;
+    private int globalIndex;
+    private Pattern partPattern;
+    private boolean commitOnSnapshot;
+    private int nextPartNumber;
+    private boolean uncommittedDeleted;
+    private PartsState pendingSnapshotState;
+
+    private Path currentPart;
+    private FileChannel channel;
+    private OutputStream out;
+    private long bytesInPart;
+    private long partStartMillis;
+
+    WriteRollingFileP(String directoryName, DistributedFunction<T, String> toStringFn, Charset charset,
+                      long maxFileSize, long rollIntervalMillis, boolean compress
+    ) {
+        this.directory = Paths.get(directoryName);
+        this.toStringFn = toStringFn;
+        this.charset = charset;
+        this.maxFileSize = maxFileSize;
+        this.rollIntervalMillis = rollIntervalMillis;
+        this.compress = compress;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        encoder = charset.newEncoder();
+        globalIndex = context.globalProcessorIndex();
+        partPattern = Pattern.compile("(\\.?)" + globalIndex + "-(\\d+)(\\.gz)?(\\.inprogress)?");
+        commitOnSnapshot = context.snapshottingEnabled();
+        Files.createDirectories(directory);
+        // Continue after the last part. The uncommitted ones are deleted only
+        // after the snapshot restore, the restored state can refer to them.
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher m = partPattern.matcher(file.getFileName().toString());
+                if (m.matches()) {
+                    nextPartNumber = Math.max(nextPartNumber, Integer.parseInt(m.group(2)) + 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) throws Exception {
+        if (channel == null) {
+            openPart();
+        }
+        encode(CharBuffer.wrap(toStringFn.apply((T) item)));
+        encode(lineSeparator.duplicate());
+        rollIfDue();
+        return true;
+    }
+
+    @Override
+    public boolean tryProcess() {
+        // a part might become too old while no items arrive
+        try {
+            rollIfDue();
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean tryProcessWm(int ordinal, @Nonnull Watermark wm) {
+        // watermarks are not written to the file
+        return true;
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        if (pendingSnapshotState == null) {
+            try {
+                long length = channel != null ? syncPart() : 0;
+                snapshottedParts.addAll(rolledParts);
+                rolledParts.clear();
+                pendingSnapshotState = new PartsState(snapshottedParts, currentPart, length, bytesInPart,
+                        partStartMillis);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }
+        if (!tryEmitToSnapshot(broadcastKey(globalIndex), pendingSnapshotState)) {
+            return false;
+        }
+        pendingSnapshotState = null;
+        return true;
+    }
+
+    @Override
+    public boolean onSnapshotCompleted(boolean success) {
+        if (success) {
+            try {
+                commitParts(snapshottedParts);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+        if ((int) ((BroadcastKey) key).key() != globalIndex) {
+            return;
+        }
+        PartsState state = (PartsState) value;
+        try {
+            // the restored snapshot is complete, its parts can be committed
+            for (String name : state.snapshottedParts) {
+                Path part = directory.resolve(name);
+                if (Files.exists(inProgressFile(part))) {
+                    Files.move(inProgressFile(part), part, ATOMIC_MOVE);
+                }
+            }
+            if (state.currentPart != null) {
+                reopenPart(directory.resolve(state.currentPart), state);
+            }
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    @Override
+    public boolean finishSnapshotRestore() {
+        try {
+            deleteUncommittedParts();
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean complete() {
+        try {
+            deleteUncommittedParts();
+            rollPart();
+            commitParts(snapshottedParts);
+            commitParts(rolledParts);
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // uncommitted parts are left behind and handled when the job restarts
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (compress) {
+                // releases the deflater, doesn't close the file
+                out.close();
+            }
+        } finally {
+            channel.close();
+            channel = null;
+            out = null;
+        }
+    }
+
+    private void openPart() throws IOException {
+        deleteUncommittedParts();
+        String name = globalIndex + "-" + nextPartNumber++ + (compress ? GZIP_SUFFIX : "");
+        currentPart = directory.resolve(name);
+        channel = FileChannel.open(inProgressFile(currentPart), CREATE_NEW, WRITE);
+        openStream();
+        bytesInPart = 0;
+        partStartMillis = System.currentTimeMillis();
+    }
+
+    private void reopenPart(Path part, PartsState state) throws IOException {
+        currentPart = part;
+        channel = FileChannel.open(inProgressFile(part), WRITE);
+        // drop what was written after the snapshot
+        channel.truncate(state.length);
+        channel.position(state.length);
+        openStream();
+        bytesInPart = state.bytesInPart;
+        partStartMillis = state.partStartMillis;
+    }
+
+    private void openStream() throws IOException {
+        OutputStream fileOut = Channels.newOutputStream(channel);
+        out = compress ? new GzipMemberOutputStream(fileOut) : fileOut;
+    }
+
+    private void rollIfDue() throws IOException {
+        if (channel != null && (bytesInPart + buffer.position() >= maxFileSize
+                || System.currentTimeMillis() - partStartMillis >= rollIntervalMillis)) {
+            rollPart();
+        }
+    }
+
+    /**
+     * Closes the current part, if there is one, and commits it if not
+     * waiting for a snapshot.
+     */
+    private void rollPart() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        flushBuffer();
+        if (compress) {
+            // completes the GZIP member, the plain stream would close the channel
+            out.close();
+        }
+        channel.force(true);
+        channel.close();
+        channel = null;
+        out = null;
+        rolledParts.add(currentPart);
+        currentPart = null;
+        if (!commitOnSnapshot) {
+            commitParts(rolledParts);
+        }
+    }
+
+    /**
+     * Writes the buffered data to the current part and forces it to the disk.
+     * A compressed part gets a complete GZIP member and a new one is started.
+     *
+     * @return the length of the part file
+     */
+    private long syncPart() throws IOException {
+        flushBuffer();
+        if (compress) {
+            out.close();
+        }
+        channel.force(true);
+        long length = channel.position();
+        if (compress) {
+            openStream();
+        }
+        return length;
+    }
+
+    private void commitParts(List<Path> parts) throws IOException {
+        for (Path part : parts) {
+            Files.move(inProgressFile(part), part, ATOMIC_MOVE);
+        }
+        parts.clear();
+    }
+
+    private void deleteUncommittedParts() throws IOException {
+        if (uncommittedDeleted) {
+            return;
+        }
+        uncommittedDeleted = true;
+        Path restoredPart = currentPart != null ? inProgressFile(currentPart) : null;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher m = partPattern.matcher(file.getFileName().toString());
+                if (m.matches() && m.group(4) != null && !file.equals(restoredPart)) {
+                    logFine(getLogger(), "Deleting uncommitted part %s", file);
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void encode(CharBuffer chars) throws IOException {
+        for (CoderResult result; !(result = encoder.encode(chars, buffer, true)).isUnderflow(); ) {
+            handleCoderResult(result);
+        }
+        // the encoder might hold state to be written after the end of input
+        for (CoderResult result; !(result = encoder.flush(buffer)).isUnderflow(); ) {
+            handleCoderResult(result);
+        }
+        encoder.reset();
+    }
+
+    private void handleCoderResult(CoderResult result) throws IOException {
+        if (result.isOverflow()) {
+            flushBuffer();
+        } else {
+            result.throwException();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        bytesInPart += buffer.remaining();
+        out.write(buffer.array(), buffer.arrayOffset(), buffer.remaining());
+        buffer.clear();
+    }
+
+    private static Path inProgressFile(Path part) {
+        return part.resolveSibling('.' + part.getFileName().toString() + IN_PROGRESS_SUFFIX);
+    }
+
+    /**
+     * Use {@link SinkProcessors#writeRollingFileP(String, DistributedFunction,
+     * Charset, long, long, boolean)}
+     */
+    public static <T> ProcessorSupplier supplier(
+            @Nonnull String directoryName,
+            @Nonnull DistributedFunction<T, String> toStringFn,
+            @Nonnull String charset,
+            long maxFileSize,
+            long rollIntervalMillis,
+            boolean compress
+    ) {
+        return new CloseableProcessorSupplier<>(() -> new WriteRollingFileP<>(directoryName, toStringFn,
+                Charset.forName(charset), maxFileSize, rollIntervalMillis, compress));
+    }
+
+    /**
+     * A GZIP stream whose {@code close()} only completes the GZIP member,
+     * the file stays open for the next one. Concatenated members are a valid
+     * GZIP file.
+     */
+    private static final class GzipMemberOutputStream extends GZIPOutputStream {
+
+        GzipMemberOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            def.end();
+        }
+    }
+
+    /**
+     * The state of a processor saved to the snapshot.
+     */
+    private static final class PartsState implements Serializable {
+
+        static final long serialVersionUID = 1L;
+
+        final List<String> snapshottedParts;
+        final String currentPart;
+        final long length;
+        final long bytesInPart;
+        final long partStartMillis;
+
+        PartsState(List<Path> snapshottedParts, Path currentPart, long length, long bytesInPart,
+                   long partStartMillis) {
+            this.snapshottedParts = snapshottedParts.stream().map(p -> p.getFileName().toString()).collect(toList());
+            this.currentPart = currentPart != null ? currentPart.getFileName().toString() : null;
+            this.length = length;
+            this.bytesInPart = bytesInPart;
+            this.partStartMillis = partStartMillis;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.jet.core.CloseableProcessorSupplier;
+import com.hazelcast.jet.core.Inbox;
+import com.hazelcast.jet.core.Outbox;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.logging.ILogger;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+
+/**
+ * A cooperative sink which writes the string representation of items to a
+ * socket, each followed by a newline. Items are encoded into a direct
+ * buffer which is written to the channel in non-blocking mode. When the
+ * buffer is full and the socket can't accept more data, the processor
+ * stops taking items from the inbox, which backpressures the upstream.
+ *
+ * @see SinkProcessors#writeSocketP(String, int, DistributedFunction, Charset)
+ */
+public final class WriteSocketP<T> implements Processor, Closeable {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final InetSocketAddress address;
+    private final DistributedFunction<T, String> toStringFn;
+    private final CharsetEncoder encoder;
+    // in write mode: the bytes between 0 and position are to be sent
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private ILogger logger;
+    private SocketChannel channel;
+    private CharBuffer pendingChars;
+
+    private WriteSocketP(InetSocketAddress address, DistributedFunction<T, String> toStringFn, Charset charset) {
+        this.address = address;
+        this.toStringFn = toStringFn;
+        this.encoder = charset.newEncoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public void init(@Nonnull Outbox outbox, @Nonnull Context context) {
+        logger = context.logger();
+        logger.info("Connecting to socket " + address);
+        channel = uncheckCall(() -> SocketChannel.open(address));
+        uncheckRun(() -> channel.configureBlocking(false));
+        logger.info("Connected to socket " + address);
+    }
+
+    @Override
+    public void process(int ordinal, @Nonnull Inbox inbox) {
+        uncheckRun(() -> drainInbox(inbox));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainInbox(Inbox inbox) throws IOException {
+        for (Object item; ; ) {
+            if (pendingChars != null && !encodePending()) {
+                return;
+            }
+            if ((item = inbox.poll()) == null) {
+                break;
+            }
+            if (item instanceof Watermark) {
+                continue;
+            }
+            pendingChars = CharBuffer.wrap(toStringFn.apply((T) item) + '\n');
+        }
+        // send what we have, don't wait for the buffer to fill up
+        flush();
+    }
+
+    @Override
+    public boolean complete() {
+        return uncheckCall(() -> {
+            // the inbox is empty, but the last item might not be fully encoded
+            if (pendingChars != null && !encodePending() || !flush()) {
+                return false;
+            }
+            close();
+            return true;
+        });
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        // everything taken from the inbox before the barrier must be sent
+        // before the snapshot completes
+        return uncheckCall(() -> (pendingChars == null || encodePending()) && flush());
+    }
+
+    /**
+     * Encodes the pending characters into the buffer, flushing it when full.
+     * Returns {@code false} if some characters remain because the socket
+     * didn't accept enough data.
+     */
+    private boolean encodePending() throws IOException {
+        for (;;) {
+            CoderResult result = encoder.encode(pendingChars, buffer, true);
+            if (result.isError()) {
+                throw new CharacterCodingException();
+            }
+            if (result.isUnderflow()) {
+                pendingChars = null;
+                encoder.reset();
+                return true;
+            }
+            // overflow: make room in the buffer
+            int position = buffer.position();
+            flush();
+            if (buffer.position() == position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes as much of the buffer as the socket accepts. Returns {@code
+     * true} if the buffer was written fully.
+     */
+    private boolean flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            logger.info("Closing socket " + address);
+            channel.close();
+        }
+    }
+
+    /**
+     * Internal API, use {@link SinkProcessors#writeSocketP(String, int, DistributedFunction, Charset)}.
+     */
+    public static <T> ProcessorSupplier supplier(
+            @Nonnull String host, int port, @Nonnull DistributedFunction<T, String> toStringFn, @Nonnull String charset
+    ) {
+        return new CloseableProcessorSupplier<>(() -> new WriteSocketP<>(
+                new InetSocketAddress(host, port), toStringFn, Charset.forName(charset)));
+    }
+}
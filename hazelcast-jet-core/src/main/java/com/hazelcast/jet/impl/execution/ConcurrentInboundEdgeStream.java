@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
 import com.hazelcast.internal.util.concurrent.Pipe;
 import com.hazelcast.internal.util.concurrent.QueuedPipe;
@@ -49,6 +50,7 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
     private final BitSet receivedBarriers; // indicates if current snapshot is received on the queue
 
     private long pendingSnapshotId; // next snapshot barrier to emit
+    @Probe(name = "lastWatermark")
     private long lastEmittedWm = Long.MIN_VALUE;
 
     private long numActiveQueues; // number of active queues remaining
@@ -108,6 +110,10 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
                 observeWm(queueIndex, ((Watermark) itemDetector.item).timestamp());
             } else if (itemDetector.item instanceof SnapshotBarrier) {
                 observeBarrier(queueIndex, ((SnapshotBarrier) itemDetector.item).snapshotId());
+            } else if (itemDetector.item instanceof LatencyMarker) {
+                // latency markers are not coalesced, each one is forwarded as the last item
+                dest.accept(itemDetector.item);
+                break;
             }
 
             if (numActiveQueues == 0) {
@@ -144,9 +150,36 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
         return numActiveQueues == 0;
     }
 
+    /**
+     * Returns the number of items waiting in the queues of this edge.
+     */
+    @Probe(name = "queueDepth")
+    private long queueDepth() {
+        long depth = 0;
+        for (int i = 0; i < conveyor.queueCount(); i++) {
+            QueuedPipe<Object> q = conveyor.queue(i);
+            if (q != null) {
+                depth += q.size();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns how many milliseconds the last emitted watermark is behind the
+     * wall clock, assuming the timestamps are in milliseconds since epoch.
+     * Returns -1 if no watermark was emitted yet.
+     */
+    @Probe(name = "watermarkLagMillis")
+    private long watermarkLagMillis() {
+        long wm = lastEmittedWm;
+        return wm == Long.MIN_VALUE ? -1 : System.currentTimeMillis() - wm;
+    }
+
     /**
      * Drains the supplied queue into a {@code dest} collection, up to the next
-     * {@link Watermark} or {@link SnapshotBarrier}. Also updates the {@code tracker} with new status.
+     * {@link Watermark}, {@link SnapshotBarrier} or {@link LatencyMarker}. Also updates the {@code tracker}
+     * with new status.
      *
      */
     private void drainQueue(Pipe<Object> queue, Consumer<Object> dest) {
@@ -185,8 +218,8 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
     }
 
     /**
-     * Drains a concurrent conveyor's queue while watching for {@link Watermark}s
-     * and {@link SnapshotBarrier}s.
+     * Drains a concurrent conveyor's queue while watching for {@link Watermark}s,
+     * {@link SnapshotBarrier}s and {@link LatencyMarker}s.
      * When encountering a either, prevents draining more items.
      */
     private static final class ItemDetector implements Predicate<Object> {
@@ -200,7 +233,8 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
 
         @Override
         public boolean test(Object o) {
-            if (o instanceof Watermark || o instanceof SnapshotBarrier || o == DONE_ITEM) {
+            if (o instanceof Watermark || o instanceof SnapshotBarrier || o instanceof LatencyMarker
+                    || o == DONE_ITEM) {
                 assert item == null : "Received multiple special items without a call to reset(): " + item;
                 item = (BroadcastItem) o;
                 return false;
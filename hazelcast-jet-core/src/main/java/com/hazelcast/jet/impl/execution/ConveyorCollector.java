@@ -17,30 +17,63 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueue;
 import com.hazelcast.jet.impl.util.ProgressState;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.Arrays;
+
+/**
+ * Collector which offers the items to one queue of a conveyor. The items
+ * are staged in a local buffer and published to the queue in batches when
+ * the buffer fills up or when {@link #flush()} is called. Broadcast items
+ * are published immediately after the staged items.
+ */
 public class ConveyorCollector implements OutboundCollector {
 
+    static final int MAX_STAGED_ITEMS = 256;
+
     private final ConcurrentConveyor<Object> conveyor;
     private final int queueIndex;
     private final int[] partitions;
+    private final Object[] staged;
+    private int stagedCount;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public ConveyorCollector(ConcurrentConveyor<Object> conveyor, int queueIndex, int[] partitions) {
         this.conveyor = conveyor;
         this.queueIndex = queueIndex;
         this.partitions = partitions;
+        this.staged = new Object[Math.min(MAX_STAGED_ITEMS, conveyor.queue(queueIndex).capacity())];
     }
 
     @Override
     public ProgressState offer(Object item) {
-        return offerToConveyor(item);
+        return stage(item);
     }
 
     @Override
     public ProgressState offerBroadcast(BroadcastItem item) {
-        return offerToConveyor(item);
+        if (!flush().isDone()) {
+            return ProgressState.NO_PROGRESS;
+        }
+        return conveyor.offer(queueIndex, item) ? ProgressState.DONE : ProgressState.NO_PROGRESS;
+    }
+
+    @Override
+    public ProgressState flush() {
+        if (stagedCount == 0) {
+            return ProgressState.WAS_ALREADY_DONE;
+        }
+        int published = publish();
+        if (published == 0) {
+            return ProgressState.NO_PROGRESS;
+        }
+        stagedCount -= published;
+        System.arraycopy(staged, published, staged, 0, stagedCount);
+        Arrays.fill(staged, stagedCount, stagedCount + published, null);
+        return stagedCount == 0 ? ProgressState.DONE : ProgressState.MADE_PROGRESS;
     }
 
     @Override
@@ -49,8 +82,28 @@ public class ConveyorCollector implements OutboundCollector {
         return partitions;
     }
 
-    protected ProgressState offerToConveyor(Object item) {
-        return conveyor.offer(queueIndex, item) ? ProgressState.DONE : ProgressState.NO_PROGRESS;
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, conveyor.queue(queueIndex).remainingCapacity() - stagedCount);
     }
-}
 
+    protected ProgressState stage(Object item) {
+        if (stagedCount == staged.length && flush() == ProgressState.NO_PROGRESS) {
+            return ProgressState.NO_PROGRESS;
+        }
+        staged[stagedCount++] = item;
+        return ProgressState.DONE;
+    }
+
+    private int publish() {
+        QueuedPipe<Object> queue = conveyor.queue(queueIndex);
+        if (queue instanceof OneToOneBatchingQueue) {
+            return ((OneToOneBatchingQueue<Object>) queue).offerAll(staged, stagedCount);
+        }
+        int published = 0;
+        while (published < stagedCount && conveyor.offer(queueIndex, staged[published])) {
+            published++;
+        }
+        return published;
+    }
+}
@@ -28,7 +28,7 @@ public class ConveyorCollectorWithPartition extends ConveyorCollector {
 
     @Override
     public ProgressState offer(Object item, int partitionId) {
-        return offerToConveyor(new ObjectWithPartitionId(item, partitionId));
+        return stage(new ObjectWithPartitionId(item, partitionId));
     }
 
     @Override
@@ -17,10 +17,12 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.internal.metrics.MetricsRegistry;
-import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.JobMetrics;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.impl.JetService;
 import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
+import com.hazelcast.jet.impl.util.JobMetricsUtil;
+import com.hazelcast.jet.impl.util.LatencyHistogram;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.BufferObjectDataInput;
@@ -43,6 +45,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.toMap;
 
 public class ExecutionContext {
 
@@ -60,9 +63,12 @@ public class ExecutionContext {
     private Map<Integer, Map<Integer, Map<Address, SenderTasklet>>> senderMap = emptyMap();
 
     private List<ProcessorSupplier> procSuppliers = emptyList();
-    private List<Processor> processors = emptyList();
+    private List<Object> probeSources = emptyList();
+    private List<LatencyProbes> latencyProbes = emptyList();
 
     private List<Tasklet> tasklets;
+    private volatile Map<String, Long> vertexBusyNanos = emptyMap();
+    private volatile Map<String, long[]> vertexItemSizes = emptyMap();
     private CompletionStage<Void> jobFuture;
 
     private final NodeEngine nodeEngine;
@@ -85,7 +91,8 @@ public class ExecutionContext {
         // Must be populated early, so all processor suppliers are
         // available to be completed in the case of init failure
         procSuppliers = unmodifiableList(plan.getProcessorSuppliers());
-        processors = plan.getProcessors();
+        probeSources = plan.getProbeSources();
+        latencyProbes = plan.getLatencyProbes();
         snapshotContext = new SnapshotContext(nodeEngine.getLogger(SnapshotContext.class), jobId, executionId,
                 plan.lastSnapshotId(), plan.getJobConfig().getProcessingGuarantee());
         plan.initialize(nodeEngine, jobId, executionId, snapshotContext);
@@ -103,8 +110,12 @@ public class ExecutionContext {
             } else {
                 JetService service = nodeEngine.getService(JetService.SERVICE_NAME);
                 ClassLoader cl = service.getClassLoader(jobId);
-                jobFuture = execService.execute(tasklets, doneCallback, cl);
-                jobFuture.whenComplete(withTryCatch(logger, (r, e) -> tasklets.clear()));
+                jobFuture = execService.execute(jobId, tasklets, doneCallback, cl);
+                jobFuture.whenComplete(withTryCatch(logger, (r, e) -> {
+                    vertexBusyNanos = collectBusyNanos(tasklets);
+                    vertexItemSizes = collectItemSizes(tasklets);
+                    tasklets.clear();
+                }));
             }
 
             return jobFuture;
@@ -123,6 +134,61 @@ public class ExecutionContext {
         }
     }
 
+    /**
+     * Returns the total time the processors of each vertex spent doing work
+     * on this member. Available after the execution completes.
+     */
+    public Map<String, Long> vertexBusyNanos() {
+        return vertexBusyNanos;
+    }
+
+    private static Map<String, Long> collectBusyNanos(List<Tasklet> tasklets) {
+        return tasklets.stream()
+                       .filter(t -> t instanceof ProcessorTasklet)
+                       .map(t -> (ProcessorTasklet) t)
+                       .collect(toMap(ProcessorTasklet::vertexName, ProcessorTasklet::busyNanos, Long::sum));
+    }
+
+    /**
+     * Returns the estimated size of the items emitted by each vertex to each
+     * of its outbound ordinals on this member, the largest one observed by
+     * any of its processors. Available after the execution completes.
+     */
+    public Map<String, long[]> vertexItemSizes() {
+        return vertexItemSizes;
+    }
+
+    /**
+     * Returns the histogram of the latency in nanoseconds measured by the
+     * processors of each vertex on this member so far. Empty unless latency
+     * tracking is enabled for the job.
+     */
+    public Map<String, LatencyHistogram> vertexLatencies() {
+        return latencyProbes.stream().collect(toMap(LatencyProbes::vertexName, LatencyProbes::histogram));
+    }
+
+    /**
+     * Returns the current values of the probes registered for this execution
+     * on this member, aggregated per vertex, and the profiler samples of the
+     * job on this member.
+     */
+    public JobMetrics jobMetrics() {
+        return JobMetricsUtil.collectLocal(((NodeEngineImpl) nodeEngine).getMetricsRegistry(), executionId,
+                execService.profileSamples(jobId));
+    }
+
+    private static Map<String, long[]> collectItemSizes(List<Tasklet> tasklets) {
+        return tasklets.stream()
+                       .filter(t -> t instanceof ProcessorTasklet)
+                       .map(t -> (ProcessorTasklet) t)
+                       .collect(toMap(ProcessorTasklet::vertexName, ProcessorTasklet::averageItemSizes, (a, b) -> {
+                           for (int i = 0; i < a.length; i++) {
+                               a[i] = Math.max(a[i], b[i]);
+                           }
+                           return a;
+                       }));
+    }
+
     public long getJobId() {
         return jobId;
     }
@@ -155,7 +221,7 @@ public class ExecutionContext {
             }
         });
         MetricsRegistry metricsRegistry = ((NodeEngineImpl) nodeEngine).getMetricsRegistry();
-        processors.forEach(metricsRegistry::deregister);
+        probeSources.forEach(metricsRegistry::deregister);
     }
 
     public void handlePacket(int vertexId, int ordinal, Address sender, BufferObjectDataInput in) {
@@ -177,6 +243,10 @@ public class ExecutionContext {
         }
     }
 
+    public void snapshotCompleted(long snapshotId, boolean success) {
+        snapshotContext.snapshotCompleted(snapshotId, success);
+    }
+
     public boolean isParticipating(Address member) {
         return participants.contains(member);
     }
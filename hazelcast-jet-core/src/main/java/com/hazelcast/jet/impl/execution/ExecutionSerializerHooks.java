@@ -144,4 +144,41 @@ public class ExecutionSerializerHooks {
             return true;
         }
     }
+
+    public static final class LatencyMarkerHook implements SerializerHook<LatencyMarker> {
+
+        @Override
+        public Class<LatencyMarker> getSerializationType() {
+            return LatencyMarker.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<LatencyMarker>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.LATENCY_MARKER;
+                }
+
+                @Override
+                public void destroy() {
+                }
+
+                @Override
+                public void write(ObjectDataOutput out, LatencyMarker object) throws IOException {
+                    out.writeLong(object.creationTime());
+                }
+
+                @Override
+                public LatencyMarker read(ObjectDataInput in) throws IOException {
+                    return new LatencyMarker(in.readLong());
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
 }
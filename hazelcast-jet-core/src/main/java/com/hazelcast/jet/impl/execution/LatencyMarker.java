@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Special item periodically emitted by the source processors when latency
+ * tracking is enabled. It travels through the DAG along with the other
+ * items and each processor receiving it records the time passed since its
+ * creation.
+ */
+public class LatencyMarker implements BroadcastItem {
+
+    private static final long NANO_CLOCK_OFFSET =
+            TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private final long creationTime;
+
+    public LatencyMarker(long creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    /**
+     * Returns the wall-clock time in nanoseconds, with the precision
+     * of {@link System#nanoTime()}. Comparable between members only as far
+     * as their clocks are synchronized.
+     */
+    public static long now() {
+        return System.nanoTime() + NANO_CLOCK_OFFSET;
+    }
+
+    /**
+     * Returns the {@link #now()} time at which the marker was created.
+     */
+    public long creationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyMarker{creationTime=" + creationTime + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof LatencyMarker && creationTime == ((LatencyMarker) o).creationTime;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(creationTime);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.jet.impl.util.LatencyHistogram;
+
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Exposes the latency of the processors of one vertex on this member as
+ * metrics. The histograms of the processors are merged on each read.
+ */
+public class LatencyProbes {
+
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+
+    private final String vertexName;
+    private final List<ProcessorTasklet> tasklets;
+
+    public LatencyProbes(String vertexName, List<ProcessorTasklet> tasklets) {
+        this.vertexName = vertexName;
+        this.tasklets = tasklets;
+    }
+
+    public String vertexName() {
+        return vertexName;
+    }
+
+    /**
+     * Returns the merged histogram of the latencies in nanoseconds.
+     */
+    public LatencyHistogram histogram() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (ProcessorTasklet tasklet : tasklets) {
+            merged.add(tasklet.latencyHistogram());
+        }
+        return merged;
+    }
+
+    @Probe(name = "latencyCount")
+    public long count() {
+        return histogram().count();
+    }
+
+    @Probe(name = "latencyP50Micros")
+    public long p50Micros() {
+        return NANOSECONDS.toMicros(histogram().valueAtPercentile(P50));
+    }
+
+    @Probe(name = "latencyP99Micros")
+    public long p99Micros() {
+        return NANOSECONDS.toMicros(histogram().valueAtPercentile(P99));
+    }
+
+    @Probe(name = "latencyP999Micros")
+    public long p999Micros() {
+        return NANOSECONDS.toMicros(histogram().valueAtPercentile(P999));
+    }
+
+    @Probe(name = "latencyMaxMicros")
+    public long maxMicros() {
+        return NANOSECONDS.toMicros(histogram().max());
+    }
+}
@@ -50,6 +50,14 @@ public interface OutboundCollector {
         return offer(item);
     }
 
+    /**
+     * Publishes the items the collector has accepted, but not yet passed on.
+     * Must be retried until it returns a done state.
+     */
+    default ProgressState flush() {
+        return ProgressState.WAS_ALREADY_DONE;
+    }
+
     /**
      * Returns the list of partitions handled by this collector.
      */
@@ -57,6 +65,14 @@ public interface OutboundCollector {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns the number of items this collector can currently accept
+     * without blocking. Used by the {@code REBALANCE} routing policy.
+     */
+    default int remainingCapacity() {
+        throw new UnsupportedOperationException();
+    }
+
 
     static OutboundCollector compositeCollector(
             OutboundCollector[] collectors, EdgeDef outboundEdge, int partitionCount
@@ -72,6 +88,8 @@ public interface OutboundCollector {
                 return new Partitioned(collectors, outboundEdge.partitioner(), partitionCount);
             case BROADCAST:
                 return new Broadcast(collectors);
+            case REBALANCE:
+                return new Rebalance(collectors);
             default:
                 throw new AssertionError("Missing case label for " + outboundEdge.routingPolicy());
         }
@@ -116,6 +134,29 @@ public interface OutboundCollector {
         public int[] getPartitions() {
             return partitions;
         }
+
+        @Override
+        public ProgressState flush() {
+            progTracker.reset();
+            for (OutboundCollector collector : collectors) {
+                progTracker.mergeWith(collector.flush());
+            }
+            return progTracker.toProgressState();
+        }
+
+        /**
+         * Returns the remaining capacity per collector. The composite of the
+         * local queues is compared with the single queue to each remote member,
+         * the sum would bias the choice towards the local member.
+         */
+        @Override
+        public int remainingCapacity() {
+            long sum = 0;
+            for (OutboundCollector collector : collectors) {
+                sum += collector.remainingCapacity();
+            }
+            return (int) (sum / collectors.length);
+        }
     }
 
     class RoundRobin extends Composite {
@@ -145,6 +186,63 @@ public interface OutboundCollector {
         }
     }
 
+    /**
+     * Sends the items in batches to the collector with the most remaining
+     * capacity. The capacities are only checked when a new batch starts.
+     */
+    class Rebalance extends Composite {
+
+        static final int MAX_BATCH_SIZE = 256;
+
+        private int current;
+        private int remainingInBatch;
+
+        Rebalance(OutboundCollector[] collectors) {
+            super(collectors);
+        }
+
+        @Override
+        public ProgressState offer(Object item) {
+            if (remainingInBatch == 0 && !startBatch()) {
+                return ProgressState.NO_PROGRESS;
+            }
+            ProgressState result = collectors[current].offer(item);
+            if (result.isDone()) {
+                remainingInBatch--;
+            } else {
+                // the collector filled up sooner than expected, choose again on retry
+                remainingInBatch = 0;
+            }
+            return result;
+        }
+
+        /**
+         * Chooses the collector for the next batch. The search starts after the
+         * current collector so that the collectors with equal capacity take
+         * turns.
+         *
+         * @return {@code false} if all collectors are full
+         */
+        private boolean startBatch() {
+            int best = -1;
+            int bestCapacity = 0;
+            for (int i = 1; i <= collectors.length; i++) {
+                int index = (current + i) % collectors.length;
+                int capacity = collectors[index].remainingCapacity();
+                if (capacity > bestCapacity) {
+                    best = index;
+                    bestCapacity = capacity;
+                }
+            }
+            if (best == -1) {
+                return false;
+            }
+            current = best;
+            remainingInBatch = Math.min(bestCapacity, MAX_BATCH_SIZE);
+            return true;
+        }
+    }
+
     class Broadcast extends Composite {
 
         Broadcast(OutboundCollector[] collectors) {
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.metrics.Probe;
+
+/**
+ * Exposes the backpressure on one outbound edge of a processor as a metric.
+ */
+public class OutboundEdgeProbes {
+
+    private final OutboxImpl outbox;
+    private final int ordinal;
+
+    OutboundEdgeProbes(OutboxImpl outbox, int ordinal) {
+        this.outbox = outbox;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Returns how many times the edge refused an item because its queues
+     * were full. The processor retries the refused item in a later call.
+     */
+    @Probe(name = "refusedOffers")
+    public long refusedOffers() {
+        return outbox.refusedOffers(ordinal);
+    }
+}
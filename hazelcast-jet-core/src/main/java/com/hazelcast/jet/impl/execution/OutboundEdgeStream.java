@@ -30,7 +30,7 @@ public class OutboundEdgeStream {
         this.collector = collector;
     }
 
-    int ordinal() {
+    public int ordinal() {
         return ordinal;
     }
 
@@ -26,6 +26,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javax.annotation.Nonnull;
 import java.util.BitSet;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.Util.entry;
@@ -33,18 +35,30 @@ import static com.hazelcast.util.Preconditions.checkPositive;
 
 public class OutboxImpl implements Outbox {
 
+    static final int ITEM_SIZE_SAMPLING_INTERVAL = 1024;
+
+    // written only by the tasklet's thread and read by the metrics thread
+    private static final AtomicLongFieldUpdater<OutboxImpl> EMITTED_COUNT =
+            AtomicLongFieldUpdater.newUpdater(OutboxImpl.class, "emittedCount");
+
     private final OutboundCollector[] outstreams;
     private final ProgressTracker progTracker;
     private final SerializationService serializationService;
-    private final int batchSize;
+    private int batchSize;
 
     private final int[] singleEdge = {0};
     private final int[] allEdges;
     private final int[] allEdgesAndSnapshot;
     private final int[] snapshotEdge;
     private final BitSet broadcastTracker;
+    private final long[] sampledBytes;
+    private final int[] sampleCounts;
     private Entry<Data, Data> pendingSnapshotEntry;
     private int numRemainingInBatch;
+    private boolean isSamplingItemSizes;
+    private int untilNextSample = 1;
+    private volatile long emittedCount;
+    private final AtomicLongArray refusedOffers;
 
     /**
      * @param outstreams The output queues
@@ -67,6 +81,18 @@ public class OutboxImpl implements Outbox {
         allEdgesAndSnapshot = IntStream.range(0, outstreams.length).toArray();
         snapshotEdge = hasSnapshot ? new int[] {outstreams.length - 1} : null;
         broadcastTracker = new BitSet(outstreams.length);
+        sampledBytes = new long[allEdges.length];
+        sampleCounts = new int[allEdges.length];
+        refusedOffers = new AtomicLongArray(allEdges.length);
+    }
+
+    /**
+     * Enables the estimation of the item sizes returned by {@link
+     * #averageItemSizes()}. It's off by default because it serializes
+     * some of the items.
+     */
+    public void enableItemSizeSampling() {
+        isSamplingItemSizes = serializationService != null;
     }
 
     @Override
@@ -108,10 +134,20 @@ public class OutboxImpl implements Outbox {
                 broadcastTracker.set(i);
             } else {
                 done = false;
+                if (ordinals[i] < refusedOffers.length()) {
+                    refusedOffers.lazySet(ordinals[i], refusedOffers.get(ordinals[i]) + 1);
+                }
             }
         }
         if (done) {
             broadcastTracker.clear();
+            // count only accepted items so that retries don't change the sampling rate
+            if (isSamplingItemSizes && --untilNextSample == 0) {
+                sampleItemSize(ordinals, item);
+            }
+            if (!(item instanceof BroadcastItem) && ordinals != snapshotEdge) {
+                EMITTED_COUNT.lazySet(this, emittedCount + 1);
+            }
         }
         return done;
     }
@@ -147,6 +183,93 @@ public class OutboxImpl implements Outbox {
         numRemainingInBatch = batchSize;
     }
 
+    /**
+     * Returns {@code true} if the processor was stopped by the batch limit
+     * since the last {@link #resetBatch()}.
+     */
+    public boolean isBatchExhausted() {
+        return numRemainingInBatch == 0;
+    }
+
+    /**
+     * Returns {@code true} if the last item offered with multiple ordinals
+     * was accepted only by some of them. Until it's offered again, no other
+     * item can be offered.
+     */
+    public boolean hasPartiallyOfferedItem() {
+        return !broadcastTracker.isEmpty();
+    }
+
+    /**
+     * Returns the number of items, other than the special broadcast items
+     * and the snapshot entries, accepted by all the requested ordinals.
+     */
+    public long emittedCount() {
+        return emittedCount;
+    }
+
+    /**
+     * Returns how many times the given ordinal's collector refused an item
+     * because its queues were full.
+     */
+    public long refusedOffers(int ordinal) {
+        return refusedOffers.get(ordinal);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the batch size which will be used from the next {@link
+     * #resetBatch()} on.
+     */
+    public void setBatchSize(int batchSize) {
+        checkPositive(batchSize, "batchSize must be positive");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the average serialized size of the items offered to each
+     * ordinal, estimated by serializing every {@value
+     * #ITEM_SIZE_SAMPLING_INTERVAL}th item if {@link
+     * #enableItemSizeSampling() enabled}. The value is {@code -1} for the
+     * ordinals for which no sample was taken.
+     */
+    public long[] averageItemSizes() {
+        long[] averages = new long[sampledBytes.length];
+        for (int i = 0; i < averages.length; i++) {
+            averages[i] = sampleCounts[i] == 0 ? -1 : sampledBytes[i] / sampleCounts[i];
+        }
+        return averages;
+    }
+
+    private void sampleItemSize(int[] ordinals, Object item) {
+        untilNextSample = ITEM_SIZE_SAMPLING_INTERVAL;
+        if (item instanceof BroadcastItem || ordinals == snapshotEdge) {
+            return;
+        }
+        Data data;
+        try {
+            data = serializationService.toData(item);
+        } catch (RuntimeException e) {
+            // items on local edges don't have to be serializable and a user
+            // serializer can fail in any way, give up sampling
+            isSamplingItemSizes = false;
+            return;
+        }
+        if (data == null) {
+            return;
+        }
+        int size = data.totalSize();
+        for (int ordinal : ordinals) {
+            if (ordinal < sampledBytes.length) {
+                sampledBytes[ordinal] += size;
+                sampleCounts[ordinal]++;
+            }
+        }
+    }
+
     private ProgressState doOffer(OutboundCollector collector, Object item) {
         if (item instanceof BroadcastItem) {
             return collector.offerBroadcast((BroadcastItem) item);
@@ -157,4 +280,21 @@ public class OutboxImpl implements Outbox {
     final boolean offerToEdgesAndSnapshot(Object item) {
         return offer(allEdgesAndSnapshot, item);
     }
+
+    /**
+     * Publishes the items staged in the collectors to their queues.
+     *
+     * @return {@code true} if there are no more staged items
+     */
+    final boolean flush() {
+        boolean done = true;
+        for (OutboundCollector collector : outstreams) {
+            ProgressState result = collector.flush();
+            if (result.isMadeProgress()) {
+                progTracker.madeProgress();
+            }
+            done &= result.isDone();
+        }
+        return done;
+    }
 }
@@ -49,6 +49,12 @@ enum ProcessorState {
      */
     EMIT_BARRIER,
 
+    /**
+     * Doing calls to {@link Processor#onSnapshotCompleted(boolean)} until it
+     * returns true.
+     */
+    SNAPSHOT_COMPLETED,
+
     /**
      * Waiting until outbox accepts DONE_ITEM.
      */
@@ -16,12 +16,14 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.util.ArrayDequeInbox;
 import com.hazelcast.jet.impl.util.CircularListCursor;
+import com.hazelcast.jet.impl.util.LatencyHistogram;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.util.Preconditions;
@@ -36,7 +38,9 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.jet.impl.MasterContext.SNAPSHOT_RESTORE_EDGE_PRIORITY;
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
 import static com.hazelcast.jet.impl.execution.ProcessorState.COMPLETE;
 import static com.hazelcast.jet.impl.execution.ProcessorState.COMPLETE_EDGE;
@@ -45,14 +49,35 @@ import static com.hazelcast.jet.impl.execution.ProcessorState.EMIT_DONE_ITEM;
 import static com.hazelcast.jet.impl.execution.ProcessorState.END;
 import static com.hazelcast.jet.impl.execution.ProcessorState.PROCESS_INBOX;
 import static com.hazelcast.jet.impl.execution.ProcessorState.SAVE_SNAPSHOT;
+import static com.hazelcast.jet.impl.execution.ProcessorState.SNAPSHOT_COMPLETED;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Comparator.comparing;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toCollection;
 
 public class ProcessorTasklet implements Tasklet {
 
-    private static final int OUTBOX_BATCH_SIZE = 2048;
+    static final int MAX_OUTBOX_BATCH_SIZE = 2048;
+    static final int MIN_OUTBOX_BATCH_SIZE = 64;
+    static final long TARGET_CALL_NANOS = MILLISECONDS.toNanos(1);
+    // only every n-th call is timed, must be a power of two
+    static final int CALL_TIMING_PERIOD = 16;
+    private static final int HUNDRED_PERCENT = 100;
+
+    // the counters are written only by the tasklet's thread and read by the
+    // metrics thread, so ordered writes are enough to publish them
+    private static final AtomicLongFieldUpdater<ProcessorTasklet> BUSY_NANOS =
+            AtomicLongFieldUpdater.newUpdater(ProcessorTasklet.class, "busyNanos");
+    private static final AtomicLongFieldUpdater<ProcessorTasklet> ITEMS_IN =
+            AtomicLongFieldUpdater.newUpdater(ProcessorTasklet.class, "itemsIn");
+    private static final AtomicLongFieldUpdater<ProcessorTasklet> INBOX_BATCHES =
+            AtomicLongFieldUpdater.newUpdater(ProcessorTasklet.class, "inboxBatches");
+    private static final AtomicLongFieldUpdater<ProcessorTasklet> CALL_COUNT =
+            AtomicLongFieldUpdater.newUpdater(ProcessorTasklet.class, "callCount");
+    private static final AtomicLongFieldUpdater<ProcessorTasklet> IDLE_CALL_COUNT =
+            AtomicLongFieldUpdater.newUpdater(ProcessorTasklet.class, "idleCallCount");
+
     private final ProgressTracker progTracker = new ProgressTracker();
     private final OutboundEdgeStream[] outstreams;
     private final OutboxImpl outbox;
@@ -70,6 +95,25 @@ public class ProcessorTasklet implements Tasklet {
     private InboundEdgeStream currInstream;
     private ProcessorState state;
     private long pendingSnapshotId;
+    // the last completed snapshot the processor was notified about
+    private long notifiedSnapshotId;
+    @Probe(name = "busyNanos")
+    private volatile long busyNanos;
+    @Probe(name = "itemsIn")
+    private volatile long itemsIn;
+    @Probe(name = "inboxBatches")
+    private volatile long inboxBatches;
+    @Probe(name = "callCount")
+    private volatile long callCount;
+    @Probe(name = "idleCallCount")
+    private volatile long idleCallCount;
+
+    private final boolean isSource;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private long latencyMarkerIntervalNanos = -1;
+    private long nextLatencyMarkerTime;
+    private long lastForwardedMarkerTime = Long.MIN_VALUE;
+    private LatencyMarker pendingMarker;
 
     public ProcessorTasklet(@Nonnull ProcCtx context,
                             @Nonnull Processor processor,
@@ -81,6 +125,7 @@ public class ProcessorTasklet implements Tasklet {
         this.context = context;
         this.processor = processor;
         this.numActiveOrdinals = instreams.size();
+        this.isSource = instreams.stream().allMatch(s -> s.priority() == SNAPSHOT_RESTORE_EDGE_PRIORITY);
         this.instreamGroupQueue = instreams
                 .stream()
                 .collect(groupingBy(InboundEdgeStream::priority, TreeMap::new,
@@ -99,6 +144,7 @@ public class ProcessorTasklet implements Tasklet {
         receivedBarriers = new BitSet(instreams.size());
         state = initialProcessingState();
         pendingSnapshotId = ssContext.lastSnapshotId() + 1;
+        notifiedSnapshotId = ssContext.lastSnapshotId();
     }
 
     private OutboxImpl createOutbox(OutboundCollector ssCollector) {
@@ -110,7 +156,7 @@ public class ProcessorTasklet implements Tasklet {
             collectors[outstreams.length] = ssCollector;
         }
         return new OutboxImpl(collectors, ssCollector != null, progTracker,
-                context.getSerializationService(), OUTBOX_BATCH_SIZE);
+                context.getSerializationService(), MAX_OUTBOX_BATCH_SIZE);
     }
 
     @Override
@@ -120,10 +166,168 @@ public class ProcessorTasklet implements Tasklet {
 
     @Override @Nonnull
     public ProgressState call() {
+        boolean timed = (callCount & (CALL_TIMING_PERIOD - 1)) == 0;
+        long start = timed ? System.nanoTime() : 0;
         progTracker.reset();
         outbox.resetBatch();
-        stateMachineStep();
-        return progTracker.toProgressState();
+        if (offerLatencyMarker()) {
+            stateMachineStep();
+        }
+        if (!outbox.flush()) {
+            progTracker.notDone();
+        }
+        ProgressState progressState = progTracker.toProgressState();
+        CALL_COUNT.lazySet(this, callCount + 1);
+        if (!progressState.isMadeProgress()) {
+            IDLE_CALL_COUNT.lazySet(this, idleCallCount + 1);
+        } else if (timed) {
+            long callNanos = System.nanoTime() - start;
+            // the timed call stands for the untimed ones in its period
+            BUSY_NANOS.lazySet(this, busyNanos + callNanos * CALL_TIMING_PERIOD);
+            if (isCooperative()) {
+                adaptBatchSize(callNanos);
+            }
+        }
+        return progressState;
+    }
+
+    /**
+     * Enables the emission of a {@link LatencyMarker} with the given interval
+     * if this is a source processor, and the forwarding of the received
+     * ones otherwise.
+     */
+    public void setLatencyTrackingInterval(long intervalMillis) {
+        latencyMarkerIntervalNanos = MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    /**
+     * Returns the histogram of nanoseconds the received latency markers
+     * spent traveling from the source processors to this one.
+     */
+    public LatencyHistogram latencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Creates a new latency marker in a source processor when one is due and
+     * offers the pending marker to the outbox once the items received before
+     * it were processed.
+     *
+     * @return {@code false} if the marker was not accepted and the processor
+     *         must not proceed to emit more items
+     */
+    private boolean offerLatencyMarker() {
+        if (latencyMarkerIntervalNanos <= 0) {
+            return true;
+        }
+        if (pendingMarker == null && isSource) {
+            long now = LatencyMarker.now();
+            if (now >= nextLatencyMarkerTime) {
+                pendingMarker = new LatencyMarker(now);
+                nextLatencyMarkerTime = now + latencyMarkerIntervalNanos;
+            }
+        }
+        if (pendingMarker == null || !inbox.isEmpty() || outbox.hasPartiallyOfferedItem()) {
+            return true;
+        }
+        if (state == EMIT_DONE_ITEM || state == END) {
+            pendingMarker = null;
+            return true;
+        }
+        if (outbox.offer(pendingMarker)) {
+            pendingMarker = null;
+            return true;
+        }
+        progTracker.notDone();
+        return false;
+    }
+
+    private void observeLatencyMarker(LatencyMarker marker) {
+        latencyHistogram.record(LatencyMarker.now() - marker.creationTime());
+        // a marker is received from each upstream processor, forward only the first copy
+        if (pendingMarker == null && marker.creationTime() > lastForwardedMarkerTime) {
+            pendingMarker = marker;
+            lastForwardedMarkerTime = marker.creationTime();
+        }
+    }
+
+    /**
+     * Halves the outbox batch size when a timed call took longer than {@link
+     * #TARGET_CALL_NANOS} so that a processor emitting expensive items
+     * doesn't delay the other tasklets on the same thread. Doubles it back
+     * when a call stopped at the batch limit well within the target.
+     */
+    private void adaptBatchSize(long callNanos) {
+        int batchSize = outbox.batchSize();
+        if (callNanos > TARGET_CALL_NANOS) {
+            if (batchSize > MIN_OUTBOX_BATCH_SIZE) {
+                outbox.setBatchSize(batchSize / 2);
+            }
+        } else if (callNanos < TARGET_CALL_NANOS / 2 && outbox.isBatchExhausted()
+                && batchSize < MAX_OUTBOX_BATCH_SIZE) {
+            outbox.setBatchSize(batchSize * 2);
+        }
+    }
+
+    /**
+     * Returns the total time spent in the calls which made progress,
+     * estimated from every {@value #CALL_TIMING_PERIOD}th call.
+     */
+    public long busyNanos() {
+        return busyNanos;
+    }
+
+    @Probe(name = "itemsOut")
+    private long itemsOut() {
+        return outbox.emittedCount();
+    }
+
+    /**
+     * Returns the probes of the outbound edge with the given ordinal.
+     */
+    public OutboundEdgeProbes outboundEdgeProbes(int ordinal) {
+        return new OutboundEdgeProbes(outbox, ordinal);
+    }
+
+    /**
+     * Returns the percentage of calls in which the tasklet made no progress.
+     */
+    @Probe(name = "idleRatioPercent")
+    private long idleRatioPercent() {
+        long calls = callCount;
+        return calls == 0 ? 0 : idleCallCount * HUNDRED_PERCENT / calls;
+    }
+
+    /**
+     * Enables the estimation of the sizes returned by {@link
+     * #averageItemSizes()}.
+     */
+    public void enableItemSizeSampling() {
+        outbox.enableItemSizeSampling();
+    }
+
+    /**
+     * Returns the estimated average serialized size of the items emitted
+     * to each outbound ordinal, {@code -1} where unknown.
+     */
+    public long[] averageItemSizes() {
+        return outbox.averageItemSizes();
+    }
+
+    public String vertexName() {
+        return context.vertexName();
+    }
+
+    Class<?> processorClass() {
+        return processor.getClass();
+    }
+
+    /**
+     * Returns the current state of the processor. Read without
+     * synchronization by the {@link TaskletProfiler}, so it can be stale.
+     */
+    ProcessorState state() {
+        return state;
     }
 
     @SuppressWarnings("checkstyle:returncount")
@@ -143,6 +347,11 @@ public class ProcessorTasklet implements Tasklet {
                 }
 
                 if (inbox.isEmpty()) {
+                    if (isSnapshotCompletionPending()) {
+                        state = SNAPSHOT_COMPLETED;
+                        progTracker.madeProgress();
+                        return;
+                    }
                     // there is either snapshot or instream is done, not both
                     if (currInstream != null && currInstream.isDone()) {
                         state = COMPLETE_EDGE;
@@ -192,8 +401,23 @@ public class ProcessorTasklet implements Tasklet {
                 }
                 return;
 
+            case SNAPSHOT_COMPLETED:
+                progTracker.notDone();
+                // no newer snapshot can complete before this processor saves to it
+                if (processor.onSnapshotCompleted(ssContext.isLastCompletedSnapshotSuccessful())) {
+                    progTracker.madeProgress();
+                    notifiedSnapshotId = ssContext.lastCompletedSnapshotId();
+                    state = initialProcessingState();
+                }
+                return;
+
             case COMPLETE:
                 progTracker.notDone();
+                if (isSnapshotCompletionPending()) {
+                    state = SNAPSHOT_COMPLETED;
+                    progTracker.madeProgress();
+                    return;
+                }
                 // check ssContext to see if a barrier should be emitted
                 if (context.snapshottingEnabled()) {
                     long currSnapshotId = ssContext.lastSnapshotId();
@@ -254,6 +478,12 @@ public class ProcessorTasklet implements Tasklet {
             if (inbox.peekLast() instanceof SnapshotBarrier) {
                 SnapshotBarrier barrier = (SnapshotBarrier) inbox.removeLast();
                 observeSnapshot(currInstream.ordinal(), barrier.snapshotId());
+            } else if (inbox.peekLast() instanceof LatencyMarker) {
+                observeLatencyMarker((LatencyMarker) inbox.removeLast());
+            }
+            if (!inbox.isEmpty()) {
+                ITEMS_IN.lazySet(this, itemsIn + inbox.size());
+                INBOX_BATCHES.lazySet(this, inboxBatches + 1);
             }
 
             // pop current priority group
@@ -287,6 +517,18 @@ public class ProcessorTasklet implements Tasklet {
      * Initial state of the processor. If there are no inbound ordinals left, we will go to COMPLETE state
      * otherwise to PROCESS_INBOX.
      */
+    /**
+     * Returns, if a snapshot to which the processor saved its state has
+     * completed since the processor was last notified.
+     */
+    private boolean isSnapshotCompletionPending() {
+        if (!context.snapshottingEnabled()) {
+            return false;
+        }
+        long completedId = ssContext.lastCompletedSnapshotId();
+        return completedId > notifiedSnapshotId && completedId < pendingSnapshotId;
+    }
+
     private ProcessorState initialProcessingState() {
         return instreamCursor == null ? COMPLETE : PROCESS_INBOX;
     }
@@ -124,6 +124,7 @@ public class ReceiverTasklet implements Tasklet {
             inbox.remove();
             ackItem(o.estimatedMemoryFootprint);
         }
+        tracker.madeProgress(collector.flush().isMadeProgress());
         return tracker.toProgressState();
     }
 
@@ -102,29 +102,46 @@ public class SenderTasklet implements Tasklet {
 
     private boolean tryFillOutputBuffer() {
         try {
-            // header size + slot for writtenCount
-            outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
-            int writtenCount = 0;
-            for (Object item;
-                 outputBuffer.position() < packetSizeLimit
-                         && isWithinLimit(sentSeq, sendSeqLimitCompressed)
-                         && (item = inbox.poll()) != null;
-                 writtenCount++
-                    ) {
-                ObjectWithPartitionId itemWithpId = item instanceof ObjectWithPartitionId ?
-                        (ObjectWithPartitionId) item : new ObjectWithPartitionId(item, - 1);
-                final int mark = outputBuffer.position();
-                outputBuffer.writeObject(itemWithpId.getItem());
-                sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark);
-                outputBuffer.writeInt(itemWithpId.getPartitionId());
-            }
-            outputBuffer.writeInt(bufPosPastHeader, writtenCount);
-            return writtenCount > 0;
+            sentSeq = writeItems(outputBuffer, bufPosPastHeader, inbox, packetSizeLimit, sentSeq,
+                    sendSeqLimitCompressed);
+            // anything past the header and the slot for writtenCount
+            return outputBuffer.position() > bufPosPastHeader + Bits.INT_SIZE_IN_BYTES;
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
+    /**
+     * Writes the items polled from the queue to the buffer starting at the
+     * given position: first their count, then each item followed by its
+     * partition ID. Stops when the queue is empty, the buffer reaches the
+     * packet size limit or {@code sentSeq} reaches the limit given by {@code
+     * sendSeqLimitCompressed}.
+     *
+     * @return the value of {@code sentSeq} after the written items
+     */
+    static long writeItems(BufferObjectDataOutput outputBuffer, int position, Queue<Object> items,
+                           int packetSizeLimit, long sentSeq, int sendSeqLimitCompressed) throws IOException {
+        // slot for writtenCount
+        outputBuffer.position(position + Bits.INT_SIZE_IN_BYTES);
+        int writtenCount = 0;
+        for (Object item;
+             outputBuffer.position() < packetSizeLimit
+                     && isWithinLimit(sentSeq, sendSeqLimitCompressed)
+                     && (item = items.poll()) != null;
+             writtenCount++
+                ) {
+            ObjectWithPartitionId itemWithpId = item instanceof ObjectWithPartitionId ?
+                    (ObjectWithPartitionId) item : new ObjectWithPartitionId(item, - 1);
+            final int mark = outputBuffer.position();
+            outputBuffer.writeObject(itemWithpId.getItem());
+            sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark);
+            outputBuffer.writeInt(itemWithpId.getPartitionId());
+        }
+        outputBuffer.writeInt(position, writtenCount);
+        return sentSeq;
+    }
+
     /**
      * Updates the upper limit on {@link #sentSeq}, which constrains how much more data this tasklet can send.
      *
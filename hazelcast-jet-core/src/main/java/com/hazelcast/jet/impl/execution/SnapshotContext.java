@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.logging.ILogger;
 
@@ -27,6 +28,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import static com.hazelcast.jet.impl.util.Util.completeVoidFuture;
 import static com.hazelcast.jet.impl.util.Util.completedVoidFuture;
 import static com.hazelcast.jet.impl.util.Util.jobAndExecutionId;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class SnapshotContext {
 
@@ -80,15 +82,33 @@ public class SnapshotContext {
      */
     private boolean snapshotPostponed;
 
+    /**
+     * Id of the last snapshot which the master reported as completed on all
+     * members and whether it was successful. The flag is written first.
+     */
+    private volatile long lastCompletedSnapshotId;
+    private volatile boolean lastCompletedSnapshotSuccessful;
+
     /** Future which will be completed when the current snapshot completes. */
     private volatile CompletableFuture<Void> future;
 
+    /** Total size of the entries written to the current snapshot. */
+    private final AtomicLong currentSnapshotBytes = new AtomicLong();
+    private volatile long currentSnapshotStartNanos;
+
+    private final AtomicLong completedSnapshots = new AtomicLong();
+    @Probe(name = "lastSnapshotDurationMillis")
+    private volatile long lastSnapshotDurationMillis = -1;
+    @Probe(name = "lastSnapshotBytes")
+    private volatile long lastSnapshotBytes = -1;
+
     SnapshotContext(ILogger logger, long jobId, long executionId, long lastSnapshotId,
                     ProcessingGuarantee guarantee
     ) {
         this.jobId = jobId;
         this.executionId = executionId;
         this.lastSnapshotId = new AtomicLong(lastSnapshotId);
+        this.lastCompletedSnapshotId = lastSnapshotId;
         this.guarantee = guarantee;
         this.logger = logger;
     }
@@ -147,6 +167,7 @@ public class SnapshotContext {
             // member is already done with the job and master didn't know it yet - we are immediately done.
             return completedVoidFuture();
         }
+        currentSnapshotStartNanos = System.nanoTime();
         CompletableFuture res = future = new CompletableFuture<>();
         if (newNumRemainingTasklets == 0) {
             handleSnapshotDone();
@@ -202,7 +223,38 @@ public class SnapshotContext {
         }
     }
 
+    /**
+     * Called when the master reports that the snapshot completed on all
+     * members. {@link ProcessorTasklet}s then notify their processors.
+     */
+    void snapshotCompleted(long snapshotId, boolean success) {
+        lastCompletedSnapshotSuccessful = success;
+        lastCompletedSnapshotId = snapshotId;
+    }
+
+    /**
+     * Id of the last snapshot completed on all members
+     */
+    long lastCompletedSnapshotId() {
+        return lastCompletedSnapshotId;
+    }
+
+    boolean isLastCompletedSnapshotSuccessful() {
+        return lastCompletedSnapshotSuccessful;
+    }
+
+    /**
+     * Called by {@link StoreSnapshotTasklet} to report the size of the
+     * entries it wrote to the current snapshot.
+     */
+    void addSnapshotBytes(long bytes) {
+        currentSnapshotBytes.addAndGet(bytes);
+    }
+
     private void handleSnapshotDone() {
+        lastSnapshotDurationMillis = NANOSECONDS.toMillis(System.nanoTime() - currentSnapshotStartNanos);
+        lastSnapshotBytes = currentSnapshotBytes.getAndSet(0);
+        completedSnapshots.incrementAndGet();
         Throwable t = snapshotError.get();
         if (t == null) {
             completeVoidFuture(future);
@@ -217,6 +269,11 @@ public class SnapshotContext {
         snapshotError.compareAndSet(null, ex);
     }
 
+    @Probe(name = "completedSnapshots")
+    private long completedSnapshots() {
+        return completedSnapshots.get();
+    }
+
     // public-visible for tests
     public AtomicInteger getNumRemainingTasklets() {
         return numRemainingTasklets;
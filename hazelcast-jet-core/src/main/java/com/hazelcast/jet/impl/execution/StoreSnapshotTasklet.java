@@ -52,6 +52,7 @@ public class StoreSnapshotTasklet implements Tasklet {
     private State state = DRAIN;
     private boolean hasReachedBarrier;
     private boolean inputIsDone;
+    private long snapshotBytes;
 
     public StoreSnapshotTasklet(SnapshotContext snapshotContext, long jobId, InboundEdgeStream inboundEdgeStream,
                                 NodeEngine nodeEngine, String vertexName, boolean isHigherPrioritySource) {
@@ -86,7 +87,9 @@ public class StoreSnapshotTasklet implements Tasklet {
                                 pendingSnapshotId + ", but barrier was " + barrier.snapshotId() + ", this=" + this;
                         hasReachedBarrier = true;
                     } else {
-                        mapWriter.put((Entry<Data, Data>) o);
+                        Entry<Data, Data> entry = (Entry<Data, Data>) o;
+                        snapshotBytes += entry.getKey().totalSize() + entry.getValue().totalSize();
+                        mapWriter.put(entry);
                     }
                 });
                 if (result.isDone()) {
@@ -121,6 +124,8 @@ public class StoreSnapshotTasklet implements Tasklet {
             case REACHED_BARRIER:
                 progTracker.notDone();
                 if (numActiveFlushes.get() == 0) {
+                    snapshotContext.addSnapshotBytes(snapshotBytes);
+                    snapshotBytes = 0;
                     snapshotContext.snapshotDoneForTasklet();
                     pendingSnapshotId++;
                     mapWriter.setMapName(currMapName());
@@ -27,6 +27,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -59,26 +61,42 @@ public class TaskletExecutionService {
     private final String hzInstanceName;
     private final ILogger logger;
     private final AtomicInteger cooperativeThreadIndex = new AtomicInteger();
+    private final TaskletProfiler profiler;
 
     private volatile boolean isShutdown;
 
     public TaskletExecutionService(HazelcastInstance hz, int threadCount) {
+        this(hz, threadCount, 0);
+    }
+
+    /**
+     * @param profilerSamplingPeriodMillis period of sampling the cooperative
+     *                                     workers, profiling is disabled if not
+     *                                     positive
+     */
+    public TaskletExecutionService(HazelcastInstance hz, int threadCount, long profilerSamplingPeriodMillis) {
         this.hzInstanceName = hz.getName();
         this.cooperativeWorkers = new CooperativeWorker[threadCount];
         this.cooperativeThreadPool = new Thread[threadCount];
         this.logger = hz.getLoggingService().getLogger(TaskletExecutionService.class);
+        this.profiler = profilerSamplingPeriodMillis > 0
+                ? new TaskletProfiler(threadCount, profilerSamplingPeriodMillis, this::trackersOfWorker) : null;
     }
 
     /**
      * @return instance of {@code java.util.concurrent.CompletableFuture}
      */
     public CompletionStage<Void> execute(
+            long jobId,
             @Nonnull List<? extends Tasklet> tasklets,
             @Nonnull Consumer<CompletionStage<Void>> doneCallback,
             @Nonnull ClassLoader jobClassLoader
     ) {
         ensureStillRunning();
-        final JobFuture jobFuture = new JobFuture(tasklets.size(), doneCallback);
+        final JobFuture jobFuture = new JobFuture(jobId, tasklets.size(), doneCallback);
+        if (profiler != null) {
+            jobFuture.whenComplete((r, e) -> profiler.jobCompleted(jobId));
+        }
         try {
             final Map<Boolean, List<Tasklet>> byCooperation =
                     tasklets.stream().collect(partitioningBy(Tasklet::isCooperative));
@@ -94,6 +112,27 @@ public class TaskletExecutionService {
     public void shutdown() {
         isShutdown = true;
         blockingTaskletExecutor.shutdownNow();
+        if (profiler != null) {
+            profiler.shutdown();
+        }
+    }
+
+    /**
+     * Returns the profile of the cooperative tasklets of the given job, as
+     * sampled so far on this member: the number of samples of each stack.
+     * The frames of a stack are vertex name, processor class and processor
+     * state, separated by {@code ;}. The samples taken while the workers
+     * were backing off have the {@code idle} stack. Empty if profiling is
+     * disabled.
+     */
+    @Nonnull
+    public Map<String, Long> profileSamples(long jobId) {
+        return profiler != null ? profiler.samples(jobId) : Collections.emptyMap();
+    }
+
+    private Collection<TaskletTracker> trackersOfWorker(int index) {
+        CooperativeWorker worker = cooperativeWorkers[index];
+        return worker != null ? worker.trackers : Collections.emptyList();
     }
 
     private void ensureStillRunning() {
@@ -129,10 +168,15 @@ public class TaskletExecutionService {
         if (cooperativeWorkers[0] != null) {
             return;
         }
-        Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker(cooperativeWorkers));
+        Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker(i, cooperativeWorkers));
         Arrays.setAll(cooperativeThreadPool, i -> new Thread(cooperativeWorkers[i],
                 String.format("hz.%s.jet.cooperative.thread-%d", hzInstanceName, i)));
         Arrays.stream(cooperativeThreadPool).forEach(Thread::start);
+        if (profiler != null) {
+            Thread profilerThread = new Thread(profiler, String.format("hz.%s.jet.profiler.thread", hzInstanceName));
+            profilerThread.setDaemon(true);
+            profilerThread.start();
+        }
     }
 
     private String trackersToString() {
@@ -179,10 +223,12 @@ public class TaskletExecutionService {
     }
 
     private final class CooperativeWorker implements Runnable {
+        private final int index;
         private final List<TaskletTracker> trackers;
         private final CooperativeWorker[] colleagues;
 
-        CooperativeWorker(CooperativeWorker[] colleagues) {
+        CooperativeWorker(int index, CooperativeWorker[] colleagues) {
+            this.index = index;
             this.colleagues = colleagues;
             this.trackers = new CopyOnWriteArrayList<>();
         }
@@ -204,6 +250,9 @@ public class TaskletExecutionService {
                     }
                     try {
                         thread.setContextClassLoader(t.jobClassLoader);
+                        if (profiler != null) {
+                            profiler.beforeCall(index, t);
+                        }
                         final ProgressState result = t.tasklet.call();
                         if (result.isDone()) {
                             dismissTasklet(t);
@@ -222,7 +271,7 @@ public class TaskletExecutionService {
                     idleCount = 0;
                 } else {
                     thread.setContextClassLoader(clBackup);
-                    IDLER.idle(++idleCount);
+                    idle(++idleCount);
                 }
             }
             // Best-effort attempt to release all tasklets. A tasklet can still be added
@@ -230,6 +279,13 @@ public class TaskletExecutionService {
             trackers.clear();
         }
 
+        private void idle(long idleCount) {
+            if (profiler != null) {
+                profiler.beforeIdle(index);
+            }
+            IDLER.idle(idleCount);
+        }
+
         private void dismissTasklet(TaskletTracker t) {
             t.jobFuture.taskletDone();
             trackers.remove(t);
@@ -259,7 +315,7 @@ public class TaskletExecutionService {
         }
     }
 
-    private static final class TaskletTracker {
+    static final class TaskletTracker {
         final Tasklet tasklet;
         final JobFuture jobFuture;
         final ClassLoader jobClassLoader;
@@ -287,13 +343,15 @@ public class TaskletExecutionService {
         }
     }
 
-    private static final class JobFuture extends CompletableFuture<Void> {
+    static final class JobFuture extends CompletableFuture<Void> {
 
+        final long jobId;
         private final AtomicInteger completionLatch;
         private final Consumer<CompletionStage<Void>> doneCallback;
         private List<Future> blockingFutures;
 
-        JobFuture(int taskletCount, Consumer<CompletionStage<Void>> doneCallback) {
+        JobFuture(long jobId, int taskletCount, Consumer<CompletionStage<Void>> doneCallback) {
+            this.jobId = jobId;
             this.doneCallback = doneCallback;
             this.completionLatch = new AtomicInteger(taskletCount);
         }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.impl.execution.TaskletExecutionService.TaskletTracker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Sampling profiler of the cooperative worker threads. Before calling a
+ * tasklet each worker publishes it with an ordered write and before backing
+ * off it publishes {@code null}. Once per sampling period a daemon thread
+ * looks at every worker. A busy worker's sample is attributed to the
+ * vertex, processor class and {@link ProcessorState} of its tasklet. A
+ * backing-off worker's sample is attributed to the {@value #IDLE_STACK}
+ * stack of every running job that has tasklets on that worker: the time
+ * is lost to all of them.
+ * <p>
+ * Samples are accumulated per job and dumped in the collapsed-stack format
+ * read by flame graph tools: one line per stack with the frames separated
+ * by {@code ;}, followed by a space and the number of samples.
+ */
+class TaskletProfiler implements Runnable {
+
+    /**
+     * How many completed jobs to keep the samples for, so that their
+     * profile can still be dumped after they complete.
+     */
+    private static final int MAX_COMPLETED_JOBS = 16;
+
+    /**
+     * The stack of the samples taken while a worker was backing off.
+     */
+    static final String IDLE_STACK = "idle";
+
+    private final long samplingPeriodNanos;
+    private final AtomicReferenceArray<TaskletTracker> current;
+    private final IntFunction<Collection<TaskletTracker>> trackersOfWorker;
+    private final ConcurrentMap<Long, ConcurrentMap<String, Long>> samplesByJob = new ConcurrentHashMap<>();
+    private final Queue<Long> completedJobs = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean isShutdown;
+
+    /**
+     * @param trackersOfWorker returns the trackers of the tasklets assigned to
+     *                         the worker with the given index
+     */
+    TaskletProfiler(int workerCount, long samplingPeriodMillis,
+                    IntFunction<Collection<TaskletTracker>> trackersOfWorker) {
+        this.samplingPeriodNanos = MILLISECONDS.toNanos(samplingPeriodMillis);
+        this.current = new AtomicReferenceArray<>(workerCount);
+        this.trackersOfWorker = trackersOfWorker;
+    }
+
+    /**
+     * Called by the worker before calling the tasklet.
+     */
+    void beforeCall(int worker, TaskletTracker tracker) {
+        current.lazySet(worker, tracker);
+    }
+
+    /**
+     * Called by the worker before it backs off.
+     */
+    void beforeIdle(int worker) {
+        current.lazySet(worker, null);
+    }
+
+    void jobCompleted(long jobId) {
+        completedJobs.add(jobId);
+        while (completedJobs.size() > MAX_COMPLETED_JOBS) {
+            Long evicted = completedJobs.poll();
+            if (evicted != null && !completedJobs.contains(evicted)) {
+                samplesByJob.remove(evicted);
+            }
+        }
+    }
+
+    void shutdown() {
+        isShutdown = true;
+    }
+
+    @Override
+    public void run() {
+        while (!isShutdown) {
+            LockSupport.parkNanos(samplingPeriodNanos);
+            sample();
+        }
+    }
+
+    void sample() {
+        for (int i = 0; i < current.length(); i++) {
+            TaskletTracker tracker = current.get(i);
+            if (tracker == null) {
+                trackersOfWorker.apply(i).stream()
+                                .map(t -> t.jobFuture)
+                                .filter(f -> !f.isDone())
+                                .mapToLong(f -> f.jobId)
+                                .distinct()
+                                .forEach(jobId -> addSample(jobId, IDLE_STACK));
+            } else if (!tracker.jobFuture.isDone()) {
+                addSample(tracker.jobFuture.jobId, stackOf(tracker.tasklet));
+            }
+        }
+    }
+
+    private void addSample(long jobId, String stack) {
+        samplesByJob.computeIfAbsent(jobId, x -> new ConcurrentHashMap<>())
+                    .merge(stack, 1L, Long::sum);
+    }
+
+    /**
+     * Returns the number of samples of each stack of the given job, sorted
+     * by stack.
+     */
+    Map<String, Long> samples(long jobId) {
+        Map<String, Long> samples = samplesByJob.get(jobId);
+        return samples != null ? new TreeMap<>(samples) : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the collapsed stacks sampled for the given job.
+     */
+    String dump(long jobId) {
+        StringBuilder sb = new StringBuilder();
+        samples(jobId).forEach((stack, count) -> sb.append(stack).append(' ').append(count).append('\n'));
+        return sb.toString();
+    }
+
+    static String stackOf(Tasklet tasklet) {
+        if (tasklet instanceof ProcessorTasklet) {
+            ProcessorTasklet t = (ProcessorTasklet) tasklet;
+            return t.vertexName() + ';' + t.processorClass().getSimpleName() + ';' + t.state();
+        }
+        return tasklet.getClass().getSimpleName();
+    }
+}
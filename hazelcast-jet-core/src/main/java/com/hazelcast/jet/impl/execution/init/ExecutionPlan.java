@@ -17,7 +17,6 @@
 package com.hazelcast.jet.impl.execution.init;
 
 import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
-import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
 import com.hazelcast.internal.util.concurrent.QueuedPipe;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.JetInstance;
@@ -32,6 +31,7 @@ import com.hazelcast.jet.impl.execution.ConcurrentInboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ConveyorCollector;
 import com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition;
 import com.hazelcast.jet.impl.execution.InboundEdgeStream;
+import com.hazelcast.jet.impl.execution.LatencyProbes;
 import com.hazelcast.jet.impl.execution.OutboundCollector;
 import com.hazelcast.jet.impl.execution.OutboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ProcessorTasklet;
@@ -42,6 +42,7 @@ import com.hazelcast.jet.impl.execution.StoreSnapshotTasklet;
 import com.hazelcast.jet.impl.execution.Tasklet;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
@@ -95,7 +96,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
     private final Map<String, ConcurrentConveyor<Object>[]> localConveyorMap = new HashMap<>();
     private final Map<String, Map<Address, ConcurrentConveyor<Object>>> edgeSenderConveyorMap = new HashMap<>();
-    private final List<Processor> processors = new ArrayList<>();
+    private final List<Object> probeSources = new ArrayList<>();
+    private final List<LatencyProbes> latencyProbes = new ArrayList<>();
 
     private PartitionArrangement ptionArrgmt;
 
@@ -127,12 +129,13 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
         this.ptionArrgmt = new PartitionArrangement(partitionOwners, nodeEngine.getThisAddress());
         JetInstance instance = getJetInstance(nodeEngine);
+        registerProbes(snapshotContext, String.format("jet.job.%s.snapshot", idToString(executionId)));
         for (VertexDef srcVertex : vertices) {
             Collection<? extends Processor> processors = createProcessors(srcVertex, srcVertex.parallelism());
 
             // create StoreSnapshotTasklet and the queues to it
             QueuedPipe<Object>[] snapshotQueues = new QueuedPipe[srcVertex.parallelism()];
-            Arrays.setAll(snapshotQueues, i -> new OneToOneConcurrentArrayQueue<>(SNAPSHOT_QUEUE_SIZE));
+            Arrays.setAll(snapshotQueues, i -> new OneToOneBatchingQueue<>(SNAPSHOT_QUEUE_SIZE));
             ConcurrentConveyor<Object> ssConveyor = ConcurrentConveyor.concurrentConveyor(null, snapshotQueues);
             StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext, jobId,
                     new ConcurrentInboundEdgeStream(ssConveyor, 0, 0, lastSnapshotId, true),
@@ -140,6 +143,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
             tasklets.add(ssTasklet);
 
             int processorIdx = 0;
+            List<ProcessorTasklet> vertexTasklets = new ArrayList<>();
             for (Processor p : processors) {
                 ILogger logger = nodeEngine.getLogger(p.getClass().getName() + '.' + srcVertex.name()
                                 + '#' + (srcVertex.getProcIdxOffset() + processorIdx));
@@ -152,9 +156,9 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         jobConfig.getSnapshotIntervalMillis() > 0
                 );
 
-                 String probePrefix = String.format("jet.job.%s.%s#%d", idToString(executionId), srcVertex.name(),
-                         processorIdx);
-                 ((NodeEngineImpl) nodeEngine).getMetricsRegistry().scanAndRegister(p, probePrefix);
+                String probePrefix = String.format("jet.job.%s.%s#%d", idToString(executionId), srcVertex.name(),
+                        processorIdx);
+                registerProbes(p, probePrefix);
 
                 // createOutboundEdgeStreams() populates localConveyorMap and edgeSenderConveyorMap.
                 // Also populates instance fields: senderMap, receiverMap, tasklets.
@@ -166,9 +170,27 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 ProcessorTasklet processorTasklet = new ProcessorTasklet(context, p, inboundStreams, outboundStreams,
                         snapshotContext, snapshotCollector);
                 tasklets.add(processorTasklet);
-                this.processors.add(p);
+                vertexTasklets.add(processorTasklet);
+                registerProbes(processorTasklet, probePrefix + ".tasklet");
+                for (InboundEdgeStream inboundStream : inboundStreams) {
+                    registerProbes(inboundStream, probePrefix + ".inbound" + inboundStream.ordinal());
+                }
+                for (OutboundEdgeStream outboundStream : outboundStreams) {
+                    registerProbes(processorTasklet.outboundEdgeProbes(outboundStream.ordinal()),
+                            probePrefix + ".outbound" + outboundStream.ordinal());
+                }
                 processorIdx++;
             }
+            if (jobConfig.getLatencyTrackingIntervalMillis() > 0) {
+                vertexTasklets.forEach(t -> t.setLatencyTrackingInterval(jobConfig.getLatencyTrackingIntervalMillis()));
+                LatencyProbes probes = new LatencyProbes(srcVertex.name(), vertexTasklets);
+                registerProbes(probes, String.format("jet.job.%s.%s", idToString(executionId), srcVertex.name()));
+                latencyProbes.add(probes);
+            }
+            if (jobConfig.getQueueMemoryBudget() > 0) {
+                // the sizes are only used to fit the queues to the budget
+                vertexTasklets.forEach(ProcessorTasklet::enableItemSizeSampling);
+            }
         }
         List<ReceiverTasklet> allReceivers = receiverMap.values().stream()
                                                         .flatMap(o -> o.values().stream())
@@ -267,6 +289,11 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 .forEach(p -> p.init(partitionService::getPartitionId));
     }
 
+    private void registerProbes(Object source, String probePrefix) {
+        ((NodeEngineImpl) nodeEngine).getMetricsRegistry().scanAndRegister(source, probePrefix);
+        probeSources.add(source);
+    }
+
     private static Collection<? extends Processor> createProcessors(VertexDef vertexDef, int parallelism) {
         final Collection<? extends Processor> processors = vertexDef.processorSupplier().get(parallelism);
         if (processors.size() != parallelism) {
@@ -323,7 +350,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         ConcurrentConveyor<Object>[] concurrentConveyors = new ConcurrentConveyor[count];
         Arrays.setAll(concurrentConveyors, i -> {
             QueuedPipe<Object>[] queues = new QueuedPipe[queueCount];
-            Arrays.setAll(queues, j -> new OneToOneConcurrentArrayQueue<>(queueSize));
+            Arrays.setAll(queues, j -> new OneToOneBatchingQueue<>(queueSize));
             return concurrentConveyor(null, queues);
         });
         return concurrentConveyors;
@@ -454,8 +481,16 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 lastSnapshotId, jobConfig.getProcessingGuarantee() == ProcessingGuarantee.EXACTLY_ONCE);
     }
 
-    public List<Processor> getProcessors() {
-        return processors;
+    /**
+     * Returns the objects registered with the metrics registry, to be
+     * deregistered when the execution completes.
+     */
+    public List<Object> getProbeSources() {
+        return probeSources;
+    }
+
+    public List<LatencyProbes> getLatencyProbes() {
+        return latencyProbes;
     }
 
     public long lastSnapshotId() {
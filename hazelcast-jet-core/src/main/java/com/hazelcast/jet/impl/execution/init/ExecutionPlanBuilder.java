@@ -20,6 +20,7 @@ import com.hazelcast.internal.cluster.MemberInfo;
 import com.hazelcast.internal.cluster.impl.MembersView;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Edge;
+import com.hazelcast.jet.core.Edge.RoutingPolicy;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
@@ -33,6 +34,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.partition.IPartitionService;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -40,6 +42,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 import static com.hazelcast.jet.impl.util.Util.getJetInstance;
@@ -48,6 +51,9 @@ import static java.util.stream.Collectors.toMap;
 
 public final class ExecutionPlanBuilder {
 
+    static final int MIN_QUEUE_SIZE = 64;
+    static final int MAX_QUEUE_SIZE = 1 << 16;
+
     private ExecutionPlanBuilder() {
 
     }
@@ -100,6 +106,103 @@ public final class ExecutionPlanBuilder {
         return plans;
     }
 
+    /**
+     * Sets the local parallelism of the vertices which use the default one
+     * in proportion to the time they spent working in a previous execution:
+     * the busiest vertex gets the default parallelism and no vertex gets
+     * less than 1. Vertices with an explicit local parallelism, vertices
+     * without a measurement and vertices on an isolated edge are left
+     * unchanged.
+     *
+     * @return the adjusted local parallelism per vertex name
+     */
+    public static Map<String, Integer> adjustLocalParallelism(
+            DAG dag, Map<String, Long> vertexBusyNanos, int defaultParallelism
+    ) {
+        List<Vertex> candidates = new ArrayList<>();
+        for (Vertex vertex : dag) {
+            if (vertex.getLocalParallelism() == -1
+                    && vertexBusyNanos.containsKey(vertex.getName())
+                    && !hasIsolatedEdge(dag, vertex)) {
+                candidates.add(vertex);
+            }
+        }
+        long maxBusyNanos = candidates.stream().mapToLong(v -> vertexBusyNanos.get(v.getName())).max().orElse(0);
+        Map<String, Integer> adjusted = new LinkedHashMap<>();
+        if (maxBusyNanos <= 0) {
+            return adjusted;
+        }
+        for (Vertex vertex : candidates) {
+            double share = (double) vertexBusyNanos.get(vertex.getName()) / maxBusyNanos;
+            int localParallelism = Math.max(1, (int) Math.ceil(defaultParallelism * share));
+            vertex.localParallelism(localParallelism);
+            adjusted.put(vertex.getName(), localParallelism);
+        }
+        return adjusted;
+    }
+
+    /**
+     * Sizes the local queues of the edges which use the default edge config
+     * so that all of them together stay within the given memory budget per
+     * member. The budget is split evenly among the edges and each edge's
+     * share is divided among its {@code source parallelism * destination
+     * parallelism} queues according to the item size measured in a previous
+     * execution. Queue sizes are rounded down to a power of two and kept
+     * between {@value #MIN_QUEUE_SIZE} and {@value #MAX_QUEUE_SIZE}. Edges
+     * with an explicit config and edges without a measurement are left
+     * unchanged.
+     *
+     * @param vertexItemSizes average item size per source vertex name and outbound ordinal
+     * @return the adjusted queue size per edge
+     */
+    public static Map<Edge, Integer> adjustQueueSizes(
+            DAG dag, Map<String, long[]> vertexItemSizes, long memoryBudget,
+            int defaultParallelism, EdgeConfig defaultEdgeConfig
+    ) {
+        Map<Edge, Long> candidates = new LinkedHashMap<>();
+        for (Vertex vertex : dag) {
+            long[] itemSizes = vertexItemSizes.get(vertex.getName());
+            if (itemSizes == null) {
+                continue;
+            }
+            for (Edge edge : dag.getOutboundEdges(vertex.getName())) {
+                if (edge.getConfig() == null
+                        && edge.getSourceOrdinal() < itemSizes.length
+                        && itemSizes[edge.getSourceOrdinal()] > 0) {
+                    candidates.put(edge, itemSizes[edge.getSourceOrdinal()]);
+                }
+            }
+        }
+        Map<Edge, Integer> adjusted = new LinkedHashMap<>();
+        if (memoryBudget <= 0 || candidates.isEmpty()) {
+            return adjusted;
+        }
+        long edgeBudget = memoryBudget / candidates.size();
+        for (Entry<Edge, Long> e : candidates.entrySet()) {
+            Edge edge = e.getKey();
+            long queueCount = (long) localParallelism(dag.getVertex(edge.getSourceName()), defaultParallelism)
+                    * localParallelism(dag.getVertex(edge.getDestName()), defaultParallelism);
+            long fitting = edgeBudget / (queueCount * e.getValue());
+            int queueSize = Integer.highestOneBit((int) Math.max(MIN_QUEUE_SIZE, Math.min(MAX_QUEUE_SIZE, fitting)));
+            edge.setConfig(new EdgeConfig()
+                    .setQueueSize(queueSize)
+                    .setReceiveWindowMultiplier(defaultEdgeConfig.getReceiveWindowMultiplier())
+                    .setPacketSizeLimit(defaultEdgeConfig.getPacketSizeLimit()));
+            adjusted.put(edge, queueSize);
+        }
+        return adjusted;
+    }
+
+    private static int localParallelism(Vertex vertex, int defaultParallelism) {
+        return vertex.getLocalParallelism() != -1 ? vertex.getLocalParallelism() : defaultParallelism;
+    }
+
+    private static boolean hasIsolatedEdge(DAG dag, Vertex vertex) {
+        return Stream.concat(dag.getInboundEdges(vertex.getName()).stream(),
+                             dag.getOutboundEdges(vertex.getName()).stream())
+                     .anyMatch(e -> e.getRoutingPolicy() == RoutingPolicy.ISOLATED);
+    }
+
     private static Map<String, Integer> assignVertexIds(DAG dag) {
         Map<String, Integer> vertexIdMap = new LinkedHashMap<>();
         final int[] vertexId = {0};
@@ -28,9 +28,12 @@ import com.hazelcast.jet.impl.execution.SnapshotRecord;
 import com.hazelcast.jet.impl.operation.CompleteOperation;
 import com.hazelcast.jet.impl.operation.ExecuteOperation;
 import com.hazelcast.jet.impl.operation.GetJobIdsOperation;
+import com.hazelcast.jet.impl.operation.GetJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.GetJobStatusOperation;
+import com.hazelcast.jet.impl.operation.GetLocalJobMetricsOperation;
 import com.hazelcast.jet.impl.operation.InitOperation;
 import com.hazelcast.jet.impl.operation.JoinSubmittedJobOperation;
+import com.hazelcast.jet.impl.operation.SnapshotCompletedOperation;
 import com.hazelcast.jet.impl.operation.SnapshotOperation;
 import com.hazelcast.jet.impl.operation.SubmitJobOperation;
 import com.hazelcast.jet.impl.processor.SessionWindowP;
@@ -63,6 +66,9 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int JOIN_SUBMITTED_JOB = 17;
     public static final int UPDATE_JOB_QUORUM = 18;
     public static final int UPDATE_JOB_QUORUM_BACKUP = 19;
+    public static final int GET_JOB_METRICS_OP = 20;
+    public static final int GET_LOCAL_JOB_METRICS_OP = 21;
+    public static final int SNAPSHOT_COMPLETED_OP = 22;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -122,6 +128,12 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                     return new UpdateJobRecordQuorumEntryProcessor();
                 case UPDATE_JOB_QUORUM_BACKUP:
                     return new UpdateJobRecordQuorumEntryBackupProcessor();
+                case GET_JOB_METRICS_OP:
+                    return new GetJobMetricsOperation();
+                case GET_LOCAL_JOB_METRICS_OP:
+                    return new GetLocalJobMetricsOperation();
+                case SNAPSHOT_COMPLETED_OP:
+                    return new SnapshotCompletedOperation();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
@@ -27,6 +27,7 @@ import com.hazelcast.spi.ExceptionAction;
 import com.hazelcast.spi.Operation;
 
 import java.io.IOException;
+import java.util.Map;
 
 import static com.hazelcast.jet.impl.util.ExceptionUtil.isTopologicalFailure;
 import static com.hazelcast.jet.impl.util.Util.idToString;
@@ -36,6 +37,7 @@ public class CompleteOperation extends Operation implements IdentifiedDataSerial
 
     private long executionId;
     private Throwable error;
+    private Map<String, Long> vertexBusyNanos;
 
     public CompleteOperation() {
     }
@@ -60,7 +62,16 @@ public class CompleteOperation extends Operation implements IdentifiedDataSerial
                     + idToString(executionId) + " because it is not master. Master is: " + masterAddress);
         }
 
-        service.completeExecution(executionId, error);
+        vertexBusyNanos = service.completeExecution(executionId, error);
+    }
+
+    /**
+     * Returns the busy time per vertex measured on this member in the
+     * completed execution.
+     */
+    @Override
+    public Object getResponse() {
+        return vertexBusyNanos;
     }
 
     @Override
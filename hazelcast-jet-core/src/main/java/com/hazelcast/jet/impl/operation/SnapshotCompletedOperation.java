@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.jet.impl.JetService;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.ExceptionAction;
+import com.hazelcast.spi.Operation;
+
+import java.io.IOException;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.isTopologicalFailure;
+import static com.hazelcast.spi.ExceptionAction.THROW_EXCEPTION;
+
+/**
+ * Sent by the master to each participant after it recorded the status of
+ * a snapshot, so that the processors can commit what they prepared for it.
+ */
+public class SnapshotCompletedOperation extends Operation implements IdentifiedDataSerializable {
+
+    private long jobId;
+    private long executionId;
+    private long snapshotId;
+    private boolean success;
+
+    public SnapshotCompletedOperation() {
+    }
+
+    public SnapshotCompletedOperation(long jobId, long executionId, long snapshotId, boolean success) {
+        this.jobId = jobId;
+        this.executionId = executionId;
+        this.snapshotId = snapshotId;
+        this.success = success;
+    }
+
+    @Override
+    public void run() throws Exception {
+        JetService service = getService();
+        service.getJobExecutionService().snapshotCompleted(getCallerAddress(), jobId, executionId, snapshotId,
+                success);
+    }
+
+    @Override
+    public ExceptionAction onInvocationException(Throwable throwable) {
+        return isTopologicalFailure(throwable) ? THROW_EXCEPTION : super.onInvocationException(throwable);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetInitDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getId() {
+        return JetInitDataSerializerHook.SNAPSHOT_COMPLETED_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(jobId);
+        out.writeLong(executionId);
+        out.writeLong(snapshotId);
+        out.writeBoolean(success);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        jobId = in.readLong();
+        executionId = in.readLong();
+        snapshotId = in.readLong();
+        success = in.readBoolean();
+    }
+}
@@ -18,8 +18,8 @@ package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.AppendableTraverser;
 import com.hazelcast.jet.core.BroadcastKey;
-import com.hazelcast.jet.core.ResettableSingletonTraverser;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.WatermarkEmissionPolicy;
 import com.hazelcast.jet.core.WatermarkPolicy;
@@ -44,7 +44,7 @@ public class InsertWatermarksP<T> extends AbstractProcessor {
     private final ToLongFunction<T> getTimestampF;
     private final WatermarkPolicy wmPolicy;
     private final WatermarkEmissionPolicy wmEmitPolicy;
-    private final ResettableSingletonTraverser<Object> singletonTraverser;
+    private final AppendableTraverser<Object> appendableTraverser;
     private final FlatMapper<Object, Object> flatMapper;
 
     private long currWm = Long.MIN_VALUE;
@@ -66,7 +66,7 @@ public class InsertWatermarksP<T> extends AbstractProcessor {
         this.wmPolicy = wmPolicy;
         this.wmEmitPolicy = wmEmitPolicy;
         this.flatMapper = flatMapper(this::traverser);
-        this.singletonTraverser = new ResettableSingletonTraverser<>();
+        this.appendableTraverser = new AppendableTraverser<>(2);
     }
 
     @Override
@@ -109,15 +109,15 @@ public class InsertWatermarksP<T> extends AbstractProcessor {
     private Traverser<Object> traverser(Object item) {
         long timestamp = getTimestampF.applyAsLong((T) item);
         currWm = wmPolicy.reportEvent(timestamp);
-        if (timestamp >= currWm) {
-            // only emit non-late events
-            singletonTraverser.accept(item);
-        }
         if (wmEmitPolicy.shouldEmit(currWm, lastEmittedWm)) {
             lastEmittedWm = currWm;
-            return singletonTraverser.prepend(new Watermark(currWm));
+            appendableTraverser.append(new Watermark(currWm));
+        }
+        if (timestamp >= currWm) {
+            // only emit non-late events
+            appendableTraverser.append(item);
         }
-        return singletonTraverser;
+        return appendableTraverser;
     }
 
     private enum Keys {
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.function.DistributedFunction;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Batch processor that applies the supplied function to each item before
+ * grouping it like {@link CoGroupP}. The items the function maps to {@code
+ * null} are dropped. The planner uses it to fuse the map and filter stages
+ * preceding a group-by into the group-by's accumulating vertex.
+ */
+public class MapAndCoGroupP<K, A, R> extends CoGroupP<K, A, R> {
+    private final DistributedFunction<Object, ?> mapFn;
+
+    public <T> MapAndCoGroupP(
+            @Nonnull DistributedFunction<Object, ? extends T> mapFn,
+            @Nonnull DistributedFunction<? super T, ? extends K> groupKeyFn,
+            @Nonnull AggregateOperation1<? super T, A, R> aggrOp
+    ) {
+        super(groupKeyFn, aggrOp);
+        this.mapFn = mapFn;
+    }
+
+    @Override
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        Object mapped = mapFn.apply(item);
+        return mapped == null || super.tryProcess(ordinal, mapped);
+    }
+}
@@ -48,6 +48,7 @@ public final class SerializerHookConstants {
     public static final int SNAPSHOT_BARRIER = -318;
     public static final int BROADCAST_ENTRY = -319;
     public static final int BROADCAST_KEY_REFERENCE = -320;
+    public static final int LATENCY_MARKER = -321;
 
 
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.transform;
+
+import com.hazelcast.jet.core.WatermarkEmissionPolicy;
+import com.hazelcast.jet.core.WatermarkPolicy;
+import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.function.DistributedToLongFunction;
+
+public class TimestampTransform<E> implements UnaryTransform<E, E> {
+    private final DistributedToLongFunction<? super E> timestampFn;
+    private final DistributedSupplier<WatermarkPolicy> wmPolicyFn;
+    private final WatermarkEmissionPolicy wmEmitPolicy;
+
+    public TimestampTransform(DistributedToLongFunction<? super E> timestampFn,
+                              DistributedSupplier<WatermarkPolicy> wmPolicyFn,
+                              WatermarkEmissionPolicy wmEmitPolicy
+    ) {
+        this.timestampFn = timestampFn;
+        this.wmPolicyFn = wmPolicyFn;
+        this.wmEmitPolicy = wmEmitPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "AddTimestamps";
+    }
+
+    public DistributedToLongFunction<? super E> timestampFn() {
+        return timestampFn;
+    }
+
+    public DistributedSupplier<WatermarkPolicy> wmPolicyFn() {
+        return wmPolicyFn;
+    }
+
+    public WatermarkEmissionPolicy wmEmitPolicy() {
+        return wmEmitPolicy;
+    }
+}
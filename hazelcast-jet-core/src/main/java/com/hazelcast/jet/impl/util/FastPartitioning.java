@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.datamodel.Tuple2;
+import com.hazelcast.jet.datamodel.Tuple3;
+import com.hazelcast.jet.impl.serialization.SerializerHookConstants;
+
+/**
+ * Computes the Hazelcast partition ID of keys of common types without
+ * serializing them. It feeds the bytes the Hazelcast serializer would
+ * produce for the key directly to the MurmurHash3 function, so the result
+ * is equal to that of {@code PartitionService.getPartitionId()} under the
+ * default serialization settings (big-endian byte order, no global
+ * partitioning strategy).
+ * <p>
+ * Supported are {@code String}, boxed primitives, {@code byte[]} and
+ * {@link Tuple2}/{@link Tuple3} whose components are supported or {@code
+ * null}.
+ */
+public final class FastPartitioning {
+
+    /**
+     * Returned from {@link #getPartition} for keys of unsupported types.
+     */
+    public static final int UNSUPPORTED = -1;
+
+    // type IDs of the Hazelcast's built-in serializers
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_BYTE = -3;
+    private static final int TYPE_BOOLEAN = -4;
+    private static final int TYPE_CHAR = -5;
+    private static final int TYPE_SHORT = -6;
+    private static final int TYPE_INTEGER = -7;
+    private static final int TYPE_LONG = -8;
+    private static final int TYPE_FLOAT = -9;
+    private static final int TYPE_DOUBLE = -10;
+    private static final int TYPE_STRING = -11;
+    private static final int TYPE_BYTE_ARRAY = -12;
+
+    private static final int ONE_BYTE_CHAR_MAX = 0x7F;
+    private static final int TWO_BYTE_CHAR_MAX = 0x7FF;
+    private static final int UTF8_TWO_BYTE_PREFIX = 0xC0;
+    private static final int UTF8_THREE_BYTE_PREFIX = 0xE0;
+    private static final int UTF8_CONTINUATION_PREFIX = 0x80;
+    private static final int UTF8_TWO_BYTE_MASK = 0x1F;
+    private static final int UTF8_THREE_BYTE_MASK = 0x0F;
+    private static final int UTF8_CONTINUATION_MASK = 0x3F;
+    private static final int UTF8_BITS_PER_BYTE = 6;
+
+    private FastPartitioning() {
+    }
+
+    /**
+     * Returns the partition ID of the given key or {@link #UNSUPPORTED} if
+     * its type isn't supported.
+     */
+    public static int getPartition(Object key, int partitionCount) {
+        MurmurHash3 hash = new MurmurHash3();
+        if (!addPayload(hash, key)) {
+            return UNSUPPORTED;
+        }
+        int partitionHash = hash.finish();
+        return partitionHash == Integer.MIN_VALUE ? 0 : Math.abs(partitionHash) % partitionCount;
+    }
+
+    private static boolean addObject(MurmurHash3 hash, Object o) {
+        if (o == null) {
+            hash.addInt(TYPE_NULL);
+            return true;
+        }
+        int typeId = typeId(o);
+        if (typeId == UNSUPPORTED) {
+            return false;
+        }
+        hash.addInt(typeId);
+        return addPayload(hash, o);
+    }
+
+    private static int typeId(Object o) {
+        Class<?> clazz = o.getClass();
+        return clazz == String.class ? TYPE_STRING
+                : clazz == Integer.class ? TYPE_INTEGER
+                : clazz == Long.class ? TYPE_LONG
+                : clazz == byte[].class ? TYPE_BYTE_ARRAY
+                : clazz == Tuple2.class ? SerializerHookConstants.TUPLE2
+                : clazz == Tuple3.class ? SerializerHookConstants.TUPLE3
+                : clazz == Short.class ? TYPE_SHORT
+                : clazz == Byte.class ? TYPE_BYTE
+                : clazz == Character.class ? TYPE_CHAR
+                : clazz == Boolean.class ? TYPE_BOOLEAN
+                : clazz == Double.class ? TYPE_DOUBLE
+                : clazz == Float.class ? TYPE_FLOAT
+                : UNSUPPORTED;
+    }
+
+    /**
+     * Adds the serialized form of the object, not including the type ID,
+     * to the hash.
+     *
+     * @return {@code false} if the object's type isn't supported
+     */
+    private static boolean addPayload(MurmurHash3 hash, Object o) {
+        switch (typeId(o)) {
+            case TYPE_STRING:
+                addString(hash, (String) o);
+                return true;
+            case TYPE_INTEGER:
+                hash.addInt((Integer) o);
+                return true;
+            case TYPE_LONG:
+                hash.addLong((Long) o);
+                return true;
+            case TYPE_BYTE_ARRAY:
+                byte[] bytes = (byte[]) o;
+                hash.addInt(bytes.length);
+                for (byte b : bytes) {
+                    hash.addByte(b);
+                }
+                return true;
+            case SerializerHookConstants.TUPLE2:
+                Tuple2 t2 = (Tuple2) o;
+                return addObject(hash, t2.f0()) && addObject(hash, t2.f1());
+            case SerializerHookConstants.TUPLE3:
+                Tuple3 t3 = (Tuple3) o;
+                return addObject(hash, t3.f0()) && addObject(hash, t3.f1()) && addObject(hash, t3.f2());
+            case TYPE_SHORT:
+                hash.addShort((Short) o);
+                return true;
+            case TYPE_BYTE:
+                hash.addByte((Byte) o);
+                return true;
+            case TYPE_CHAR:
+                hash.addShort((Character) o);
+                return true;
+            case TYPE_BOOLEAN:
+                hash.addByte((Boolean) o ? 1 : 0);
+                return true;
+            case TYPE_DOUBLE:
+                hash.addLong(Double.doubleToLongBits((Double) o));
+                return true;
+            case TYPE_FLOAT:
+                hash.addInt(Float.floatToIntBits((Float) o));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Adds the string the way {@code ObjectDataOutput.writeUTF()} writes
+     * it: the char count followed by each char in UTF-8.
+     */
+    private static void addString(MurmurHash3 hash, String s) {
+        int length = s.length();
+        hash.addInt(length);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c <= ONE_BYTE_CHAR_MAX) {
+                hash.addByte(c);
+            } else if (c <= TWO_BYTE_CHAR_MAX) {
+                hash.addByte(UTF8_TWO_BYTE_PREFIX | c >> UTF8_BITS_PER_BYTE & UTF8_TWO_BYTE_MASK);
+                hash.addByte(UTF8_CONTINUATION_PREFIX | c & UTF8_CONTINUATION_MASK);
+            } else {
+                hash.addByte(UTF8_THREE_BYTE_PREFIX | c >> (2 * UTF8_BITS_PER_BYTE) & UTF8_THREE_BYTE_MASK);
+                hash.addByte(UTF8_CONTINUATION_PREFIX | c >> UTF8_BITS_PER_BYTE & UTF8_CONTINUATION_MASK);
+                hash.addByte(UTF8_CONTINUATION_PREFIX | c & UTF8_CONTINUATION_MASK);
+            }
+        }
+    }
+
+    /**
+     * MurmurHash3_x86_32 with the Hazelcast's seed, computed over a stream
+     * of bytes. Multi-byte values are added in big-endian order, as written
+     * by the Hazelcast serialization.
+     */
+    static final class MurmurHash3 {
+        private static final int SEED = 0x01000193;
+        private static final int C1 = 0xcc9e2d51;
+        private static final int C2 = 0x1b873593;
+        private static final int M = 5;
+        private static final int N = 0xe6546b64;
+        private static final int R1 = 15;
+        private static final int R2 = 13;
+        private static final int FMIX_C1 = 0x85ebca6b;
+        private static final int FMIX_C2 = 0xc2b2ae35;
+        private static final int FMIX_S1 = 16;
+        private static final int FMIX_S2 = 13;
+        private static final int BYTE_MASK = 0xFF;
+        private static final int BLOCK_SIZE = 4;
+
+        private int h1 = SEED;
+        private int block;
+        private int blockLength;
+        private int length;
+
+        void addByte(int b) {
+            // the blocks are read in little-endian order
+            block |= (b & BYTE_MASK) << (blockLength * Byte.SIZE);
+            length++;
+            if (++blockLength == BLOCK_SIZE) {
+                h1 ^= mixK1(block);
+                h1 = Integer.rotateLeft(h1, R2) * M + N;
+                block = 0;
+                blockLength = 0;
+            }
+        }
+
+        void addShort(int v) {
+            addByte(v >>> Byte.SIZE);
+            addByte(v);
+        }
+
+        void addInt(int v) {
+            addShort(v >>> Short.SIZE);
+            addShort(v);
+        }
+
+        void addLong(long v) {
+            addInt((int) (v >>> Integer.SIZE));
+            addInt((int) v);
+        }
+
+        int finish() {
+            int h = h1;
+            if (blockLength > 0) {
+                h ^= mixK1(block);
+            }
+            h ^= length;
+            h ^= h >>> FMIX_S1;
+            h *= FMIX_C1;
+            h ^= h >>> FMIX_S2;
+            h *= FMIX_C2;
+            h ^= h >>> FMIX_S1;
+            return h;
+        }
+
+        private static int mixK1(int k1) {
+            return Integer.rotateLeft(k1 * C1, R1) * C2;
+        }
+    }
+}
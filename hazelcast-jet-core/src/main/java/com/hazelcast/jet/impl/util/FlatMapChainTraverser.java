@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Traverses the output of a fused chain of stateless transforms for one
+ * input item at a time. The chain consists of flat-mapping functions, each
+ * of them preceded by an optional function which maps an item or drops it
+ * by returning {@code null}, and followed by an optional such function
+ * applied to the output items.
+ * <p>
+ * The traverser is {@link #reset reset} with each input item, so a
+ * processor uses a single instance and the chain allocates nothing per
+ * item beyond the traversers returned by the flat-mapping functions.
+ */
+public final class FlatMapChainTraverser implements Traverser<Object> {
+
+    private final Function<Object, Object>[] mapFns;
+    private final Function<Object, ? extends Traverser<?>>[] flatMapFns;
+    private final Traverser<?>[] traversers;
+    private int depth;
+
+    /**
+     * @param mapFns the functions applied before each flat-mapping function
+     *               and, as the last element, the function applied to the
+     *               output items. A {@code null} element means no function.
+     * @param flatMapFns the flat-mapping functions
+     */
+    @SuppressWarnings("unchecked")
+    public FlatMapChainTraverser(
+            @Nonnull List<? extends Function<Object, Object>> mapFns,
+            @Nonnull List<? extends Function<Object, ? extends Traverser<?>>> flatMapFns
+    ) {
+        if (mapFns.size() != flatMapFns.size() + 1) {
+            throw new IllegalArgumentException("Expected " + (flatMapFns.size() + 1) + " map functions, got "
+                    + mapFns.size());
+        }
+        this.mapFns = mapFns.toArray(new Function[0]);
+        this.flatMapFns = flatMapFns.toArray(new Function[0]);
+        this.traversers = new Traverser[flatMapFns.size()];
+    }
+
+    /**
+     * Resets this traverser to traverse the output of the chain for the
+     * given item. The output for the previous item is discarded.
+     */
+    @Nonnull
+    public FlatMapChainTraverser reset(@Nonnull Object item) {
+        for (int i = 0; i < depth; i++) {
+            traversers[i] = null;
+        }
+        Object mapped = apply(mapFns[0], item);
+        if (mapped != null) {
+            traversers[0] = flatMapFns[0].apply(mapped);
+            depth = 1;
+        } else {
+            depth = 0;
+        }
+        return this;
+    }
+
+    @Override
+    public Object next() {
+        while (depth > 0) {
+            Object item = traversers[depth - 1].next();
+            if (item == null) {
+                traversers[--depth] = null;
+                continue;
+            }
+            item = apply(mapFns[depth], item);
+            if (item == null) {
+                continue;
+            }
+            if (depth == flatMapFns.length) {
+                return item;
+            }
+            traversers[depth] = flatMapFns[depth].apply(item);
+            depth++;
+        }
+        return null;
+    }
+
+    private static Object apply(Function<Object, Object> mapFn, Object item) {
+        return mapFn != null ? mapFn.apply(item) : item;
+    }
+}
@@ -29,6 +29,13 @@ public final class JetGroupProperty {
     public static final HazelcastProperty JOB_SCAN_PERIOD
             = new HazelcastProperty("jet.job.scan.period", SECONDS.toMillis(5), MILLISECONDS);
 
+    /**
+     * The sampling period of the tasklet profiler. The profiler is disabled
+     * by default, a positive value enables it.
+     */
+    public static final HazelcastProperty TASKLET_PROFILER_SAMPLING_PERIOD
+            = new HazelcastProperty("jet.tasklet.profiler.sampling.period", 0, MILLISECONDS);
+
     private JetGroupProperty() {
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.jet.core.JobMetrics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static com.hazelcast.jet.impl.util.Util.idToString;
+
+/**
+ * Collects the probes an execution registers in the {@link MetricsRegistry}
+ * and the tasklet profiler samples into {@link JobMetrics} and merges the
+ * metrics of several processors or members.
+ */
+public final class JobMetricsUtil {
+
+    private static final Pattern PROCESSOR_INDEX = Pattern.compile("#\\d+(?=\\.|$)");
+    private static final String LAST_WATERMARK = "lastWatermark";
+    private static final String LATENCY_COUNT = "latencyCount";
+    private static final String LATENCY_PREFIX = "latency";
+    // idle ratio can't be merged, it's derived from callCount and idleCallCount
+    private static final String IDLE_RATIO = "idleRatioPercent";
+    private static final Set<String> MAX_METRICS = new HashSet<>(Arrays.asList(
+            "watermarkLagMillis", "lastSnapshotDurationMillis", "completedSnapshots"));
+
+    private JobMetricsUtil() {
+    }
+
+    /**
+     * Reads the probes registered for the given execution on this member and
+     * aggregates the values of all processors of each vertex. The profiler
+     * samples of the job are added with the {@value JobMetrics#PROFILE_PREFIX}
+     * prefix.
+     */
+    public static JobMetrics collectLocal(
+            MetricsRegistry registry, long executionId, Map<String, Long> profileSamples
+    ) {
+        String prefix = "jet.job." + idToString(executionId) + '.';
+        Map<String, Long> metrics = new TreeMap<>();
+        for (String probeName : registry.getNames()) {
+            if (!probeName.startsWith(prefix)) {
+                continue;
+            }
+            String name = PROCESSOR_INDEX.matcher(probeName.substring(prefix.length())).replaceFirst("");
+            if (metricOf(name).equals(IDLE_RATIO)) {
+                continue;
+            }
+            long value = registry.newLongGauge(probeName).read();
+            metrics.merge(name, value, (v1, v2) -> mergeValue(name, v1, v2));
+        }
+        profileSamples.forEach((stack, count) -> metrics.put(JobMetrics.PROFILE_PREFIX + stack, count));
+        return JobMetrics.of(metrics);
+    }
+
+    /**
+     * Merges metrics reported by two members.
+     */
+    public static JobMetrics merge(JobMetrics m1, JobMetrics m2) {
+        if (m1.toMap().isEmpty()) {
+            return m2;
+        }
+        if (m2.toMap().isEmpty()) {
+            return m1;
+        }
+        Map<String, Long> metrics = new TreeMap<>(m1.toMap());
+        m2.toMap().forEach((name, value) -> metrics.merge(name, value, (v1, v2) -> mergeValue(name, v1, v2)));
+        return JobMetrics.of(metrics);
+    }
+
+    static long mergeValue(String name, long v1, long v2) {
+        if (name.startsWith(JobMetrics.PROFILE_PREFIX)) {
+            // sample counts, the stack can contain anything
+            return v1 + v2;
+        }
+        String metric = metricOf(name);
+        if (metric.equals(LAST_WATERMARK)) {
+            return Math.min(v1, v2);
+        }
+        if (MAX_METRICS.contains(metric) || metric.startsWith(LATENCY_PREFIX) && !metric.equals(LATENCY_COUNT)) {
+            return Math.max(v1, v2);
+        }
+        return v1 + v2;
+    }
+
+    private static String metricOf(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
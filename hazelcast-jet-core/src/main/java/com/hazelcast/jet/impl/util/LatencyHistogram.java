@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+/**
+ * A histogram of non-negative {@code long} values with a bounded relative
+ * error, in the style of HdrHistogram. Each power-of-two range of values is
+ * divided into {@value #SUB_BUCKETS_PER_RANGE} equal buckets, so a value is
+ * reported with an error below 6.25% using a fixed array of counts and no
+ * allocation on {@link #record(long)}.
+ * <p>
+ * The histogram is not thread-safe. It is meant to be updated by a single
+ * thread; another thread may read it and observe a slightly stale state.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKETS_PER_RANGE = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_PER_RANGE;
+    private static final double HUNDRED_PERCENT = 100.0;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    /**
+     * Records the given value, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        totalCount++;
+        if (v > maxValue) {
+            maxValue = v;
+        }
+    }
+
+    /**
+     * Adds all values recorded in the given histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    public long count() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the largest recorded value, 0 if there is none.
+     */
+    public long max() {
+        return maxValue;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded
+     * values fall, rounded up to the upper bound of its bucket. Returns 0
+     * if there are no values.
+     *
+     * @param percentile percentage between 0 and 100
+     */
+    public long valueAtPercentile(double percentile) {
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / HUNDRED_PERCENT * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= countAtPercentile) {
+                return Math.min(highestValueAt(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS_PER_RANGE + (int) (value >>> shift);
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS_PER_RANGE - 1;
+        long subBucket = index - shift * SUB_BUCKETS_PER_RANGE;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + totalCount
+                + ", p50=" + valueAtPercentile(50)
+                + ", p99=" + valueAtPercentile(99)
+                + ", max=" + maxValue + '}';
+    }
+}
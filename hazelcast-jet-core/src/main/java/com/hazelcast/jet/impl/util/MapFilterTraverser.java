@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A traverser which applies a chain of map and filter steps to the items
+ * of the wrapped traverser. Adding a map or filter step to it composes the
+ * step with the existing ones instead of wrapping this traverser, so that
+ * a chain of any length takes a single {@code next()} call on the wrapped
+ * traverser per item.
+ *
+ * @param <T> type of the wrapped traverser's items
+ * @param <R> type of the emitted items
+ */
+public final class MapFilterTraverser<T, R> implements Traverser<R> {
+
+    // returned by the composed step for the items rejected by a filter
+    private static final Object DROPPED = new Object();
+
+    private final Traverser<T> wrapped;
+    private final Function<? super T, Object> step;
+
+    private MapFilterTraverser(Traverser<T> wrapped, Function<? super T, Object> step) {
+        this.wrapped = wrapped;
+        this.step = step;
+    }
+
+    /**
+     * Returns a traverser which emits the results of applying the mapper to
+     * the items of the given traverser.
+     */
+    @Nonnull
+    public static <T, R> Traverser<R> mapping(
+            @Nonnull Traverser<T> wrapped, @Nonnull Function<? super T, ? extends R> mapper
+    ) {
+        return new MapFilterTraverser<>(wrapped, mapper::apply);
+    }
+
+    /**
+     * Returns a traverser which emits the items of the given traverser that
+     * pass the predicate.
+     */
+    @Nonnull
+    public static <T> Traverser<T> filtering(@Nonnull Traverser<T> wrapped, @Nonnull Predicate<? super T> pred) {
+        return new MapFilterTraverser<>(wrapped, t -> pred.test(t) ? t : DROPPED);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R next() {
+        for (T t; (t = wrapped.next()) != null; ) {
+            Object r = step.apply(t);
+            if (r != DROPPED) {
+                return (R) r;
+            }
+        }
+        return null;
+    }
+
+    @Nonnull @Override
+    @SuppressWarnings("unchecked")
+    public <R2> Traverser<R2> map(@Nonnull Function<? super R, ? extends R2> mapper) {
+        return new MapFilterTraverser<>(wrapped, andThen(step, r -> mapper.apply((R) r)));
+    }
+
+    @Nonnull @Override
+    @SuppressWarnings("unchecked")
+    public Traverser<R> filter(@Nonnull Predicate<? super R> pred) {
+        return new MapFilterTraverser<>(wrapped, andThen(step, r -> pred.test((R) r) ? r : DROPPED));
+    }
+
+    /**
+     * Composes the steps. A {@code null} result of the first step is
+     * returned as is, just like {@link Traverser#map} returns it, and a
+     * dropped item is not passed to the second step.
+     */
+    private static <T> Function<T, Object> andThen(
+            Function<? super T, Object> first, Function<Object, Object> second
+    ) {
+        return t -> {
+            Object r = first.apply(t);
+            return r == null || r == DROPPED ? r : second.apply(r);
+        };
+    }
+}
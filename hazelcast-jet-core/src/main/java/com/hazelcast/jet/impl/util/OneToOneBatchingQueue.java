@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueueFields.ConsumerFields;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueueFields.Padding2;
+import com.hazelcast.jet.impl.util.OneToOneBatchingQueueFields.ProducerFields;
+import com.hazelcast.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * Single-producer, single-consumer bounded queue which, in addition to
+ * offering single items, can publish a batch of items with a single
+ * write to its tail counter. The consumer likewise updates the head
+ * counter once per drained batch. This reduces the cache-coherence
+ * traffic on the counters shared by the producer and consumer threads.
+ * The counters written by the producer and by the consumer are padded to
+ * separate cache lines, see {@link OneToOneBatchingQueueFields}.
+ * <p>
+ * The iterator is not supported.
+ *
+ * @param <E> type of the queue item
+ */
+public final class OneToOneBatchingQueue<E> extends Padding2<E> implements QueuedPipe<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<ConsumerFields> HEAD =
+            AtomicLongFieldUpdater.newUpdater(ConsumerFields.class, "head");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<ProducerFields> TAIL =
+            AtomicLongFieldUpdater.newUpdater(ProducerFields.class, "tail");
+
+    private final Object[] buffer;
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * Creates a queue with the given capacity, rounded up to the next
+     * power of two.
+     */
+    public OneToOneBatchingQueue(int requestedCapacity) {
+        this.capacity = nextPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.buffer = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e, "e");
+        long currentTail = tail;
+        if (currentTail - headCache >= capacity) {
+            headCache = head;
+            if (currentTail - headCache >= capacity) {
+                return false;
+            }
+        }
+        buffer[(int) currentTail & mask] = e;
+        TAIL.lazySet(this, currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Offers as many of the items in {@code items[0..count)} as there is
+     * room for and publishes them all at once.
+     *
+     * @return the number of items added to the queue
+     */
+    public int offerAll(@Nonnull Object[] items, int count) {
+        long currentTail = tail;
+        long free = capacity - (currentTail - headCache);
+        if (free < count) {
+            headCache = head;
+            free = capacity - (currentTail - headCache);
+        }
+        int n = (int) Math.min(count, free);
+        for (int i = 0; i < n; i++) {
+            assert items[i] != null : "null item at " + i;
+            buffer[(int) (currentTail + i) & mask] = items[i];
+        }
+        if (n > 0) {
+            TAIL.lazySet(this, currentTail + n);
+        }
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long currentHead = head;
+        if (currentHead >= tailCache) {
+            tailCache = tail;
+            if (currentHead >= tailCache) {
+                return null;
+            }
+        }
+        int index = (int) currentHead & mask;
+        E e = (E) buffer[index];
+        buffer[index] = null;
+        HEAD.lazySet(this, currentHead + 1);
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long currentHead = head;
+        if (currentHead >= tailCache) {
+            tailCache = tail;
+            if (currentHead >= tailCache) {
+                return null;
+            }
+        }
+        return (E) buffer[(int) currentHead & mask];
+    }
+
+    /**
+     * Drains the items available at the time of the call to the handler
+     * until the handler returns {@code false}. The item for which it
+     * returns {@code false} is removed from the queue as well.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(Predicate<? super E> itemHandler) {
+        long currentHead = head;
+        long limit = tail;
+        long next = currentHead;
+        try {
+            while (next < limit) {
+                int index = (int) next & mask;
+                E e = (E) buffer[index];
+                buffer[index] = null;
+                next++;
+                if (!itemHandler.test(e)) {
+                    break;
+                }
+            }
+        } finally {
+            HEAD.lazySet(this, next);
+        }
+        return (int) (next - currentHead);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> target, int limit) {
+        long currentHead = head;
+        long end = Math.min(tail, currentHead + limit);
+        for (long next = currentHead; next < end; next++) {
+            int index = (int) next & mask;
+            target.add((E) buffer[index]);
+            buffer[index] = null;
+        }
+        HEAD.lazySet(this, end);
+        return (int) (end - currentHead);
+    }
+
+    @Override
+    public int size() {
+        long currentHead;
+        long currentTail;
+        do {
+            currentHead = head;
+            currentTail = tail;
+        } while (currentHead != head);
+        return (int) (currentTail - currentHead);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // just remove
+        }
+    }
+
+    @Override
+    public long addedCount() {
+        return tail;
+    }
+
+    @Override
+    public long removedCount() {
+        return head;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Nonnull @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
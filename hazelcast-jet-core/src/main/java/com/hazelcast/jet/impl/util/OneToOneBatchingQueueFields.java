@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import java.util.AbstractQueue;
+
+/**
+ * The superclasses of {@link OneToOneBatchingQueue} which lay out its
+ * counters. The JVM places the fields of a superclass before those of a
+ * subclass, so the padding classes keep the consumer's and the producer's
+ * fields on different cache lines. Otherwise each write to one of them
+ * would invalidate the cache line the other thread reads from.
+ */
+final class OneToOneBatchingQueueFields {
+
+    private OneToOneBatchingQueueFields() {
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class Padding0<E> extends AbstractQueue<E> {
+        long p00;
+        long p01;
+        long p02;
+        long p03;
+        long p04;
+        long p05;
+        long p06;
+        long p07;
+        long p08;
+        long p09;
+        long p0a;
+        long p0b;
+        long p0c;
+        long p0d;
+        long p0e;
+    }
+
+    abstract static class ConsumerFields<E> extends Padding0<E> {
+        // written by the consumer, read by the producer
+        volatile long head;
+        // the consumer's cached value of tail
+        long tailCache;
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class Padding1<E> extends ConsumerFields<E> {
+        long p10;
+        long p11;
+        long p12;
+        long p13;
+        long p14;
+        long p15;
+        long p16;
+        long p17;
+        long p18;
+        long p19;
+        long p1a;
+        long p1b;
+        long p1c;
+        long p1d;
+        long p1e;
+    }
+
+    abstract static class ProducerFields<E> extends Padding1<E> {
+        // written by the producer, read by the consumer
+        volatile long tail;
+        // the producer's cached value of head
+        long headCache;
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class Padding2<E> extends ProducerFields<E> {
+        long p20;
+        long p21;
+        long p22;
+        long p23;
+        long p24;
+        long p25;
+        long p26;
+        long p27;
+        long p28;
+        long p29;
+        long p2a;
+        long p2b;
+        long p2c;
+        long p2d;
+        long p2e;
+    }
+}
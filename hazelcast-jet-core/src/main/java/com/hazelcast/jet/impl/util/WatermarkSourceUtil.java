@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.WatermarkEmissionPolicy;
+import com.hazelcast.jet.core.WatermarkGenerationParams;
+import com.hazelcast.jet.core.WatermarkPolicy;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import static com.hazelcast.jet.core.WatermarkGenerationParams.NO_IDLE_TIMEOUT;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Helper for source processors that generate watermarks on their own,
+ * see {@link WatermarkGenerationParams}. It keeps one {@link
+ * WatermarkPolicy} and one watermark per source partition and computes
+ * the watermark to emit as the minimum over the partitions that aren't
+ * idle.
+ * <p>
+ * The source processor reports every event using {@link #handleEvent}
+ * and calls {@link #handleNoEvent} when it has no events to emit; both
+ * methods return a traverser over the items to emit. The returned
+ * traverser is reused: the processor must fully drain it before calling
+ * either method again.
+ *
+ * @param <T> type of the stream item
+ */
+public class WatermarkSourceUtil<T> {
+
+    private static final WatermarkPolicy[] EMPTY_WATERMARK_POLICIES = {};
+    private static final long[] EMPTY_LONGS = {};
+
+    private final long idleTimeoutNanos;
+    private final ToLongFunction<T> getTimestampF;
+    private final Supplier<WatermarkPolicy> newWmPolicyF;
+    private final WatermarkEmissionPolicy wmEmitPolicy;
+    private final PairTraverser traverser = new PairTraverser();
+
+    private WatermarkPolicy[] wmPolicies = EMPTY_WATERMARK_POLICIES;
+    private long[] watermarks = EMPTY_LONGS;
+    private long[] markIdleAt = EMPTY_LONGS;
+    private long lastEmittedWm = Long.MIN_VALUE;
+    private long lateEventCount;
+
+    public WatermarkSourceUtil(@Nonnull WatermarkGenerationParams<T> params) {
+        this.idleTimeoutNanos = params.idleTimeoutMillis() == NO_IDLE_TIMEOUT
+                ? Long.MAX_VALUE : MILLISECONDS.toNanos(params.idleTimeoutMillis());
+        this.getTimestampF = params.getTimestampF();
+        this.newWmPolicyF = params.newWmPolicyF();
+        this.wmEmitPolicy = params.wmEmitPolicy();
+    }
+
+    /**
+     * Reports an event read from the given partition. Returns a traverser
+     * over a watermark (if one should be emitted) followed by the event
+     * (unless it is late).
+     *
+     * @param now current value of {@code System.nanoTime()}
+     * @param event the event
+     * @param partitionIndex index of the source partition, must be less
+     *                       than the partition count
+     */
+    @Nonnull
+    public Traverser<Object> handleEvent(long now, @Nonnull T event, int partitionIndex) {
+        long timestamp = getTimestampF.applyAsLong(event);
+        watermarks[partitionIndex] = max(watermarks[partitionIndex], wmPolicies[partitionIndex].reportEvent(timestamp));
+        markIdleAt[partitionIndex] = idleAt(now);
+        traverser.reset();
+        maybeAddWatermark(now);
+        if (timestamp >= lastEmittedWm) {
+            traverser.add(event);
+        } else {
+            lateEventCount++;
+        }
+        return traverser;
+    }
+
+    /**
+     * Called when the source has no event to emit. Returns a traverser over
+     * a watermark, if the watermark advanced with the passage of time or
+     * because some partitions became idle; an empty traverser otherwise.
+     *
+     * @param now current value of {@code System.nanoTime()}
+     */
+    @Nonnull
+    public Traverser<Object> handleNoEvent(long now) {
+        traverser.reset();
+        maybeAddWatermark(now);
+        return traverser;
+    }
+
+    /**
+     * Changes the number of source partitions. The count can only grow;
+     * the new partitions start with no watermark and aren't idle.
+     *
+     * @param now current value of {@code System.nanoTime()}
+     * @param newPartitionCount the new partition count
+     */
+    public void increasePartitionCount(long now, int newPartitionCount) {
+        int oldPartitionCount = wmPolicies.length;
+        if (newPartitionCount < oldPartitionCount) {
+            throw new IllegalArgumentException("Partition count decreased from " + oldPartitionCount
+                    + " to " + newPartitionCount);
+        }
+        wmPolicies = Arrays.copyOf(wmPolicies, newPartitionCount);
+        watermarks = Arrays.copyOf(watermarks, newPartitionCount);
+        markIdleAt = Arrays.copyOf(markIdleAt, newPartitionCount);
+        for (int i = oldPartitionCount; i < newPartitionCount; i++) {
+            wmPolicies[i] = newWmPolicyF.get();
+            watermarks[i] = Long.MIN_VALUE;
+            markIdleAt[i] = idleAt(now);
+        }
+    }
+
+    /**
+     * Returns the watermark of the given partition, to be saved to the
+     * snapshot.
+     */
+    public long getWatermark(int partitionIndex) {
+        return watermarks[partitionIndex];
+    }
+
+    /**
+     * Restores the watermark of the given partition from the snapshot. The
+     * partition's watermark won't go below the restored value.
+     */
+    public void restoreWatermark(int partitionIndex, long wm) {
+        watermarks[partitionIndex] = max(watermarks[partitionIndex], wm);
+    }
+
+    /**
+     * Returns the number of events dropped as late so far.
+     */
+    public long lateEventCount() {
+        return lateEventCount;
+    }
+
+    private void maybeAddWatermark(long now) {
+        long wm = computeWatermark(now);
+        if (wm != Long.MIN_VALUE && wmEmitPolicy.shouldEmit(wm, lastEmittedWm)) {
+            lastEmittedWm = wm;
+            traverser.add(new Watermark(wm));
+        }
+    }
+
+    /**
+     * Returns the minimum watermark over the active partitions, or {@code
+     * Long.MIN_VALUE} if there are none. If all partitions are idle, the
+     * watermark is held where it is.
+     */
+    private long computeWatermark(long now) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < wmPolicies.length; i++) {
+            watermarks[i] = max(watermarks[i], wmPolicies[i].getCurrentWatermark());
+            if (now < markIdleAt[i]) {
+                min = Math.min(min, watermarks[i]);
+            }
+        }
+        return min == Long.MAX_VALUE ? Long.MIN_VALUE : min;
+    }
+
+    private long idleAt(long now) {
+        return idleTimeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + idleTimeoutNanos;
+    }
+
+    /**
+     * A reusable traverser over at most two items.
+     */
+    private static final class PairTraverser implements Traverser<Object> {
+        private Object item1;
+        private Object item2;
+
+        void reset() {
+            assert item1 == null && item2 == null : "Previous items not emitted";
+        }
+
+        void add(Object item) {
+            if (item1 == null) {
+                item1 = item;
+            } else {
+                assert item2 == null : "PairTraverser is full";
+                item2 = item;
+            }
+        }
+
+        @Override
+        public Object next() {
+            Object result = item1;
+            item1 = item2;
+            item2 = null;
+            return result;
+        }
+    }
+}
@@ -45,6 +45,16 @@
  * share the same key, separately for each key. It outputs the results of
  * the aggregate operation, one for each observed distinct key.
  *
+ * <h3>Windowing</h3>
+ *
+ * The {@code window} and {@code sessionWindow} transformations group the
+ * items of an infinite stream by key and by a window of event time and
+ * perform an aggregate operation on each group. They emit the result for
+ * a window once the {@code addTimestamps} stage upstream of them has
+ * inserted a watermark which closes the window. Sliding windows are
+ * computed in two steps: the items are accumulated into frames locally
+ * and only the frames are sent over the network.
+ *
  * <h3>Hash-join</h3>
  *
  * Hash-join is a special kind of joining transform, specifically tailored
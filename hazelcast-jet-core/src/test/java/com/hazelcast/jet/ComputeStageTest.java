@@ -20,21 +20,27 @@ import com.hazelcast.core.IList;
 import com.hazelcast.core.IMap;
 import com.hazelcast.jet.accumulator.LongAccumulator;
 import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.datamodel.ItemsByTag;
 import com.hazelcast.jet.datamodel.Tag;
 import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedToLongFunction;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -42,14 +48,19 @@ import static com.hazelcast.jet.JoinClause.joinMapEntries;
 import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.WatermarkEmissionPolicy.emitByMinStep;
+import static com.hazelcast.jet.core.WatermarkPolicies.withFixedLag;
+import static com.hazelcast.jet.core.WindowDefinition.tumblingWindowDef;
 import static com.hazelcast.jet.datamodel.ItemsByTag.itemsByTag;
 import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.datamodel.Tuple3.tuple3;
 import static com.hazelcast.jet.function.DistributedFunctions.wholeItem;
 import static com.hazelcast.query.TruePredicate.truePredicate;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ComputeStageTest extends TestInClusterSupport {
@@ -367,6 +378,192 @@ public class ComputeStageTest extends TestInClusterSupport {
         assertEquals(toBag(expected), sinkToBag());
     }
 
+    @Test
+    public void when_statelessStagesChained_then_fusedIntoOneVertex() {
+        // Given
+        pipeline = Pipeline.create();
+        String srcListName = randomName();
+        pipeline.drawFrom(Sources.<Integer>readList(srcListName))
+                .map(i -> i * 2)
+                .filter(i -> i % 3 == 0)
+                .flatMap(i -> traverseIterable(asList(i, -i)))
+                .filter(i -> i % 4 != 0)
+                .map(String::valueOf)
+                .drainTo(sink);
+
+        // When
+        int vertexCount = 0;
+        for (Vertex ignored : pipeline.toDag()) {
+            vertexCount++;
+        }
+        List<Integer> input = sequence(ITEM_COUNT);
+        jet().getList(srcListName).addAll(input);
+        execute();
+
+        // Then
+        assertEquals("source, fused chain and sink vertices", 3, vertexCount);
+        List<String> expected = input.stream()
+                                     .map(i -> i * 2)
+                                     .filter(i -> i % 3 == 0)
+                                     .flatMap(i -> Stream.of(i, -i))
+                                     .filter(i -> i % 4 != 0)
+                                     .map(String::valueOf)
+                                     .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
+    @Test
+    public void window() {
+        // Given
+        int windowSize = 10;
+        srcStage.addTimestamps(i -> (long) i, withFixedLag(ITEM_COUNT), emitByMinStep(1))
+                .window(tumblingWindowDef(windowSize), i -> i % 2, i -> (long) i, counting())
+                .map(e -> e.getTimestamp() + ":" + e.getKey() + "=" + e.getValue())
+                .drainTo(sink);
+
+        // When
+        List<Integer> input = sequence(ITEM_COUNT);
+        putToSrcMap(input);
+        execute();
+
+        // Then
+        List<String> expected = input.stream()
+                                     .collect(groupingBy(i -> (i / windowSize + 1) * windowSize + ":" + i % 2,
+                                             Collectors.counting()))
+                                     .entrySet().stream()
+                                     .map(e -> e.getKey() + "=" + e.getValue())
+                                     .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
+    @Test
+    public void when_windowWithSmallLag_then_resultsEmittedBeforeStreamEnds() {
+        // Given
+        int windowSize = 10;
+        int lag = 10;
+        pipeline = Pipeline.create();
+        pipeline.drawFrom(Sources.<Integer>fromProcessor("sequence", () -> new UnboundedSequenceP(ITEM_COUNT)))
+                .addTimestamps(i -> (long) i, withFixedLag(lag), emitByMinStep(1))
+                .window(tumblingWindowDef(windowSize), i -> i % 2, i -> (long) i, counting())
+                .map(e -> e.getTimestamp() + ":" + e.getKey() + "=" + e.getValue())
+                .drainTo(sink);
+
+        // When
+        Job job = jet().newJob(pipeline);
+
+        // Then
+        // the source never completes, so the first half of the windows can only
+        // be emitted because the watermark advanced past them
+        List<String> expected = sequence(ITEM_COUNT / 2)
+                .stream()
+                .collect(groupingBy(i -> (i / windowSize + 1) * windowSize + ":" + i % 2, Collectors.counting()))
+                .entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(toList());
+        assertTrueEventually(() -> assertTrue(sinkList.containsAll(expected)));
+        assertFalse(job.getFuture().isDone());
+        job.cancel();
+    }
+
+    @Test
+    public void sessionWindow() {
+        // Given
+        int sessionTimeout = 5;
+        // ten consecutive timestamps, then a gap longer than the session timeout
+        DistributedToLongFunction<Integer> timestampFn = i -> i / 10 * 20 + i % 10;
+        srcStage.addTimestamps(timestampFn, withFixedLag(ITEM_COUNT * 2), emitByMinStep(1))
+                .sessionWindow(sessionTimeout, i -> i % 2, timestampFn, counting())
+                .map(s -> s.getKey() + ":" + s.getStart() + "-" + s.getEnd() + "=" + s.getResult())
+                .drainTo(sink);
+
+        // When
+        List<Integer> input = sequence(ITEM_COUNT);
+        putToSrcMap(input);
+        execute();
+
+        // Then
+        // each key has five events two time units apart in each group
+        List<String> expected = input.stream()
+                                     .filter(i -> i % 10 < 2)
+                                     .map(i -> {
+                                         long start = timestampFn.applyAsLong(i);
+                                         return i % 2 + ":" + start + "-" + (start + 8 + sessionTimeout) + "=5";
+                                     })
+                                     .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
+    @Test
+    public void when_filterFollowsReadMap_then_filtersFusedIntoSource() {
+        // Given
+        pipeline = Pipeline.create();
+        ComputeStage<Entry<String, Integer>> src = pipeline.drawFrom(Sources.readMap(srcMap.getName()));
+        src.filter(e -> e.getValue() % 2 == 1)
+           .filter(e -> e.getValue() > 10)
+           .map(Entry::getValue)
+           .drainTo(sink);
+
+        // When
+        int vertexCount = 0;
+        for (Vertex ignored : pipeline.toDag()) {
+            vertexCount++;
+        }
+        List<Integer> input = sequence(ITEM_COUNT);
+        putToSrcMap(input);
+        execute();
+
+        // Then
+        assertEquals("source with the filters, map and sink vertices", 3, vertexCount);
+        List<Integer> expected = input.stream()
+                                      .filter(i -> i % 2 == 1 && i > 10)
+                                      .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
+    @Test
+    public void when_mapAndFilterPrecedeGroupBy_then_fusedIntoAccumulatingVertex() {
+        // Given
+        srcStage.map(i -> i % 10)
+                .filter(i -> i != 0)
+                .groupBy(wholeItem(), counting())
+                .drainTo(sink);
+
+        // When
+        int vertexCount = 0;
+        for (Vertex ignored : pipeline.toDag()) {
+            vertexCount++;
+        }
+        List<Integer> input = sequence(ITEM_COUNT);
+        putToSrcMap(input);
+        execute();
+
+        // Then
+        assertEquals("source, two group-by and sink vertices", 4, vertexCount);
+        Map<Integer, Long> expected = input.stream()
+                                           .map(i -> i % 10)
+                                           .filter(i -> i != 0)
+                                           .collect(groupingBy(i -> i, Collectors.counting()));
+        assertEquals(toBag(new ArrayList<>(expected.entrySet())), sinkToBag());
+    }
+
+    @Test
+    public void when_pipelinePlannedTwice_then_sameVertexNames() {
+        // Given
+        ComputeStage<Integer> mapped = srcStage.map(i -> i + 1);
+        mapped.groupBy(wholeItem(), counting()).drainTo(sink);
+        mapped.groupBy(i -> i % 2, counting()).drainTo(Sinks.writeList(randomName()));
+
+        // When
+        List<String> names1 = new ArrayList<>();
+        pipeline.toDag().forEach(v -> names1.add(v.getName()));
+        List<String> names2 = new ArrayList<>();
+        pipeline.toDag().forEach(v -> names2.add(v.getName()));
+
+        // Then
+        assertTrue(names1.contains("groupByKey-2.stage1"));
+        assertEquals(names1, names2);
+    }
+
     private void putToSrcMap(List<Integer> data) {
         putToMap(srcMap, data);
     }
@@ -404,4 +601,31 @@ public class ComputeStageTest extends TestInClusterSupport {
     private static List<Integer> sequence(int itemCount) {
         return IntStream.range(0, itemCount).boxed().collect(toList());
     }
+
+    /**
+     * Emits a sequence of integers from a single processor and then never
+     * completes.
+     */
+    private static final class UnboundedSequenceP extends AbstractProcessor {
+        private final Traverser<Integer> traverser;
+        private boolean emitting;
+
+        UnboundedSequenceP(int itemCount) {
+            traverser = traverseIterable(sequence(itemCount));
+        }
+
+        @Override
+        protected void init(@Nonnull Context context) {
+            emitting = context.globalProcessorIndex() == 0;
+        }
+
+        @Override
+        public boolean complete() {
+            if (!emitting) {
+                return true;
+            }
+            emitFromTraverser(traverser);
+            return false;
+        }
+    }
 }
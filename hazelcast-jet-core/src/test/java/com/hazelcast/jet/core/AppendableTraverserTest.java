@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class AppendableTraverserTest {
+
+    private final AppendableTraverser<String> trav = new AppendableTraverser<>(1);
+
+    @Test
+    public void when_itemsAppended_then_traversedInOrder() {
+        assertSame(trav, trav.append("a").append("b"));
+        assertFalse(trav.isEmpty());
+
+        assertEquals("a", trav.next());
+        assertEquals("b", trav.next());
+        assertNull(trav.next());
+        assertTrue(trav.isEmpty());
+    }
+
+    @Test
+    public void when_appendedAfterExhausted_then_reused() {
+        trav.append("a");
+        assertEquals("a", trav.next());
+        assertNull(trav.next());
+
+        trav.append("b");
+        assertEquals("b", trav.next());
+        assertNull(trav.next());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.stream.IntStream;
+
+import static com.hazelcast.jet.Traversers.traverseStream;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.impl.util.JetGroupProperty.TASKLET_PROFILER_SAMPLING_PERIOD;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastSerialClassRunner.class)
+public class JobMetricsTest extends JetTestSupport {
+
+    private static final int NODE_COUNT = 2;
+    private static final int ITEM_COUNT = 1000;
+
+    private JetInstance member;
+
+    @Before
+    public void setup() {
+        JetConfig config = new JetConfig();
+        config.getHazelcastConfig().setProperty(TASKLET_PROFILER_SAMPLING_PERIOD.getName(), "1");
+        member = createJetMember(config);
+        for (int i = 1; i < NODE_COUNT; i++) {
+            createJetMember(config);
+        }
+    }
+
+    @Test
+    public void when_getMetricsFromMember_then_mergedFromAllMembers() {
+        assertMetricsOfRunningJob(member);
+    }
+
+    @Test
+    public void when_getMetricsFromClient_then_mergedFromAllMembers() {
+        assertMetricsOfRunningJob(createJetClient());
+    }
+
+    private static void assertMetricsOfRunningJob(JetInstance instance) {
+        // Given
+        DAG dag = new DAG();
+        Vertex source = dag.newVertex("source", () -> new StreamingSourceP(ITEM_COUNT)).localParallelism(1);
+        Vertex sink = dag.newVertex("sink", Processors.noopP()).localParallelism(1);
+        dag.edge(between(source, sink));
+
+        // When
+        Job job = instance.newJob(dag);
+
+        // Then
+        // the processor index is dropped and the values of both members are summed
+        long expectedItems = NODE_COUNT * ITEM_COUNT;
+        assertTrueEventually(() -> {
+            JobMetrics metrics = job.getMetrics();
+            assertEquals(Long.valueOf(expectedItems), metrics.get("source.tasklet.itemsOut"));
+            assertEquals(Long.valueOf(expectedItems), metrics.get("sink.tasklet.itemsIn"));
+            assertNotNull(metrics.get("source.outbound0.refusedOffers"));
+            assertNotNull(metrics.get("sink.inbound0.queueDepth"));
+            assertTrue("no profiler samples in " + metrics.toMap(),
+                    metrics.toMap().keySet().stream().anyMatch(name -> name.startsWith(JobMetrics.PROFILE_PREFIX)));
+            assertFalse(metrics.profile().isEmpty());
+        });
+        assertFalse(job.getFuture().isDone());
+
+        job.cancel();
+    }
+
+    /**
+     * Emits the given number of items and then never completes.
+     */
+    private static final class StreamingSourceP extends AbstractProcessor {
+        private final Traverser<Integer> traverser;
+
+        StreamingSourceP(int itemCount) {
+            traverser = traverseStream(IntStream.range(0, itemCount).boxed());
+        }
+
+        @Override
+        public boolean complete() {
+            emitFromTraverser(traverser);
+            return false;
+        }
+    }
+}
@@ -115,6 +115,38 @@ public class ProcessorsTest {
         assertEquals("1b", bucket.remove());
     }
 
+    @Test
+    public void flatMap_withPerProcessorFunction() {
+        // Given
+        final Processor p = processorFrom(Processors.<Integer, String>flatMapP(() -> {
+            ResettableArrayTraverser<String> trav = new ResettableArrayTraverser<>();
+            return o -> trav.reset(new String[] {o + "a", o + "b"});
+        }));
+        inbox.add(1);
+        inbox.add(2);
+
+        // When
+        p.process(0, inbox);
+        // Then
+        assertEquals("1a", bucket.remove());
+
+        // When
+        p.process(0, inbox);
+        // Then
+        assertEquals("1b", bucket.remove());
+
+        // When
+        p.process(0, inbox);
+        // Then
+        assertEquals("2a", bucket.remove());
+
+        // When
+        p.process(0, inbox);
+        // Then
+        assertTrue(inbox.isEmpty());
+        assertEquals("2b", bucket.remove());
+    }
+
     @Test
     public void aggregateByKey() {
         final Processor p = processorFrom(Processors.aggregateByKeyP(Object::toString, aggregateToListAndString()));
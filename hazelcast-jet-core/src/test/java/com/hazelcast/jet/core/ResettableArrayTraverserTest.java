@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class ResettableArrayTraverserTest {
+
+    private final ResettableArrayTraverser<String> trav = new ResettableArrayTraverser<>();
+
+    @Test
+    public void when_notReset_then_empty() {
+        assertNull(trav.next());
+    }
+
+    @Test
+    public void when_reset_then_arrayTraversedInOrder() {
+        assertSame(trav, trav.reset(new String[] {"a", "b"}));
+
+        assertEquals("a", trav.next());
+        assertEquals("b", trav.next());
+        assertNull(trav.next());
+        assertNull(trav.next());
+    }
+
+    @Test
+    public void when_resetBeforeExhausted_then_newArrayTraversed() {
+        trav.reset(new String[] {"a", "b"});
+        assertEquals("a", trav.next());
+
+        trav.reset(new String[] {"c"});
+        assertEquals("c", trav.next());
+        assertNull(trav.next());
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.jet.core;
 
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.JetTestInstanceFactory;
+import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
 import org.junit.After;
@@ -34,6 +35,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -41,6 +43,7 @@ import java.util.stream.Stream;
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.TestUtil.executeAndPeel;
 import static com.hazelcast.jet.function.DistributedFunctions.wholeItem;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -94,6 +97,46 @@ public class RoutingPolicyTest extends JetTestSupport {
         System.out.println(consumerSup.getListAt(1));
     }
 
+    @Test
+    public void when_rebalance() throws Throwable {
+        DAG dag = new DAG();
+        Vertex producer = producer(NUMBERS_LOW, NUMBERS_HIGH);
+        Vertex consumer = consumer(consumerSup, 3);
+
+        dag.vertex(producer)
+           .vertex(consumer)
+           .edge(between(producer, consumer).rebalance());
+
+        execute(dag);
+
+        List<Object> combined = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            combined.addAll(consumerSup.getListAt(i));
+        }
+
+        assertEquals(NUMBERS_LOW.size() + NUMBERS_HIGH.size(), combined.size());
+        assertEquals(setOf(NUMBERS_LOW, NUMBERS_HIGH), setOf(combined));
+    }
+
+    @Test
+    public void when_rebalanceAndSlowConsumer_then_slowConsumerReceivesFewerItems() throws Throwable {
+        DAG dag = new DAG();
+        Vertex producer = producer(NUMBERS_LOW, NUMBERS_HIGH);
+        SlowFirstConsumerSup consumerSup = new SlowFirstConsumerSup();
+        Vertex consumer = new Vertex("consumer", consumerSup).localParallelism(2);
+
+        dag.vertex(producer)
+           .vertex(consumer)
+           .edge(between(producer, consumer).rebalance().setConfig(new EdgeConfig().setQueueSize(16)));
+
+        execute(dag);
+
+        int slowCount = consumerSup.getListAt(0).size();
+        int fastCount = consumerSup.getListAt(1).size();
+        assertEquals(NUMBERS_LOW.size() + NUMBERS_HIGH.size(), slowCount + fastCount);
+        assertTrue("slow consumer received " + slowCount + ", fast one " + fastCount, slowCount < fastCount / 4);
+    }
+
     @Test
     public void when_broadcast() throws Throwable {
         DAG dag = new DAG();
@@ -219,7 +262,7 @@ public class RoutingPolicyTest extends JetTestSupport {
 
     private static class ListConsumerSup implements ProcessorSupplier {
 
-        private static volatile List<Processor> processors;
+        static volatile List<Processor> processors;
 
         @Override
         public void init(@Nonnull Context context) {
@@ -236,4 +279,26 @@ public class RoutingPolicyTest extends JetTestSupport {
             return ((ListSink) processors.get(i)).getList();
         }
     }
+
+    /**
+     * Supplies two consumers, the first one takes a millisecond per item.
+     */
+    private static class SlowFirstConsumerSup extends ListConsumerSup {
+
+        @Override
+        public void init(@Nonnull Context context) {
+            processors = Arrays.asList(new ListSink() {
+                @Override
+                protected boolean tryProcess(int ordinal, @Nonnull Object item) throws Exception {
+                    LockSupport.parkNanos(MILLISECONDS.toNanos(1));
+                    return super.tryProcess(ordinal, item);
+                }
+
+                @Override
+                public boolean isCooperative() {
+                    return false;
+                }
+            }, new ListSink());
+        }
+    }
 }
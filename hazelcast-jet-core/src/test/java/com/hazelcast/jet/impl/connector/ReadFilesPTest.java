@@ -31,14 +31,19 @@ import org.junit.runner.RunWith;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.processor.Processors.mapP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readFilesP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
 import static org.junit.Assert.assertEquals;
@@ -118,6 +123,62 @@ public class ReadFilesPTest extends JetTestSupport {
         finishDirectory(file1);
     }
 
+    @Test
+    public void when_smallRangesAndWindows_then_eachLineReadOnce() throws Exception {
+        File file = new File(directory, randomName());
+        String[] lines = IntStream.range(0, 200)
+                                  .mapToObj(i -> i % 17 == 0 ? longLine(i) : String.valueOf(i))
+                                  .toArray(String[]::new);
+        appendToFile(file, lines);
+        // a line ending with CRLF and a last line without a line separator
+        try (PrintWriter writer = new PrintWriter(new FileOutputStream(file, true))) {
+            writer.write("crlf\r\nlast");
+        }
+
+        DAG dag = new DAG();
+        Vertex reader = dag.newVertex("reader", ReadFilesP.supplier(directory.getPath(), "UTF-8", "*", false, -1, 16, 32))
+                           .localParallelism(4);
+        Vertex writer = dag.newVertex("writer", writeListP(list.getName())).localParallelism(1);
+        dag.edge(between(reader, writer));
+
+        instance.newJob(dag).join();
+
+        List<String> expected = new ArrayList<>(Arrays.asList(lines));
+        expected.add("crlf");
+        expected.add("last");
+        List<String> actual = new ArrayList<>(list);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void when_readAsBuffers_then_linesAsBytes() throws Exception {
+        File file = new File(directory, randomName());
+        appendToFile(file, "hello", "world");
+
+        DAG dag = new DAG();
+        Vertex reader = dag.newVertex("reader", ReadFilesP.supplier(directory.getPath(), "UTF-8", "*", true, -1, 4, 8))
+                           .localParallelism(2);
+        Vertex toString = dag.newVertex("toString",
+                mapP((ByteBuffer buf) -> StandardCharsets.UTF_8.decode(buf).toString()));
+        Vertex writer = dag.newVertex("writer", writeListP(list.getName())).localParallelism(1);
+        dag.edge(between(reader, toString));
+        dag.edge(between(toString, writer));
+
+        instance.newJob(dag).join();
+
+        assertEquals(new HashSet<>(Arrays.asList("hello", "world")), new HashSet<>(list));
+    }
+
+    private static String longLine(int i) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < 10; j++) {
+            sb.append("long-").append(i).append('-');
+        }
+        return sb.toString();
+    }
+
     private DAG buildDag(String glob) {
         if (glob == null) {
             glob = "*";
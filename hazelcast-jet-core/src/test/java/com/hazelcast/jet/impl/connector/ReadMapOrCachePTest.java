@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.impl.connector.ReadMapOrCacheP.Reader;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class ReadMapOrCachePTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Test
+    public void when_maxParallelReadReached_then_noMoreFetches() throws Exception {
+        // Given
+        ManualReader reader = new ManualReader(5);
+        ReadMapOrCacheP<int[], Integer> p = new ReadMapOrCacheP<>(reader, asList(0, 1, 2), 2);
+        TestOutbox outbox = new TestOutbox(100);
+        p.init(outbox, new TestProcessorContext());
+
+        // When
+        assertFalse(p.complete());
+
+        // Then
+        assertEquals(2, reader.pending.size());
+        assertEquals(new HashSet<>(asList(0, 1)), reader.pending.keySet());
+
+        // When the first batch arrives
+        reader.completeRead(0);
+        assertFalse(p.complete());
+
+        // Then the next batch of the partition is requested
+        assertEquals(new HashSet<>(asList(0, 1)), reader.pending.keySet());
+        assertEquals(asList(0, 1), new ArrayList<>(outbox.queueWithOrdinal(0)));
+    }
+
+    @Test
+    public void when_readsComplete_then_allItemsEmitted() throws Exception {
+        // Given
+        ManualReader reader = new ManualReader(5);
+        ReadMapOrCacheP<int[], Integer> p = new ReadMapOrCacheP<>(reader, asList(0, 1, 2), 2);
+        TestOutbox outbox = new TestOutbox(3);
+        Queue<Object> bucket = outbox.queueWithOrdinal(0);
+        p.init(outbox, new TestProcessorContext());
+        List<Object> emitted = new ArrayList<>();
+
+        // When
+        boolean done;
+        do {
+            done = p.complete();
+            for (Object item; (item = bucket.poll()) != null; ) {
+                emitted.add(item);
+            }
+            reader.pending.keySet().forEach(reader::completeRead);
+        } while (!done);
+
+        // Then
+        emitted.sort(null);
+        assertEquals(range(0, 15).boxed().collect(toList()), emitted);
+        assertTrue(reader.pending.isEmpty());
+    }
+
+    @Test
+    public void when_projectionRejectsMidBatchItem_then_restOfBatchEmitted() throws Exception {
+        // Given a projection rejecting the first item of the second batch
+        ManualReader reader = new ManualReader(5, item -> item != 2);
+        ReadMapOrCacheP<int[], Integer> p = new ReadMapOrCacheP<>(reader, singletonList(0), 1);
+        TestOutbox outbox = new TestOutbox(100);
+        Queue<Object> bucket = outbox.queueWithOrdinal(0);
+        p.init(outbox, new TestProcessorContext());
+        List<Object> emitted = new ArrayList<>();
+
+        // When
+        boolean done;
+        do {
+            done = p.complete();
+            for (Object item; (item = bucket.poll()) != null; ) {
+                emitted.add(item);
+            }
+            reader.pending.keySet().forEach(reader::completeRead);
+        } while (!done);
+
+        // Then
+        assertEquals(asList(0, 1, 3, 4), emitted);
+    }
+
+    /**
+     * Simulates partitions containing {@code itemsPerPartition} items each,
+     * partition {@code p} holds items {@code p * itemsPerPartition} to {@code
+     * (p + 1) * itemsPerPartition - 1}. The fetch futures are completed by the
+     * test. Items not matching the filter are projected to {@code null}.
+     */
+    private static final class ManualReader extends Reader<int[], Integer> {
+
+        final Map<Integer, CompletableFuture<int[]>> pending = new ConcurrentHashMap<>();
+        private final Map<Integer, Integer> offsets = new ConcurrentHashMap<>();
+        private final int itemsPerPartition;
+        private final Predicate<Integer> filter;
+
+        ManualReader(int itemsPerPartition) {
+            this(itemsPerPartition, item -> true);
+        }
+
+        ManualReader(int itemsPerPartition, Predicate<Integer> filter) {
+            this.itemsPerPartition = itemsPerPartition;
+            this.filter = filter;
+        }
+
+        void completeRead(int partitionId) {
+            int from = offsets.get(partitionId);
+            int to = Math.min(from + BATCH_SIZE, itemsPerPartition);
+            // the last element is the next offset
+            int[] batch = new int[to - from + 1];
+            for (int i = from; i < to; i++) {
+                batch[i - from] = partitionId * itemsPerPartition + i;
+            }
+            batch[to - from] = to < itemsPerPartition ? to : -1;
+            pending.remove(partitionId).complete(batch);
+        }
+
+        @Override
+        Future<int[]> readBatch(int partitionId, int offset) {
+            assertFalse("second read of partition " + partitionId, pending.containsKey(partitionId));
+            offsets.put(partitionId, offset == Integer.MAX_VALUE ? 0 : offset);
+            CompletableFuture<int[]> future = new CompletableFuture<>();
+            pending.put(partitionId, future);
+            return future;
+        }
+
+        @Override
+        int toNextOffset(int[] batch) {
+            return batch[batch.length - 1];
+        }
+
+        @Override
+        List<Integer> toRecords(int[] batch) {
+            return range(0, batch.length - 1).mapToObj(i -> batch[i]).collect(toList());
+        }
+
+        @Override
+        Object toObject(Integer record) {
+            return filter.test(record) ? record : null;
+        }
+    }
+}
@@ -20,6 +20,9 @@ import com.hazelcast.jet.core.JetTestSupport;
 import com.hazelcast.jet.core.Outbox;
 import com.hazelcast.jet.core.Processor.Context;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
 import com.hazelcast.logging.Log4jFactory;
 import com.hazelcast.nio.IOUtil;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -37,10 +40,16 @@ import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
 
+import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.core.processor.SourceProcessors.streamFilesP;
 import static java.lang.Thread.interrupted;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -224,6 +233,50 @@ public class StreamFilesPTest extends JetTestSupport {
         assertTrueEventually(() -> assertTrue(completedNormally));
     }
 
+    @Test
+    public void when_restoredFromSnapshot_then_continueAtSavedOffset() throws Exception {
+        // Given
+        TestOutbox outbox = new TestOutbox(new int[]{128}, 128);
+        StreamFilesP p1 = new StreamFilesP(workDir.getAbsolutePath(), UTF_8, "*", 1, 0);
+        p1.init(outbox, new TestProcessorContext());
+        File file = new File(workDir, "a.txt");
+        appendLines(file, 0, 10);
+        assertTrueEventually(() -> {
+            p1.complete();
+            assertEquals(10, outbox.queueWithOrdinal(0).size());
+        });
+        assertTrueEventually(() -> assertTrue(p1.saveToSnapshot()));
+        List<Entry> snapshotItems = outbox.snapshotQueue().stream()
+                                          .map(e -> entry(e.getKey().getObject(), e.getValue().getObject()))
+                                          .collect(toList());
+        p1.close();
+
+        // When
+        appendLines(file, 10, 15);
+        TestOutbox outbox2 = new TestOutbox(128);
+        StreamFilesP p2 = new StreamFilesP(workDir.getAbsolutePath(), UTF_8, "*", 1, 0);
+        p2.init(outbox2, new TestProcessorContext());
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(snapshotItems);
+        p2.restoreFromSnapshot(inbox);
+        assertTrue(p2.finishSnapshotRestore());
+
+        // Then
+        assertTrueEventually(() -> {
+            p2.complete();
+            assertEquals(Arrays.asList("10", "11", "12", "13", "14"), new ArrayList<>(outbox2.queueWithOrdinal(0)));
+        });
+        p2.close();
+    }
+
+    private static void appendLines(File file, int from, int to) throws Exception {
+        try (PrintWriter w = new PrintWriter(new FileWriter(file, true))) {
+            for (int i = from; i < to; i++) {
+                w.print(i + "\n");
+            }
+        }
+    }
+
     private void driveProcessor() {
         while (!completedNormally && !interrupted()) {
             completedNormally = processor.complete();
@@ -22,7 +22,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -35,24 +35,24 @@ public class StreamFilesP_readCompleteLineTest {
 
     @Test
     public void when_emptyFile_then_null() throws Exception {
-        assertEquals(null, p.readCompleteLine(new StringReader("")));
+        assertEquals(null, p.readCompleteLine(UTF_8.encode("")));
     }
 
     @Test
     public void when_nonTerminatedSingleLine_then_null() throws Exception {
-        assertEquals(null, p.readCompleteLine(new StringReader("blabla")));
+        assertEquals(null, p.readCompleteLine(UTF_8.encode("blabla")));
     }
 
     @Test
     public void when_terminatedSingleLine_then_singleLine() throws Exception {
-        StringReader reader = new StringReader("blabla\n");
+        ByteBuffer reader = UTF_8.encode("blabla\n");
 
         assertEquals("blabla", p.readCompleteLine(reader));
     }
 
     @Test
     public void when_nonTerminatedSecondLine_then_singleLine() throws Exception {
-        StringReader reader = new StringReader("blabla\nbla");
+        ByteBuffer reader = UTF_8.encode("blabla\nbla");
 
         assertEquals("blabla", p.readCompleteLine(reader));
         assertEquals(null, p.readCompleteLine(reader));
@@ -60,7 +60,7 @@ public class StreamFilesP_readCompleteLineTest {
 
     @Test
     public void when_terminatedSecondLine_then_twoLines() throws Exception {
-        StringReader reader = new StringReader("blabla\nbla\n");
+        ByteBuffer reader = UTF_8.encode("blabla\nbla\n");
 
         assertEquals("blabla", p.readCompleteLine(reader));
         assertEquals("bla", p.readCompleteLine(reader));
@@ -68,7 +68,7 @@ public class StreamFilesP_readCompleteLineTest {
 
     @Test
     public void when_emptyLine_then_emptyLine() throws Exception {
-        StringReader reader = new StringReader("\nbla\n");
+        ByteBuffer reader = UTF_8.encode("\nbla\n");
 
         assertEquals("", p.readCompleteLine(reader));
         assertEquals("bla", p.readCompleteLine(reader));
@@ -76,7 +76,7 @@ public class StreamFilesP_readCompleteLineTest {
 
     @Test
     public void when_twoEmptyLines_then_emptyLine() throws Exception {
-        StringReader reader = new StringReader("\n\nbla\n");
+        ByteBuffer reader = UTF_8.encode("\n\nbla\n");
 
         assertEquals("", p.readCompleteLine(reader));
         assertEquals("", p.readCompleteLine(reader));
@@ -85,15 +85,30 @@ public class StreamFilesP_readCompleteLineTest {
 
     @Test
     public void test_windowsEndLines() throws Exception {
-        StringReader reader = new StringReader("blabla\r\nbla\r\n");
+        ByteBuffer reader = UTF_8.encode("blabla\r\nbla\r\n");
 
         assertEquals("blabla", p.readCompleteLine(reader));
         assertEquals("bla", p.readCompleteLine(reader));
     }
 
+    @Test
+    public void when_crAtEndOfBuffer_then_lfSkippedInNextBuffer() throws Exception {
+        assertEquals("blabla", p.readCompleteLine(UTF_8.encode("blabla\r")));
+        assertEquals("bla", p.readCompleteLine(UTF_8.encode("\nbla\n")));
+    }
+
+    @Test
+    public void when_lineIncomplete_then_positionUnchanged() throws Exception {
+        ByteBuffer reader = UTF_8.encode("blabla\nbla");
+
+        assertEquals("blabla", p.readCompleteLine(reader));
+        assertEquals(null, p.readCompleteLine(reader));
+        assertEquals(7, reader.position());
+    }
+
     @Test
     public void test_mac9EndLines() throws Exception {
-        StringReader reader = new StringReader("blabla\rbla\r");
+        ByteBuffer reader = UTF_8.encode("blabla\rbla\r");
 
         assertEquals("blabla", p.readCompleteLine(reader));
         assertEquals("bla", p.readCompleteLine(reader));
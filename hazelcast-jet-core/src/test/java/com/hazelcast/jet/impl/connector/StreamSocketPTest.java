@@ -31,10 +31,14 @@ import org.junit.runner.RunWith;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
 
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -79,4 +83,32 @@ public class StreamSocketPTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_outboxFullAndCrLf_then_allLinesEmittedInOrder() throws Exception {
+        outbox = new TestOutbox(1);
+        bucket = outbox.queueWithOrdinal(0);
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            Thread thread = new Thread(() -> uncheckRun(() -> {
+                Socket socket = serverSocket.accept();
+                PrintWriter writer = new PrintWriter(socket.getOutputStream());
+                writer.write("a\r\nb\n\nc");
+                writer.close();
+                socket.close();
+            }));
+            thread.start();
+
+            Processor processor = SourceProcessors.streamSocketP("localhost", serverSocket.getLocalPort(), UTF_8)
+                                                  .get(1).iterator().next();
+            processor.init(outbox, context);
+
+            List<Object> lines = new ArrayList<>();
+            assertTrueEventually(() -> {
+                boolean done = processor.complete();
+                lines.add(bucket.poll());
+                assertTrue(done);
+            }, 3);
+            lines.removeIf(Objects::isNull);
+            assertEquals(asList("a", "b", "", "c"), lines);
+        }
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.hazelcast.jet.Util.entry;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class WriteRollingFilePTest {
+
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("write-rolling-file-p");
+    }
+
+    @After
+    public void tearDown() {
+        IOUtil.delete(directory.toFile());
+    }
+
+    @Test
+    public void when_maxFileSizeReached_then_newPart() throws Exception {
+        WriteRollingFileP<String> p = createProcessor(8, false, false);
+
+        process(p, "aaaa", "bbbb", "cccc");
+        assertTrue(p.complete());
+
+        assertEquals(Arrays.asList("0-0", "0-1"), listFiles());
+        assertEquals(Arrays.asList("aaaa", "bbbb"), readLines(directory.resolve("0-0"), false));
+        assertEquals(Arrays.asList("cccc"), readLines(directory.resolve("0-1"), false));
+    }
+
+    @Test
+    public void when_compress_then_gzipParts() throws Exception {
+        WriteRollingFileP<String> p = createProcessor(Long.MAX_VALUE, true, false);
+
+        process(p, "aaaa", "bbbb");
+        assertTrue(p.complete());
+
+        assertEquals(Arrays.asList("0-0.gz"), listFiles());
+        assertEquals(Arrays.asList("aaaa", "bbbb"), readLines(directory.resolve("0-0.gz"), true));
+    }
+
+    @Test
+    public void when_rollIntervalElapsedWithoutItems_then_newPart() throws Exception {
+        WriteRollingFileP<String> p = createProcessor(Long.MAX_VALUE, 500, false, false);
+
+        process(p, "aaaa");
+        assertEquals(Arrays.asList(".0-0.inprogress"), listFiles());
+        Thread.sleep(600);
+        assertTrue(p.tryProcess());
+
+        assertEquals(Arrays.asList("0-0"), listFiles());
+    }
+
+    @Test
+    public void when_snapshotting_then_committedAfterSnapshotCompletes() throws Exception {
+        WriteRollingFileP<String> p = createProcessor(8, false, true);
+
+        process(p, "aaaa", "bbbb", "cccc");
+        assertEquals(Arrays.asList(".0-0.inprogress", ".0-1.inprogress"), listFiles());
+
+        // the snapshot doesn't roll the current part nor commit before it completes
+        assertTrue(p.saveToSnapshot());
+        assertEquals(Arrays.asList(".0-0.inprogress", ".0-1.inprogress"), listFiles());
+
+        assertTrue(p.onSnapshotCompleted(true));
+        assertEquals(Arrays.asList(".0-1.inprogress", "0-0"), listFiles());
+
+        assertTrue(p.complete());
+        assertEquals(Arrays.asList("0-0", "0-1"), listFiles());
+        assertEquals(Arrays.asList("cccc"), readLines(directory.resolve("0-1"), false));
+    }
+
+    @Test
+    public void when_restoredFromSnapshot_then_currentPartContinued() throws Exception {
+        when_restoredFromSnapshot_then_currentPartContinued(false);
+    }
+
+    @Test
+    public void when_restoredFromSnapshotCompressed_then_currentPartContinued() throws Exception {
+        when_restoredFromSnapshot_then_currentPartContinued(true);
+    }
+
+    private void when_restoredFromSnapshot_then_currentPartContinued(boolean compress) throws Exception {
+        String part = compress ? "0-1.gz" : "0-1";
+        WriteRollingFileP<String> p = new WriteRollingFileP<>(directory.toString(), Object::toString, UTF_8,
+                8, Long.MAX_VALUE, compress);
+        TestOutbox outbox = new TestOutbox(new int[] {1}, 1);
+        p.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
+        process(p, "aaaa", "bbbb", "cccc");
+        assertTrue(p.saveToSnapshot());
+        // written after the snapshot, lost with the failure
+        process(p, "dddd", "eeee");
+        p.close();
+
+        // restart from the snapshot
+        WriteRollingFileP<String> p2 = createProcessor(Long.MAX_VALUE, compress, true);
+        TestInbox snapshot = new TestInbox();
+        outbox.snapshotQueue().forEach(e -> snapshot.add(entry(e.getKey().getObject(), e.getValue().getObject())));
+        p2.restoreFromSnapshot(snapshot);
+        assertTrue(p2.finishSnapshotRestore());
+        process(p2, "dddd");
+        assertTrue(p2.complete());
+
+        assertEquals(Arrays.asList(compress ? "0-0.gz" : "0-0", part), listFiles());
+        assertEquals(Arrays.asList("cccc", "dddd"), readLines(directory.resolve(part), compress));
+    }
+
+    @Test
+    public void when_snapshotFailed_then_partsNotCommittedAndEarlierSnapshotRestored() throws Exception {
+        WriteRollingFileP<String> p = new WriteRollingFileP<>(directory.toString(), Object::toString, UTF_8,
+                8, Long.MAX_VALUE, false);
+        TestOutbox outbox = new TestOutbox(new int[] {1}, 1);
+        p.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
+        process(p, "aaaa");
+        assertTrue(p.saveToSnapshot());
+        TestInbox snapshot = new TestInbox();
+        outbox.snapshotQueue().forEach(e -> snapshot.add(entry(e.getKey().getObject(), e.getValue().getObject())));
+        outbox.snapshotQueue().clear();
+        assertTrue(p.onSnapshotCompleted(true));
+
+        // the part rolls over and is saved to a snapshot which fails
+        process(p, "bbbb");
+        assertTrue(p.saveToSnapshot());
+        outbox.snapshotQueue().clear();
+        assertTrue(p.onSnapshotCompleted(false));
+        process(p, "cccc");
+        assertTrue(p.saveToSnapshot());
+        outbox.snapshotQueue().clear();
+        assertEquals(Arrays.asList(".0-0.inprogress", ".0-1.inprogress"), listFiles());
+        p.close();
+
+        // restart from the last successful snapshot
+        WriteRollingFileP<String> p2 = createProcessor(8, false, true);
+        p2.restoreFromSnapshot(snapshot);
+        assertTrue(p2.finishSnapshotRestore());
+        process(p2, "bbbb", "cccc");
+        assertTrue(p2.complete());
+
+        assertEquals(Arrays.asList("0-0", "0-2"), listFiles());
+        assertEquals(Arrays.asList("aaaa", "bbbb"), readLines(directory.resolve("0-0"), false));
+        assertEquals(Arrays.asList("cccc"), readLines(directory.resolve("0-2"), false));
+    }
+
+    private WriteRollingFileP<String> createProcessor(long maxFileSize, boolean compress, boolean snapshotting) {
+        return createProcessor(maxFileSize, Long.MAX_VALUE, compress, snapshotting);
+    }
+
+    private WriteRollingFileP<String> createProcessor(
+            long maxFileSize, long rollIntervalMillis, boolean compress, boolean snapshotting
+    ) {
+        WriteRollingFileP<String> p = new WriteRollingFileP<>(directory.toString(), Object::toString, UTF_8,
+                maxFileSize, rollIntervalMillis, compress);
+        p.init(new TestOutbox(new int[] {1}, 2), new TestProcessorContext().setSnapshottingEnabled(snapshotting));
+        return p;
+    }
+
+    private static void process(WriteRollingFileP<String> p, String... items) {
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(Arrays.asList(items));
+        p.process(0, inbox);
+        assertTrue(inbox.isEmpty());
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(f -> f.getFileName().toString()).sorted().collect(toList());
+        }
+    }
+
+    private static List<String> readLines(Path file, boolean compressed) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(compressed
+                ? new GZIPInputStream(Files.newInputStream(file))
+                : Files.newInputStream(file), UTF_8))) {
+            return reader.lines().collect(toList());
+        }
+    }
+}
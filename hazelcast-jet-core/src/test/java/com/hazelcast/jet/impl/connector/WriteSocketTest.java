@@ -35,6 +35,8 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.jet.core.Edge.between;
@@ -44,6 +46,7 @@ import static com.hazelcast.jet.impl.util.Util.uncheckRun;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.IntStream.range;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -73,14 +76,57 @@ public class WriteSocketTest extends JetTestSupport {
         Processor p = writeSocketP("localhost", serverSocket.getLocalPort(), Object::toString, UTF_8)
                 .get(1).iterator().next();
         p.init(mock(Outbox.class), new TestProcessorContext());
-        p.process(0, inbox);
-        p.complete();
+        // the processor is cooperative, it might need more calls to write everything
+        assertTrueEventually(() -> {
+            p.process(0, inbox);
+            assertTrue(inbox.isEmpty());
+        });
+        assertTrueEventually(() -> assertTrue(p.complete()));
         assertTrueEventually(() -> assertTrue(counter.get() >= ITEM_COUNT));
         // wait a little to check, if the counter doesn't get too far
         Thread.sleep(500);
         assertEquals(ITEM_COUNT, counter.get());
     }
 
+    @Test
+    public void when_socketDoesNotAccept_then_snapshotNotDone() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch startReading = new CountDownLatch(1);
+        ServerSocket serverSocket = new ServerSocket(0);
+        new Thread(() -> uncheckRun(() -> {
+            Socket socket = serverSocket.accept();
+            serverSocket.close();
+            startReading.await();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+                while (reader.readLine() != null) {
+                    counter.incrementAndGet();
+                }
+            }
+        })).start();
+
+        // more than the socket buffers of both sides can hold
+        int itemCount = 20_000;
+        String item = String.join("", Collections.nCopies(1000, "x"));
+        TestInbox inbox = new TestInbox();
+        range(0, itemCount).forEach(i -> inbox.add(item));
+
+        Processor p = writeSocketP("localhost", serverSocket.getLocalPort(), Object::toString, UTF_8)
+                .get(1).iterator().next();
+        p.init(mock(Outbox.class), new TestProcessorContext());
+        p.process(0, inbox);
+        assertFalse(p.saveToSnapshot());
+
+        startReading.countDown();
+        assertTrueEventually(() -> {
+            p.process(0, inbox);
+            assertTrue(inbox.isEmpty());
+            assertTrue(p.saveToSnapshot());
+        });
+        // the snapshot is done without complete(), all items must have been sent
+        assertTrueEventually(() -> assertEquals(itemCount, counter.get()));
+        p.complete();
+    }
+
     @Test
     public void integrationTest() throws Exception {
         AtomicInteger counter = new AtomicInteger();
@@ -51,7 +51,8 @@ public class ExecutionSerializerHooksTest {
         return Arrays.asList(
                 new SnapshotBarrier(17L),
                 new BroadcastEntry<>("key", "value"),
-                new BroadcastKeyReference<>(17L, "broadcast-key")
+                new BroadcastKeyReference<>(17L, "broadcast-key"),
+                new LatencyMarker(17L)
         );
     }
 
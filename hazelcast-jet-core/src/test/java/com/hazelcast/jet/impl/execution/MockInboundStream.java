@@ -66,7 +66,7 @@ public class MockInboundStream implements InboundEdgeStream {
             if (item == DONE_ITEM) {
                 done = true;
                 break;
-            } else if (item instanceof SnapshotBarrier) {
+            } else if (item instanceof SnapshotBarrier || item instanceof LatencyMarker) {
                 dest.accept(item);
                 dataIndex++;
                 break;
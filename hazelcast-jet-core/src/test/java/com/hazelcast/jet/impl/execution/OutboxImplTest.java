@@ -16,14 +16,19 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.spi.serialization.SerializationService;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.function.Predicate;
 
+import static com.hazelcast.jet.impl.execution.OutboxImpl.ITEM_SIZE_SAMPLING_INTERVAL;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -63,6 +68,64 @@ public class OutboxImplTest {
         do_when_offer_then_rateLimited(e -> outbox.offerToEdgesAndSnapshot(e));
     }
 
+    @Test
+    public void when_itemsAndBroadcastItemsOffered_then_onlyItemsCounted() {
+        outbox.offer(1);
+        outbox.offer(0, 2);
+        outbox.offerToSnapshot("key", "value");
+        outbox.resetBatch();
+        outbox.offerToEdgesAndSnapshot(new SnapshotBarrier(0));
+
+        assertEquals(2, outbox.emittedCount());
+    }
+
+    @Test
+    public void when_samplingNotEnabled_then_itemSizesUnknown() {
+        OutboxImpl outbox = new OutboxImpl(new OutboundCollector[] {e -> DONE},
+                false, new ProgressTracker(), new DefaultSerializationServiceBuilder().build(), 1);
+
+        assertTrue(outbox.offer("a"));
+
+        assertEquals(-1, outbox.averageItemSizes()[0]);
+    }
+
+    @Test
+    public void when_offersRejected_then_samplingRateUnchanged() {
+        // the collector rejects every other offer, so each item is offered twice
+        boolean[] accept = {false};
+        OutboxImpl outbox = new OutboxImpl(new OutboundCollector[] {e -> (accept[0] = !accept[0]) ? DONE : NO_PROGRESS},
+                false, new ProgressTracker(), new DefaultSerializationServiceBuilder().build(), 1);
+        outbox.enableItemSizeSampling();
+        String shortItem = "a";
+        String longItem = String.join("", Collections.nCopies(100, "a"));
+        for (int i = 0; i <= ITEM_SIZE_SAMPLING_INTERVAL; i++) {
+            // only the first and the (interval + 1)th item are sampled
+            String item = i % ITEM_SIZE_SAMPLING_INTERVAL == 0 ? shortItem : longItem;
+            do {
+                outbox.resetBatch();
+            } while (!outbox.offer(item));
+        }
+
+        long shortItemSize = new DefaultSerializationServiceBuilder().build().toData(shortItem).totalSize();
+        assertEquals(shortItemSize, outbox.averageItemSizes()[0]);
+    }
+
+    @Test
+    public void when_collectorRefuses_then_refusedOffersCounted() {
+        boolean[] accept = {false};
+        OutboxImpl outbox = new OutboxImpl(new OutboundCollector[] {e -> DONE, e -> accept[0] ? DONE : NO_PROGRESS},
+                false, new ProgressTracker(), mock(SerializationService.class), 10);
+        outbox.resetBatch();
+
+        assertFalse(outbox.offer(1));
+        assertFalse(outbox.offer(1));
+        accept[0] = true;
+        assertTrue(outbox.offer(1));
+
+        assertEquals(0, outbox.refusedOffers(0));
+        assertEquals(2, outbox.refusedOffers(1));
+    }
+
     private void do_when_offer_then_rateLimited(Predicate<Object> offerF) {
         assertTrue(offerF.test(1));
         assertTrue(offerF.test(2));
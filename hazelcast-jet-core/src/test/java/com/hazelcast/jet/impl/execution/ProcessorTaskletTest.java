@@ -43,6 +43,7 @@ import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -113,6 +114,32 @@ public class ProcessorTaskletTest {
         assertEquals(mockInput, outstream2.getBuffer());
     }
 
+    @Test
+    public void when_latencyMarkerReceived_then_recordedAndForwardedOnce() {
+        // Given
+        LatencyMarker marker = new LatencyMarker(LatencyMarker.now() - MILLISECONDS.toNanos(1));
+        List<Object> input = new ArrayList<>(mockInput.subList(0, 4));
+        input.add(marker);
+        input.addAll(mockInput.subList(4, 10));
+        input.add(new LatencyMarker(marker.creationTime()));
+        input.add(DONE_ITEM);
+        MockInboundStream instream1 = new MockInboundStream(0, input, input.size());
+        MockOutboundStream outstream1 = new MockOutboundStream(0);
+        instreams.add(instream1);
+        outstreams.add(outstream1);
+        ProcessorTasklet tasklet = createTasklet();
+        tasklet.setLatencyTrackingInterval(1000);
+
+        // When
+        callUntil(tasklet, DONE);
+
+        // Then
+        input.remove(input.size() - 2);
+        assertEquals(input, outstream1.getBuffer());
+        assertEquals(2, tasklet.latencyHistogram().count());
+        assertTrue(tasklet.latencyHistogram().max() >= MILLISECONDS.toNanos(1));
+    }
+
     @Test
     public void when_instreamChunked_then_processAllEventually() {
         // Given
@@ -50,6 +50,7 @@ import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -168,6 +169,26 @@ public class ProcessorTaskletTest_Snapshots {
         assertEquals(asList(0 , 1, barrier(0)), getSnapshotBufferValues());
     }
 
+    @Test
+    public void when_snapshotCompleted_then_processorNotifiedBeforeNextSnapshot() {
+        // Given
+        MockInboundStream instream1 = new MockInboundStream(0, singletonList(barrier(0)), 1024);
+        MockOutboundStream outstream1 = new MockOutboundStream(0);
+        instreams.add(instream1);
+        outstreams.add(outstream1);
+        Tasklet tasklet = createTasklet(ProcessingGuarantee.EXACTLY_ONCE);
+        callUntil(tasklet, NO_PROGRESS);
+        assertEquals(singletonList(barrier(0)), outstream1.getBuffer());
+
+        // When
+        snapshotContext.snapshotCompleted(0, false);
+        instream1.push(barrier(1));
+        callUntil(tasklet, NO_PROGRESS);
+
+        // Then
+        assertEquals(asList(barrier(0), "snapshotFailed", barrier(1)), outstream1.getBuffer());
+    }
+
     @Test
     public void when_snapshotRestoreInput_then_restoreMethodsCalled() {
         Entry<String, String> ssEntry1 = entry("k1", "v1");
@@ -295,5 +316,10 @@ public class ProcessorTaskletTest_Snapshots {
         public boolean finishSnapshotRestore() {
             return outbox.offer("finishRestore");
         }
+
+        @Override
+        public boolean onSnapshotCompleted(boolean success) {
+            return outbox.offer(success ? "snapshotSucceeded" : "snapshotFailed");
+        }
     }
 }
@@ -61,6 +61,8 @@ import static org.mockito.Mockito.mock;
 @RunWith(HazelcastSerialClassRunner.class)
 public class TaskletExecutionServiceTest extends JetTestSupport {
 
+    private static final long JOB_ID = 1;
+
     @Rule
     public final ExpectedException exceptionRule = ExpectedException.none();
 
@@ -87,7 +89,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet().blocking();
 
         // When
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
 
         // Then
         t.assertDone();
@@ -99,7 +101,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet();
 
         // When
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
 
         // Then
         t.assertDone();
@@ -111,7 +113,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet().initFails();
 
         // When
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
 
         // Then
         t.assertDone();
@@ -123,7 +125,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet().blocking().initFails();
 
         // When - Then
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
     }
 
     @Test(expected = CompletionException.class)
@@ -132,7 +134,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet().callFails();
 
         // When - Then
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
     }
 
     @Test(expected = CompletionException.class)
@@ -141,21 +143,21 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         final MockTasklet t = new MockTasklet().blocking().callFails();
 
         // When - Then
-        es.execute(singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, singletonList(t), doneCallback, classLoaderMock).toCompletableFuture().join();
     }
 
     @Test
     public void when_shutdown_then_submitFails() {
         // Given
-        es.execute(singletonList(new MockTasklet()), doneCallback, classLoaderMock);
-        es.execute(singletonList(new MockTasklet()), doneCallback, classLoaderMock);
+        es.execute(JOB_ID, singletonList(new MockTasklet()), doneCallback, classLoaderMock);
+        es.execute(JOB_ID, singletonList(new MockTasklet()), doneCallback, classLoaderMock);
 
         // When
         es.shutdown();
 
         // Then
         exceptionRule.expect(IllegalStateException.class);
-        es.execute(singletonList(new MockTasklet()), doneCallback, classLoaderMock);
+        es.execute(JOB_ID, singletonList(new MockTasklet()), doneCallback, classLoaderMock);
     }
 
     @Test
@@ -166,7 +168,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
                 new MockTasklet().callsBeforeDone(10));
 
         // When
-        es.execute(tasklets, doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, tasklets, doneCallback, classLoaderMock).toCompletableFuture().join();
 
         // Then
         tasklets.forEach(MockTasklet::assertDone);
@@ -180,7 +182,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
                       .limit(100).collect(toList());
 
         // When
-        es.execute(tasklets, doneCallback, classLoaderMock).toCompletableFuture().join();
+        es.execute(JOB_ID, tasklets, doneCallback, classLoaderMock).toCompletableFuture().join();
 
         // Then
         tasklets.forEach(MockTasklet::assertDone);
@@ -194,7 +196,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
                       .limit(100).collect(toList());
 
         // When
-        CompletableFuture<Void> future = es.execute(tasklets, doneCallback, classLoaderMock).toCompletableFuture();
+        CompletableFuture<Void> future = es.execute(JOB_ID, tasklets, doneCallback, classLoaderMock).toCompletableFuture();
         future.cancel(true);
 
         // Then
@@ -212,7 +214,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
                       .limit(100).collect(toList());
 
         // When
-        CompletableFuture<Void> future = es.execute(tasklets, doneCallback, classLoaderMock).toCompletableFuture();
+        CompletableFuture<Void> future = es.execute(JOB_ID, tasklets, doneCallback, classLoaderMock).toCompletableFuture();
         future.cancel(true);
 
         // Then
@@ -230,7 +232,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
                       .limit(100).collect(toList());
 
         // When
-        CompletableFuture<Void> future = es.execute(tasklets, doneCallback, classLoaderMock).toCompletableFuture();
+        CompletableFuture<Void> future = es.execute(JOB_ID, tasklets, doneCallback, classLoaderMock).toCompletableFuture();
         future.cancel(true);
 
         // Then
@@ -250,7 +252,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         CompletableFuture<Void> doneFuture = new CompletableFuture<Void>();
 
         // When
-        CompletableFuture<Void> future = es.execute(tasklets, f -> doneFuture.complete(null), classLoaderMock)
+        CompletableFuture<Void> future = es.execute(JOB_ID, tasklets, f -> doneFuture.complete(null), classLoaderMock)
                                            .toCompletableFuture();
 
         future.cancel(true);
@@ -277,8 +279,10 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         assertTrue(t1.isCooperative());
 
         // When
-        CompletableFuture<Void> f1 = es.execute(singletonList(t1), doneCallback, classLoaderMock).toCompletableFuture();
-        CompletableFuture<Void> f2 = es.execute(singletonList(t2), doneCallback, classLoaderMock).toCompletableFuture();
+        CompletableFuture<Void> f1 = es.execute(JOB_ID, singletonList(t1), doneCallback, classLoaderMock)
+                                        .toCompletableFuture();
+        CompletableFuture<Void> f2 = es.execute(JOB_ID, singletonList(t2), doneCallback, classLoaderMock)
+                                        .toCompletableFuture();
         f1.join();
         f2.join();
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.impl.execution.TaskletExecutionService.JobFuture;
+import com.hazelcast.jet.impl.execution.TaskletExecutionService.TaskletTracker;
+import com.hazelcast.jet.impl.execution.TaskletExecutionServiceTest.MockTasklet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class TaskletProfilerTest {
+
+    private final List<List<TaskletTracker>> trackersOfWorker = asList(new ArrayList<>(), new ArrayList<>());
+    private final TaskletProfiler profiler = new TaskletProfiler(2, 1, trackersOfWorker::get);
+
+    @Test
+    public void when_workersSampled_then_busySamplesCountedPerJob() {
+        TaskletTracker tracker1 = tracker(1);
+        TaskletTracker tracker2 = tracker(2);
+
+        profiler.beforeCall(0, tracker1);
+        profiler.beforeCall(1, tracker2);
+        profiler.sample();
+        profiler.beforeIdle(1);
+        profiler.sample();
+        profiler.beforeIdle(0);
+        profiler.sample();
+
+        assertEquals("MockTasklet 2\n", profiler.dump(1));
+        assertEquals("MockTasklet 1\n", profiler.dump(2));
+        assertEquals("", profiler.dump(3));
+    }
+
+    @Test
+    public void when_workerIdle_then_idleSampleForEachRunningJobOnWorker() {
+        TaskletTracker tracker1 = tracker(1);
+        TaskletTracker tracker2 = tracker(2);
+        trackersOfWorker.get(0).add(tracker1);
+        trackersOfWorker.get(1).addAll(asList(tracker(1), tracker2, tracker(3)));
+        profiler.beforeCall(0, tracker1);
+        profiler.beforeIdle(1);
+        profiler.sample();
+        tracker2.jobFuture.complete(null);
+        profiler.sample();
+
+        assertEquals("MockTasklet 2\nidle 2\n", profiler.dump(1));
+        assertEquals("idle 1\n", profiler.dump(2));
+        assertEquals("idle 2\n", profiler.dump(3));
+    }
+
+    @Test
+    public void when_manyJobsCompleted_then_oldestProfilesEvicted() {
+        for (long jobId = 0; jobId < 20; jobId++) {
+            profiler.beforeCall(0, tracker(jobId));
+            profiler.sample();
+            profiler.jobCompleted(jobId);
+        }
+
+        assertEquals("", profiler.dump(0));
+        assertTrue(profiler.dump(19).startsWith("MockTasklet"));
+    }
+
+    private static TaskletTracker tracker(long jobId) {
+        return new TaskletTracker(new MockTasklet(), new JobFuture(jobId, 1, null), null);
+    }
+}
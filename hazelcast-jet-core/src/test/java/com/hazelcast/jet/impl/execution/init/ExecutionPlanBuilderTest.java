@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution.init;
+
+import com.hazelcast.jet.config.EdgeConfig;
+import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.Edge;
+import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.jet.core.Edge.between;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class ExecutionPlanBuilderTest {
+
+    @Test
+    public void when_busyTimesRecorded_then_parallelismProportional() {
+        // Given
+        DAG dag = new DAG();
+        Vertex source = dag.newVertex("source", Processors.noopP()).localParallelism(1);
+        Vertex cheap = dag.newVertex("cheap", Processors.noopP());
+        Vertex heavy = dag.newVertex("heavy", Processors.noopP());
+        Vertex unknown = dag.newVertex("unknown", Processors.noopP());
+        dag.edge(between(source, cheap))
+           .edge(between(cheap, heavy))
+           .edge(between(heavy, unknown));
+        Map<String, Long> busyNanos = new HashMap<>();
+        busyNanos.put("source", 1000L);
+        busyNanos.put("cheap", 10L);
+        busyNanos.put("heavy", 800L);
+
+        // When
+        ExecutionPlanBuilder.adjustLocalParallelism(dag, busyNanos, 8);
+
+        // Then
+        assertEquals(1, source.getLocalParallelism());
+        assertEquals(1, cheap.getLocalParallelism());
+        assertEquals(8, heavy.getLocalParallelism());
+        assertEquals(-1, unknown.getLocalParallelism());
+    }
+
+    @Test
+    public void when_isolatedEdge_then_parallelismUnchanged() {
+        // Given
+        DAG dag = new DAG();
+        Vertex a = dag.newVertex("a", Processors.noopP());
+        Vertex b = dag.newVertex("b", Processors.noopP());
+        Vertex c = dag.newVertex("c", Processors.noopP());
+        dag.edge(between(a, b).isolated())
+           .edge(between(b, c));
+        Map<String, Long> busyNanos = new HashMap<>();
+        busyNanos.put("a", 100L);
+        busyNanos.put("b", 100L);
+        busyNanos.put("c", 50L);
+
+        // When
+        ExecutionPlanBuilder.adjustLocalParallelism(dag, busyNanos, 4);
+
+        // Then
+        assertEquals(-1, a.getLocalParallelism());
+        assertEquals(-1, b.getLocalParallelism());
+        assertEquals(4, c.getLocalParallelism());
+    }
+
+    @Test
+    public void when_itemSizesRecorded_then_queuesSizedToBudget() {
+        // Given
+        DAG dag = new DAG();
+        Vertex source = dag.newVertex("source", Processors.noopP()).localParallelism(1);
+        Vertex small = dag.newVertex("small", Processors.noopP()).localParallelism(2);
+        Vertex large = dag.newVertex("large", Processors.noopP()).localParallelism(2);
+        Vertex sink = dag.newVertex("sink", Processors.noopP()).localParallelism(2);
+        Edge smallEdge = between(source, small);
+        Edge largeEdge = between(small, large);
+        Edge configuredEdge = between(large, sink).setConfig(new EdgeConfig().setQueueSize(16));
+        dag.edge(smallEdge)
+           .edge(largeEdge)
+           .edge(configuredEdge);
+        Map<String, long[]> itemSizes = new HashMap<>();
+        itemSizes.put("source", new long[] {16});
+        itemSizes.put("small", new long[] {1000});
+        itemSizes.put("large", new long[] {100});
+
+        // When
+        ExecutionPlanBuilder.adjustQueueSizes(dag, itemSizes, 4_000_000, 4, new EdgeConfig());
+
+        // Then
+        // 2M bytes per edge: 2 queues of 16-byte items and 4 queues of 1000-byte items
+        assertEquals(32768, smallEdge.getConfig().getQueueSize());
+        assertEquals(256, largeEdge.getConfig().getQueueSize());
+        assertEquals(16, configuredEdge.getConfig().getQueueSize());
+    }
+
+    @Test
+    public void when_noItemSizes_then_queuesUnchanged() {
+        // Given
+        DAG dag = new DAG();
+        Vertex a = dag.newVertex("a", Processors.noopP());
+        Vertex b = dag.newVertex("b", Processors.noopP());
+        Edge edge = between(a, b);
+        dag.edge(edge);
+        Map<String, long[]> itemSizes = new HashMap<>();
+        itemSizes.put("a", new long[] {-1});
+
+        // When
+        ExecutionPlanBuilder.adjustQueueSizes(dag, itemSizes, 1_000_000, 4, new EdgeConfig());
+
+        // Then
+        assertNull(edge.getConfig());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.core.Partitioner;
+import com.hazelcast.partition.strategy.StringPartitioningStrategy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.HashUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+import static com.hazelcast.jet.datamodel.Tuple3.tuple3;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class FastPartitioningTest {
+
+    private static final int PARTITION_COUNT = 271;
+
+    private final InternalSerializationService serializationService =
+            new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void when_supportedKeys_then_sameAsHazelcastPartitioning() {
+        Random random = new Random();
+        List<Object> keys = new ArrayList<>(asList(
+                "", "a", "ab", "abc", "abcd", "abcde", "\u00e9\u20ac\u0000\uffff", Integer.MIN_VALUE, 0, -1L,
+                Long.MAX_VALUE, new byte[0], (short) -3, (byte) 7, 'x', false, true, -0.0d, Double.NaN, 1.25f,
+                tuple2(1, "one"), tuple2(null, null), tuple3("a", 2L, tuple2('c', new byte[] {4}))
+        ));
+        for (int i = 0; i < 1000; i++) {
+            keys.add(random.nextInt());
+            keys.add(random.nextLong());
+            keys.add(Long.toHexString(random.nextLong()) + (char) random.nextInt(Character.MAX_VALUE));
+        }
+
+        for (Object key : keys) {
+            int expected = HashUtil.hashToIndex(serializationService.toData(key).getPartitionHash(), PARTITION_COUNT);
+            assertEquals("partition of " + key, expected, FastPartitioning.getPartition(key, PARTITION_COUNT));
+        }
+    }
+
+    @Test
+    public void when_stringPartitioningStrategy_then_defaultPartitionerAgreesWithIt() {
+        PartitioningStrategy strategy = new StringPartitioningStrategy();
+        Partitioner<Object> partitioner = Partitioner.defaultPartitioner();
+        partitioner.init(key -> HashUtil.hashToIndex(
+                serializationService.toData(key, strategy).getPartitionHash(), PARTITION_COUNT));
+
+        assertEquals(partitioner.getPartition("base", PARTITION_COUNT),
+                partitioner.getPartition("key@base", PARTITION_COUNT));
+        assertEquals(partitioner.getPartition("other", PARTITION_COUNT),
+                partitioner.getPartition("some@other", PARTITION_COUNT));
+    }
+
+    @Test
+    public void when_unsupportedKey_then_unsupported() {
+        assertEquals(FastPartitioning.UNSUPPORTED, FastPartitioning.getPartition(new Object(), PARTITION_COUNT));
+        assertEquals(FastPartitioning.UNSUPPORTED,
+                FastPartitioning.getPartition(tuple2("a", new Object()), PARTITION_COUNT));
+    }
+}
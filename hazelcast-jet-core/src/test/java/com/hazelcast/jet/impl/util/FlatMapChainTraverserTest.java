@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.Traverser.over;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class FlatMapChainTraverserTest {
+
+    @Test
+    public void when_singleFlatMap_then_itsItemsEmitted() {
+        FlatMapChainTraverser trav = new FlatMapChainTraverser(
+                asList(null, null),
+                singletonList(o -> over(o, o)));
+
+        assertEquals(asList(1, 1), drain(trav.reset(1)));
+        assertEquals(asList(2, 2), drain(trav.reset(2)));
+    }
+
+    @Test
+    public void when_mapFunctionsReturnNull_then_itemsDropped() {
+        Function<Object, Object> dropOdd = o -> (int) o % 2 == 0 ? o : null;
+        Function<Object, Object> dropNegative = o -> (int) o >= 0 ? o : null;
+        FlatMapChainTraverser trav = new FlatMapChainTraverser(
+                asList(dropOdd, dropNegative),
+                singletonList(o -> over(o, -(int) o, (int) o + 1)));
+
+        assertEquals(emptyList(), drain(trav.reset(1)));
+        assertEquals(asList(2, 3), drain(trav.reset(2)));
+    }
+
+    @Test
+    public void when_nestedFlatMaps_then_depthFirstOrder() {
+        FlatMapChainTraverser trav = new FlatMapChainTraverser(
+                asList(null, o -> (int) o * 10, null),
+                asList(o -> over(1, 2), o -> (int) o == 20 ? Traversers.<Object>empty() : over(o, (int) o + 1)));
+
+        assertEquals(asList(10, 11), drain(trav.reset("a")));
+    }
+
+    @Test
+    public void when_resetBeforeExhausted_then_previousOutputDiscarded() {
+        FlatMapChainTraverser trav = new FlatMapChainTraverser(
+                asList(null, null),
+                singletonList(o -> over(o, o)));
+
+        trav.reset(1).next();
+        assertEquals(asList(2, 2), drain(trav.reset(2)));
+    }
+
+    @Test
+    public void when_reset_then_sameInstanceReturned() {
+        FlatMapChainTraverser trav = new FlatMapChainTraverser(asList(null, null), singletonList(o -> over(o)));
+
+        assertSame(trav, trav.reset(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_mapFunctionCountWrong_then_fail() {
+        new FlatMapChainTraverser(singletonList(null), singletonList(o -> over(o)));
+    }
+
+    private static List<Object> drain(Traverser<Object> trav) {
+        List<Object> result = new ArrayList<>();
+        for (Object item; (item = trav.next()) != null; ) {
+            result.add(item);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.core.JobMetrics;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class JobMetricsUtilTest {
+
+    @Test
+    public void when_merged_then_countersSummedAndGaugesCombined() {
+        JobMetrics m1 = metrics("map.tasklet.itemsIn", 10, "map.inbound0.lastWatermark", 100,
+                "map.inbound0.watermarkLagMillis", 5, "map.latencyP99Micros", 40, "map.latencyCount", 3);
+        JobMetrics m2 = metrics("map.tasklet.itemsIn", 20, "map.inbound0.lastWatermark", 80,
+                "map.inbound0.watermarkLagMillis", 7, "map.latencyP99Micros", 30, "map.latencyCount", 4);
+
+        JobMetrics merged = JobMetricsUtil.merge(m1, m2);
+
+        assertEquals(Long.valueOf(30), merged.get("map.tasklet.itemsIn"));
+        assertEquals(Long.valueOf(80), merged.get("map.inbound0.lastWatermark"));
+        assertEquals(Long.valueOf(7), merged.get("map.inbound0.watermarkLagMillis"));
+        assertEquals(Long.valueOf(40), merged.get("map.latencyP99Micros"));
+        assertEquals(Long.valueOf(7), merged.get("map.latencyCount"));
+    }
+
+    @Test
+    public void when_profilesMerged_then_samplesSummed() {
+        // the vertex name ends like a gauge, it must not be merged as one
+        JobMetrics m1 = metrics("profile.a.watermarkLagMillis;MapP;PROCESS_INBOX", 2, "profile.idle", 5);
+        JobMetrics m2 = metrics("profile.a.watermarkLagMillis;MapP;PROCESS_INBOX", 3, "profile.idle", 1);
+
+        JobMetrics merged = JobMetricsUtil.merge(m1, m2);
+
+        assertEquals("a.watermarkLagMillis;MapP;PROCESS_INBOX 5\nidle 6\n", merged.profile());
+    }
+
+    @Test
+    public void when_mergedWithEmpty_then_same() {
+        JobMetrics m = metrics("snapshot.lastSnapshotBytes", 1);
+
+        assertSame(m, JobMetricsUtil.merge(JobMetrics.empty(), m));
+        assertSame(m, JobMetricsUtil.merge(m, JobMetrics.empty()));
+    }
+
+    @Test
+    public void when_serialized_then_equal() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        JobMetrics m = metrics("map.tasklet.itemsIn", 1, "map.tasklet.itemsOut", 2, "mapper.tasklet.busyNanos", 3,
+                "m", 4, "snapshot.completedSnapshots", Long.MAX_VALUE);
+
+        JobMetrics deserialized = serializationService.toObject(serializationService.toData(m));
+
+        assertEquals(m, deserialized);
+        assertEquals(m.toMap().keySet().toString(), deserialized.toMap().keySet().toString());
+    }
+
+    private static JobMetrics metrics(Object... namesAndValues) {
+        Map<String, Long> map = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put((String) namesAndValues[i], ((Number) namesAndValues[i + 1]).longValue());
+        }
+        return JobMetrics.of(map);
+    }
+}
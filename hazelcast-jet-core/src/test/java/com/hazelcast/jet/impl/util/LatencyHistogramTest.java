@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void when_empty_then_zeros() {
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    public void when_smallValues_then_exact() {
+        for (int i = 0; i < 32; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(32, histogram.count());
+        assertEquals(31, histogram.max());
+        assertEquals(15, histogram.valueAtPercentile(50));
+        assertEquals(0, histogram.valueAtPercentile(0));
+    }
+
+    @Test
+    public void when_largeValues_then_withinRelativeError() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long reported = LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(value));
+            assertTrue("value=" + value + ", reported=" + reported,
+                    reported >= value && reported - value <= value / 16);
+        }
+        long maxReported = LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, maxReported);
+    }
+
+    @Test
+    public void when_uniformValues_then_percentilesApproximate() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.max());
+        assertApproximately(500, histogram.valueAtPercentile(50));
+        assertApproximately(990, histogram.valueAtPercentile(99));
+        assertEquals(1000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void when_add_then_merged() {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(10);
+        other.record(1_000_000);
+        other.record(-5);
+
+        histogram.add(other);
+
+        assertEquals(3, histogram.count());
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(0, histogram.valueAtPercentile(10));
+        assertEquals(10, histogram.valueAtPercentile(50));
+    }
+
+    private static void assertApproximately(long expected, long actual) {
+        assertTrue("expected=" + expected + ", actual=" + actual,
+                actual >= expected && actual - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.jet.Traverser.over;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class MapFilterTraverserTest {
+
+    @Test
+    public void when_mapAndFilterChained_then_appliedInOrder() {
+        Traverser<String> trav = over(1, 2, 3, 4, 5)
+                .filter(i -> i != 2)
+                .map(i -> i * 10)
+                .filter(i -> i < 50)
+                .map(i -> "x" + i);
+
+        assertEquals("x10", trav.next());
+        assertEquals("x30", trav.next());
+        assertEquals("x40", trav.next());
+        assertNull(trav.next());
+        assertNull(trav.next());
+    }
+
+    @Test
+    public void when_chained_then_wrappedTraverserSharedNotWrapped() {
+        Traverser<Integer> source = over(1, 2);
+        MapFilterTraverser<?, ?> mapped = (MapFilterTraverser<?, ?>) source.map(i -> i + 1);
+        Traverser<Integer> fused = mapped.<Integer>map(i -> (Integer) i * 2).filter(i -> i > 0);
+
+        assertEquals(MapFilterTraverser.class, fused.getClass());
+        assertEquals(4, (int) fused.next());
+        // the fused traverser consumes the source directly, not through the first layer
+        assertEquals(6, (int) fused.next());
+        assertNull(mapped.next());
+    }
+
+    @Test
+    public void when_mapperReturnsNull_then_nullReturnedAndTraversalContinues() {
+        Traverser<Integer> trav = over(1, 2, 3)
+                .map(i -> i == 2 ? null : i)
+                .filter(i -> true);
+
+        assertEquals(1, (int) trav.next());
+        assertNull(trav.next());
+        assertEquals(3, (int) trav.next());
+        assertNull(trav.next());
+    }
+
+    @Test
+    public void when_filterRejectsItem_then_itemSkipped() {
+        Object item = new Object();
+        Traverser<Object> trav = over(item, new Object()).filter(o -> o == item);
+
+        assertSame(item, trav.next());
+        assertNull(trav.next());
+    }
+}
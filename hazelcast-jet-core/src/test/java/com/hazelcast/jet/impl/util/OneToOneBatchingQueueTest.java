@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class OneToOneBatchingQueueTest {
+
+    private final OneToOneBatchingQueue<Object> queue = new OneToOneBatchingQueue<>(4);
+
+    @Test
+    public void when_offerAllBeyondCapacity_then_onlyCapacityAdded() {
+        // When
+        int added = queue.offerAll(new Object[] {1, 2, 3, 4, 5, 6}, 6);
+
+        // Then
+        assertEquals(4, added);
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse(queue.offer(7));
+        assertEquals(1, queue.poll());
+        assertEquals(1, queue.offerAll(new Object[] {5, 6}, 2));
+    }
+
+    @Test
+    public void when_wrapsAround_then_itemsInOrder() {
+        List<Object> drained = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // When
+            assertEquals(3, queue.offerAll(new Object[] {i, i + 1, i + 2}, 3));
+            queue.drainTo(drained, Integer.MAX_VALUE);
+
+            // Then
+            assertEquals(asList(i, i + 1, i + 2), drained);
+            assertTrue(queue.isEmpty());
+            drained.clear();
+        }
+    }
+
+    @Test
+    public void when_drainHandlerReturnsFalse_then_thatItemRemoved() {
+        // Given
+        queue.offerAll(new Object[] {1, 2, 3}, 3);
+        List<Object> drained = new ArrayList<>();
+
+        // When
+        int count = queue.drain(item -> {
+            drained.add(item);
+            return !item.equals(2);
+        });
+
+        // Then
+        assertEquals(2, count);
+        assertEquals(asList(1, 2), drained);
+        assertEquals(3, queue.peek());
+        assertEquals(3, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void when_producerAndConsumerThreads_then_allItemsReceivedInOrder() throws Exception {
+        OneToOneBatchingQueue<Object> q = new OneToOneBatchingQueue<>(64);
+        int itemCount = 100_000;
+        Future<?> producer = new FutureTask<>(() -> {
+            Object[] batch = new Object[10];
+            for (int next = 0; next < itemCount; ) {
+                int count = Math.min(batch.length, itemCount - next);
+                for (int i = 0; i < count; i++) {
+                    batch[i] = next + i;
+                }
+                next += q.offerAll(batch, count);
+            }
+            return null;
+        });
+        new Thread((Runnable) producer).start();
+
+        int[] expected = {0};
+        while (expected[0] < itemCount) {
+            q.drain(item -> {
+                assertEquals(expected[0]++, item);
+                return true;
+            });
+        }
+        producer.get();
+        assertTrue(q.isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.core.WatermarkEmissionPolicy.suppressDuplicates;
+import static com.hazelcast.jet.core.WatermarkGenerationParams.NO_IDLE_TIMEOUT;
+import static com.hazelcast.jet.core.WatermarkGenerationParams.wmGenParams;
+import static com.hazelcast.jet.core.WatermarkPolicies.withFixedLag;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class WatermarkSourceUtilTest {
+
+    private static final long IDLE_TIMEOUT = 100;
+
+    private WatermarkSourceUtil<Long> wsu;
+
+    @Before
+    public void setup() {
+        wsu = new WatermarkSourceUtil<>(wmGenParams(Long::longValue, withFixedLag(0), suppressDuplicates(), IDLE_TIMEOUT));
+        wsu.increasePartitionCount(0, 2);
+    }
+
+    @Test
+    public void when_onlyOnePartitionHasEvents_then_noWatermark() {
+        assertEquals(singletonList(10L), drain(wsu.handleEvent(0, 10L, 0)));
+        assertEquals(singletonList(11L), drain(wsu.handleEvent(0, 11L, 0)));
+        assertEquals(emptyList(), drain(wsu.handleNoEvent(0)));
+    }
+
+    @Test
+    public void when_bothPartitionsHaveEvents_then_minWatermarkEmitted() {
+        drain(wsu.handleEvent(0, 10L, 0));
+        assertEquals(asList(wm(8), 8L), drain(wsu.handleEvent(0, 8L, 1)));
+        assertEquals(asList(wm(9), 9L), drain(wsu.handleEvent(0, 9L, 1)));
+        // partition 0 is now the minimum
+        assertEquals(asList(wm(10), 20L), drain(wsu.handleEvent(0, 20L, 1)));
+    }
+
+    @Test
+    public void when_eventBehindEmittedWatermark_then_dropped() {
+        drain(wsu.handleEvent(0, 10L, 0));
+        drain(wsu.handleEvent(0, 10L, 1));
+        // late with respect to the emitted watermark
+        assertEquals(emptyList(), drain(wsu.handleEvent(0, 9L, 0)));
+        assertEquals(1, wsu.lateEventCount());
+    }
+
+    @Test
+    public void when_partitionIdle_then_excludedFromWatermark() {
+        drain(wsu.handleEvent(0, 10L, 0));
+        long afterIdle = MILLISECONDS.toNanos(IDLE_TIMEOUT);
+        // partition 1 never had an event and is now idle
+        assertEquals(asList(wm(20), 20L), drain(wsu.handleEvent(afterIdle, 20L, 0)));
+
+        // partition 1 is active again
+        assertEquals(singletonList(25L), drain(wsu.handleEvent(afterIdle, 25L, 1)));
+        assertEquals(asList(wm(25), 30L), drain(wsu.handleEvent(afterIdle, 30L, 0)));
+        assertEquals(asList(wm(26), 26L), drain(wsu.handleEvent(afterIdle, 26L, 1)));
+    }
+
+    @Test
+    public void when_allPartitionsIdle_then_watermarkHeld() {
+        drain(wsu.handleEvent(0, 10L, 0));
+        drain(wsu.handleEvent(0, 12L, 1));
+        assertEquals(emptyList(), drain(wsu.handleNoEvent(MILLISECONDS.toNanos(IDLE_TIMEOUT))));
+    }
+
+    @Test
+    public void when_noIdleTimeout_then_neverIdle() {
+        wsu = new WatermarkSourceUtil<>(wmGenParams(Long::longValue, withFixedLag(0), suppressDuplicates(),
+                NO_IDLE_TIMEOUT));
+        wsu.increasePartitionCount(0, 2);
+        drain(wsu.handleEvent(0, 10L, 0));
+        assertEquals(emptyList(), drain(wsu.handleNoEvent(Long.MAX_VALUE / 2)));
+    }
+
+    @Test
+    public void when_watermarkRestored_then_partitionNotBelowIt() {
+        wsu.restoreWatermark(0, 15);
+        drain(wsu.handleEvent(0, 10L, 0));
+        assertEquals(15, wsu.getWatermark(0));
+        assertEquals(asList(wm(15), 20L), drain(wsu.handleEvent(0, 20L, 1)));
+    }
+
+    @Test
+    public void when_partitionCountIncreased_then_newPartitionHoldsWatermark() {
+        drain(wsu.handleEvent(0, 10L, 0));
+        drain(wsu.handleEvent(0, 10L, 1));
+        wsu.increasePartitionCount(0, 3);
+        assertEquals(singletonList(20L), drain(wsu.handleEvent(0, 20L, 0)));
+        assertEquals(singletonList(20L), drain(wsu.handleEvent(0, 20L, 1)));
+        assertEquals(asList(wm(20), 30L), drain(wsu.handleEvent(0, 30L, 2)));
+    }
+
+    private static Watermark wm(long timestamp) {
+        return new Watermark(timestamp);
+    }
+
+    private static List<Object> drain(Traverser<Object> traverser) {
+        List<Object> result = new ArrayList<>();
+        Object item;
+        while ((item = traverser.next()) != null) {
+            result.add(item);
+        }
+        return result;
+    }
+}
@@ -16,11 +16,16 @@
 
 package com.hazelcast.jet;
 
+import com.hazelcast.jet.core.processor.HdfsProcessors;
 import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.impl.connector.hadoop.ReadHdfsP.MetaSupplier;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Map.Entry;
 
 import static com.hazelcast.jet.impl.connector.hadoop.SerializableJobConf.asSerializable;
@@ -69,4 +74,40 @@ public final class HdfsSources {
     public static <K, V> Source<Entry<K, V>> readHdfs(@Nonnull JobConf jobConf) {
         return readHdfs(jobConf, (DistributedBiFunction<K, V, Entry<K, V>>) Util::entry);
     }
+
+    /**
+     * Returns a source that reads rows from Apache Parquet files. Only the
+     * columns in the projection are decoded and row groups whose min/max
+     * column statistics show they can't match the filter are skipped
+     * without being read. Rows which don't match the filter are dropped
+     * before they reach the mapping function.
+     * <p>
+     * The files are read the same way as in {@link #readHdfs(JobConf,
+     * DistributedBiFunction)}; the input paths are taken from the supplied
+     * {@code JobConf} and can be on HDFS or the local filesystem. The
+     * input format of the {@code jobConf} is ignored. The {@code parquet-hadoop}
+     * library must be on the classpath.
+     * <p>
+     * This source does not save any state to snapshot. If the job is restarted,
+     * all rows will be emitted again.
+     *
+     * @param jobConf          JobConf with the input paths
+     * @param projectionSchema Parquet message type with the subset of columns
+     *                         to read, for example {@code "message m { required
+     *                         int32 id; }"}, or {@code null} to read all columns
+     * @param filter           the predicate to push down to the reader, or
+     *                         {@code null} to read all rows
+     * @param mapper           mapper from the row to the emitted item
+     * @param <E> the type of the emitted item
+     */
+    @Nonnull
+    public static <E> Source<E> readParquet(
+            @Nonnull JobConf jobConf,
+            @Nullable String projectionSchema,
+            @Nullable FilterPredicate filter,
+            @Nonnull DistributedFunction<? super Group, E> mapper
+    ) {
+        return Sources.fromProcessor("readParquet",
+                HdfsProcessors.readParquetP(jobConf, projectionSchema, filter, mapper));
+    }
 }
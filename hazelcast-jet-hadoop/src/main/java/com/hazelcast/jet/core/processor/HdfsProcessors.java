@@ -23,8 +23,16 @@ import com.hazelcast.jet.impl.connector.hadoop.ReadHdfsP.MetaSupplier;
 import com.hazelcast.jet.impl.connector.hadoop.SerializableJobConf;
 import com.hazelcast.jet.impl.connector.hadoop.WriteHdfsP;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.mapred.Container;
+import org.apache.parquet.hadoop.mapred.DeprecatedParquetInputFormat;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import static com.hazelcast.jet.impl.connector.hadoop.SerializableJobConf.asSerializable;
 
@@ -48,6 +56,29 @@ public final class HdfsProcessors {
         return new MetaSupplier<>(asSerializable(jobConf), mapper);
     }
 
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.HdfsSources#readParquet(JobConf, String, FilterPredicate, DistributedFunction)}.
+     */
+    @Nonnull
+    public static <R> MetaSupplier<Void, Container<Group>, R> readParquetP(
+            @Nonnull JobConf jobConf,
+            @Nullable String projectionSchema,
+            @Nullable FilterPredicate filter,
+            @Nonnull DistributedFunction<? super Group, R> mapper
+    ) {
+        JobConf parquetConf = new JobConf(jobConf);
+        parquetConf.setInputFormat(DeprecatedParquetInputFormat.class);
+        ParquetInputFormat.setReadSupportClass(parquetConf, GroupReadSupport.class);
+        if (projectionSchema != null) {
+            parquetConf.set(ReadSupport.PARQUET_READ_SCHEMA, projectionSchema);
+        }
+        if (filter != null) {
+            ParquetInputFormat.setFilterPredicate(parquetConf, filter);
+        }
+        return readHdfsP(parquetConf, (Void k, Container<Group> v) -> mapper.apply(v.get()));
+    }
+
     /**
      * Returns a supplier of processors for
      * {@link com.hazelcast.jet.HdfsSinks#writeHdfs(JobConf, DistributedFunction, DistributedFunction)}.
@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.connector.hadoop;
 
 import com.hazelcast.core.Member;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
@@ -32,12 +33,12 @@ import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.RecordReader;
 
 import javax.annotation.Nonnull;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.net.InetAddress;
-import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -46,18 +47,27 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 import static java.util.Collections.emptyList;
 import static java.util.Comparator.comparingInt;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.mapping;
@@ -70,41 +80,212 @@ import static org.apache.hadoop.mapred.Reporter.NULL;
 /**
  * See {@link com.hazelcast.jet.core.processor.HdfsProcessors#readHdfsP(
  * org.apache.hadoop.mapred.JobConf, DistributedBiFunction)}.
+ * <p>
+ * All local processors take splits from a queue shared through the
+ * {@link Supplier}, so a processor that finishes its split early takes over
+ * the remaining ones instead of idling. While a split is being read, the
+ * next one is opened and its first records are read on a background
+ * thread.
+ * <p>
+ * Each processor exposes the number of records, bytes and splits it read
+ * as metrics while the job runs. The member-wide totals are logged when
+ * the job completes.
  */
-public final class ReadHdfsP<K, V, R> extends AbstractProcessor {
+public final class ReadHdfsP<K, V, R> extends AbstractProcessor implements Closeable {
 
-    private final Traverser<R> trav;
-    private final DistributedBiFunction<K, V, R> mapper;
+    /**
+     * The number of records read ahead from the next split while the
+     * current one is being emitted.
+     */
+    static final int PREFETCH_RECORD_COUNT = 1024;
 
-    private ReadHdfsP(@Nonnull List<RecordReader> recordReaders, @Nonnull DistributedBiFunction<K, V, R> mapper) {
-        this.trav = traverseIterable(recordReaders).flatMap(this::traverseRecordReader);
+    private final Queue<IndexedInputSplit> splits;
+    private final Function<InputSplit, RecordReader<K, V>> openReaderFn;
+    private final DistributedBiFunction<K, V, R> mapper;
+    private final ExecutorService prefetchExecutor;
+    private final ReadStats stats;
+
+    private Future<PrefetchedSplit> nextSplit;
+    private PrefetchedSplit currentSplit;
+
+    private ReadHdfsP(
+            @Nonnull Queue<IndexedInputSplit> splits,
+            @Nonnull Function<InputSplit, RecordReader<K, V>> openReaderFn,
+            @Nonnull DistributedBiFunction<K, V, R> mapper,
+            @Nonnull ExecutorService prefetchExecutor,
+            @Nonnull ReadStats stats
+    ) {
+        this.splits = splits;
+        this.openReaderFn = openReaderFn;
         this.mapper = mapper;
+        this.prefetchExecutor = prefetchExecutor;
+        this.stats = stats;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        nextSplit = prefetchNext();
     }
 
     @Override
     public boolean complete() {
-        return emitFromTraverser(trav);
+        while (true) {
+            if (currentSplit == null) {
+                if (nextSplit == null) {
+                    return true;
+                }
+                currentSplit = uncheckCall(nextSplit::get);
+                // open the following split while this one is being read
+                nextSplit = prefetchNext();
+            }
+            if (!emitFromTraverser(currentSplit)) {
+                return false;
+            }
+            currentSplit = null;
+        }
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    @Probe(name = "recordsRead")
+    public long recordsRead() {
+        return stats.recordCount.sum();
+    }
+
+    @Probe(name = "bytesRead")
+    public long bytesRead() {
+        return stats.byteCount.sum();
+    }
+
+    @Probe(name = "splitsRead")
+    public long splitsRead() {
+        return stats.splitCount.sum();
     }
 
-    private Traverser<R> traverseRecordReader(RecordReader<K, V> r) {
-        return () -> {
-            K key = r.createKey();
-            V value = r.createValue();
+    @Override
+    public void close() throws IOException {
+        if (nextSplit != null && !nextSplit.cancel(false)) {
+            // the prefetch already started: wait for it to open the reader so
+            // that we can close it
             try {
-                if (r.next(key, value)) {
-                    return mapper.apply(key, value);
+                nextSplit.get().close();
+            } catch (ExecutionException ignored) {
+                // the split failed to open, there is no reader to close
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (currentSplit != null) {
+            currentSplit.close();
+        }
+    }
+
+    private Future<PrefetchedSplit> prefetchNext() {
+        IndexedInputSplit split = splits.poll();
+        if (split == null) {
+            return null;
+        }
+        return prefetchExecutor.submit(() -> new PrefetchedSplit(split.getSplit()));
+    }
+
+    /**
+     * Traverses the records of one split: first the ones read ahead by the
+     * prefetching thread, then the rest directly from the reader.
+     */
+    private final class PrefetchedSplit implements Traverser<R> {
+        private final InputSplit split;
+        private final RecordReader<K, V> reader;
+        private final List<R> prefetched = new ArrayList<>();
+        private int prefetchedPos;
+        private boolean closed;
+
+        PrefetchedSplit(InputSplit split) throws IOException {
+            this.split = split;
+            this.reader = openReaderFn.apply(split);
+            try {
+                for (int i = 0; i < PREFETCH_RECORD_COUNT; i++) {
+                    R item = readNext();
+                    if (item == null) {
+                        break;
+                    }
+                    prefetched.add(item);
                 }
-                r.close();
-                return null;
+            } catch (Throwable e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public R next() {
+            if (prefetchedPos < prefetched.size()) {
+                R item = prefetched.get(prefetchedPos);
+                prefetched.set(prefetchedPos++, null);
+                return item;
+            }
+            try {
+                return readNext();
             } catch (IOException e) {
                 throw sneakyThrow(e);
             }
-        };
+        }
+
+        private R readNext() throws IOException {
+            if (closed) {
+                return null;
+            }
+            K key = reader.createKey();
+            V value = reader.createValue();
+            if (reader.next(key, value)) {
+                stats.recordCount.increment();
+                return mapper.apply(key, value);
+            }
+            close();
+            stats.splitCount.increment();
+            stats.byteCount.add(split.getLength());
+            return null;
+        }
+
+        void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                reader.close();
+            }
+        }
     }
 
-    @Override
-    public boolean isCooperative() {
-        return false;
+    /**
+     * Read-throughput counters of one processor, or their total on a member.
+     * The counters are updated both by the processor and by the prefetching
+     * thread.
+     */
+    static final class ReadStats {
+        final LongAdder recordCount = new LongAdder();
+        final LongAdder byteCount = new LongAdder();
+        final LongAdder splitCount = new LongAdder();
+        final long startNanos;
+
+        ReadStats(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void addTo(ReadStats total) {
+            total.recordCount.add(recordCount.sum());
+            total.byteCount.add(byteCount.sum());
+            total.splitCount.add(splitCount.sum());
+        }
+
+        @Override
+        public String toString() {
+            long elapsedMillis = Math.max(1, NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return "read " + recordCount.sum() + " records, " + byteCount.sum() + " bytes from "
+                    + splitCount.sum() + " splits in " + elapsedMillis + " ms ("
+                    + recordCount.sum() * SECONDS.toMillis(1) / elapsedMillis + " records/s, "
+                    + byteCount.sum() * SECONDS.toMillis(1) / elapsedMillis + " bytes/s)";
+        }
     }
 
     public static class MetaSupplier<K, V, R> implements ProcessorMetaSupplier {
@@ -286,6 +467,11 @@ public final class ReadHdfsP<K, V, R> extends AbstractProcessor {
         private List<IndexedInputSplit> assignedSplits;
         private DistributedBiFunction<K, V, R> mapper;
 
+        private transient ILogger logger;
+        private transient ExecutorService prefetchExecutor;
+        private transient long startNanos;
+        private transient List<ReadHdfsP<K, V, R>> processors;
+
         Supplier(SerializableJobConf jobConf,
                  Collection<IndexedInputSplit> assignedSplits,
                  @Nonnull DistributedBiFunction<K, V, R> mapper
@@ -295,27 +481,52 @@ public final class ReadHdfsP<K, V, R> extends AbstractProcessor {
             this.mapper = mapper;
         }
 
+        @Override
+        public void init(@Nonnull Context context) {
+            logger = context.logger();
+        }
+
         @Override
         @Nonnull
+        @SuppressWarnings("unchecked")
         public List<Processor> get(int count) {
-            Map<Integer, List<IndexedInputSplit>> processorToSplits =
-                    range(0, assignedSplits.size()).mapToObj(i -> new SimpleImmutableEntry<>(i, assignedSplits.get(i)))
-                            .collect(groupingBy(e -> e.getKey() % count,
-                                    mapping(Entry::getValue, toList())));
-            range(0, count)
-                    .forEach(processor -> processorToSplits.computeIfAbsent(processor, x -> emptyList()));
-            InputFormat inputFormat = jobConf.getInputFormat();
-
-            return processorToSplits
-                    .values().stream()
-                    .map(splits -> splits.isEmpty()
-                            ? Processors.noopP().get()
-                            : new ReadHdfsP<>(splits.stream()
-                            .map(IndexedInputSplit::getSplit)
-                            .map(split -> uncheckCall(() ->
-                                    inputFormat.getRecordReader(split, jobConf, NULL)))
-                            .collect(toList()), mapper)
-                    ).collect(toList());
+            if (assignedSplits.isEmpty()) {
+                return Stream.generate(() -> Processors.noopP().get()).limit(count).collect(toList());
+            }
+            // splits are taken in the order of their position in the file
+            Queue<IndexedInputSplit> splits = new ConcurrentLinkedQueue<>(new TreeSet<>(assignedSplits));
+            InputFormat<K, V> inputFormat = jobConf.getInputFormat();
+            Function<InputSplit, RecordReader<K, V>> openReaderFn =
+                    split -> uncheckCall(() -> inputFormat.getRecordReader(split, jobConf, NULL));
+            prefetchExecutor = Executors.newFixedThreadPool(Math.min(count, assignedSplits.size()), r -> {
+                Thread t = new Thread(r, "hz-jet-hdfs-prefetch");
+                t.setDaemon(true);
+                return t;
+            });
+            startNanos = System.nanoTime();
+            processors = Stream.generate(() ->
+                    new ReadHdfsP<K, V, R>(splits, openReaderFn, mapper, prefetchExecutor, new ReadStats(startNanos)))
+                               .limit(count)
+                               .collect(toList());
+            return (List) processors;
+        }
+
+        @Override
+        public void complete(Throwable error) {
+            if (processors == null) {
+                return;
+            }
+            for (ReadHdfsP<K, V, R> p : processors) {
+                try {
+                    p.close();
+                } catch (Exception e) {
+                    logger.warning("Failed to close HDFS record reader", e);
+                }
+            }
+            prefetchExecutor.shutdownNow();
+            ReadStats total = new ReadStats(startNanos);
+            processors.forEach(p -> p.stats.addTo(total));
+            logger.info("HDFS source " + total);
         }
 
         private void writeObject(ObjectOutputStream out) throws IOException {
@@ -21,12 +21,20 @@ import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.Util;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.core.test.TestProcessorMetaSupplierContext;
+import com.hazelcast.jet.core.test.TestProcessorSupplierContext;
 import com.hazelcast.jet.function.DistributedBiFunction;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
 import com.hazelcast.jet.stream.DistributedCollectors;
 import com.hazelcast.jet.stream.DistributedStream;
 import com.hazelcast.jet.stream.IStreamList;
+import com.hazelcast.nio.Address;
 import com.hazelcast.test.HazelcastParametersRunnerFactory;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -66,6 +74,7 @@ import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.HdfsProcessors.readHdfsP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.util.Collections.singletonList;
 import static java.util.stream.IntStream.range;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -137,6 +146,49 @@ public class ReadHdfsPTest extends JetTestSupport {
         assertTrue(list.get(0).toString().contains("value"));
     }
 
+    @Test
+    public void when_moreProcessorsThanSplits_then_allSplitsRead() {
+        DAG dag = new DAG();
+
+        Vertex source = dag.newVertex("source", readHdfsP(jobConf, mapper))
+                           .localParallelism(16);
+        Vertex sink = dag.newVertex("sink", writeListP("sink"))
+                         .localParallelism(1);
+        dag.edge(between(source, sink));
+
+        Future<Void> future = instance.newJob(dag).getFuture();
+        assertCompletesEventually(future);
+
+        assertEquals(16, instance.getList("sink").size());
+    }
+
+    @Test
+    public void when_read_then_processorsExposeReadCounts() {
+        ProcessorMetaSupplier metaSupplier = readHdfsP(jobConf, mapper);
+        metaSupplier.init(new TestProcessorMetaSupplierContext().setJetInstance(instance)
+                                                                .setTotalParallelism(2)
+                                                                .setLocalParallelism(2));
+        Address address = instance.getHazelcastInstance().getCluster().getLocalMember().getAddress();
+        ProcessorSupplier supplier = metaSupplier.get(singletonList(address)).apply(address);
+        supplier.init(new TestProcessorSupplierContext().setJetInstance(instance).setLocalParallelism(2));
+
+        long recordsRead = 0;
+        long splitsRead = 0;
+        for (Processor p : supplier.get(2)) {
+            TestOutbox outbox = new TestOutbox(64);
+            p.init(outbox, new TestProcessorContext());
+            while (!p.complete()) {
+                outbox.queueWithOrdinal(0).clear();
+            }
+            recordsRead += ((ReadHdfsP) p).recordsRead();
+            splitsRead += ((ReadHdfsP) p).splitsRead();
+        }
+        supplier.complete(null);
+
+        assertEquals(16, recordsRead);
+        assertEquals(4, splitsRead);
+    }
+
     @Test
     public void testJus() {
         IStreamList sink = (IStreamList) DistributedStream
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector.hadoop;
+
+import com.hazelcast.core.IList;
+import com.hazelcast.jet.HdfsSources;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.Pipeline;
+import com.hazelcast.jet.Sinks;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.junit.Assert.assertEquals;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class ReadParquetTest extends JetTestSupport {
+
+    private static final int ROW_COUNT = 100;
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+            "message row { required int32 id; required binary name (UTF8); required double score; }");
+
+    private JetInstance instance;
+    private JobConf jobConf;
+
+    @Before
+    public void setup() throws IOException {
+        instance = createJetMember();
+        File dir = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+        dir.deleteOnExit();
+        Path path = new Path(new File(dir, "data.parquet").toURI());
+        SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+                                                               .withConf(new Configuration())
+                                                               .withType(SCHEMA)
+                                                               .build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                writer.write(factory.newGroup()
+                                    .append("id", i)
+                                    .append("name", "name-" + i)
+                                    .append("score", (double) i));
+            }
+        }
+        jobConf = new JobConf();
+        FileInputFormat.addInputPath(jobConf, path);
+    }
+
+    @Test
+    public void when_noProjectionAndFilter_then_allRowsRead() {
+        Pipeline p = Pipeline.create();
+        p.drawFrom(HdfsSources.readParquet(jobConf, null, null, row -> row.getString("name", 0)))
+         .drainTo(Sinks.writeList("sink"));
+
+        instance.newJob(p).join();
+
+        assertEquals(ROW_COUNT, instance.getList("sink").size());
+    }
+
+    @Test
+    public void when_projectionAndFilter_then_onlyMatchingRowsAndColumnsRead() {
+        Pipeline p = Pipeline.create();
+        p.drawFrom(HdfsSources.readParquet(jobConf, "message row { required int32 id; }",
+                gtEq(intColumn("id"), ROW_COUNT - 10), row -> row.getType().getFieldCount()))
+         .drainTo(Sinks.writeList("sink"));
+
+        instance.newJob(p).join();
+
+        IList<Integer> list = instance.getList("sink");
+        assertEquals(10, list.size());
+        for (int fieldCount : list) {
+            assertEquals(1, fieldCount);
+        }
+    }
+}
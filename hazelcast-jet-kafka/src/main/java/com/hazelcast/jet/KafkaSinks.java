@@ -66,6 +66,62 @@ public final class KafkaSinks {
                 KafkaProcessors.writeKafkaP(topic, properties, extractKeyFn, extractValueFn));
     }
 
+    /**
+     * Returns a sink that publishes messages to an Apache Kafka topic
+     * with bounded in-flight sends and optional Kafka transactions.
+     * <p>
+     * Each processor allows at most {@code maxInFlight} records that were
+     * sent, but not yet acknowledged by the broker. When the limit is
+     * reached, the processor stops taking items from its inbox and
+     * the upstream is backpressured. Batching per partition is done by the
+     * producer according to its {@code batch.size} and {@code linger.ms}
+     * properties. Send failures cause the job to fail.
+     * <p>
+     * If {@code transactional} is {@code true} and snapshotting is enabled
+     * for the job, each processor uses its own transactional producer.
+     * The transaction is committed when the processor saves its state to
+     * the snapshot and a new one is started. The {@code transactional.id}
+     * is derived from the {@code transactional.id} property (or the
+     * vertex name, if not set) and the global processor index; when the
+     * job restarts, the transaction left open by the previous execution is
+     * aborted. Consumers using {@code isolation.level=read_committed} only
+     * see records of committed transactions, that is records the sink
+     * received before a snapshot barrier.
+     * <p>
+     * The guarantee is <em>at-least-once</em>, not exactly-once, and this
+     * is not a two-phase commit: the transaction is committed when the
+     * processor saves its state, not after the whole snapshot completes.
+     * Committing later isn't safe because the Kafka client can't resume a
+     * transaction in a new producer: if the job restarted before the
+     * commit, the new execution would abort the transaction and lose the
+     * records of the snapshot it restores from. If the snapshot fails after
+     * the commit, the records since the previous snapshot are written again
+     * after the restart.
+     *
+     * @param topic          name of the Kafka topic to publish to
+     * @param properties     producer properties which should contain broker
+     *                       address and key/value serializers
+     * @param extractKeyFn   function that extracts the key from the stream item
+     * @param extractValueFn function that extracts the value from the stream item
+     * @param maxInFlight    maximum number of unacknowledged records per processor
+     * @param transactional  whether to use Kafka transactions committed on snapshot
+     *
+     * @param <E> type of stream item
+     * @param <K> type of the key published to Kafka
+     * @param <V> type of the value published to Kafka
+     */
+    public static <E, K, V> Sink<E> writeKafka(
+            @Nonnull String topic,
+            @Nonnull Properties properties,
+            @Nonnull DistributedFunction<? super E, K> extractKeyFn,
+            @Nonnull DistributedFunction<? super E, V> extractValueFn,
+            int maxInFlight,
+            boolean transactional
+    ) {
+        return Sinks.fromProcessor("writeKafka", KafkaProcessors.writeKafkaP(
+                topic, properties, extractKeyFn, extractValueFn, maxInFlight, transactional));
+    }
+
     /**
      * Convenience for {@link #writeKafka(String, Properties,
      * DistributedFunction, DistributedFunction)} which expects {@code
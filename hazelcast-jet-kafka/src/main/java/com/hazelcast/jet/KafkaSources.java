@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet;
 
+import com.hazelcast.jet.core.WatermarkGenerationParams;
 import com.hazelcast.jet.core.processor.KafkaProcessors;
 import com.hazelcast.jet.function.DistributedBiFunction;
 
@@ -70,4 +71,58 @@ public final class KafkaSources {
                 @Nonnull DistributedBiFunction<K, V, T> projectionFn, @Nonnull String... topics) {
         return Sources.fromProcessor("streamKafka", KafkaProcessors.streamKafkaP(properties, projectionFn, topics));
     }
+
+    /**
+     * Returns a source that consumes one or more Apache Kafka topics like
+     * {@link #streamKafka(Properties, DistributedBiFunction, String...)} and
+     * additionally emits watermarks.
+     * <p>
+     * Each processor tracks a separate watermark for each Kafka partition
+     * assigned to it and emits the minimum over them. A partition that is
+     * behind the others therefore holds back the watermark instead of
+     * causing the events from it to be dropped as late. A partition without
+     * events for longer than the configured idle timeout is excluded until
+     * it receives an event again. The watermarks are saved to the snapshot
+     * together with the offsets.
+     *
+     * @param properties consumer properties broker address and key/value deserializers
+     * @param projectionFn function to create output objects from key and value
+     * @param wmGenParams parameters of the watermark generation, the
+     *                    timestamp is extracted from the projected item
+     * @param topics     the list of topics
+     */
+    public static <K, V, T> Source<T> streamKafka(@Nonnull Properties properties,
+                @Nonnull DistributedBiFunction<K, V, T> projectionFn,
+                @Nonnull WatermarkGenerationParams<T> wmGenParams,
+                @Nonnull String... topics) {
+        return Sources.fromProcessor("streamKafka",
+                KafkaProcessors.streamKafkaP(properties, projectionFn, wmGenParams, topics));
+    }
+
+    /**
+     * Returns a source that consumes one or more Apache Kafka topics like
+     * {@link #streamKafka(Properties, DistributedBiFunction, String...)},
+     * but with cooperative processors.
+     * <p>
+     * Instead of a {@code KafkaConsumer} per processor, there is a single
+     * consumer per member, polled by a dedicated thread. It hands the
+     * fetched records over to the processors in per-partition batches. When
+     * a processor can't keep up (its outbox is full), the consumer pauses
+     * that processor's partitions instead of buffering more records. The
+     * processors never block, so the poll timeout doesn't contribute to
+     * the latency and they don't occupy a thread each.
+     * <p>
+     * If snapshotting is enabled, partition offsets are saved to the
+     * snapshot. If it is disabled, the offsets of the emitted records are
+     * committed asynchronously about once per second.
+     *
+     * @param properties consumer properties broker address and key/value deserializers
+     * @param projectionFn function to create output objects from key and value
+     * @param topics     the list of topics
+     */
+    public static <K, V, T> Source<T> streamKafkaCooperative(@Nonnull Properties properties,
+                @Nonnull DistributedBiFunction<K, V, T> projectionFn, @Nonnull String... topics) {
+        return Sources.fromProcessor("streamKafkaCooperative",
+                KafkaProcessors.streamKafkaCooperativeP(properties, projectionFn, topics));
+    }
 }
@@ -19,8 +19,10 @@ package com.hazelcast.jet.core.processor;
 import com.hazelcast.jet.Util;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.WatermarkGenerationParams;
 import com.hazelcast.jet.function.DistributedBiFunction;
 import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.impl.connector.kafka.CooperativeStreamKafkaP;
 import com.hazelcast.jet.impl.connector.kafka.StreamKafkaP;
 import com.hazelcast.jet.impl.connector.kafka.WriteKafkaP;
 import com.hazelcast.util.Preconditions;
@@ -55,7 +57,34 @@ public final class KafkaProcessors {
         Preconditions.checkPositive(topics.length, "At least one topic must be supplied");
         properties.put("enable.auto.commit", false);
 
-        return new StreamKafkaP.MetaSupplier(properties, Arrays.asList(topics), projectionFn);
+        return new StreamKafkaP.MetaSupplier<>(properties, Arrays.asList(topics), projectionFn, null);
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.KafkaSources#streamKafka(Properties, DistributedBiFunction,
+     * WatermarkGenerationParams, String...)}.
+     */
+    public static <K, V, T> ProcessorMetaSupplier streamKafkaP(@Nonnull Properties properties,
+                @Nonnull DistributedBiFunction<K, V, T> projectionFn,
+                @Nonnull WatermarkGenerationParams<T> wmGenParams,
+                @Nonnull String ... topics) {
+        Preconditions.checkPositive(topics.length, "At least one topic must be supplied");
+        properties.put("enable.auto.commit", false);
+
+        return new StreamKafkaP.MetaSupplier<>(properties, Arrays.asList(topics), projectionFn, wmGenParams);
+    }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.KafkaSources#streamKafkaCooperative(Properties, DistributedBiFunction, String...)}.
+     */
+    public static <K, V, T> ProcessorMetaSupplier streamKafkaCooperativeP(@Nonnull Properties properties,
+                @Nonnull DistributedBiFunction<K, V, T> projectionFn, @Nonnull String ... topics) {
+        Preconditions.checkPositive(topics.length, "At least one topic must be supplied");
+        properties.put("enable.auto.commit", false);
+
+        return new CooperativeStreamKafkaP.MetaSupplier<>(properties, Arrays.asList(topics), projectionFn);
     }
 
     /**
@@ -70,4 +99,21 @@ public final class KafkaProcessors {
     ) {
         return new WriteKafkaP.Supplier<>(topic, properties, extractKeyFn, extractValueFn);
     }
+
+    /**
+     * Returns a supplier of processors for
+     * {@link com.hazelcast.jet.KafkaSinks#writeKafka(String, Properties, DistributedFunction,
+     * DistributedFunction, int, boolean)}.
+     */
+    public static <T, K, V> ProcessorSupplier writeKafkaP(
+            @Nonnull String topic,
+            @Nonnull Properties properties,
+            @Nonnull DistributedFunction<? super T, K> extractKeyFn,
+            @Nonnull DistributedFunction<? super T, V> extractValueFn,
+            int maxInFlight,
+            boolean transactional
+    ) {
+        Preconditions.checkPositive(maxInFlight, "maxInFlight must be positive");
+        return new WriteKafkaP.Supplier<>(topic, properties, extractKeyFn, extractValueFn, maxInFlight, transactional);
+    }
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector.kafka;
+
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.impl.connector.kafka.StreamKafkaP.KafkaPartitionAssigner;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static com.hazelcast.jet.impl.connector.kafka.StreamKafkaP.takeOverMetadataRefresh;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A cooperative Kafka source processor. The records are fetched by a
+ * {@link KafkaFetcher} shared by all processors of the vertex on the
+ * member; this processor only takes the record batches from its queue
+ * and emits them. See {@link
+ * com.hazelcast.jet.core.processor.KafkaProcessors#streamKafkaCooperativeP(
+ * Properties, DistributedBiFunction, String...)}.
+ */
+public final class CooperativeStreamKafkaP<K, V, T> extends AbstractProcessor {
+
+    private static final long COMMIT_INTERVAL_MS = 1000;
+
+    private final KafkaFetcher fetcher;
+    private final int slot;
+    private final List<String> topics;
+    private final DistributedBiFunction<K, V, T> projectionFn;
+    private final int globalParallelism;
+    private final OneToOneConcurrentArrayQueue<List<ConsumerRecord<Object, Object>>> queue;
+
+    /**
+     * Key: partition assigned to this processor<br>
+     * Value: single-element array with the offset of the last emitted
+     * record, -1 if none. The array is updated in place for each record.
+     */
+    private final Map<TopicPartition, long[]> offsets = new HashMap<>();
+    private Traverser<Entry<BroadcastKey<TopicPartition>, Long>> snapshotTraverser;
+    private Traverser<T> traverser;
+    private long[] currentOffset;
+    private ConsumerRecord<Object, Object> lastEmittedItem;
+    private boolean snapshottingEnabled;
+    private boolean activated;
+    private long nextCommit;
+
+    CooperativeStreamKafkaP(KafkaFetcher fetcher, int slot, List<String> topics,
+                            DistributedBiFunction<K, V, T> projectionFn, int globalParallelism) {
+        this.fetcher = fetcher;
+        this.slot = slot;
+        this.topics = topics;
+        this.projectionFn = projectionFn;
+        this.globalParallelism = globalParallelism;
+        this.queue = fetcher.queue(slot);
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        snapshottingEnabled = context.snapshottingEnabled();
+        // use the same assignment as the fetcher, we need it to filter the restored offsets
+        Set<TopicPartition> assignment = new KafkaPartitionAssigner(
+                topics, fetcher.initialPartitionCounts(), globalParallelism
+        ).topicPartitionsFor(context.globalProcessorIndex());
+        for (TopicPartition tp : assignment) {
+            offsets.put(tp, new long[] {-1});
+        }
+        fetcher.register(slot, context.globalProcessorIndex());
+    }
+
+    @Override
+    public boolean complete() {
+        if (!activated) {
+            // the restored offsets are final now, start fetching from them
+            fetcher.activate(slot, emittedOffsets());
+            nextCommit = System.nanoTime() + MILLISECONDS.toNanos(COMMIT_INTERVAL_MS);
+            activated = true;
+        }
+        fetcher.checkError();
+        if (traverser == null) {
+            List<ConsumerRecord<Object, Object>> batch = queue.poll();
+            if (batch == null) {
+                return false;
+            }
+            // a batch contains records from a single partition
+            ConsumerRecord<Object, Object> first = batch.get(0);
+            currentOffset = offsets.computeIfAbsent(
+                    new TopicPartition(first.topic(), first.partition()), tp -> new long[] {-1});
+            // records fetched before the restored position was applied can be older
+            // than what was already emitted, skip them
+            long skipUpTo = currentOffset[0];
+            traverser = traverseIterable(batch)
+                    .filter(r -> r.offset() > skipUpTo)
+                    .peek(r -> lastEmittedItem = r)
+                    .map(r -> projectionFn.apply((K) r.key(), (V) r.value()))
+                    .onFirstNull(() -> traverser = null);
+        }
+        emitFromTraverser(traverser, e -> currentOffset[0] = lastEmittedItem.offset());
+
+        if (!snapshottingEnabled && System.nanoTime() >= nextCommit) {
+            fetcher.commit(emittedOffsets());
+            nextCommit = System.nanoTime() + MILLISECONDS.toNanos(COMMIT_INTERVAL_MS);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        if (snapshotTraverser == null) {
+            snapshotTraverser = traverseIterable(emittedOffsets().entrySet())
+                    .map(e -> entry(broadcastKey(e.getKey()), e.getValue()))
+                    .onFirstNull(() -> snapshotTraverser = null);
+        }
+        return emitFromTraverserToSnapshot(snapshotTraverser);
+    }
+
+    @Override
+    protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+        TopicPartition topicPartition = ((BroadcastKey<TopicPartition>) key).key();
+        long[] offset = offsets.get(topicPartition);
+        if (offset != null) {
+            offset[0] = (long) value;
+        }
+    }
+
+    private Map<TopicPartition, Long> emittedOffsets() {
+        Map<TopicPartition, Long> result = new HashMap<>();
+        offsets.forEach((tp, offset) -> {
+            if (offset[0] >= 0) {
+                result.put(tp, offset[0]);
+            }
+        });
+        return result;
+    }
+
+    public static class MetaSupplier<K, V, T> implements ProcessorMetaSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final Properties properties;
+        private final List<String> topics;
+        private final DistributedBiFunction<K, V, T> projectionFn;
+        private final long metadataRefreshInterval;
+        private int totalParallelism;
+
+        public MetaSupplier(Properties properties, List<String> topics, DistributedBiFunction<K, V, T> projectionFn) {
+            this.properties = new Properties();
+            this.properties.putAll(properties);
+            this.topics = topics;
+            this.projectionFn = projectionFn;
+            this.metadataRefreshInterval = takeOverMetadataRefresh(this.properties);
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            totalParallelism = context.totalParallelism();
+        }
+
+        @Nonnull @Override
+        public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
+            return address -> new Supplier<>(properties, topics, projectionFn, totalParallelism,
+                    metadataRefreshInterval);
+        }
+    }
+
+    private static class Supplier<K, V, T> implements ProcessorSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final Properties properties;
+        private final List<String> topics;
+        private final DistributedBiFunction<K, V, T> projectionFn;
+        private final int totalParallelism;
+        private final long metadataRefreshInterval;
+
+        private transient ILogger logger;
+        private transient KafkaFetcher fetcher;
+
+        Supplier(Properties properties, List<String> topics, DistributedBiFunction<K, V, T> projectionFn,
+                 int totalParallelism, long metadataRefreshInterval) {
+            this.properties = properties;
+            this.topics = topics;
+            this.projectionFn = projectionFn;
+            this.totalParallelism = totalParallelism;
+            this.metadataRefreshInterval = metadataRefreshInterval;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            logger = context.logger();
+        }
+
+        @Nonnull @Override
+        public Collection<? extends Processor> get(int count) {
+            fetcher = new KafkaFetcher(properties, topics, totalParallelism, metadataRefreshInterval, count, logger);
+            return IntStream.range(0, count)
+                            .mapToObj(slot -> new CooperativeStreamKafkaP<>(
+                                    fetcher, slot, topics, projectionFn, totalParallelism))
+                            .collect(toList());
+        }
+
+        @Override
+        public void complete(Throwable error) {
+            if (fetcher == null) {
+                return;
+            }
+            try {
+                fetcher.close();
+            } catch (InterruptedException e) {
+                throw sneakyThrow(e);
+            }
+        }
+    }
+}
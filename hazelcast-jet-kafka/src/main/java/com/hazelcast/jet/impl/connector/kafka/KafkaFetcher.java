@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector.kafka;
+
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.impl.connector.kafka.StreamKafkaP.KafkaPartitionAssigner;
+import com.hazelcast.logging.ILogger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Fetches records from Kafka for all {@link CooperativeStreamKafkaP}
+ * instances of one vertex on one member, using a single {@code
+ * KafkaConsumer} on a dedicated thread. Records are handed over to the
+ * processors in per-partition batches through one-to-one concurrent
+ * queues, one queue per processor ("slot").
+ * <p>
+ * When the queue of a processor is full (because the processor's outbox
+ * is full), the fetcher pauses the processor's partitions instead of
+ * buffering more records, and resumes them when the processor catches up.
+ * Partitions of a processor are also paused until the processor {@link
+ * #activate activates} them after restoring its snapshot.
+ * <p>
+ * All interaction with the consumer happens on the fetcher thread; other
+ * threads submit commands which the fetcher executes between polls. The
+ * commands don't interrupt a poll with {@code KafkaConsumer.wakeup()}: a
+ * pending wakeup would be delivered to the next blocking consumer call,
+ * which can be one of the commands. The fetcher polls with a short
+ * timeout instead.
+ */
+final class KafkaFetcher implements Runnable {
+
+    static final int QUEUE_CAPACITY = 8;
+
+    private static final long POLL_TIMEOUT_MS = 20;
+
+    private final List<String> topics;
+    private final int globalParallelism;
+    private final long metadataRefreshIntervalNanos;
+    private final ILogger logger;
+    private final KafkaConsumer<Object, Object> consumer;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private final List<Integer> initialPartitionCounts;
+
+    // slot data, read and written only by the fetcher thread except for the queues
+    private final OneToOneConcurrentArrayQueue<List<ConsumerRecord<Object, Object>>>[] queues;
+    private final Queue<List<ConsumerRecord<Object, Object>>>[] pendingBatches;
+    private final Set<TopicPartition>[] slotPartitions;
+    private final int[] globalProcessorIndexes;
+    private final boolean[] active;
+    private final boolean[] paused;
+    private final Map<TopicPartition, Integer> partitionToSlot = new HashMap<>();
+
+    private List<Integer> partitionCounts;
+    private long nextPartitionCheck;
+
+    private volatile boolean shutdown;
+    private volatile Throwable error;
+
+    KafkaFetcher(Properties properties, List<String> topics, int globalParallelism, long metadataRefreshIntervalMs,
+                 int localParallelism, ILogger logger) {
+        this.topics = topics;
+        this.globalParallelism = globalParallelism;
+        this.metadataRefreshIntervalNanos = MILLISECONDS.toNanos(metadataRefreshIntervalMs);
+        this.logger = logger;
+        this.consumer = new KafkaConsumer<>(properties);
+        this.partitionCounts = readPartitionCounts();
+        this.initialPartitionCounts = partitionCounts;
+        this.nextPartitionCheck = System.nanoTime() + metadataRefreshIntervalNanos;
+
+        queues = new OneToOneConcurrentArrayQueue[localParallelism];
+        pendingBatches = new Queue[localParallelism];
+        slotPartitions = new Set[localParallelism];
+        for (int i = 0; i < localParallelism; i++) {
+            queues[i] = new OneToOneConcurrentArrayQueue<>(QUEUE_CAPACITY);
+            pendingBatches[i] = new ArrayDeque<>();
+            slotPartitions[i] = new HashSet<>();
+        }
+        globalProcessorIndexes = new int[localParallelism];
+        Arrays.fill(globalProcessorIndexes, -1);
+        active = new boolean[localParallelism];
+        paused = new boolean[localParallelism];
+
+        thread = new Thread(this, "hz.jet.kafka-fetcher-" + String.join(",", topics));
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the partition counts of the topics at the time the fetcher
+     * was created. Processors use them to compute their initial
+     * assignment, which is the same one the fetcher uses.
+     */
+    List<Integer> initialPartitionCounts() {
+        return initialPartitionCounts;
+    }
+
+    /**
+     * Returns the queue from which the processor in the given slot takes
+     * its batches.
+     */
+    OneToOneConcurrentArrayQueue<List<ConsumerRecord<Object, Object>>> queue(int slot) {
+        return queues[slot];
+    }
+
+    /**
+     * Assigns the partitions of the given global processor index to the
+     * slot. The partitions stay paused until {@link #activate} is called.
+     */
+    void register(int slot, int globalProcessorIndex) {
+        submit(() -> {
+            globalProcessorIndexes[slot] = globalProcessorIndex;
+            updateAssignment(false);
+        });
+    }
+
+    /**
+     * Starts fetching for the slot. Partitions with a restored offset are
+     * first positioned right after that offset.
+     *
+     * @param restoredOffsets offsets of the last emitted records, restored
+     *                        from the snapshot
+     */
+    void activate(int slot, Map<TopicPartition, Long> restoredOffsets) {
+        submit(() -> {
+            restoredOffsets.forEach((tp, offset) -> {
+                if (slotPartitions[slot].contains(tp)) {
+                    consumer.seek(tp, offset + 1);
+                }
+            });
+            active[slot] = true;
+        });
+    }
+
+    /**
+     * Asynchronously commits the given offsets to Kafka. The offsets are
+     * those of the last emitted records.
+     */
+    void commit(Map<TopicPartition, Long> emittedOffsets) {
+        submit(() -> {
+            Map<TopicPartition, OffsetAndMetadata> toCommit = new HashMap<>();
+            emittedOffsets.forEach((tp, offset) -> toCommit.put(tp, new OffsetAndMetadata(offset + 1)));
+            consumer.commitAsync(toCommit, (offsets, exception) -> {
+                if (exception != null) {
+                    logger.warning("Failed to commit offsets " + offsets + ": " + exception, exception);
+                }
+            });
+        });
+    }
+
+    /**
+     * Throws the error that stopped the fetcher thread, if any.
+     */
+    void checkError() {
+        Throwable t = error;
+        if (t != null) {
+            throw new JetException("Kafka fetcher failed: " + t, t);
+        }
+    }
+
+    /**
+     * Stops the fetcher thread and closes the consumer.
+     */
+    void close() throws InterruptedException {
+        shutdown = true;
+        // interrupt a poll in progress, the WakeupException ends the loop
+        consumer.wakeup();
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!shutdown) {
+                runCommands();
+                if (System.nanoTime() >= nextPartitionCheck) {
+                    partitionCounts = readPartitionCounts();
+                    updateAssignment(true);
+                }
+                offerPendingAndUpdatePause();
+                if (partitionToSlot.isEmpty()) {
+                    // nothing assigned yet, KafkaConsumer.poll() would fail
+                    Thread.sleep(POLL_TIMEOUT_MS);
+                    continue;
+                }
+                ConsumerRecords<Object, Object> records = consumer.poll(POLL_TIMEOUT_MS);
+                for (TopicPartition tp : records.partitions()) {
+                    int slot = partitionToSlot.get(tp);
+                    List<ConsumerRecord<Object, Object>> batch = records.records(tp);
+                    if (!pendingBatches[slot].isEmpty() || !queues[slot].offer(batch)) {
+                        // the processor doesn't keep up, its partitions will be paused
+                        pendingBatches[slot].add(batch);
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            if (!shutdown) {
+                logger.severe("Kafka fetcher failed", e);
+                error = e;
+            }
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void submit(Runnable command) {
+        commands.add(command);
+    }
+
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    private List<Integer> readPartitionCounts() {
+        nextPartitionCheck = System.nanoTime() + metadataRefreshIntervalNanos;
+        return topics.stream().map(t -> consumer.partitionsFor(t).size()).collect(toList());
+    }
+
+    private void updateAssignment(boolean seekNewToBeginning) {
+        KafkaPartitionAssigner assigner = new KafkaPartitionAssigner(topics, partitionCounts, globalParallelism);
+        Set<TopicPartition> newPartitions = new HashSet<>();
+        for (int slot = 0; slot < globalProcessorIndexes.length; slot++) {
+            if (globalProcessorIndexes[slot] < 0) {
+                continue;
+            }
+            for (TopicPartition tp : assigner.topicPartitionsFor(globalProcessorIndexes[slot])) {
+                if (slotPartitions[slot].add(tp)) {
+                    partitionToSlot.put(tp, slot);
+                    newPartitions.add(tp);
+                }
+            }
+        }
+        if (newPartitions.isEmpty()) {
+            return;
+        }
+        logFine(logger, "New partitions assigned: %s", newPartitions);
+        consumer.assign(partitionToSlot.keySet());
+        if (seekNewToBeginning) {
+            // for newly detected partitions, we should always seek to the beginning
+            consumer.seekToBeginning(newPartitions);
+        }
+        // re-apply the pause state to all partitions of each slot, including the new ones
+        for (int slot = 0; slot < paused.length; slot++) {
+            paused[slot] = shouldPause(slot);
+            if (paused[slot]) {
+                consumer.pause(slotPartitions[slot]);
+            } else {
+                consumer.resume(slotPartitions[slot]);
+            }
+        }
+    }
+
+    private boolean shouldPause(int slot) {
+        return !active[slot] || !pendingBatches[slot].isEmpty();
+    }
+
+    private void offerPendingAndUpdatePause() {
+        for (int slot = 0; slot < queues.length; slot++) {
+            Queue<List<ConsumerRecord<Object, Object>>> pending = pendingBatches[slot];
+            while (!pending.isEmpty() && queues[slot].offer(pending.peek())) {
+                pending.remove();
+            }
+            boolean shouldPause = shouldPause(slot);
+            if (shouldPause && !paused[slot]) {
+                consumer.pause(slotPartitions[slot]);
+                paused[slot] = true;
+            } else if (!shouldPause && paused[slot]) {
+                consumer.resume(slotPartitions[slot]);
+                paused[slot] = false;
+            }
+        }
+    }
+}
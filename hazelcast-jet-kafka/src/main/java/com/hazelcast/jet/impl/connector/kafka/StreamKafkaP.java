@@ -22,7 +22,11 @@ import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.CloseableProcessorSupplier;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.ResettableSingletonTraverser;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.WatermarkGenerationParams;
 import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.impl.util.WatermarkSourceUtil;
 import com.hazelcast.nio.Address;
 import com.hazelcast.util.Preconditions;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -31,6 +35,7 @@ import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -67,6 +72,7 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
     private final List<String> topics;
     private final DistributedBiFunction<K, V, T> projectionFn;
     private final int globalParallelism;
+    private final WatermarkSourceUtil<T> wsu;
     private boolean snapshottingEnabled;
     private KafkaConsumer<Object, Object> consumer;
 
@@ -78,20 +84,29 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
      * Offsets are -1 initially and for unassigned partitions.
      */
     private final Map<String, long[]> offsets = new HashMap<>();
-    private Traverser<Entry<BroadcastKey<TopicPartition>, Long>> snapshotTraverser;
+    /**
+     * Key: topicName<br>
+     * Value: at index I is the index of partition I in {@link #wsu}.<br>
+     * Only used if watermarks are enabled, -1 for unassigned partitions.
+     */
+    private final Map<String, int[]> wsuPartitionIndexes = new HashMap<>();
+    private Traverser<Entry<BroadcastKey<TopicPartition>, Object>> snapshotTraverser;
     private Set<TopicPartition> currentAssignment = new HashSet<>();
     private long metadataRefreshInterval;
     private int processorIndex;
-    private Traverser<T> traverser;
+    private final ResettableSingletonTraverser<Object> singletonTraverser = new ResettableSingletonTraverser<>();
+    private Traverser<Object> traverser;
     private ConsumerRecord<Object, Object> lastEmittedItem;
 
     StreamKafkaP(Properties properties, List<String> topics, DistributedBiFunction<K, V, T> projectionFn,
-                 int globalParallelism, long metadataRefreshInterval) {
+                 int globalParallelism, long metadataRefreshInterval,
+                 @Nullable WatermarkGenerationParams<T> wmGenParams) {
         this.properties = properties;
         this.topics = topics;
         this.projectionFn = projectionFn;
         this.globalParallelism = globalParallelism;
         this.metadataRefreshInterval = metadataRefreshInterval;
+        this.wsu = wmGenParams == null ? null : new WatermarkSourceUtil<>(wmGenParams);
     }
 
     @Override
@@ -113,6 +128,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
             getLogger().info("Partition assignments changed, new partitions: " + newAssignments);
             currentAssignment.addAll(newAssignments);
             consumer.assign(currentAssignment);
+            if (wsu != null) {
+                assignWsuPartitionIndexes(newAssignments, partitionCounts);
+            }
             if (seekToBeginning) {
                 // for newly detected partitions, we should always seek to the beginning
                 consumer.seekToBeginning(newAssignments);
@@ -123,6 +141,23 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
         nextPartitionCheck = System.nanoTime() + MILLISECONDS.toNanos(metadataRefreshInterval);
     }
 
+    private void assignWsuPartitionIndexes(Set<TopicPartition> newAssignments, List<Integer> partitionCounts) {
+        int wsuPartitionCount = currentAssignment.size() - newAssignments.size();
+        for (int topicIdx = 0; topicIdx < partitionCounts.size(); topicIdx++) {
+            int[] oldIndexes = wsuPartitionIndexes.get(topics.get(topicIdx));
+            int[] newIndexes = new int[partitionCounts.get(topicIdx)];
+            Arrays.fill(newIndexes, -1);
+            if (oldIndexes != null) {
+                arraycopy(oldIndexes, 0, newIndexes, 0, oldIndexes.length);
+            }
+            wsuPartitionIndexes.put(topics.get(topicIdx), newIndexes);
+        }
+        for (TopicPartition tp : newAssignments) {
+            wsuPartitionIndexes.get(tp.topic())[tp.partition()] = wsuPartitionCount++;
+        }
+        wsu.increasePartitionCount(System.nanoTime(), wsuPartitionCount);
+    }
+
     private void createOrExtendOffsetsArrays(List<Integer> partitionCounts) {
         for (int topicIdx = 0; topicIdx < partitionCounts.size(); topicIdx++) {
             int newPartitionCount = partitionCounts.get(topicIdx);
@@ -151,16 +186,25 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
         if (traverser == null) {
             ConsumerRecords<Object, Object> records = consumer.poll(POLL_TIMEOUT_MS);
             if (records.isEmpty()) {
-                return false;
+                if (wsu == null) {
+                    return false;
+                }
+                // no events, but the watermark can still advance
+                traverser = wsu.handleNoEvent(System.nanoTime())
+                               .onFirstNull(() -> traverser = null);
+            } else {
+                traverser = traverseIterable(records)
+                        .peek(r -> lastEmittedItem = r)
+                        .flatMap(this::traverseRecord)
+                        .onFirstNull(() -> traverser = null);
             }
-            traverser = traverseIterable(records)
-                    .peek(r -> lastEmittedItem = r)
-                    .map(r -> projectionFn.apply((K) r.key(), (V) r.value()))
-                    .onFirstNull(() -> traverser = null);
         }
 
-        emitFromTraverser(traverser,
-                e -> offsets.get(lastEmittedItem.topic())[lastEmittedItem.partition()] = lastEmittedItem.offset());
+        emitFromTraverser(traverser, e -> {
+            if (!(e instanceof Watermark)) {
+                offsets.get(lastEmittedItem.topic())[lastEmittedItem.partition()] = lastEmittedItem.offset();
+            }
+        });
 
         if (!snapshottingEnabled) {
             consumer.commitSync();
@@ -169,6 +213,15 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
         return false;
     }
 
+    private Traverser<Object> traverseRecord(ConsumerRecord<Object, Object> r) {
+        T projected = projectionFn.apply((K) r.key(), (V) r.value());
+        if (wsu == null) {
+            singletonTraverser.accept(projected);
+            return singletonTraverser;
+        }
+        return wsu.handleEvent(System.nanoTime(), projected, wsuPartitionIndexes.get(r.topic())[r.partition()]);
+    }
+
     @Override
     public void close() {
         consumer.close();
@@ -182,13 +235,13 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
     @Override
     public boolean saveToSnapshot() {
         if (snapshotTraverser == null) {
-            Stream<Entry<BroadcastKey<TopicPartition>, Long>> snapshotStream =
+            Stream<Entry<BroadcastKey<TopicPartition>, Object>> snapshotStream =
                     offsets.entrySet().stream()
                            .flatMap(entry -> IntStream.range(0, entry.getValue().length)
                                   .filter(partition -> entry.getValue()[partition] >= 0)
                                   .mapToObj(partition -> entry(
                                           broadcastKey(new TopicPartition(entry.getKey(), partition)),
-                                          entry.getValue()[partition])));
+                                          snapshotValue(entry.getKey(), partition, entry.getValue()[partition]))));
             snapshotTraverser = traverseStream(snapshotStream)
                     .onFirstNull(() -> snapshotTraverser = null);
         }
@@ -198,7 +251,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
     @Override
     public void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
         TopicPartition topicPartition = ((BroadcastKey<TopicPartition>) key).key();
-        long offset = (long) value;
+        // if the snapshot was taken with watermarks enabled, the value is {offset, watermark}
+        long[] offsetAndWm = value instanceof long[] ? (long[]) value : null;
+        long offset = offsetAndWm != null ? offsetAndWm[0] : (long) value;
         long[] topicOffsets = offsets.get(topicPartition.topic());
         if (topicOffsets == null) {
             getLogger().severe("Offset for topic '" + topicPartition.topic()
@@ -214,33 +269,37 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
                     + "' restored, offset1=" + topicOffsets[topicPartition.partition()] + ", offset2=" + offset;
             topicOffsets[topicPartition.partition()] = offset;
             consumer.seek(topicPartition, offset + 1);
+            if (wsu != null && offsetAndWm != null) {
+                wsu.restoreWatermark(
+                        wsuPartitionIndexes.get(topicPartition.topic())[topicPartition.partition()], offsetAndWm[1]);
+            }
         }
     }
 
+    private Object snapshotValue(String topic, int partition, long offset) {
+        if (wsu == null) {
+            return offset;
+        }
+        return new long[] {offset, wsu.getWatermark(wsuPartitionIndexes.get(topic)[partition])};
+    }
+
     public static class MetaSupplier<K, V, T> implements ProcessorMetaSupplier {
 
         private final Properties properties;
         private final List<String> topics;
         private final DistributedBiFunction<K, V, T> projectionFn;
+        private final WatermarkGenerationParams<T> wmGenParams;
         private final long metadataRefreshInterval;
         private int totalParallelism;
 
-        public MetaSupplier(Properties properties, List<String> topics, DistributedBiFunction<K, V, T> projectionFn) {
+        public MetaSupplier(Properties properties, List<String> topics, DistributedBiFunction<K, V, T> projectionFn,
+                            @Nullable WatermarkGenerationParams<T> wmGenParams) {
             this.properties = new Properties();
             this.properties.putAll(properties);
             this.topics = topics;
             this.projectionFn = projectionFn;
-
-            // Save the value of metadata.max.age.ms to a variable and zero it in the properties.
-            // We'll do metadata refresh on our own.
-            if (properties.containsKey("metadata.max.age.ms")) {
-                metadataRefreshInterval = Long.parseLong(properties.getProperty("metadata.max.age.ms"));
-            } else {
-                metadataRefreshInterval = KAFKA_DEFAULT_REFRESH_INTERVAL;
-            }
-            // Set metadata caching to 1 second: we read the metadata for multiple partitions one by one. If we
-            // set this to 0, consumer.partitionsFor(topic) would probably fetch metadata for each topic anew.
-            this.properties.setProperty("metadata.max.age.ms", "1000");
+            this.wmGenParams = wmGenParams;
+            this.metadataRefreshInterval = takeOverMetadataRefresh(this.properties);
         }
 
         @Override
@@ -252,10 +311,27 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor implements Cl
         @Override
         public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
             return address -> new CloseableProcessorSupplier<>(
-                    () -> new StreamKafkaP(properties, topics, projectionFn, totalParallelism, metadataRefreshInterval));
+                    () -> new StreamKafkaP(properties, topics, projectionFn, totalParallelism, metadataRefreshInterval,
+                            wmGenParams));
         }
     }
 
+    /**
+     * Saves the value of {@code metadata.max.age.ms} and replaces it in the
+     * properties: we'll do metadata refresh on our own.
+     *
+     * @return the metadata refresh interval in milliseconds
+     */
+    static long takeOverMetadataRefresh(Properties properties) {
+        long interval = properties.containsKey("metadata.max.age.ms")
+                ? Long.parseLong(properties.getProperty("metadata.max.age.ms"))
+                : KAFKA_DEFAULT_REFRESH_INTERVAL;
+        // Set metadata caching to 1 second: we read the metadata for multiple partitions one by one. If we
+        // set this to 0, consumer.partitionsFor(topic) would probably fetch metadata for each topic anew.
+        properties.setProperty("metadata.max.age.ms", "1000");
+        return interval;
+    }
+
     /**
      * Helper class for assigning partitions to processor indices in a round robin fashion
      */
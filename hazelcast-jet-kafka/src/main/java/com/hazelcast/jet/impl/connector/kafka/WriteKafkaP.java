@@ -16,15 +16,23 @@
 
 package com.hazelcast.jet.impl.connector.kafka;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.logging.ILogger;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
 import javax.annotation.Nonnull;
+import java.io.Closeable;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -33,23 +41,70 @@ import static java.util.stream.Collectors.toList;
 /**
  * See {@link com.hazelcast.jet.core.processor.KafkaProcessors#writeKafkaP(
  *      String, Properties, com.hazelcast.jet.function.DistributedFunction,
- *      com.hazelcast.jet.function.DistributedFunction)
+ *      com.hazelcast.jet.function.DistributedFunction, int, boolean)
  * KafkaProcessors.writeKafka()}.
  */
-public final class WriteKafkaP<T, K, V> extends AbstractProcessor {
+public final class WriteKafkaP<T, K, V> extends AbstractProcessor implements Closeable {
+
+    /**
+     * Default maximum number of records sent, but not yet acknowledged by
+     * the broker, per processor.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
 
     private final String topic;
-    private final KafkaProducer<K, V> producer;
+    private final Properties transactionalProperties;
     private final Function<? super T, K> extractKeyFn;
     private final Function<? super T, V> extractValueFn;
+    private final int maxInFlight;
+    private final boolean transactional;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Exception> sendError = new AtomicReference<>();
+    private final Callback callback = (metadata, exception) -> {
+        if (exception != null) {
+            sendError.compareAndSet(null, exception);
+        }
+        inFlight.decrementAndGet();
+    };
 
-    WriteKafkaP(String topic, KafkaProducer<K, V> producer,
-                Function<? super T, K> extractKeyFn, Function<? super T, V> extractValueFn
+    private Producer<K, V> producer;
+    private boolean transactionOpen;
+
+    /**
+     * @param producer the shared producer, or {@code null} if the processor
+     *                 should create its own transactional producer from
+     *                 {@code transactionalProperties}
+     */
+    WriteKafkaP(String topic, Producer<K, V> producer, Properties transactionalProperties, boolean transactional,
+                Function<? super T, K> extractKeyFn, Function<? super T, V> extractValueFn, int maxInFlight
     ) {
         this.topic = topic;
         this.producer = producer;
+        this.transactionalProperties = transactionalProperties;
+        this.transactional = transactional;
         this.extractKeyFn = extractKeyFn;
         this.extractValueFn = extractValueFn;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        if (!transactional) {
+            return;
+        }
+        if (producer == null) {
+            // The transactional id has to be stable across job restarts so that
+            // the broker fences off the producer of the previous execution and
+            // aborts its open transaction.
+            Properties props = new Properties();
+            props.putAll(transactionalProperties);
+            String idPrefix = props.getProperty(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "jet-" + context.vertexName());
+            props.setProperty(ProducerConfig.TRANSACTIONAL_ID_CONFIG, idPrefix + '-' + context.globalProcessorIndex());
+            producer = new KafkaProducer<>(props);
+        }
+        producer.initTransactions();
+        beginTransaction();
     }
 
     @Override
@@ -60,17 +115,75 @@ public final class WriteKafkaP<T, K, V> extends AbstractProcessor {
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) throws Exception {
-        T t =  (T) item;
-        producer.send(new ProducerRecord<>(topic, extractKeyFn.apply(t), extractValueFn.apply(t)));
+        checkError();
+        if (inFlight.get() >= maxInFlight) {
+            // leave the item in the inbox, the upstream will be backpressured
+            return false;
+        }
+        T t = (T) item;
+        inFlight.incrementAndGet();
+        producer.send(new ProducerRecord<>(topic, extractKeyFn.apply(t), extractValueFn.apply(t)), callback);
+        return true;
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        // All items received before the barrier must be acknowledged before
+        // the barrier is forwarded. In transactional mode the batch of items
+        // since the previous snapshot is committed atomically. The commit
+        // can't wait for onSnapshotCompleted(): a restart before it would
+        // abort the transaction, which a new producer can't resume, and lose
+        // the records. So this is at-least-once, not a two-phase commit.
+        flushAndCheck();
+        if (transactional) {
+            producer.commitTransaction();
+            transactionOpen = false;
+            beginTransaction();
+        }
         return true;
     }
 
     @Override
     public boolean complete() {
-        producer.flush();
+        flushAndCheck();
+        if (transactional) {
+            producer.commitTransaction();
+            transactionOpen = false;
+        }
         return true;
     }
 
+    @Override
+    public void close() {
+        if (!transactional || producer == null) {
+            return;
+        }
+        try {
+            if (transactionOpen) {
+                producer.abortTransaction();
+            }
+        } finally {
+            producer.close();
+        }
+    }
+
+    private void beginTransaction() {
+        producer.beginTransaction();
+        transactionOpen = true;
+    }
+
+    private void flushAndCheck() {
+        producer.flush();
+        checkError();
+    }
+
+    private void checkError() {
+        Exception e = sendError.get();
+        if (e != null) {
+            throw new JetException("Failed to send to Kafka topic '" + topic + "': " + e, e);
+        }
+    }
+
     public static class Supplier<T, K, V> implements ProcessorSupplier {
 
         static final long serialVersionUID = 1L;
@@ -79,33 +192,66 @@ public final class WriteKafkaP<T, K, V> extends AbstractProcessor {
         private final Properties properties;
         private final Function<? super T, K> extractKeyFn;
         private final Function<? super T, V> extractValueFn;
+        private final int maxInFlight;
+        private final boolean transactional;
 
+        private transient boolean useTransactions;
         private transient KafkaProducer<K, V> producer;
+        private transient ILogger logger;
+        private transient List<WriteKafkaP<T, K, V>> processors;
 
         public Supplier(String topicId, Properties properties,
                         Function<? super T, K> extractKeyFn, Function<? super T, V> extractValueFn
+        ) {
+            this(topicId, properties, extractKeyFn, extractValueFn, DEFAULT_MAX_IN_FLIGHT, false);
+        }
+
+        public Supplier(String topicId, Properties properties,
+                        Function<? super T, K> extractKeyFn, Function<? super T, V> extractValueFn,
+                        int maxInFlight, boolean transactional
         ) {
             this.topicId = topicId;
             this.properties = properties;
             this.extractKeyFn = extractKeyFn;
             this.extractValueFn = extractValueFn;
+            this.maxInFlight = maxInFlight;
+            this.transactional = transactional;
         }
 
         @Override
         public void init(@Nonnull Context context) {
-            producer = new KafkaProducer<>(properties);
+            logger = context.logger();
+            // transactions are only useful when there are snapshots to commit them on
+            useTransactions = transactional && context.snapshottingEnabled();
+            if (!useTransactions) {
+                producer = new KafkaProducer<>(properties);
+            }
         }
 
-        @Override @Nonnull
+        @Override @Nonnull @SuppressWarnings("unchecked")
         public List<Processor> get(int count) {
-            return Stream.generate(() -> new WriteKafkaP<>(topicId, producer, extractKeyFn, extractValueFn))
-                         .limit(count)
-                         .collect(toList());
+            processors = Stream.generate(() -> new WriteKafkaP<>(topicId, producer, properties, useTransactions,
+                    extractKeyFn, extractValueFn, maxInFlight))
+                               .limit(count)
+                               .collect(toList());
+            return (List) processors;
         }
 
         @Override
         public void complete(Throwable error) {
-            producer.close();
+            if (producer != null) {
+                producer.close();
+            }
+            if (processors == null) {
+                return;
+            }
+            for (WriteKafkaP<T, K, V> p : processors) {
+                try {
+                    p.close();
+                } catch (Exception e) {
+                    logger.severe("Failed to close Kafka producer", e);
+                }
+            }
         }
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.connector.kafka;
+
+import com.hazelcast.core.IList;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.Util;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.DAG;
+import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestOutbox.MockData;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.processor.KafkaProcessors.streamKafkaCooperativeP;
+import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toCollection;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(QuickTest.class)
+@RunWith(HazelcastSerialClassRunner.class)
+public class CooperativeStreamKafkaPTest extends KafkaTestSupport {
+
+    private Properties properties;
+    private String topic1Name;
+    private String topic2Name;
+    private KafkaFetcher fetcher;
+
+    @Before
+    public void before() throws Exception {
+        String brokerConnectionString = createKafkaCluster();
+        properties = new Properties();
+        properties.setProperty("group.id", randomString());
+        properties.setProperty("bootstrap.servers", brokerConnectionString);
+        properties.setProperty("key.deserializer", IntegerDeserializer.class.getCanonicalName());
+        properties.setProperty("value.deserializer", StringDeserializer.class.getCanonicalName());
+        properties.setProperty("auto.offset.reset", "earliest");
+
+        topic1Name = randomString();
+        topic2Name = randomString();
+        createTopic(topic1Name);
+        createTopic(topic2Name);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (fetcher != null) {
+            fetcher.close();
+        }
+    }
+
+    @Test
+    public void integrationTest() throws Exception {
+        int messageCount = 1000;
+        JetInstance[] instances = {createJetMember(), createJetMember()};
+        DAG dag = new DAG();
+
+        Vertex source = dag.newVertex("source",
+                streamKafkaCooperativeP(properties, Util::entry, topic1Name, topic2Name)).localParallelism(4);
+        Vertex sink = dag.newVertex("sink", writeListP("sink")).localParallelism(1);
+        dag.edge(between(source, sink));
+
+        Job job = instances[0].newJob(dag, new JobConfig());
+        sleepAtLeastSeconds(3);
+        for (int i = 0; i < messageCount; i++) {
+            produce(topic1Name, i, Integer.toString(i));
+            produce(topic2Name, -i - 1, Integer.toString(-i - 1));
+        }
+        IList<Object> list = instances[0].getList("sink");
+
+        assertTrueEventually(() -> {
+            assertEquals(messageCount * 2, list.size());
+            for (int i = 0; i < messageCount; i++) {
+                assertTrue(list.contains(entry(i, Integer.toString(i))));
+                assertTrue(list.contains(entry(-i - 1, Integer.toString(-i - 1))));
+            }
+        }, 10);
+
+        job.cancel();
+    }
+
+    @Test
+    public void when_outboxFull_then_noItemLost() throws Exception {
+        int messageCount = KafkaFetcher.QUEUE_CAPACITY * 100;
+        CooperativeStreamKafkaP processor = createProcessor();
+        TestOutbox outbox = new TestOutbox(1);
+        processor.init(outbox, new TestProcessorContext());
+
+        for (int i = 0; i < messageCount; i++) {
+            produce(topic1Name, i, Integer.toString(i));
+        }
+
+        // drain the outbox slowly, the fetcher has to pause the partition in the meantime
+        for (int i = 0; i < messageCount; i++) {
+            Object item = consumeEventually(processor, outbox);
+            assertEquals(entry(i, Integer.toString(i)), item);
+        }
+    }
+
+    @Test
+    public void when_snapshotSaved_then_offsetsRestored() throws Exception {
+        CooperativeStreamKafkaP processor = createProcessor();
+        TestOutbox outbox = new TestOutbox(new int[] {10}, 10);
+        processor.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
+
+        produce(topic1Name, 0, "0");
+        assertEquals(entry(0, "0"), consumeEventually(processor, outbox));
+
+        // create snapshot
+        TestInbox snapshot = saveSnapshot(processor, outbox);
+
+        // consume one more item
+        produce(topic1Name, 1, "1");
+        assertEquals(entry(1, "1"), consumeEventually(processor, outbox));
+
+        // create new processor and restore snapshot
+        fetcher.close();
+        processor = createProcessor();
+        outbox = new TestOutbox(new int[] {10}, 10);
+        processor.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
+        processor.restoreFromSnapshot(snapshot);
+        assertTrue("snapshot not fully processed", snapshot.isEmpty());
+
+        // the second item should be produced one more time, but not the first one
+        assertEquals(entry(1, "1"), consumeEventually(processor, outbox));
+    }
+
+    @Test
+    public void when_registeredWhileCommitting_then_fetcherDoesNotFail() throws Exception {
+        fetcher = new KafkaFetcher(properties, asList(topic1Name, topic2Name), 2, 60000, 2,
+                Logger.getLogger(getClass()));
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> committer = spawn(() -> {
+            while (!stop.get()) {
+                fetcher.commit(emptyMap());
+                LockSupport.parkNanos(MILLISECONDS.toNanos(1));
+            }
+        });
+        for (int slot = 0; slot < 2; slot++) {
+            fetcher.register(slot, slot);
+            fetcher.activate(slot, emptyMap());
+        }
+        produce(topic1Name, 0, "0");
+        produce(topic2Name, 1, "1");
+
+        Set<Object> received = new HashSet<>();
+        assertTrueEventually(() -> {
+            fetcher.checkError();
+            for (int slot = 0; slot < 2; slot++) {
+                for (List<ConsumerRecord<Object, Object>> batch; (batch = fetcher.queue(slot).poll()) != null; ) {
+                    batch.forEach(record -> received.add(record.value()));
+                }
+            }
+            assertEquals(new HashSet<>(asList("0", "1")), received);
+        }, 10);
+        stop.set(true);
+        committer.get();
+        fetcher.checkError();
+    }
+
+    private CooperativeStreamKafkaP createProcessor() {
+        Properties props = new Properties();
+        props.putAll(properties);
+        fetcher = new KafkaFetcher(props, singletonList(topic1Name), 1, 60000, 1, Logger.getLogger(getClass()));
+        return new CooperativeStreamKafkaP<>(fetcher, 0, singletonList(topic1Name), Util::entry, 1);
+    }
+
+    private Object consumeEventually(CooperativeStreamKafkaP processor, TestOutbox outbox) {
+        assertTrueEventually(() -> {
+            assertFalse(processor.complete());
+            assertFalse("no item in outbox", outbox.queueWithOrdinal(0).isEmpty());
+        }, 3);
+        return outbox.queueWithOrdinal(0).poll();
+    }
+
+    private TestInbox saveSnapshot(CooperativeStreamKafkaP processor, TestOutbox outbox) {
+        TestInbox snapshot = new TestInbox();
+        assertTrue(processor.saveToSnapshot());
+        TestSupport.drainOutbox(outbox.snapshotQueue(), snapshot, false);
+        return snapshot.stream().map(e -> (Entry<MockData, MockData>) e)
+                       .map(e -> entry(e.getKey().getObject(), e.getValue().getObject()))
+                       .collect(toCollection(TestInbox::new));
+    }
+}
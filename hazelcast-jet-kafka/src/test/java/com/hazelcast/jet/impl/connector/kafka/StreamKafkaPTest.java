@@ -183,7 +183,7 @@ public class StreamKafkaPTest extends KafkaTestSupport {
 
     @Test
     public void when_snapshotSaved_then_offsetsRestored() throws Exception {
-        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 1, 60000);
+        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 1, 60000, null);
         TestOutbox outbox = new TestOutbox(new int[] {10}, 10);
         processor.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
 
@@ -199,7 +199,7 @@ public class StreamKafkaPTest extends KafkaTestSupport {
         assertEquals(entry(1, "1"), consumeEventually(processor, outbox));
 
         // create new processor and restore snapshot
-        processor = new StreamKafkaP(properties, asList(topic1Name, topic2Name), Util::entry, 1, 60000);
+        processor = new StreamKafkaP(properties, asList(topic1Name, topic2Name), Util::entry, 1, 60000, null);
         outbox = new TestOutbox(new int[] {10}, 10);
         processor.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
 
@@ -219,7 +219,7 @@ public class StreamKafkaPTest extends KafkaTestSupport {
     @Test
     public void when_partitionAdded_then_consumedFromBeginning() throws Exception {
         properties.setProperty("metadata.max.age.ms", "100");
-        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 1, 100);
+        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 1, 100, null);
         TestOutbox outbox = new TestOutbox(new int[] {10}, 10);
         processor.init(outbox, new TestProcessorContext().setSnapshottingEnabled(true));
 
@@ -253,7 +253,7 @@ public class StreamKafkaPTest extends KafkaTestSupport {
     public void when_emptyAssignment_then_noOutputAndPicksNewPartition() throws Exception {
         // The processor will be the second of two processors and there's just
         // one partition -> nothing will be assigned to it.
-        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 2, 500);
+        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), Util::entry, 2, 500, null);
         TestOutbox outbox = new TestOutbox(new int[] {10}, 10);
         TestProcessorContext context = new TestProcessorContext().setGlobalProcessorIndex(1).setSnapshottingEnabled(true);
         processor.init(outbox, context);
@@ -289,7 +289,8 @@ public class StreamKafkaPTest extends KafkaTestSupport {
     @Test
     public void when_customProjection_then_used() {
         // When
-        StreamKafkaP processor = new StreamKafkaP(properties, singletonList(topic1Name), (k, v) -> k + "=" + v, 1, 500);
+        StreamKafkaP processor = new StreamKafkaP(
+                properties, singletonList(topic1Name), (k, v) -> k + "=" + v, 1, 500, null);
         TestOutbox outbox = new TestOutbox(new int[] {10}, 10);
         processor.init(outbox, new TestProcessorContext());
         produce(topic1Name, 0, "0");
@@ -16,15 +16,20 @@
 
 package com.hazelcast.jet.impl.connector.kafka;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.processor.KafkaProcessors;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.MockProducer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,7 +44,11 @@ import java.util.stream.Collectors;
 
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
+import static java.util.Arrays.asList;
 import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @Category(QuickTest.class)
 @RunWith(HazelcastSerialClassRunner.class)
@@ -81,4 +90,66 @@ public class WriteKafkaPTest extends KafkaTestSupport {
             Assert.assertTrue(map.containsValue(record.value()));
         }
     }
+
+    @Test
+    public void when_maxInFlightReached_then_itemsLeftInInbox() {
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        WriteKafkaP<String, String, String> p = initProcessor(producer, false, 2);
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(asList("a", "b", "c"));
+
+        p.process(0, inbox);
+        assertEquals(1, inbox.size());
+        assertEquals(2, producer.history().size());
+
+        producer.completeNext();
+        p.process(0, inbox);
+        assertTrue(inbox.isEmpty());
+        assertEquals(3, producer.history().size());
+    }
+
+    @Test(expected = JetException.class)
+    public void when_sendFails_then_processorFails() {
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        WriteKafkaP<String, String, String> p = initProcessor(producer, false, 10);
+        TestInbox inbox = new TestInbox();
+        inbox.add("a");
+        p.process(0, inbox);
+        producer.errorNext(new RuntimeException("mock error"));
+
+        inbox.add("b");
+        p.process(0, inbox);
+    }
+
+    @Test
+    public void when_transactional_then_committedOnSnapshot() {
+        MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        WriteKafkaP<String, String, String> p = initProcessor(producer, true, 10);
+        assertTrue(producer.transactionInFlight());
+
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(asList("a", "b"));
+        p.process(0, inbox);
+        assertTrue(producer.history().isEmpty());
+
+        assertTrue(p.saveToSnapshot());
+        assertEquals(1, producer.commitCount());
+        assertEquals(2, producer.history().size());
+        assertTrue(producer.transactionInFlight());
+
+        inbox.add("c");
+        p.process(0, inbox);
+        p.close();
+        assertTrue(producer.transactionAborted());
+        assertEquals(2, producer.history().size());
+    }
+
+    private static WriteKafkaP<String, String, String> initProcessor(
+            MockProducer<String, String> producer, boolean transactional, int maxInFlight
+    ) {
+        WriteKafkaP<String, String, String> p = new WriteKafkaP<>("topic", producer, null, transactional,
+                t -> t, t -> t, maxInFlight);
+        p.init(new TestOutbox(), new TestProcessorContext());
+        return p;
+    }
 }